@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.conformers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+
+import com.vernalis.knime.chem.util.points.CoordinateWriter;
+
+/**
+ * A compact cell containing a set of conformers of a single molecule. The
+ * molecule topology is stored once as a mol block, and the coordinates of all
+ * the conformers are stored in a single packed {@code float[]}, with
+ * consecutive x, y, z values for each atom of each conformer. Compared with a
+ * list of mol or SDF cells, which repeats the full connection table for every
+ * conformer, this is both much smaller and much faster to read, as the
+ * coordinates do not need to be parsed from text. Cells are created with
+ * {@link MultiConformerCellFactory}
+ *
+ * @author s.roughley
+ *
+ */
+public class MultiConformerCell extends DataCell
+		implements MultiConformerValue {
+
+	private static final long serialVersionUID = -3519446532460384107L;
+
+	/**
+	 * The data type for the cell
+	 */
+	public static final DataType TYPE =
+			DataType.getType(MultiConformerCell.class);
+
+	private final String topology;
+	private final int numAtoms;
+	private final int numConformers;
+	private final float[] coordinates;
+
+	/**
+	 * Package-private constructor - use {@link MultiConformerCellFactory}.
+	 * The coordinates array is not copied
+	 *
+	 * @param topology
+	 *            The topology mol block
+	 * @param numAtoms
+	 *            The number of atoms
+	 * @param numConformers
+	 *            The number of conformers
+	 * @param coordinates
+	 *            The packed coordinates, of length
+	 *            {@code 3 * numAtoms * numConformers}
+	 */
+	MultiConformerCell(String topology, int numAtoms, int numConformers,
+			float[] coordinates) {
+		if (coordinates.length != 3 * numAtoms * numConformers) {
+			throw new IllegalArgumentException(
+					"Coordinate array length does not match atom and "
+							+ "conformer count");
+		}
+		this.topology = topology;
+		this.numAtoms = numAtoms;
+		this.numConformers = numConformers;
+		this.coordinates = coordinates;
+	}
+
+	@Override
+	public String getTopology() {
+		return topology;
+	}
+
+	@Override
+	public int getAtomCount() {
+		return numAtoms;
+	}
+
+	@Override
+	public int getConformerCount() {
+		return numConformers;
+	}
+
+	@Override
+	public void getCoordinates(int conformer, float[] dest, int offset) {
+		System.arraycopy(coordinates, getOffset(conformer), dest, offset,
+				3 * numAtoms);
+	}
+
+	@Override
+	public String getConformerMolBlock(int conformer) {
+		return CoordinateWriter.writeMolString(topology, coordinates,
+				getOffset(conformer));
+	}
+
+	private int getOffset(int conformer) {
+		if (conformer < 0 || conformer >= numConformers) {
+			throw new IndexOutOfBoundsException("Conformer index " + conformer
+					+ " out of range for " + numConformers + " conformers");
+		}
+		return 3 * numAtoms * conformer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.knime.core.data.DataCell#toString()
+	 */
+	@Override
+	public String toString() {
+		return numConformers + " conformer" + (numConformers == 1 ? "" : "s")
+				+ " (" + numAtoms + " atoms)";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see
+	 * org.knime.core.data.DataCell#equalsDataCell(org.knime.core.data.DataCell)
+	 */
+	@Override
+	protected boolean equalsDataCell(DataCell dc) {
+		final MultiConformerCell other = (MultiConformerCell) dc;
+		return numAtoms == other.numAtoms
+				&& numConformers == other.numConformers
+				&& topology.equals(other.topology)
+				&& Arrays.equals(coordinates, other.coordinates);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see org.knime.core.data.DataCell#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * topology.hashCode() + Arrays.hashCode(coordinates);
+	}
+
+	/**
+	 * Serializer for {@link MultiConformerCell}s. The topology is written as
+	 * UTF-8 bytes, and the coordinates as a single block of raw floats
+	 *
+	 * @author s.roughley
+	 *
+	 */
+	public static final class MultiConformerCellSerializer
+			implements DataCellSerializer<MultiConformerCell> {
+
+		@Override
+		public void serialize(MultiConformerCell cell,
+				DataCellDataOutput output) throws IOException {
+			final byte[] topology =
+					cell.topology.getBytes(StandardCharsets.UTF_8);
+			output.writeInt(topology.length);
+			output.write(topology);
+			output.writeInt(cell.numAtoms);
+			output.writeInt(cell.numConformers);
+			final ByteBuffer buffer =
+					ByteBuffer.allocate(cell.coordinates.length * Float.BYTES);
+			buffer.asFloatBuffer().put(cell.coordinates);
+			output.write(buffer.array());
+		}
+
+		@Override
+		public MultiConformerCell deserialize(DataCellDataInput input)
+				throws IOException {
+			final byte[] topology = new byte[input.readInt()];
+			input.readFully(topology);
+			final int numAtoms = input.readInt();
+			final int numConformers = input.readInt();
+			final float[] coordinates = new float[3 * numAtoms * numConformers];
+			final byte[] bytes = new byte[coordinates.length * Float.BYTES];
+			input.readFully(bytes);
+			ByteBuffer.wrap(bytes).asFloatBuffer().get(coordinates);
+			return new MultiConformerCell(
+					new String(topology, StandardCharsets.UTF_8), numAtoms,
+					numConformers, coordinates);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.conformers;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+
+import com.vernalis.knime.chem.util.points.CoordinateReader;
+import com.vernalis.knime.chem.util.points.CoordinateWriter;
+import com.vernalis.knime.chem.util.points.PointArrays;
+
+/**
+ * Factory class to create {@link MultiConformerCell}s
+ *
+ * @author s.roughley
+ *
+ */
+public final class MultiConformerCellFactory {
+
+	private static final String MOL_END = "M  END";
+
+	private MultiConformerCellFactory() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to create a new cell from a list of mol blocks or SDF records,
+	 * which must all be conformers of the same molecule, i.e. have the same
+	 * atoms in the same order. The topology is taken from the first block, and
+	 * any SDF data items are discarded
+	 *
+	 * @param molBlocks
+	 *            The conformer mol blocks
+	 * @return The new cell
+	 * @throws IllegalArgumentException
+	 *             If the list is empty, a block could not be read, or the
+	 *             blocks do not all have the same atoms
+	 */
+	public static DataCell createCell(List<String> molBlocks) {
+		if (molBlocks.isEmpty()) {
+			throw new IllegalArgumentException("No conformers supplied");
+		}
+		final PointArrays first = new PointArrays();
+		final PointArrays points = new PointArrays();
+		final String topology = getTopology(molBlocks.get(0));
+		CoordinateReader.readMolString(topology, first, true);
+		final int numAtoms = first.size();
+		final float[] coords = new float[3 * numAtoms * molBlocks.size()];
+		int offset = copyCoordinates(first, coords, 0);
+		for (int i = 1; i < molBlocks.size(); i++) {
+			points.clear();
+			CoordinateReader.readMolString(molBlocks.get(i), points, true);
+			if (points.size() != numAtoms) {
+				throw new IllegalArgumentException("Conformer " + (i + 1)
+						+ " has " + points.size() + " atoms, expected "
+						+ numAtoms);
+			}
+			for (int j = 0; j < numAtoms; j++) {
+				if (Double.compare(points.getWeight(j),
+						first.getWeight(j)) != 0) {
+					throw new IllegalArgumentException("Atom " + (j + 1)
+							+ " of conformer " + (i + 1)
+							+ " is a different element to the first conformer");
+				}
+			}
+			offset = copyCoordinates(points, coords, offset);
+		}
+		return new MultiConformerCell(topology, numAtoms, molBlocks.size(),
+				coords);
+	}
+
+	/**
+	 * Method to create a new cell containing a subset of the conformers of an
+	 * existing value. If the first conformer is not retained, the topology
+	 * coordinates are updated to those of the first retained conformer
+	 *
+	 * @param value
+	 *            The existing value
+	 * @param conformers
+	 *            The indices of the conformers to keep
+	 * @return The new cell, which will be the input value if all conformers
+	 *         are kept and it was already a {@link MultiConformerCell}
+	 * @throws IllegalArgumentException
+	 *             If no conformers are kept
+	 */
+	public static DataCell subset(MultiConformerValue value,
+			BitSet conformers) {
+		final int numConfs = conformers.cardinality();
+		if (numConfs == 0) {
+			throw new IllegalArgumentException("No conformers retained");
+		}
+		if (value instanceof MultiConformerCell
+				&& numConfs == value.getConformerCount()
+				&& conformers.nextSetBit(value.getConformerCount()) < 0) {
+			return (MultiConformerCell) value;
+		}
+		final int stride = 3 * value.getAtomCount();
+		final float[] coords = new float[stride * numConfs];
+		int offset = 0;
+		for (int i = conformers.nextSetBit(0); i >= 0; i =
+				conformers.nextSetBit(i + 1)) {
+			value.getCoordinates(i, coords, offset);
+			offset += stride;
+		}
+		final String topology = conformers.get(0) ? value.getTopology()
+				: CoordinateWriter.writeMolString(value.getTopology(), coords,
+						0);
+		return new MultiConformerCell(topology, value.getAtomCount(),
+				numConfs, coords);
+	}
+
+	/**
+	 * @return The mol block, with anything after the {@code M  END} line
+	 *         removed
+	 */
+	private static String getTopology(String molBlock) {
+		final int idx = molBlock.indexOf(MOL_END);
+		if (idx < 0) {
+			return molBlock;
+		}
+		return molBlock.substring(0, idx + MOL_END.length()) + "\n";
+	}
+
+	private static int copyCoordinates(PointArrays points, float[] coords,
+			int offset) {
+		for (int i = 0; i < points.size(); i++) {
+			coords[offset++] = (float) points.getX(i);
+			coords[offset++] = (float) points.getY(i);
+			coords[offset++] = (float) points.getZ(i);
+		}
+		return offset;
+	}
+}
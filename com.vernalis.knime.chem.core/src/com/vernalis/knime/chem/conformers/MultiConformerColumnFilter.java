@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.conformers;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.node.util.ColumnFilter;
+
+/**
+ * A {@link ColumnFilter} which accepts {@link MultiConformerValue} columns in
+ * addition to those accepted by another filter
+ *
+ * @author s.roughley
+ *
+ */
+public class MultiConformerColumnFilter implements ColumnFilter {
+
+	private final ColumnFilter delegate;
+
+	/**
+	 * Constructor
+	 *
+	 * @param delegate
+	 *            The filter for the other accepted column types
+	 */
+	public MultiConformerColumnFilter(ColumnFilter delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public boolean includeColumn(DataColumnSpec colSpec) {
+		return colSpec.getType().isCompatible(MultiConformerValue.class)
+				|| delegate.includeColumn(colSpec);
+	}
+
+	@Override
+	public String allFilteredMsg() {
+		return delegate.allFilteredMsg().replace(") available",
+				", Multi-Conformer) available");
+	}
+
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.conformers;
+
+import org.knime.core.data.DataValue;
+import org.knime.core.data.ExtensibleUtilityFactory;
+
+/**
+ * Interface for a set of conformers of a single molecule, stored as a single
+ * shared topology (a mol block, with the coordinates of the first conformer)
+ * and a packed block of x, y, z coordinates for each conformer
+ *
+ * @author s.roughley
+ *
+ */
+public interface MultiConformerValue extends DataValue {
+
+	/**
+	 * Meta information to this value type
+	 */
+	UtilityFactory UTILITY = new MultiConformerUtilityFactory();
+
+	/**
+	 * @return The shared topology mol block. The coordinates in the block are
+	 *         those of the first conformer
+	 */
+	String getTopology();
+
+	/**
+	 * @return The number of atoms in each conformer
+	 */
+	int getAtomCount();
+
+	/**
+	 * @return The number of conformers
+	 */
+	int getConformerCount();
+
+	/**
+	 * Method to copy the coordinates of a conformer
+	 *
+	 * @param conformer
+	 *            The conformer index
+	 * @param dest
+	 *            The destination array, which will contain consecutive x, y, z
+	 *            values for each atom
+	 * @param offset
+	 *            The index in {@code dest} of the x coordinate of the first
+	 *            atom
+	 * @throws IndexOutOfBoundsException
+	 *             If the conformer index is out of range, or there is not room
+	 *             in {@code dest}
+	 */
+	void getCoordinates(int conformer, float[] dest, int offset);
+
+	/**
+	 * @param conformer
+	 *            The conformer index
+	 * @return The mol block for the conformer, i.e. the topology with the
+	 *         conformer coordinates
+	 * @throws IndexOutOfBoundsException
+	 *             If the conformer index is out of range
+	 */
+	String getConformerMolBlock(int conformer);
+
+	/**
+	 * Utility factory for multi-conformer values
+	 *
+	 * @author s.roughley
+	 *
+	 */
+	final class MultiConformerUtilityFactory extends ExtensibleUtilityFactory {
+
+		private MultiConformerUtilityFactory() {
+			super(MultiConformerValue.class);
+		}
+
+		@Override
+		public String getName() {
+			return "Multi-Conformer";
+		}
+
+		@Override
+		public String getGroupName() {
+			return "Chemistry";
+		}
+	}
+}
@@ -22,7 +22,7 @@ import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
-import com.vernalis.knime.util.math.TransformUtil;
+import com.vernalis.knime.util.math.SymmetricEigen3;
 
 /**
  * This class contains a point in 3D cartesian space which also may have a
@@ -329,6 +329,68 @@ public class AbstractPoint<T> implements Point<AbstractPoint<T>> {
 				{ Ixz, Iyz, Izz } };
 	}
 
+	/**
+	 * @param points
+	 *            The points to find the centre of gravity of
+	 * @return The Centre of gravity, with the total weight as the property
+	 */
+	public static AbstractPoint<Double> getCentreOfGravity(
+			PointArrays points) {
+		final double[] xs = points.getXs();
+		final double[] ys = points.getYs();
+		final double[] zs = points.getZs();
+		final double[] weights = points.getWeights();
+		double x = 0, y = 0, z = 0, totalWeight = 0;
+		for (int i = 0; i < points.size(); i++) {
+			final double weight = weights[i];
+			x += weight * xs[i];
+			y += weight * ys[i];
+			z += weight * zs[i];
+			totalWeight += weight;
+		}
+		return new AbstractPoint<>(x / totalWeight, y / totalWeight,
+				z / totalWeight, totalWeight);
+	}
+
+	/**
+	 * @param points
+	 *            The points to find the inertial tensor for
+	 * @return The inertial tensor
+	 */
+	public static double[][] getInertialTensor(PointArrays points) {
+		return new InertialTensor().calculate(points).getTensor();
+	}
+
+	/**
+	 * @param points
+	 *            The points to find the inertial tensor for
+	 * @param centreOfGravity
+	 *            The centre of gravity of the points
+	 * @return The inertial tensor
+	 */
+	public static <T> double[][] getInertialTensor(PointArrays points,
+			AbstractPoint<T> centreOfGravity) {
+		final double[] xs = points.getXs();
+		final double[] ys = points.getYs();
+		final double[] zs = points.getZs();
+		final double[] weights = points.getWeights();
+		double Ixx = 0, Iyy = 0, Izz = 0, Ixy = 0, Ixz = 0, Iyz = 0;
+		for (int i = 0; i < points.size(); i++) {
+			final double atomMass = weights[i];
+			final double x = xs[i] - centreOfGravity.x;
+			final double y = ys[i] - centreOfGravity.y;
+			final double z = zs[i] - centreOfGravity.z;
+			Ixx += atomMass * (y * y + z * z);
+			Iyy += atomMass * (x * x + z * z);
+			Izz += atomMass * (x * x + y * y);
+			Ixy -= atomMass * x * y;
+			Ixz -= atomMass * x * z;
+			Iyz -= atomMass * y * z;
+		}
+		return new double[][] { { Ixx, Ixy, Ixz }, { Ixy, Iyy, Iyz },
+				{ Ixz, Iyz, Izz } };
+	}
+
 	/**
 	 * @param points
 	 *            The points to align to the principle axes
@@ -340,6 +402,10 @@ public class AbstractPoint<T> implements Point<AbstractPoint<T>> {
 	}
 
 	/**
+	 * Method to align points to their principal axes. The principal axis with
+	 * the smallest moment is aligned with the x-axis, and that with the
+	 * largest moment with the z-axis
+	 * 
 	 * @param points
 	 *            The points to align to the principle axes
 	 * @param centreOfGravity
@@ -350,10 +416,17 @@ public class AbstractPoint<T> implements Point<AbstractPoint<T>> {
 			Collection<AbstractPoint<Double>> points,
 			AbstractPoint<T> centreOfGravity) {
 
+		final double[][] tensor = getInertialTensor(points, centreOfGravity);
+		final double[] moments = new double[3];
+		SymmetricEigen3.getEigenvalues(tensor[0][0], tensor[1][1],
+				tensor[2][2], tensor[0][1], tensor[0][2], tensor[1][2],
+				moments);
+		final double[] rotMatrix = new double[9];
+		SymmetricEigen3.getEigenvectors(tensor[0][0], tensor[1][1],
+				tensor[2][2], tensor[0][1], tensor[0][2], tensor[1][2],
+				moments, rotMatrix);
 		return points.stream()
-				.map(pt -> pt.minus(centreOfGravity)
-						.transform(TransformUtil.makeRotationMatrix(
-								getInertialTensor(points, centreOfGravity))))
+				.map(pt -> pt.minus(centreOfGravity).transform(rotMatrix))
 				.collect(Collectors.toList());
 	}
 
@@ -0,0 +1,501 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.util.points;
+
+import java.util.Arrays;
+
+import org.knime.bio.types.PdbValue;
+import org.knime.chem.types.CtabValue;
+import org.knime.chem.types.MolValue;
+import org.knime.chem.types.SdfValue;
+
+import com.vernalis.knime.chem.util.elements.Elements;
+
+/**
+ * Utility class to read the atom coordinates of a molecule into a
+ * {@link PointArrays} container. This is an alternative to the
+ * {@link PointFactory} methods which create a {@link java.util.List} of
+ * points. The molecule string is scanned once, by character offsets, without
+ * splitting it into lines or fields, and the only objects created are for the
+ * rare cases which the fast paths do not handle (V3000 continuation lines,
+ * numbers with exponents or unusual element symbols). The atom lines are interpreted in the
+ * same way as by the corresponding {@link PointFactory} methods.
+ * <p>
+ * The point weights are either the atomic masses, or {@code 1.0} for every
+ * atom. Unrecognised elements are given a weight of {@code NaN}
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+public final class CoordinateReader {
+
+	static final String V3000 = "V3000";
+	static final String V30_PREFIX = "M  V30 ";
+	static final String V30_BEGIN_ATOM = "M  V30 BEGIN ATOM";
+	static final String V30_END_ATOM = "M  V30 END ATOM";
+
+	/** Exact powers of 10 for the fast number parsing path */
+	private static final double[] POWERS_OF_TEN = new double[23];
+	static {
+		POWERS_OF_TEN[0] = 1.0;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+		}
+	}
+
+	/** The largest integer exactly representable as a double */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	private CoordinateReader() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Atomic masses of 1- and 2- character ASCII element symbols, indexed by
+	 * {@link #getSymbolKey(char, char)}. Holding class idiom provides lazy
+	 * loading the first time masses are required
+	 */
+	private static final class MassTable {
+
+		private static final double[] MASSES = createMassTable();
+
+		private static double[] createMassTable() {
+			final double[] retVal = new double[1 << 14];
+			Arrays.fill(retVal, Double.NaN);
+			final Elements elements = Elements.getInstance();
+			for (int atomicNumber = 0; atomicNumber < 256; atomicNumber++) {
+				final String symbol = elements.getElementSymbol(atomicNumber);
+				if (symbol == null || symbol.isEmpty() || symbol.length() > 2) {
+					continue;
+				}
+				final Double mass = elements.getMWt(symbol);
+				final char c0 = symbol.charAt(0);
+				final char c1 = symbol.length() > 1 ? symbol.charAt(1) : 0;
+				if (mass != null && c0 < 128 && c1 < 128) {
+					retVal[getSymbolKey(c0, c1)] = mass;
+				}
+			}
+			return retVal;
+		}
+	}
+
+	private static int getSymbolKey(char c0, char c1) {
+		return c0 << 7 | c1;
+	}
+
+	/**
+	 * Method to read the atoms from a {@link PdbValue}
+	 *
+	 * @param pdb
+	 *            The PDB cell
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readPDBString(PdbValue pdb, PointArrays points,
+			boolean readMasses) {
+		readPDBString(pdb.getPdbValue(), points, readMasses);
+	}
+
+	/**
+	 * Method to read the ATOM and HETATM records from a PDB string
+	 *
+	 * @param pdb
+	 *            The PDB string
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readPDBString(String pdb, PointArrays points,
+			boolean readMasses) {
+		points.clear();
+		int start = 0;
+		final int length = pdb.length();
+		while (start < length) {
+			final int end = getLineEnd(pdb, start);
+			if (pdb.startsWith("ATOM  ", start)
+					|| pdb.startsWith("HETATM", start)) {
+				checkLineLength(pdb, start, end, 54);
+				points.add(parseDouble(pdb, start + 30, start + 38),
+						parseDouble(pdb, start + 38, start + 46),
+						parseDouble(pdb, start + 46, start + 54),
+						readMasses ? getMass(pdb, Math.min(start + 76, end),
+								Math.min(start + 78, end), true) : 1.0);
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Method to read the atoms from a {@link MolValue}
+	 *
+	 * @param mol
+	 *            The Mol cell
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readMolString(MolValue mol, PointArrays points,
+			boolean readMasses) {
+		readMolString(mol.getMolValue(), points, readMasses);
+	}
+
+	/**
+	 * Method to read the atoms from the first molecule in an {@link SdfValue}
+	 *
+	 * @param sdf
+	 *            The SDF cell
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readMolString(SdfValue sdf, PointArrays points,
+			boolean readMasses) {
+		readMolString(sdf.getSdfValue(), points, readMasses);
+	}
+
+	/**
+	 * Method to read the atoms from a V2000 or V3000 mol block
+	 *
+	 * @param mol
+	 *            The mol block
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readMolString(String mol, PointArrays points,
+			boolean readMasses) {
+		points.clear();
+		// Skip the header block
+		int start = 0;
+		for (int i = 0; i < 3; i++) {
+			start = getLineEnd(mol, start) + 1;
+		}
+		final int end = getLineEnd(mol, start);
+		if (contains(mol, start, end, V3000)) {
+			readV3000Atoms(mol, end + 1, points, readMasses);
+		} else {
+			// Assume old V2000 format
+			readV2000Atoms(mol, start, end, points, readMasses);
+		}
+	}
+
+	/**
+	 * Method to read the atoms from a {@link CtabValue}
+	 *
+	 * @param ctab
+	 *            The Ctab cell
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readCTabString(CtabValue ctab, PointArrays points,
+			boolean readMasses) {
+		readCTabString(ctab.getCtabValue(), points, readMasses);
+	}
+
+	/**
+	 * Method to read the atoms from a V2000 ctab string, starting with the
+	 * counts line
+	 *
+	 * @param ctab
+	 *            The ctab string
+	 * @param points
+	 *            The container to read the points into. Any existing points
+	 *            are cleared
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights?
+	 */
+	public static void readCTabString(String ctab, PointArrays points,
+			boolean readMasses) {
+		points.clear();
+		readV2000Atoms(ctab, 0, getLineEnd(ctab, 0), points, readMasses);
+	}
+
+	/**
+	 * Method to read the V2000 atom block following the counts line
+	 */
+	private static void readV2000Atoms(String mol, int countsStart,
+			int countsEnd, PointArrays points, boolean readMasses) {
+		final int atomCount =
+				parseInt(mol, countsStart, Math.min(countsStart + 3, countsEnd));
+		int start = countsEnd + 1;
+		for (int i = 0; i < atomCount; i++) {
+			final int end = getLineEnd(mol, start);
+			checkLineLength(mol, start, end, 30);
+			points.add(parseDouble(mol, start, start + 10),
+					parseDouble(mol, start + 10, start + 20),
+					parseDouble(mol, start + 20, start + 30),
+					readMasses ? getMass(mol, start + 30,
+							Math.min(start + 33, end), false) : 1.0);
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Method to read the V3000 atom block, starting from the line after the
+	 * counts line
+	 */
+	private static void readV3000Atoms(String mol, int start,
+			PointArrays points, boolean readMasses) {
+		boolean inAtoms = false;
+		final int length = mol.length();
+		while (start < length) {
+			int end = getLineEnd(mol, start);
+			final int from = skipWhitespace(mol, start, end);
+			final int to = trimEnd(mol, from, end);
+			if (equalsIgnoreCase(mol, from, to, V30_END_ATOM)) {
+				break;
+			}
+			if (equalsIgnoreCase(mol, from, to, V30_BEGIN_ATOM)) {
+				inAtoms = true;
+			} else if (inAtoms && to > from) {
+				if (mol.charAt(to - 1) == '-') {
+					// Join the continuation lines - this is rare so we dont
+					// worry about the copying
+					final StringBuilder sb = new StringBuilder();
+					sb.append(mol, from, to - 1);
+					boolean more = true;
+					while (more && end < length) {
+						start = end + 1;
+						end = getLineEnd(mol, start);
+						final int contStart =
+								Math.min(start + V30_PREFIX.length(), end);
+						final int contEnd = trimEnd(mol, contStart, end);
+						more = contEnd > contStart
+								&& mol.charAt(contEnd - 1) == '-';
+						sb.append(mol, contStart, more ? contEnd - 1 : contEnd);
+					}
+					readV3000Atom(sb, 0, sb.length(), points, readMasses);
+				} else {
+					readV3000Atom(mol, from, to, points, readMasses);
+				}
+			}
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * Method to read a single (joined) V3000 atom line, in the format
+	 * {@code M  V30 index type x y z ...}
+	 */
+	private static void readV3000Atom(CharSequence line, int from, int to,
+			PointArrays points, boolean readMasses) {
+		if (!regionMatches(line, from, to, V30_PREFIX)) {
+			throw new IllegalArgumentException(
+					"Invalid V3000 atom line: " + line.subSequence(from, to));
+		}
+		// Skip the atom index
+		int start = skipWhitespace(line, from + V30_PREFIX.length(), to);
+		int end = getTokenEnd(line, start, to);
+		// Atom type
+		start = skipWhitespace(line, end, to);
+		end = getTokenEnd(line, start, to);
+		final double weight =
+				readMasses ? getMass(line, start, end, false) : 1.0;
+		start = skipWhitespace(line, end, to);
+		end = getTokenEnd(line, start, to);
+		final double x = parseDouble(line, start, end);
+		start = skipWhitespace(line, end, to);
+		end = getTokenEnd(line, start, to);
+		final double y = parseDouble(line, start, end);
+		start = skipWhitespace(line, end, to);
+		end = getTokenEnd(line, start, to);
+		points.add(x, y, parseDouble(line, start, end), weight);
+	}
+
+	/**
+	 * @return The index of the end of the line starting at {@code start} - i.e.
+	 *         the index of the next newline, or the string length if there is
+	 *         none
+	 */
+	static int getLineEnd(String str, int start) {
+		final int retVal = str.indexOf('\n', start);
+		return retVal < 0 ? str.length() : retVal;
+	}
+
+	private static void checkLineLength(String str, int start, int end,
+			int minLength) {
+		if (end - start < minLength) {
+			throw new IllegalArgumentException("Atom line too short: '"
+					+ str.substring(Math.min(start, end), end) + "'");
+		}
+	}
+
+	static int skipWhitespace(CharSequence cs, int from, int to) {
+		while (from < to && cs.charAt(from) <= ' ') {
+			from++;
+		}
+		return from;
+	}
+
+	static int trimEnd(CharSequence cs, int from, int to) {
+		while (to > from && cs.charAt(to - 1) <= ' ') {
+			to--;
+		}
+		return to;
+	}
+
+	static int getTokenEnd(CharSequence cs, int from, int to) {
+		while (from < to && cs.charAt(from) > ' ') {
+			from++;
+		}
+		return from;
+	}
+
+	static boolean contains(String str, int from, int to,
+			String target) {
+		for (int i = from; i <= to - target.length(); i++) {
+			if (str.startsWith(target, i)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static boolean regionMatches(CharSequence cs, int from, int to,
+			String target) {
+		if (to - from < target.length()) {
+			return false;
+		}
+		for (int i = 0; i < target.length(); i++) {
+			if (Character.toUpperCase(cs.charAt(from + i)) != Character
+					.toUpperCase(target.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static boolean equalsIgnoreCase(CharSequence cs, int from, int to,
+			String target) {
+		return to - from == target.length()
+				&& regionMatches(cs, from, to, target);
+	}
+
+	/**
+	 * @return The atomic mass of the element symbol between {@code from} and
+	 *         {@code to}, ignoring surrounding whitespace, or {@code NaN} if the
+	 *         symbol is not recognised. PDB symbols are upper case, and are
+	 *         converted in the same way as
+	 *         {@link PointFactory#elementSymbolFromPdbAtom}
+	 */
+	private static double getMass(CharSequence cs, int from, int to,
+			boolean pdbSymbol) {
+		from = skipWhitespace(cs, from, to);
+		to = trimEnd(cs, from, to);
+		final int len = to - from;
+		if (len == 0) {
+			return Double.NaN;
+		}
+		final char c0 = cs.charAt(from);
+		char c1 = len > 1 ? cs.charAt(from + 1) : 0;
+		if (pdbSymbol && len == 2 && c1 < 'a') {
+			c1 += ' ';
+		}
+		if (len <= 2 && c0 < 128 && c1 < 128) {
+			return MassTable.MASSES[getSymbolKey(c0, c1)];
+		}
+		final Double retVal = Elements.getInstance()
+				.getMWt(cs.subSequence(from, to).toString());
+		return retVal == null ? Double.NaN : retVal;
+	}
+
+	/**
+	 * @return The integer between {@code from} and {@code to}, ignoring
+	 *         surrounding whitespace
+	 * @throws NumberFormatException
+	 *             If the field is not an unsigned integer
+	 */
+	private static int parseInt(String str, int from, int to)
+			throws NumberFormatException {
+		from = skipWhitespace(str, from, to);
+		to = trimEnd(str, from, to);
+		if (from == to) {
+			throw new NumberFormatException("Missing atom count");
+		}
+		int retVal = 0;
+		for (int i = from; i < to; i++) {
+			final char c = str.charAt(i);
+			if (c < '0' || c > '9') {
+				return Integer.parseInt(str.substring(from, to));
+			}
+			retVal = retVal * 10 + (c - '0');
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to parse a decimal number between {@code from} and {@code to},
+	 * ignoring surrounding whitespace. Plain decimal numbers with up to 15
+	 * significant figures and 22 decimal places are converted directly - the
+	 * digits are exactly representable as a {@code double}, as is the power of
+	 * 10 to divide by, so the single division gives the same correctly-rounded
+	 * result as {@link Double#parseDouble(String)}. Anything else is passed to
+	 * {@link Double#parseDouble(String)}
+	 *
+	 * @throws NumberFormatException
+	 *             If the field is not a number
+	 */
+	static double parseDouble(CharSequence cs, int from, int to)
+			throws NumberFormatException {
+		from = skipWhitespace(cs, from, to);
+		to = trimEnd(cs, from, to);
+		int i = from;
+		boolean negative = false;
+		if (i < to && (cs.charAt(i) == '-' || cs.charAt(i) == '+')) {
+			negative = cs.charAt(i++) == '-';
+		}
+		long mantissa = 0;
+		int decimalPlaces = 0;
+		boolean hasDigits = false;
+		boolean hasPoint = false;
+		for (; i < to; i++) {
+			final char c = cs.charAt(i);
+			if (c >= '0' && c <= '9') {
+				mantissa = mantissa * 10 + (c - '0');
+				if (mantissa > MAX_EXACT_MANTISSA) {
+					break;
+				}
+				hasDigits = true;
+				if (hasPoint) {
+					decimalPlaces++;
+				}
+			} else if (c == '.' && !hasPoint) {
+				hasPoint = true;
+			} else {
+				break;
+			}
+		}
+		if (i < to || !hasDigits || decimalPlaces >= POWERS_OF_TEN.length) {
+			return Double.parseDouble(cs.subSequence(from, to).toString());
+		}
+		final double retVal = mantissa / POWERS_OF_TEN[decimalPlaces];
+		return negative ? -retVal : retVal;
+	}
+}
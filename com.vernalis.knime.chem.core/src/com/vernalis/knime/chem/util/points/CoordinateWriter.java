@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.util.points;
+
+import static com.vernalis.knime.chem.util.points.CoordinateReader.V30_BEGIN_ATOM;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.V30_END_ATOM;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.V30_PREFIX;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.V3000;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.contains;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.equalsIgnoreCase;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.getLineEnd;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.getTokenEnd;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.regionMatches;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.skipWhitespace;
+import static com.vernalis.knime.chem.util.points.CoordinateReader.trimEnd;
+
+/**
+ * Utility class to write a new set of atom coordinates into a mol block, which
+ * is the reverse of {@link CoordinateReader#readMolString(String, PointArrays,
+ * boolean)}. Everything except the atom coordinates is copied unchanged, so
+ * that a single mol block can be used as the topology for many conformers.
+ * Coordinates are written with 4 decimal places
+ *
+ * @author s.roughley
+ *
+ */
+public final class CoordinateWriter {
+
+	private static final int V2000_COORD_WIDTH = 10;
+	private static final int V3000_MAX_LINE_LENGTH = 80;
+	private static final double DECIMAL_SCALE = 10000.0;
+
+	private CoordinateWriter() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to replace the atom coordinates of a V2000 or V3000 mol block
+	 *
+	 * @param mol
+	 *            The mol block
+	 * @param coords
+	 *            The coordinates, as consecutive x, y, z values for each atom
+	 *            in the order of the atom block
+	 * @param offset
+	 *            The index in {@code coords} of the x coordinate of the first
+	 *            atom
+	 * @return The new mol block
+	 * @throws IllegalArgumentException
+	 *             If the mol block could not be parsed, or a coordinate is too
+	 *             large for the format
+	 * @throws IndexOutOfBoundsException
+	 *             If there are not enough coordinates for the atoms
+	 */
+	public static String writeMolString(String mol, float[] coords,
+			int offset) {
+		final StringBuilder sb = new StringBuilder(mol.length());
+		// Copy the header block
+		int start = 0;
+		for (int i = 0; i < 3; i++) {
+			start = getLineEnd(mol, start) + 1;
+		}
+		start = Math.min(start, mol.length());
+		sb.append(mol, 0, start);
+		final int end = getLineEnd(mol, start);
+		if (contains(mol, start, end, V3000)) {
+			appendLine(sb, mol, start, end);
+			start = writeV3000Atoms(mol, end + 1, coords, offset, sb);
+		} else {
+			start = writeV2000Atoms(mol, start, end, coords, offset, sb);
+		}
+		if (start < mol.length()) {
+			sb.append(mol, start, mol.length());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Method to write the V2000 counts line and atom block
+	 *
+	 * @return The index of the start of the line after the atom block
+	 */
+	private static int writeV2000Atoms(String mol, int countsStart,
+			int countsEnd, float[] coords, int offset, StringBuilder sb) {
+		appendLine(sb, mol, countsStart, countsEnd);
+		final int atomCount = Integer.parseInt(mol
+				.substring(countsStart, Math.min(countsStart + 3, countsEnd))
+				.trim());
+		int start = countsEnd + 1;
+		for (int i = 0; i < atomCount; i++) {
+			final int end = getLineEnd(mol, start);
+			if (end - start < 3 * V2000_COORD_WIDTH) {
+				throw new IllegalArgumentException("Atom line too short: '"
+						+ mol.substring(Math.min(start, end), end) + "'");
+			}
+			for (int j = 0; j < 3; j++) {
+				appendFixed(sb, coords[offset++], V2000_COORD_WIDTH);
+			}
+			appendLine(sb, mol, start + 3 * V2000_COORD_WIDTH, end);
+			start = end + 1;
+		}
+		return start;
+	}
+
+	/**
+	 * Method to write the V3000 blocks from the line after the counts line to
+	 * the end of the atom block. Atom lines are rewritten with the new
+	 * coordinates, and wrapped with continuation lines if they become too long
+	 *
+	 * @return The index of the start of the line after the atom block
+	 */
+	private static int writeV3000Atoms(String mol, int start, float[] coords,
+			int offset, StringBuilder sb) {
+		boolean inAtoms = false;
+		final int length = mol.length();
+		final StringBuilder line = new StringBuilder(V3000_MAX_LINE_LENGTH);
+		while (start < length) {
+			int end = getLineEnd(mol, start);
+			final int from = skipWhitespace(mol, start, end);
+			final int to = trimEnd(mol, from, end);
+			if (equalsIgnoreCase(mol, from, to, V30_END_ATOM)) {
+				appendLine(sb, mol, start, end);
+				return end + 1;
+			}
+			if (equalsIgnoreCase(mol, from, to, V30_BEGIN_ATOM)) {
+				inAtoms = true;
+				appendLine(sb, mol, start, end);
+			} else if (inAtoms && to > from) {
+				// Join any continuation lines
+				line.setLength(0);
+				boolean more = mol.charAt(to - 1) == '-';
+				line.append(mol, from, more ? to - 1 : to);
+				while (more && end < length) {
+					start = end + 1;
+					end = getLineEnd(mol, start);
+					final int contStart =
+							Math.min(start + V30_PREFIX.length(), end);
+					final int contEnd = trimEnd(mol, contStart, end);
+					more = contEnd > contStart
+							&& mol.charAt(contEnd - 1) == '-';
+					line.append(mol, contStart, more ? contEnd - 1 : contEnd);
+				}
+				writeV3000Atom(line, coords, offset, sb);
+				offset += 3;
+			} else {
+				appendLine(sb, mol, start, end);
+			}
+			start = end + 1;
+		}
+		return start;
+	}
+
+	/**
+	 * Method to write a single (joined) V3000 atom line, in the format
+	 * {@code M  V30 index type x y z ...}
+	 */
+	private static void writeV3000Atom(CharSequence line, float[] coords,
+			int offset, StringBuilder sb) {
+		final int to = line.length();
+		if (!regionMatches(line, 0, to, V30_PREFIX)) {
+			throw new IllegalArgumentException(
+					"Invalid V3000 atom line: " + line);
+		}
+		final StringBuilder content = new StringBuilder(to);
+		// Atom index and type
+		int start = skipWhitespace(line, V30_PREFIX.length(), to);
+		int end = getTokenEnd(line, start, to);
+		start = skipWhitespace(line, end, to);
+		end = getTokenEnd(line, start, to);
+		content.append(line, skipWhitespace(line, V30_PREFIX.length(), to),
+				end);
+		// Skip the old coordinates
+		for (int i = 0; i < 3; i++) {
+			start = skipWhitespace(line, end, to);
+			end = getTokenEnd(line, start, to);
+			if (start == end) {
+				throw new IllegalArgumentException(
+						"Missing coordinates in V3000 atom line: " + line);
+			}
+			content.append(' ');
+			appendFixed(content, coords[offset + i], 0);
+		}
+		content.append(line, end, to);
+
+		// Wrap if necessary
+		final int maxContent = V3000_MAX_LINE_LENGTH - V30_PREFIX.length() - 1;
+		int pos = 0;
+		while (content.length() - pos > maxContent + 1) {
+			sb.append(V30_PREFIX).append(content, pos, pos + maxContent)
+					.append('-').append('\n');
+			pos += maxContent;
+		}
+		sb.append(V30_PREFIX).append(content, pos, content.length())
+				.append('\n');
+	}
+
+	/**
+	 * Method to append a line, with a newline if there was one in the original
+	 * string
+	 */
+	private static void appendLine(StringBuilder sb, String mol, int start,
+			int end) {
+		sb.append(mol, start, end);
+		if (end < mol.length()) {
+			sb.append('\n');
+		}
+	}
+
+	/**
+	 * Method to append a number with 4 decimal places, right-justified in a
+	 * field of the given width
+	 *
+	 * @throws IllegalArgumentException
+	 *             If the value is not finite, or does not fit in the field
+	 */
+	static void appendFixed(StringBuilder sb, double value, int width) {
+		if (!Double.isFinite(value)) {
+			throw new IllegalArgumentException(
+					"Invalid coordinate: " + value);
+		}
+		final long scaled = Math.round(Math.abs(value) * DECIMAL_SCALE);
+		final boolean negative = value < 0.0 && scaled != 0;
+		final long intPart = scaled / (long) DECIMAL_SCALE;
+		final int fraction = (int) (scaled % (long) DECIMAL_SCALE);
+		int intDigits = 1;
+		for (long i = intPart; i >= 10; i /= 10) {
+			intDigits++;
+		}
+		final int length = (negative ? 1 : 0) + intDigits + 5;
+		if (width > 0 && length > width) {
+			throw new IllegalArgumentException("Coordinate " + value
+					+ " is too large for a field of width " + width);
+		}
+		for (int i = length; i < width; i++) {
+			sb.append(' ');
+		}
+		if (negative) {
+			sb.append('-');
+		}
+		sb.append(intPart).append('.');
+		for (int div = 1000; div > 0; div /= 10) {
+			sb.append((char) ('0' + fraction / div % 10));
+		}
+	}
+}
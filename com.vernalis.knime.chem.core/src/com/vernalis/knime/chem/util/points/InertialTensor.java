@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.util.points;
+
+import com.vernalis.knime.util.math.SymmetricEigen3;
+
+/**
+ * A reusable container for the centre of gravity, total mass and inertial
+ * tensor of a set of weighted points. The values are all found in a single
+ * pass over primitive coordinate and mass arrays, accumulating the first and
+ * second moments about the first point, which are then shifted to the centre
+ * of gravity. The principal moments and axes are found in closed form with
+ * {@link SymmetricEigen3}.
+ * <p>
+ * This class is not thread-safe, but a single instance can be re-used for any
+ * number of calculations
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+public final class InertialTensor {
+
+	private double mass;
+	private double cogX, cogY, cogZ;
+	private double Ixx, Iyy, Izz, Ixy, Ixz, Iyz;
+
+	/**
+	 * Method to calculate the tensor for a set of points
+	 *
+	 * @param points
+	 *            The points. The point weights are the masses
+	 * @return this object
+	 */
+	public InertialTensor calculate(PointArrays points) {
+		return calculate(points.getXs(), points.getYs(), points.getZs(),
+				points.getWeights(), 0, points.size());
+	}
+
+	/**
+	 * Method to calculate the tensor for a range of points stored in separate
+	 * coordinate and mass arrays
+	 *
+	 * @param x
+	 *            The x coordinates
+	 * @param y
+	 *            The y coordinates
+	 * @param z
+	 *            The z coordinates
+	 * @param masses
+	 *            The point masses
+	 * @param from
+	 *            The index of the first point (inclusive)
+	 * @param to
+	 *            The index of the last point (exclusive)
+	 * @return this object
+	 */
+	public InertialTensor calculate(double[] x, double[] y, double[] z,
+			double[] masses, int from, int to) {
+		if (from >= to) {
+			mass = 0.0;
+			cogX = cogY = cogZ = Double.NaN;
+			Ixx = Iyy = Izz = Ixy = Ixz = Iyz = 0.0;
+			return this;
+		}
+		// Use moments about the first point to limit cancellation
+		final double x0 = x[from];
+		final double y0 = y[from];
+		final double z0 = z[from];
+		double sm = 0, sx = 0, sy = 0, sz = 0;
+		double sxx = 0, syy = 0, szz = 0, sxy = 0, sxz = 0, syz = 0;
+		for (int i = from; i < to; i++) {
+			final double m = masses[i];
+			final double dx = x[i] - x0;
+			final double dy = y[i] - y0;
+			final double dz = z[i] - z0;
+			final double mdx = m * dx;
+			final double mdy = m * dy;
+			sm += m;
+			sx += mdx;
+			sy += mdy;
+			sz += m * dz;
+			sxx += mdx * dx;
+			syy += mdy * dy;
+			szz += m * dz * dz;
+			sxy += mdx * dy;
+			sxz += mdx * dz;
+			syz += mdy * dz;
+		}
+		mass = sm;
+		final double mx = sx / sm;
+		final double my = sy / sm;
+		final double mz = sz / sm;
+		cogX = x0 + mx;
+		cogY = y0 + my;
+		cogZ = z0 + mz;
+		// Parallel axis theorem - second moments about the centre of gravity
+		final double cxx = sxx - sx * mx;
+		final double cyy = syy - sy * my;
+		final double czz = szz - sz * mz;
+		Ixx = cyy + czz;
+		Iyy = cxx + czz;
+		Izz = cxx + cyy;
+		Ixy = -(sxy - sx * my);
+		Ixz = -(sxz - sx * mz);
+		Iyz = -(syz - sy * mz);
+		return this;
+	}
+
+	/**
+	 * @return The total mass of the points
+	 */
+	public double getMass() {
+		return mass;
+	}
+
+	/**
+	 * @return The x coordinate of the centre of gravity
+	 */
+	public double getCentreOfGravityX() {
+		return cogX;
+	}
+
+	/**
+	 * @return The y coordinate of the centre of gravity
+	 */
+	public double getCentreOfGravityY() {
+		return cogY;
+	}
+
+	/**
+	 * @return The z coordinate of the centre of gravity
+	 */
+	public double getCentreOfGravityZ() {
+		return cogZ;
+	}
+
+	/**
+	 * @return The inertial tensor as a new 3x3 matrix
+	 */
+	public double[][] getTensor() {
+		return new double[][] { { Ixx, Ixy, Ixz }, { Ixy, Iyy, Iyz },
+				{ Ixz, Iyz, Izz } };
+	}
+
+	/**
+	 * Method to get the principal moments of inertia, i.e. the eigenvalues of
+	 * the tensor
+	 *
+	 * @param moments
+	 *            Array of length at least 3 to hold the principal moments, in
+	 *            ascending order
+	 */
+	public void getPrincipalMoments(double[] moments) {
+		SymmetricEigen3.getEigenvalues(Ixx, Iyy, Izz, Ixy, Ixz, Iyz, moments);
+	}
+
+	/**
+	 * Method to get the rotation matrix which aligns the principal axes with
+	 * the coordinate axes. The principal axis with the smallest moment is
+	 * aligned with the x-axis, and that with the largest moment with the
+	 * z-axis
+	 *
+	 * @param moments
+	 *            Array of length at least 3 to hold the principal moments, in
+	 *            ascending order
+	 * @param rotation
+	 *            Array of length at least 9 to hold the rotation matrix in
+	 *            row-major order. The rows are the principal axes
+	 */
+	public void getPrincipalAxes(double[] moments, double[] rotation) {
+		getPrincipalMoments(moments);
+		SymmetricEigen3.getEigenvectors(Ixx, Iyy, Izz, Ixy, Ixz, Iyz, moments,
+				rotation);
+	}
+}
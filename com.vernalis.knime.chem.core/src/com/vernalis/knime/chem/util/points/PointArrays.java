@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.util.points;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A reusable container for a set of weighted 3D points, stored as separate
+ * primitive arrays of x, y and z coordinates and weights. Containers are
+ * intended to be filled by {@link CoordinateReader}, and then
+ * {@link #clear()}ed and refilled for the next molecule, so that the arrays
+ * are only reallocated when a larger molecule is encountered. The points can
+ * also be accessed as a {@link List} of {@link AbstractPoint}s via
+ * {@link #asPointList()}
+ * <p>
+ * This class is not thread-safe
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+public final class PointArrays {
+
+	private static final int DEFAULT_CAPACITY = 64;
+
+	private double[] x;
+	private double[] y;
+	private double[] z;
+	private double[] weights;
+	private int size;
+
+	/**
+	 * Constructor for an empty container with the default capacity
+	 */
+	public PointArrays() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor for an empty container
+	 *
+	 * @param initialCapacity
+	 *            The initial number of points which can be stored before the
+	 *            arrays need to grow
+	 */
+	public PointArrays(int initialCapacity) {
+		final int capacity = Math.max(initialCapacity, 1);
+		x = new double[capacity];
+		y = new double[capacity];
+		z = new double[capacity];
+		weights = new double[capacity];
+	}
+
+	/**
+	 * Method to remove all the points. The arrays are retained for re-use
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Method to add a point
+	 *
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @param z
+	 *            The z coordinate
+	 * @param weight
+	 *            The weight of the point
+	 */
+	public void add(double x, double y, double z, double weight) {
+		if (size == this.x.length) {
+			final int capacity = size + (size >> 1) + 1;
+			this.x = Arrays.copyOf(this.x, capacity);
+			this.y = Arrays.copyOf(this.y, capacity);
+			this.z = Arrays.copyOf(this.z, capacity);
+			weights = Arrays.copyOf(weights, capacity);
+		}
+		this.x[size] = x;
+		this.y[size] = y;
+		this.z[size] = z;
+		weights[size++] = weight;
+	}
+
+	/**
+	 * @return The number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if there are no points
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The x coordinate of the point
+	 */
+	public double getX(int i) {
+		checkIndex(i);
+		return x[i];
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The y coordinate of the point
+	 */
+	public double getY(int i) {
+		checkIndex(i);
+		return y[i];
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The z coordinate of the point
+	 */
+	public double getZ(int i) {
+		checkIndex(i);
+		return z[i];
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The weight of the point
+	 */
+	public double getWeight(int i) {
+		checkIndex(i);
+		return weights[i];
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new IndexOutOfBoundsException(
+					"Index: " + i + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * @return The backing array of x coordinates. Only the first
+	 *         {@link #size()} values are valid, and the array may be replaced
+	 *         when points are added
+	 */
+	public double[] getXs() {
+		return x;
+	}
+
+	/**
+	 * @return The backing array of y coordinates. Only the first
+	 *         {@link #size()} values are valid, and the array may be replaced
+	 *         when points are added
+	 */
+	public double[] getYs() {
+		return y;
+	}
+
+	/**
+	 * @return The backing array of z coordinates. Only the first
+	 *         {@link #size()} values are valid, and the array may be replaced
+	 *         when points are added
+	 */
+	public double[] getZs() {
+		return z;
+	}
+
+	/**
+	 * @return The backing array of weights. Only the first {@link #size()}
+	 *         values are valid, and the array may be replaced when points are
+	 *         added
+	 */
+	public double[] getWeights() {
+		return weights;
+	}
+
+	/**
+	 * @return The sum of the point weights
+	 */
+	public double getTotalWeight() {
+		double retVal = 0.0;
+		for (int i = 0; i < size; i++) {
+			retVal += weights[i];
+		}
+		return retVal;
+	}
+
+	/**
+	 * @return {@code true} if any point has a {@code NaN} weight, e.g. because
+	 *         the element was not recognised
+	 */
+	public boolean hasMissingWeights() {
+		for (int i = 0; i < size; i++) {
+			if (Double.isNaN(weights[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param maxZeroZ
+	 *            The largest absolute z coordinate considered to be zero
+	 * @return {@code true} if any point has an absolute z coordinate greater
+	 *         than {@code maxZeroZ}
+	 */
+	public boolean hasNonZeroZ(double maxZeroZ) {
+		for (int i = 0; i < size; i++) {
+			if (Math.abs(z[i]) > maxZeroZ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return A read-only {@link List} view of the points, with the weights
+	 *         as the point properties. The view reflects the current contents
+	 *         of the container, and new {@link AbstractPoint} objects are
+	 *         created each time an element is retrieved
+	 */
+	public List<AbstractPoint<Double>> asPointList() {
+		return new PointListView();
+	}
+
+	/**
+	 * Read-only {@link List} view of the container
+	 */
+	private final class PointListView extends AbstractList<AbstractPoint<Double>>
+			implements RandomAccess {
+
+		@Override
+		public AbstractPoint<Double> get(int index) {
+			checkIndex(index);
+			return new AbstractPoint<>(x[index], y[index], z[index],
+					weights[index]);
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	}
+}
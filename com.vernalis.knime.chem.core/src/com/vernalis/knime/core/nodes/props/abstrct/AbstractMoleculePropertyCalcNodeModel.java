@@ -57,7 +57,7 @@ public abstract class AbstractMoleculePropertyCalcNodeModel<T>
 	// Minimum z coordinate for non-2D coordinates
 	protected static final double MAX_ZERO_Z = 0.0001;
 
-	protected boolean hasNonZeroZ = false;
+	protected volatile boolean hasNonZeroZ = false;
 	protected final boolean checkZCoordsfor3D;
 
 	/**
@@ -0,0 +1,305 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.core.nodes.props.abstrct;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.bio.types.PdbValue;
+import org.knime.chem.types.CtabValue;
+import org.knime.chem.types.MolValue;
+import org.knime.chem.types.SdfValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.ListCell;
+import org.knime.core.data.container.CellFactory;
+import org.knime.core.node.util.ColumnFilter;
+
+import com.vernalis.exceptions.RowExecutionException;
+import com.vernalis.knime.chem.conformers.MultiConformerValue;
+import com.vernalis.knime.chem.util.points.CoordinateReader;
+import com.vernalis.knime.chem.util.points.PointArrays;
+import com.vernalis.knime.misc.ArrayUtils;
+import com.vernalis.knime.nodes.propcalc.CalculatedPropertyInterface;
+
+/**
+ * Abstract class where the atom coordinates, and optionally the atomic masses,
+ * are the basis for the object used for calculation. This is an alternative to
+ * {@link AbstractPointListMoleculePropertyCalcNodeModel} for calculations
+ * which only need the atom masses - the coordinates are read into a
+ * {@link PointArrays} container by {@link CoordinateReader}, which is reused
+ * for each molecule processed by a thread, rather than a new list of point
+ * objects. Implementing subclasses need only implement
+ * {@link #getObjFromPointArrays(PointArrays)}. Z-coordinate checking is always
+ * active, and rows are processed in parallel.
+ * <p>
+ * If the selected column is a {@link MultiConformerValue} column, which the
+ * accepted columns filter must allow, the properties are calculated for every
+ * conformer and returned as list cells. The atom masses are read from the
+ * topology once per row, and only the packed coordinates of each conformer
+ * are then copied into the points container
+ * </p>
+ *
+ * @author s.roughley
+ *
+ * @param <T>
+ *            The Type parameter for calculation object
+ */
+public abstract class AbstractPointArrayMoleculePropertyCalcNodeModel<T>
+		extends AbstractMoleculePropertyCalcNodeModel<T> {
+
+	private final boolean readMasses;
+	private final ThreadLocal<PointArrays> pointArrays =
+			ThreadLocal.withInitial(PointArrays::new);
+	private boolean multiConformerInput;
+
+	/**
+	 * Constructor
+	 *
+	 * @param propertyLabel
+	 *            The name properties label to be used as the settings model key
+	 * @param possibleProps
+	 *            The possible properties to calculate
+	 * @param acceptedColumns
+	 *            The acceptable input column filter
+	 * @param readMasses
+	 *            Should the atomic masses be used as the point weights? If
+	 *            not, all points have a weight of {@code 1.0}
+	 */
+	protected AbstractPointArrayMoleculePropertyCalcNodeModel(
+			String propertyLabel,
+			CalculatedPropertyInterface<T>[] possibleProps,
+			ColumnFilter acceptedColumns, boolean readMasses) {
+		super(propertyLabel, possibleProps, acceptedColumns, true);
+		this.readMasses = readMasses;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.vernalis.knime.core.nodes.props.abstrct.
+	 * AbstractMoleculePropertyCalcNodeModel#checkMolZCoord(java.lang.Object)
+	 */
+	@Override
+	protected boolean checkMolZCoord(T mol) {
+		// We handle this in #getMolContainerFromCell()
+		return false;
+	}
+
+	/**
+	 * This method should be used to obtain the calculation object of type T
+	 * from the atom coordinates. The container is re-used for the next
+	 * molecule read by the same thread, so must not be retained by the
+	 * calculation object
+	 *
+	 * @param points
+	 *            The points from the incoming molecule
+	 * @return The calculation object
+	 * @throws RowExecutionException
+	 */
+	protected abstract T getObjFromPointArrays(PointArrays points)
+			throws RowExecutionException;
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.vernalis.knime.core.nodes.props.abstrct.
+	 * AbstractMoleculePropertyCalcNodeModel#getMolFromCell(org.knime.core.data.
+	 * DataCell)
+	 */
+	@Override
+	protected T getMolContainerFromCell(DataCell molCell)
+			throws RowExecutionException {
+		final PointArrays points = pointArrays.get();
+		try {
+			if (!readPoints(molCell, points)) {
+				return null;
+			}
+		} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			throw new RowExecutionException(
+					"Unable to read atom coordinates - " + e.getMessage(), e);
+		}
+		if (checkZCoordsfor3D && !hasNonZeroZ) {
+			hasNonZeroZ |= points.hasNonZeroZ(MAX_ZERO_Z);
+		}
+		return getObjFromPointArrays(points);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.vernalis.knime.nodes.propcalc.AbstractPropertyCalcNodeModel#
+	 * getColumnType(com.vernalis.knime.nodes.propcalc.
+	 * CalculatedPropertyInterface, org.knime.core.data.DataTableSpec)
+	 */
+	@Override
+	protected DataType getColumnType(CalculatedPropertyInterface<T> prop,
+			DataTableSpec inSpec) {
+		// This is called with the selected column index set, before the cell
+		// factory is created
+		multiConformerInput = inSpec.getColumnSpec(colIdx).getType()
+				.isCompatible(MultiConformerValue.class);
+		final DataType type = super.getColumnType(prop, inSpec);
+		return multiConformerInput && type != null
+				? ListCell.getCollectionType(type)
+				: type;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see com.vernalis.knime.nodes.propcalc.AbstractPropertyCalcNodeModel#
+	 * getCellFactory(java.util.List, org.knime.core.data.DataColumnSpec[])
+	 */
+	@Override
+	protected CellFactory getCellFactory(
+			List<CalculatedPropertyInterface<T>> selectedProperties,
+			DataColumnSpec[] newColSpecs) {
+		// Each thread reads into its own point arrays, so batches of rows can
+		// be processed in parallel
+		final PropertiesCellFactory retVal = multiConformerInput
+				? new MultiConformerPropertiesCellFactory(newColSpecs,
+						selectedProperties)
+				: getPropertyCellFactory(selectedProperties, newColSpecs);
+		retVal.setParallelProcessing(true);
+		return retVal;
+	}
+
+	private boolean readPoints(DataCell molCell, PointArrays points) {
+		// Dont handle Mol2 or SMILES
+		final DataType type = molCell.getType();
+		if (type.isCompatible(PdbValue.class)) {
+			CoordinateReader.readPDBString((PdbValue) molCell, points,
+					readMasses);
+		} else if (type.isCompatible(MolValue.class)) {
+			CoordinateReader.readMolString((MolValue) molCell, points,
+					readMasses);
+		} else if (type.isCompatible(SdfValue.class)) {
+			// This will pick up ROMol too...
+			CoordinateReader.readMolString((SdfValue) molCell, points,
+					readMasses);
+		} else if (type.isCompatible(CtabValue.class)) {
+			CoordinateReader.readCTabString((CtabValue) molCell, points,
+					readMasses);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * A {@link PropertiesCellFactory} which calculates the properties for
+	 * every conformer of a {@link MultiConformerValue}, returning a list cell
+	 * for each property
+	 *
+	 * @author s.roughley
+	 *
+	 */
+	private class MultiConformerPropertiesCellFactory
+			extends PropertiesCellFactory {
+
+		private final List<CalculatedPropertyInterface<T>> propMembers;
+
+		private MultiConformerPropertiesCellFactory(DataColumnSpec[] colSpecs,
+				List<CalculatedPropertyInterface<T>> propMembers) {
+			super(colSpecs, propMembers);
+			this.propMembers = propMembers;
+		}
+
+		@Override
+		public DataCell[] getCells(DataRow row) {
+			final DataCell[] retVal =
+					ArrayUtils.fill(new DataCell[propMembers.size()],
+							DataType.getMissingCell());
+			final DataCell molCell = row.getCell(colIdx);
+			if (molCell.isMissing()) {
+				return retVal;
+			}
+			final MultiConformerValue confs = (MultiConformerValue) molCell;
+			final int numAtoms = confs.getAtomCount();
+			final int numConfs = confs.getConformerCount();
+			final PointArrays points = pointArrays.get();
+			final double[] masses;
+			final float[] coords = new float[3 * numAtoms];
+			try {
+				// Read the masses from the topology once
+				points.clear();
+				CoordinateReader.readMolString(confs.getTopology(), points,
+						readMasses);
+				if (points.size() != numAtoms) {
+					throw new IllegalArgumentException(
+							"Topology atom count does not match coordinates");
+				}
+				masses = new double[numAtoms];
+				System.arraycopy(points.getWeights(), 0, masses, 0, numAtoms);
+			} catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+				getLogger().info("Unable to read topology in row '"
+						+ row.getKey().getString() + "' - " + e.getMessage());
+				return retVal;
+			}
+
+			final List<List<DataCell>> propCells =
+					new ArrayList<>(propMembers.size());
+			for (int i = 0; i < propMembers.size(); i++) {
+				propCells.add(new ArrayList<>(numConfs));
+			}
+			for (int conf = 0; conf < numConfs; conf++) {
+				confs.getCoordinates(conf, coords, 0);
+				points.clear();
+				for (int i = 0, j = 0; i < numAtoms; i++) {
+					points.add(coords[j++], coords[j++], coords[j++],
+							masses[i]);
+				}
+				if (checkZCoordsfor3D && !hasNonZeroZ) {
+					hasNonZeroZ |= points.hasNonZeroZ(MAX_ZERO_Z);
+				}
+				T mol;
+				try {
+					mol = getObjFromPointArrays(points);
+				} catch (RowExecutionException e) {
+					mol = null;
+					getLogger().info("Unable to convert conformer " + (conf + 1)
+							+ " in row '" + row.getKey().getString() + "' - "
+							+ e.getMessage());
+				}
+				for (int i = 0; i < propMembers.size(); i++) {
+					DataCell cell = DataType.getMissingCell();
+					if (mol != null) {
+						try {
+							cell = propMembers.get(i).calculate(mol);
+						} catch (Exception e) {
+							// We do nothing - the property was undefined for
+							// the conformer
+						}
+					}
+					propCells.get(i).add(
+							cell == null ? DataType.getMissingCell() : cell);
+				}
+				if (mol != null) {
+					doAfterPropertyCalc(mol);
+				}
+			}
+			for (int i = 0; i < propMembers.size(); i++) {
+				retVal[i] =
+						CollectionCellFactory.createListCell(propCells.get(i));
+			}
+			return retVal;
+		}
+	}
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.mmp.nodes.loop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.chem.types.SmilesCellFactory;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.IntCell;
+
+/**
+ * Test class for {@link FragmentKeyPartitioner}. The rows of a table sorted
+ * with the partitioner are split into partitions in the same way as
+ * {@link FragmentKeyPartitionLoopStartNodeModel} does, and each partition is
+ * checked against a scan of the whole table for the rows in that partition
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class FragmentKeyPartitionerTest {
+
+	private static final int KEY_COL_IDX = 1;
+	private static final int NUM_KEYS = 500;
+
+	/**
+	 * Test that a single partition contains all rows
+	 */
+	@Test
+	public void testSinglePartition() {
+		checkPartitions(createRows(), 1);
+	}
+
+	/**
+	 * Test the rows are split correctly into an even number of partitions
+	 */
+	@Test
+	public void testFourPartitions() {
+		checkPartitions(createRows(), 4);
+	}
+
+	/**
+	 * Test the rows are split correctly into an odd number of partitions
+	 */
+	@Test
+	public void testSevenPartitions() {
+		checkPartitions(createRows(), 7);
+	}
+
+	/**
+	 * Test that empty partitions are handled when there are more partitions
+	 * than keys
+	 */
+	@Test
+	public void testMorePartitionsThanKeys() {
+		checkPartitions(createRows().subList(0, 20), 64);
+	}
+
+	/**
+	 * Test that rows with a missing key are kept in the first partition
+	 */
+	@Test
+	public void testMissingKey() {
+		FragmentKeyPartitioner partitioner =
+				new FragmentKeyPartitioner(KEY_COL_IDX, 7);
+		assertEquals(0, partitioner.getPartition(new DefaultRow(
+				RowKey.createRowKey(0L), new IntCell(0),
+				DataType.getMissingCell())));
+	}
+
+	/**
+	 * Test that rows with the same key are always in the same partition
+	 */
+	@Test
+	public void testSameKeySamePartition() {
+		FragmentKeyPartitioner partitioner =
+				new FragmentKeyPartitioner(KEY_COL_IDX, 7);
+		for (int i = 0; i < NUM_KEYS; i++) {
+			String key = getKey(i);
+			int partition = partitioner.getPartition(createRow(i, key));
+			assertEquals(key, partition, partitioner
+					.getPartition(createRow(i + NUM_KEYS, key)));
+			assertEquals(key, partition,
+					FragmentKeyPartitionLoopStartNodeModel.getPartition(key,
+							7));
+			assertTrue(key, partition >= 0 && partition < 7);
+		}
+	}
+
+	/**
+	 * Check that the sorted rows form one contiguous block per partition, and
+	 * that each block holds exactly the rows which a scan of the unsorted
+	 * rows assigns to that partition
+	 */
+	private static void checkPartitions(List<DataRow> rows,
+			int numPartitions) {
+		FragmentKeyPartitioner partitioner =
+				new FragmentKeyPartitioner(KEY_COL_IDX, numPartitions);
+		List<DataRow> sorted = new ArrayList<>(rows);
+		sorted.sort(partitioner);
+
+		Iterator<DataRow> iter = sorted.iterator();
+		DataRow nextRow = iter.hasNext() ? iter.next() : null;
+		int numRows = 0;
+		for (int iteration = 0; iteration < numPartitions; iteration++) {
+			Set<RowKey> partition = new HashSet<>();
+			while (nextRow != null
+					&& partitioner.getPartition(nextRow) == iteration) {
+				assertTrue(partition.add(nextRow.getKey()));
+				nextRow = iter.hasNext() ? iter.next() : null;
+			}
+			numRows += partition.size();
+
+			Set<RowKey> expected = new HashSet<>();
+			for (DataRow row : rows) {
+				if (partitioner.getPartition(row) == iteration) {
+					expected.add(row.getKey());
+				}
+			}
+			assertEquals("Partition " + iteration, expected, partition);
+		}
+		assertFalse("Rows left after last partition", nextRow != null);
+		assertEquals(rows.size(), numRows);
+	}
+
+	/**
+	 * Create rows with each key twice, with the repeats interleaved, and some
+	 * missing keys
+	 */
+	private static List<DataRow> createRows() {
+		List<DataRow> rows = new ArrayList<>();
+		for (int i = 0; i < 2 * NUM_KEYS; i++) {
+			rows.add(createRow(i, getKey(i % NUM_KEYS)));
+			if (i % 100 == 0) {
+				rows.add(new DefaultRow(RowKey.createRowKey(-1L - i),
+						new IntCell(i), DataType.getMissingCell()));
+			}
+		}
+		return rows;
+	}
+
+	private static DataRow createRow(int idx, String key) {
+		return new DefaultRow(RowKey.createRowKey((long) idx),
+				new IntCell(idx), SmilesCellFactory.create(key));
+	}
+
+	/**
+	 * Create a key with an isotope-labelled attachment point and a carbon
+	 * chain, so that keys are distinct for {@code i < 20 * 999}
+	 */
+	private static String getKey(int i) {
+		StringBuilder sb =
+				new StringBuilder("[").append(i / 20 + 1).append("*]");
+		for (int j = 0; j <= i % 20; j++) {
+			sb.append('C');
+		}
+		return sb.toString();
+	}
+}
@@ -311,6 +311,72 @@ public class MMPConstants {
 	 */
 	public static final String LIMIT_BY_COMPLEXITY = "Limit by Complexity";
 
+	/**
+	 * The key for the apply per-molecule budget setting
+	 */
+	public static final String APPLY_FRAGMENTATION_BUDGET =
+			"Apply per-molecule fragmentation budget";
+
+	/**
+	 * The default apply per-molecule budget setting
+	 */
+	public static final boolean DEFAULT_APPLY_FRAGMENTATION_BUDGET = false;
+
+	/**
+	 * The key for the per-molecule budget maximum combinations setting
+	 */
+	public static final String BUDGET_MAX_COMBINATIONS =
+			"Budget Max Combinations";
+
+	/**
+	 * The default per-molecule budget maximum combinations setting
+	 */
+	public static final int DEFAULT_BUDGET_MAX_COMBINATIONS = 100000;
+
+	/**
+	 * The key for the per-molecule budget maximum fragmentations setting
+	 */
+	public static final String BUDGET_MAX_FRAGMENTATIONS =
+			"Budget Max Fragmentations";
+
+	/**
+	 * The default per-molecule budget maximum fragmentations setting
+	 */
+	public static final int DEFAULT_BUDGET_MAX_FRAGMENTATIONS = 10000;
+
+	/**
+	 * The key for the limit fragmentation time per molecule setting
+	 */
+	public static final String LIMIT_FRAGMENTATION_TIME =
+			"Limit fragmentation time per molecule";
+
+	/**
+	 * The default limit fragmentation time per molecule setting
+	 */
+	public static final boolean DEFAULT_LIMIT_FRAGMENTATION_TIME = false;
+
+	/**
+	 * The key for the maximum fragmentation time per molecule setting
+	 */
+	public static final String MAX_FRAGMENTATION_TIME =
+			"Maximum fragmentation time (ms)";
+
+	/**
+	 * The default maximum fragmentation time per molecule setting (ms)
+	 */
+	public static final int DEFAULT_MAX_FRAGMENTATION_TIME = 60000;
+
+	/**
+	 * The key for the output fragmentation diagnostics setting
+	 */
+	public static final String OUTPUT_DIAGNOSTICS =
+			"Output fragmentation diagnostics";
+
+	/**
+	 * The default output fragmentation diagnostics setting
+	 */
+	public static final boolean DEFAULT_OUTPUT_DIAGNOSTICS = false;
+
 	/**
 	 * The key for the ID column
 	 */
@@ -16,6 +16,7 @@ package com.vernalis.knime.mmp.fragmentors;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
@@ -349,46 +350,371 @@ public abstract class AbstractFragmentationFactory<T, U>
 							+ bondCombos.size() + " fragmentations tried");
 				}
 			}
-			try {
-				// Collect the fragmentation
-				final AbstractMulticomponentFragmentationParser<T> fragment =
-						rawFragmentMoleculeAlongBondCombos(bondSet);
-				if (fragment != null) {
-					if (bondColour != null || keyColour != null
-							|| valueColour != null) {
-						try {
-							fragment.setRenderingCell(
-									renderFragmentation(bondSet, bondColour,
-											keyColour, valueColour));
-						} catch (IOException
-								| MoleculeFragmentationException e) {
-							// Leave it as a missing cell - dont think we should
-							// be
-							// able to get here
-						}
+			final AbstractMulticomponentFragmentationParser<T> fragment =
+					fragmentAndRenderBondCombo(bondSet, bondColour, keyColour,
+							valueColour, logger, verboseLogging);
+			if (fragment != null) {
+				retVal.add(fragment);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to fragment the molecule along a single combination of bonds,
+	 * optionally rendering the fragmentation
+	 *
+	 * @param bondSet
+	 *            The bonds to cut
+	 * @param bondColour
+	 *            The color to highlight breaking bonds
+	 * @param keyColour
+	 *            The color to highlight 'key' atoms and bonds
+	 * @param valueColour
+	 *            The color to highlight 'value' atoms and bonds
+	 * @param logger
+	 *            {@link NodeLogger} instance for reporting
+	 * @param verboseLogging
+	 *            Whether verbose logging is enabled
+	 * @return The fragmentation, or {@code null} if the combination did not
+	 *         give a valid fragmentation passing the filters
+	 * @throws MoleculeFragmentationException
+	 * @throws ClosedFactoryException
+	 *             If the {@link #close()} methods has previously been called
+	 */
+	protected AbstractMulticomponentFragmentationParser<T>
+			fragmentAndRenderBondCombo(Set<BondIdentifier> bondSet,
+					Color bondColour, Color keyColour, Color valueColour,
+					NodeLogger logger, boolean verboseLogging)
+					throws ClosedFactoryException,
+					MoleculeFragmentationException {
+		try {
+			// Collect the fragmentation
+			final AbstractMulticomponentFragmentationParser<T> fragment =
+					rawFragmentMoleculeAlongBondCombos(bondSet);
+			if (fragment != null) {
+				if (bondColour != null || keyColour != null
+						|| valueColour != null) {
+					try {
+						fragment.setRenderingCell(renderFragmentation(bondSet,
+								bondColour, keyColour, valueColour));
+					} catch (IOException | MoleculeFragmentationException e) {
+						// Leave it as a missing cell - dont think we should be
+						// able to get here
 					}
-					retVal.add(fragment);
 				}
-			} catch (IllegalArgumentException e) {
-				// Strange - shouldnt be here...
-				logger.warn("Something strange happened... " + e.getMessage());
-			} catch (ToolkitException e) {
-				if (verboseLogging) {
-					logger.info("Unable to complete fragmentation: "
-							+ e.getMessage() == null ? "" : e.getMessage());
+			}
+			return fragment;
+		} catch (IllegalArgumentException e) {
+			// Strange - shouldnt be here...
+			logger.warn("Something strange happened... " + e.getMessage());
+		} catch (ToolkitException e) {
+			if (verboseLogging) {
+				logger.info("Unable to complete fragmentation: "
+						+ e.getMessage() == null ? "" : e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Set<AbstractMulticomponentFragmentationParser<T>>
+			breakMoleculeAlongCuttableBondCombos(int minNumCuts,
+					int maxNumCuts, FragmentationBudget budget,
+					boolean prochiralAsChiral, ExecutionContext exec,
+					Color bondColour, Color keyColour, Color valueColour,
+					NodeLogger logger, boolean verboseLogging)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ClosedFactoryException, MoleculeFragmentationException {
+		if (isClosed) {
+			throw new ClosedFactoryException();
+		}
+		if (minNumCuts < 2) {
+			throw new IllegalArgumentException(
+					"minNumCuts should be 2 or higher");
+		}
+		if (maxNumCuts < minNumCuts) {
+			throw new IllegalArgumentException(
+					"maxNumCuts should not be less than minNumCuts");
+		}
+		if (isHAdded) {
+			throw new IllegalArgumentException(
+					"Only 1 cut should be made to H-added molecules");
+		}
+		BondComboEnumerator enumerator = new BondComboEnumerator(
+				budget == null ? FragmentationBudget.unlimited() : budget, exec,
+				bondColour, keyColour, valueColour, logger, verboseLogging);
+		for (int n = minNumCuts; n <= maxNumCuts
+				&& n <= enumerator.bonds.length; n++) {
+			if (!enumerator.enumerate(n)) {
+				// Either the budget is spent, or there were no candidates at
+				// this level, in which case there are none at higher levels
+				break;
+			}
+		}
+		return enumerator.fragments;
+	}
+
+	/**
+	 * Method to calculate the maximum number of heavy atoms in a value which
+	 * can pass the {@link #checkFragmentationAgainstFilters(BitSet)} filters.
+	 * The value returned may be an overestimate
+	 *
+	 * @return The maximum value heavy atom count, or {@code HAC} if there is
+	 *         no filter restricting the value size
+	 */
+	protected int getMaximumValueHeavyAtomCount() {
+		int retVal = HAC;
+		if (maxNumberChangingHAs != null) {
+			retVal = Math.min(retVal, maxNumberChangingHAs);
+		}
+		if (minFixedHAs != null) {
+			retVal = Math.min(retVal, HAC - minFixedHAs);
+		}
+		if (minCnstToVarAtmRatio != null) {
+			// (HAC - v) / v >= r => v <= HAC / (1 + r). Allow an extra atom
+			// for rounding so we never prune a valid fragmentation
+			retVal = Math.min(retVal,
+					(int) Math.floor(HAC / (1.0 + minCnstToVarAtmRatio)) + 1);
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to calculate the topological distance (in bonds) from each of the
+	 * source atoms to every atom by breadth-first search of the graphNeighbours
+	 * object. Unconnected atom pairs are given a distance of -1
+	 *
+	 * @param sourceAtoms
+	 *            The atoms for which distances are required
+	 * @return An array of distance arrays, indexed by atom ID. Only rows for
+	 *         the source atoms are populated
+	 */
+	protected int[][] getTopologicalDistances(BitSet sourceAtoms) {
+		int numAtoms = graphNeighbours.length;
+		int[][] retVal = new int[numAtoms][];
+		int[] queue = new int[numAtoms];
+		for (int src = sourceAtoms.nextSetBit(0); src >= 0; src =
+				sourceAtoms.nextSetBit(src + 1)) {
+			int[] dist = new int[numAtoms];
+			Arrays.fill(dist, -1);
+			dist[src] = 0;
+			int head = 0, tail = 0;
+			queue[tail++] = src;
+			while (head < tail) {
+				int atIdx = queue[head++];
+				for (int bondedAtomIdx : graphNeighbours[atIdx]) {
+					if (dist[bondedAtomIdx] < 0) {
+						dist[bondedAtomIdx] = dist[atIdx] + 1;
+						queue[tail++] = bondedAtomIdx;
+					}
 				}
 			}
+			retVal[src] = dist;
 		}
 		return retVal;
 	}
 
+	/**
+	 * Lazy depth-first enumerator for bond combinations. Combinations are
+	 * built from the sorted matching bonds in ascending index order, and each
+	 * complete combination is fragmented immediately. Partial combinations are
+	 * pruned if they contain an invalid cut triplet (which invalidates all
+	 * supersets), or if the smallest value which could connect any pair of the
+	 * bonds already exceeds the largest value allowed by the filters. Both
+	 * tests are monotone in the size of the combination, so pruning never
+	 * removes a fragmentation that would otherwise be returned
+	 *
+	 * @author s.roughley {@literal <knime@vernalis.com>}
+	 *
+	 */
+	private class BondComboEnumerator {
+
+		private final BondIdentifier[] bonds;
+		private final int[][] pairValueHACLowerBounds;
+		private final int maxValueHAC;
+		private final int[] combo;
+		private final FragmentationBudget budget;
+		private final ExecutionContext exec;
+		private final Color bondColour, keyColour, valueColour;
+		private final NodeLogger logger;
+		private final boolean verboseLogging;
+		private final Set<AbstractMulticomponentFragmentationParser<T>> fragments =
+				new TreeSet<>();
+		private long candidateCount;
+
+		private BondComboEnumerator(FragmentationBudget budget,
+				ExecutionContext exec, Color bondColour, Color keyColour,
+				Color valueColour, NodeLogger logger, boolean verboseLogging) {
+			this.budget = budget;
+			this.exec = exec;
+			this.bondColour = bondColour;
+			this.keyColour = keyColour;
+			this.valueColour = valueColour;
+			this.logger = logger;
+			this.verboseLogging = verboseLogging;
+			bonds = new TreeSet<>(matchingBonds)
+					.toArray(new BondIdentifier[matchingBonds.size()]);
+			combo = new int[bonds.length];
+			maxValueHAC = getMaximumValueHeavyAtomCount();
+			pairValueHACLowerBounds = maxValueHAC < HAC
+					? calculatePairValueHACLowerBounds() : null;
+		}
+
+		/**
+		 * The lower bound for the value HAC for a pair of bonds is the number
+		 * of heavy atoms on the shortest path between their nearest ends,
+		 * because the value must contain one end of each bond and be connected
+		 */
+		private int[][] calculatePairValueHACLowerBounds() {
+			BitSet endAtoms = new BitSet(graphNeighbours.length);
+			for (BondIdentifier bond : bonds) {
+				endAtoms.set(bond.getStartIdx());
+				endAtoms.set(bond.getEndIdx());
+			}
+			int[][] dist = getTopologicalDistances(endAtoms);
+			int[][] retVal = new int[bonds.length][bonds.length];
+			for (int i = 0; i < bonds.length; i++) {
+				int[] iEnds = { bonds[i].getStartIdx(), bonds[i].getEndIdx() };
+				for (int j = i + 1; j < bonds.length; j++) {
+					int[] jEnds =
+							{ bonds[j].getStartIdx(), bonds[j].getEndIdx() };
+					int lb = Integer.MAX_VALUE;
+					for (int a : iEnds) {
+						for (int b : jEnds) {
+							int d = dist[a][b];
+							if (d < 0) {
+								// Not connected - let the fragmentation decide
+								lb = 0;
+							} else if (d == 0) {
+								lb = Math.min(lb, heavyAtomMask.get(a) ? 1 : 0);
+							} else {
+								lb = Math.min(lb,
+										d - 1 + (heavyAtomMask.get(a) ? 1 : 0)
+												+ (heavyAtomMask.get(b) ? 1
+														: 0));
+							}
+						}
+					}
+					retVal[i][j] = lb;
+					retVal[j][i] = lb;
+				}
+			}
+			return retVal;
+		}
+
+		/**
+		 * @param n
+		 *            The number of cuts
+		 * @return {@code false} if the enumeration should not continue to
+		 *         higher numbers of cuts
+		 */
+		private boolean enumerate(int n) throws CanceledExecutionException,
+				ClosedFactoryException, MoleculeFragmentationException {
+			candidateCount = 0;
+			if (!enumerate(n, 0, 0, 0)) {
+				return false;
+			}
+			return candidateCount > 0;
+		}
+
+		/**
+		 * @return {@code false} if the budget is exhausted
+		 */
+		private boolean enumerate(int n, int depth, int start, int valueLB)
+				throws CanceledExecutionException, ClosedFactoryException,
+				MoleculeFragmentationException {
+			for (int i = start; i <= bonds.length - (n - depth); i++) {
+				exec.checkCanceled();
+				if (!budget.checkTime()) {
+					return false;
+				}
+				int newValueLB = valueLB;
+				if (pairValueHACLowerBounds != null) {
+					for (int j = 0; j < depth; j++) {
+						newValueLB = Math.max(newValueLB,
+								pairValueHACLowerBounds[combo[j]][i]);
+					}
+					if (newValueLB > maxValueHAC) {
+						continue;
+					}
+				}
+				if (depth >= 2 && !isCompatible(depth, i)) {
+					continue;
+				}
+				combo[depth] = i;
+				if (depth + 1 < n) {
+					if (!enumerate(n, depth + 1, i + 1, newValueLB)) {
+						return false;
+					}
+					continue;
+				}
+				candidateCount++;
+				if (!budget.tryCombination()) {
+					return false;
+				}
+				if (verboseLogging && budget.getCombinationsTried() % 50 == 0) {
+					logger.info("Fragmenting molecule: "
+							+ budget.getCombinationsTried()
+							+ " fragmentations tried");
+				}
+				Set<BondIdentifier> bondSet = new TreeSet<>();
+				for (int j = 0; j <= depth; j++) {
+					bondSet.add(bonds[combo[j]]);
+				}
+				AbstractMulticomponentFragmentationParser<T> fragment =
+						fragmentAndRenderBondCombo(bondSet, bondColour,
+								keyColour, valueColour, logger,
+								verboseLogging);
+				if (n > 3) {
+					// Only pairs and triplets are re-used, so dont hold on to
+					// the value atoms of larger combinations
+					valueAtomIDsLookup.remove(bondSet);
+				}
+				if (fragment != null && fragments.add(fragment)) {
+					budget.addFragmentations(1);
+				}
+				if (budget.isExhausted()) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return {@code true} if adding bond {@code newIdx} to the current
+		 *         partial combination of length {@code depth} does not create
+		 *         an invalid cut triplet
+		 */
+		private boolean isCompatible(int depth, int newIdx) {
+			for (int j = 0; j < depth - 1; j++) {
+				for (int k = j + 1; k < depth; k++) {
+					Set<BondIdentifier> triplet = new TreeSet<>();
+					triplet.add(bonds[combo[j]]);
+					triplet.add(bonds[combo[k]]);
+					triplet.add(bonds[newIdx]);
+					Boolean isValid = triplets.get(triplet);
+					if (isValid == null) {
+						isValid = rawListValueAtomIds(triplet) != null;
+						triplets.put(triplet, isValid);
+					}
+					if (!isValid) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
 	@Override
 	public Set<AbstractMulticomponentFragmentationParser<T>>
 			breakMoleculeAlongMatchingBonds(ExecutionContext exec,
-					Color breakingBondColour, Color keyColour,
-					Color valueColour) throws CanceledExecutionException,
-					IllegalArgumentException, ToolkitException,
-					ClosedFactoryException, MoleculeFragmentationException {
+					FragmentationBudget budget, Color breakingBondColour,
+					Color keyColour, Color valueColour)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ToolkitException, ClosedFactoryException,
+					MoleculeFragmentationException {
 		if (isClosed) {
 			throw new ClosedFactoryException();
 		}
@@ -397,37 +723,35 @@ public abstract class AbstractFragmentationFactory<T, U>
 		for (BondIdentifier bond : matchingBonds) {
 			exec.checkCanceled();
 
-			AbstractMulticomponentFragmentationParser<T> fragment =
-					rawFragmentMoleculeAlongBond(bond);
-			if (fragment != null) {
-				if (breakingBondColour != null || keyColour != null
-						|| valueColour != null) {
-					try {
-						fragment.setRenderingCell(renderFragmentation(
-								Collections.singleton(bond), breakingBondColour,
-								keyColour, valueColour));
-					} catch (IOException | MoleculeFragmentationException e) {
-						// Leave it as a missing cell - dont think we should be
-						// able to get here
-					}
+			// Both directions of the bond
+			for (BondIdentifier dirBond : new BondIdentifier[] { bond,
+					bond.getReverse() }) {
+				if (budget != null && !budget.tryCombination()) {
+					return retVal;
 				}
-				retVal.add(fragment);
-			}
-			// Now the reverse
-			fragment = rawFragmentMoleculeAlongBond(bond.getReverse());
-			if (fragment != null) {
-				if (breakingBondColour != null || keyColour != null
-						|| valueColour != null) {
-					try {
-						fragment.setRenderingCell(renderFragmentation(
-								Collections.singleton(bond.getReverse()),
-								breakingBondColour, keyColour, valueColour));
-					} catch (IOException | MoleculeFragmentationException e) {
-						// Leave it as a missing cell - dont think we should be
-						// able to get here
+				AbstractMulticomponentFragmentationParser<T> fragment =
+						rawFragmentMoleculeAlongBond(dirBond);
+				if (fragment != null) {
+					if (breakingBondColour != null || keyColour != null
+							|| valueColour != null) {
+						try {
+							fragment.setRenderingCell(renderFragmentation(
+									Collections.singleton(dirBond),
+									breakingBondColour, keyColour,
+									valueColour));
+						} catch (IOException
+								| MoleculeFragmentationException e) {
+							// Leave it as a missing cell - dont think we should
+							// be able to get here
+						}
+					}
+					if (retVal.add(fragment) && budget != null) {
+						budget.addFragmentations(1);
 					}
 				}
-				retVal.add(fragment);
+				if (budget != null && budget.isExhausted()) {
+					return retVal;
+				}
 			}
 		}
 		return retVal;
@@ -444,10 +768,11 @@ public abstract class AbstractFragmentationFactory<T, U>
 	@Override
 	public Set<AbstractMulticomponentFragmentationParser<T>>
 			breakMoleculeAlongMatchingBondsWithBondInsertion(
-					ExecutionContext exec, Color bondColour, Color keyColour,
-					Color valueColour) throws CanceledExecutionException,
-					IllegalArgumentException, ToolkitException,
-					ClosedFactoryException, MoleculeFragmentationException {
+					ExecutionContext exec, FragmentationBudget budget,
+					Color bondColour, Color keyColour, Color valueColour)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ToolkitException, ClosedFactoryException,
+					MoleculeFragmentationException {
 		if (isClosed) {
 			throw new ClosedFactoryException();
 		}
@@ -458,6 +783,9 @@ public abstract class AbstractFragmentationFactory<T, U>
 				new TreeSet<>();
 		for (BondIdentifier bond : matchingBonds) {
 			exec.checkCanceled();
+			if (budget != null && !budget.tryCombination()) {
+				break;
+			}
 			final AbstractMulticomponentFragmentationParser<T> fragment =
 					rawFragmentMoleculeWithBondInsertion(bond);
 			if (fragment != null) {
@@ -472,7 +800,12 @@ public abstract class AbstractFragmentationFactory<T, U>
 						// able to get here
 					}
 				}
-				retVal.add(fragment);
+				if (retVal.add(fragment) && budget != null) {
+					budget.addFragmentations(1);
+				}
+			}
+			if (budget != null && budget.isExhausted()) {
+				break;
 			}
 		}
 		return retVal;
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.mmp.fragmentors;
+
+/**
+ * A per-molecule budget for the fragmentation process. The budget limits the
+ * number of bond combinations which are tried, the number of fragmentations
+ * which are generated, and the wall-clock time spent. Once any limit is
+ * reached, the budget is exhausted, and the fragmentation should stop, with
+ * the molecule being flagged as truncated (or timed out). The time limit is
+ * enforced cooperatively, each time a combination is tried, or when
+ * {@link #checkTime()} is called. The clock starts when the budget is created.
+ * A new instance should be used for each molecule, and instances are not
+ * thread-safe
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FragmentationBudget {
+
+	/** Status message for a molecule which was not truncated */
+	public static final String STATUS_COMPLETE = "Complete";
+
+	private final long maxCombinations;
+	private final long maxFragmentations;
+	private long combinationsTried = 0;
+	private long fragmentationsGenerated = 0;
+	private String truncationReason = null;
+	private final long maxMillis;
+	private final long maxNanos;
+	private final long startNanos;
+	private long endNanos = -1;
+	private boolean timedOut = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxCombinations
+	 *            The maximum number of bond combinations to try
+	 * @param maxFragmentations
+	 *            The maximum number of fragmentations to generate
+	 */
+	public FragmentationBudget(long maxCombinations, long maxFragmentations) {
+		this(maxCombinations, maxFragmentations, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxCombinations
+	 *            The maximum number of bond combinations to try
+	 * @param maxFragmentations
+	 *            The maximum number of fragmentations to generate
+	 * @param maxMillis
+	 *            The maximum wall-clock time, in milliseconds
+	 */
+	public FragmentationBudget(long maxCombinations, long maxFragmentations,
+			long maxMillis) {
+		this.maxCombinations = maxCombinations;
+		this.maxFragmentations = maxFragmentations;
+		this.maxMillis = maxMillis;
+		this.maxNanos = maxMillis >= Long.MAX_VALUE / 1000000L ? Long.MAX_VALUE
+				: maxMillis * 1000000L;
+		startNanos = System.nanoTime();
+	}
+
+	/**
+	 * @return A budget with no limits, which will never be exhausted
+	 */
+	public static FragmentationBudget unlimited() {
+		return new FragmentationBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Method to register an attempt at a bond combination. If the maximum
+	 * number of combinations has already been tried, the budget is marked as
+	 * exhausted and the combination should not be tried
+	 *
+	 * @return {@code true} if the combination can be tried
+	 */
+	public boolean tryCombination() {
+		if (isExhausted() || !checkTime()) {
+			return false;
+		}
+		if (combinationsTried >= maxCombinations) {
+			truncate("Maximum combinations (" + maxCombinations + ") reached");
+			return false;
+		}
+		combinationsTried++;
+		return true;
+	}
+
+	/**
+	 * Method to register generated fragmentations
+	 *
+	 * @param count
+	 *            The number of fragmentations generated
+	 */
+	public void addFragmentations(long count) {
+		fragmentationsGenerated += count;
+		if (fragmentationsGenerated >= maxFragmentations
+				&& truncationReason == null) {
+			truncate("Maximum fragmentations (" + maxFragmentations
+					+ ") reached");
+		}
+	}
+
+	/**
+	 * Method to check whether the time limit has been exceeded. If it has, the
+	 * budget is marked as exhausted and timed out
+	 *
+	 * @return {@code true} if there is still time remaining
+	 */
+	public boolean checkTime() {
+		if (!timedOut && maxNanos != Long.MAX_VALUE
+				&& System.nanoTime() - startNanos > maxNanos) {
+			timedOut = true;
+			truncate("Time limit (" + maxMillis + "ms) exceeded");
+		}
+		return !timedOut;
+	}
+
+	/**
+	 * Method to stop the clock once the fragmentation is finished
+	 */
+	public void finish() {
+		if (endNanos < 0) {
+			endNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * @return The elapsed time in milliseconds, up to the call to
+	 *         {@link #finish()} if it has been called, otherwise up to now
+	 */
+	public long getElapsedMillis() {
+		return ((endNanos < 0 ? System.nanoTime() : endNanos) - startNanos)
+				/ 1000000L;
+	}
+
+	/**
+	 * @return {@code true} if the time limit was exceeded
+	 */
+	public boolean isTimedOut() {
+		return timedOut;
+	}
+
+	/**
+	 * @return The time limit in milliseconds
+	 */
+	public long getMaxMillis() {
+		return maxMillis;
+	}
+
+	/**
+	 * Method to flag the budget as exhausted. Only the first reason is
+	 * retained
+	 *
+	 * @param reason
+	 *            The reason for the truncation
+	 */
+	protected void truncate(String reason) {
+		if (truncationReason == null) {
+			truncationReason = reason;
+		}
+	}
+
+	/**
+	 * @return {@code true} if the budget has been exhausted
+	 */
+	public boolean isExhausted() {
+		return truncationReason != null;
+	}
+
+	/**
+	 * @return {@code true} if the fragmentation was truncated by the budget
+	 */
+	public boolean isTruncated() {
+		return truncationReason != null;
+	}
+
+	/**
+	 * @return The reason for truncation, or {@code null} if the budget was not
+	 *         exhausted
+	 */
+	public String getTruncationReason() {
+		return truncationReason;
+	}
+
+	/**
+	 * @return A status message for the molecule
+	 */
+	public String getStatus() {
+		return isTruncated() ? "Truncated - " + truncationReason
+				: STATUS_COMPLETE;
+	}
+
+	/**
+	 * @return The number of bond combinations tried
+	 */
+	public long getCombinationsTried() {
+		return combinationsTried;
+	}
+
+	/**
+	 * @return The number of fragmentations generated
+	 */
+	public long getFragmentationsGenerated() {
+		return fragmentationsGenerated;
+	}
+
+}
@@ -162,12 +162,52 @@ public interface MoleculeFragmentationFactory2<T, U> {
 	 *             If one of the bonds is {@code null}
 	 * @throws MoleculeFragmentationException
 	 */
-	Set<AbstractMulticomponentFragmentationParser<T>>
+	default Set<AbstractMulticomponentFragmentationParser<T>>
 			breakMoleculeAlongMatchingBonds(ExecutionContext exec,
 					Color breakingBondColour, Color keyColour,
 					Color valueColour) throws CanceledExecutionException,
 					IllegalArgumentException, ToolkitException,
-					ClosedFactoryException, MoleculeFragmentationException;
+					ClosedFactoryException, MoleculeFragmentationException {
+		return breakMoleculeAlongMatchingBonds(exec, null, breakingBondColour,
+				keyColour, valueColour);
+	}
+
+	/**
+	 * Method to break the supplied molecule along all matching bonds. Results
+	 * are filtered by any specified heavy atom filters. Each direction of each
+	 * bond counts as a combination towards the supplied
+	 * {@link FragmentationBudget}, and the fragmentation stops when the budget
+	 * is exhausted
+	 * 
+	 * @param exec
+	 *            The {@link ExecutionContext} to check for cancelling
+	 * @param budget
+	 *            The {@link FragmentationBudget} for the molecule, or
+	 *            {@code null} for no budget
+	 * @param breakingBondColour
+	 *            The color to highlight breaking bonds
+	 * @param keyColour
+	 *            The color to highlight 'key' atoms and bonds
+	 * @param valueColour
+	 *            The color to highlight 'value' atoms and bonds
+	 * @return The fragmentations as a set
+	 * @throws CanceledExecutionException
+	 *             if the user cancels during execution
+	 * @throws ToolkitException
+	 *             Thrown if the underlying toolkit throws an exception
+	 * @throws IllegalArgumentException
+	 *             If one of the bonds is {@code null}
+	 * @throws ClosedFactoryException
+	 *             If the {@link #close()} methods has previously been called
+	 * @throws MoleculeFragmentationException
+	 */
+	Set<AbstractMulticomponentFragmentationParser<T>>
+			breakMoleculeAlongMatchingBonds(ExecutionContext exec,
+					FragmentationBudget budget, Color breakingBondColour,
+					Color keyColour, Color valueColour)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ToolkitException, ClosedFactoryException,
+					MoleculeFragmentationException;
 
 	/**
 	 * Method to break the supplied molecule along all matching bonds, inserting
@@ -193,12 +233,52 @@ public interface MoleculeFragmentationFactory2<T, U> {
 	 *             If the {@link #close()} methods has previously been called
 	 * @throws MoleculeFragmentationException
 	 */
-	Set<AbstractMulticomponentFragmentationParser<T>>
+	default Set<AbstractMulticomponentFragmentationParser<T>>
 			breakMoleculeAlongMatchingBondsWithBondInsertion(
 					ExecutionContext exec, Color bondColour, Color keyColour,
 					Color valueColour) throws CanceledExecutionException,
 					IllegalArgumentException, ToolkitException,
-					ClosedFactoryException, MoleculeFragmentationException;
+					ClosedFactoryException, MoleculeFragmentationException {
+		return breakMoleculeAlongMatchingBondsWithBondInsertion(exec, null,
+				bondColour, keyColour, valueColour);
+	}
+
+	/**
+	 * Method to break the supplied molecule along all matching bonds, inserting
+	 * a '*-*' bond into the broken bond as the value. Results are filtered by
+	 * any specified heavy atom filters. Each bond counts as a combination
+	 * towards the supplied {@link FragmentationBudget}, and the fragmentation
+	 * stops when the budget is exhausted
+	 * 
+	 * @param exec
+	 *            The {@link ExecutionContext} to check for cancelling
+	 * @param budget
+	 *            The {@link FragmentationBudget} for the molecule, or
+	 *            {@code null} for no budget
+	 * @param bondColour
+	 *            The color to highlight breaking bonds
+	 * @param keyColour
+	 *            The color to highlight 'key' atoms and bonds
+	 * @param valueColour
+	 *            The color to highlight 'value' atoms and bonds
+	 * @return The fragmentations as a set
+	 * @throws CanceledExecutionException
+	 *             if the user cancels during execution
+	 * @throws ToolkitException
+	 *             Thrown if the underlying toolkit throws an exception
+	 * @throws IllegalArgumentException
+	 *             If one of the bonds is {@code null}
+	 * @throws ClosedFactoryException
+	 *             If the {@link #close()} methods has previously been called
+	 * @throws MoleculeFragmentationException
+	 */
+	Set<AbstractMulticomponentFragmentationParser<T>>
+			breakMoleculeAlongMatchingBondsWithBondInsertion(
+					ExecutionContext exec, FragmentationBudget budget,
+					Color bondColour, Color keyColour, Color valueColour)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ToolkitException, ClosedFactoryException,
+					MoleculeFragmentationException;
 
 	/**
 	 * Method to find combinations of cuttable bonds. For combinations of 3 or
@@ -298,6 +378,56 @@ public interface MoleculeFragmentationFactory2<T, U> {
 					throws CanceledExecutionException, ClosedFactoryException,
 					MoleculeFragmentationException;
 
+	/**
+	 * Method to break the supplied molecule along all valid combinations of
+	 * between {@code minNumCuts} and {@code maxNumCuts} matching bonds. Unlike
+	 * {@link #generateCuttableBondCombos(int, int)} followed by
+	 * {@link #breakMoleculeAlongBondCombos(Set, boolean, ExecutionContext, Color, Color, Color, NodeLogger, boolean)},
+	 * the combinations are enumerated lazily, and each is fragmented as it is
+	 * generated, so that the full set of combinations is never held in memory.
+	 * Partial combinations which cannot lead to a valid fragmentation passing
+	 * the filters are pruned during the enumeration. Enumeration stops when
+	 * the supplied {@link FragmentationBudget} is exhausted
+	 *
+	 * @param minNumCuts
+	 *            The minimum number of cuts (must be 2 or more)
+	 * @param maxNumCuts
+	 *            The maximum number of cuts
+	 * @param budget
+	 *            The {@link FragmentationBudget} for the molecule
+	 * @param prochiralAsChiral
+	 *            Should prochiral centres be assigned chirality if there are no
+	 *            known or unknown centres?
+	 * @param exec
+	 *            The {@link ExecutionContext} to check for cancelling
+	 * @param bondColour
+	 *            The color to highlight breaking bonds
+	 * @param keyColour
+	 *            The color to highlight 'key' atoms and bonds
+	 * @param valueColour
+	 *            The color to highlight 'value' atoms and bonds
+	 * @param logger
+	 *            {@link NodeLogger} instance for reporting
+	 * @param verboseLogging
+	 *            Whether verbose logging is enabled
+	 * @return The fragmentations as a set
+	 * @throws CanceledExecutionException
+	 *             if the user cancels during execution
+	 * @throws IllegalArgumentException
+	 *             If the number of cuts is not valid
+	 * @throws ClosedFactoryException
+	 *             If the {@link #close()} methods has previously been called
+	 * @throws MoleculeFragmentationException
+	 */
+	Set<AbstractMulticomponentFragmentationParser<T>>
+			breakMoleculeAlongCuttableBondCombos(int minNumCuts,
+					int maxNumCuts, FragmentationBudget budget,
+					boolean prochiralAsChiral, ExecutionContext exec,
+					Color bondColour, Color keyColour, Color valueColour,
+					NodeLogger logger, boolean verboseLogging)
+					throws CanceledExecutionException, IllegalArgumentException,
+					ClosedFactoryException, MoleculeFragmentationException;
+
 	/**
 	 * @param allowTwoCutsToSingleBond
 	 *            Should a single bond be allowed to be cut twice if 2 cuts are
@@ -52,7 +52,9 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 
 	private final boolean isMulticut;
 	private final FragmentationUtilsFactory<T, U> fragUtilityFactory;
-	private static final int CURRENT_VERSION = 4;
+	private final boolean hasDiagnosticsPort;
+	private static final int CURRENT_VERSION =
+			AbstractMMPFragmentNodeModel.DIAGNOSTICS_PORT_VERSION;
 
 	/**
 	 * Constructor
@@ -70,6 +72,8 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 		super();
 		this.isMulticut = isMulticut;
 		this.fragUtilityFactory = fragUtilityFactory;
+		hasDiagnosticsPort =
+				version >= AbstractMMPFragmentNodeModel.DIAGNOSTICS_PORT_VERSION;
 		setIsDeprecated(version < CURRENT_VERSION);
 	}
 
@@ -129,6 +133,9 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 				return "Input rows for which the molecule could not be parsed in "
 						+ fragUtilityFactory.getToolkitName()
 						+ ", or which could not be fragmented according to the options specified";
+			case 2:
+				return "Per-row fragmentation diagnostics (time, bond combinations "
+						+ "tried, fragmentations and status), if selected";
 			default:
 				return null;
 		}
@@ -141,6 +148,8 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 				return "Fragments";
 			case 1:
 				return "Failed Input Rows";
+			case 2:
+				return "Fragmentation Diagnostics";
 			default:
 				return null;
 		}
@@ -227,7 +236,7 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 				"10.1021/ci900450m");
 
 		insertReference(introCursor, 2, "S. D. Roughley and A. M. Jordan",
-				"The Medicinal Chemists Toolbox: An Analysis of Reactions Used in the Pursuit of Drug Candidates",
+				"The Medicinal Chemist�s Toolbox: An Analysis of Reactions Used in the Pursuit of Drug Candidates",
 				"J. Med. Chem.", 2011, 54, "3451-3479", "10.1021/jm200187y");
 
 		introCursor.beginElement("p");
@@ -303,6 +312,30 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 						+ "identical fragmentations are not discounted)");
 		addOptionToTab(tab, "Maximum Fragmentations",
 				"The limit of predicted fragmentations");
+		addOptionToTab(tab, MMPConstants.APPLY_FRAGMENTATION_BUDGET,
+				"If checked, rather than rejecting complex molecules, the "
+						+ "fragmentation (single cuts, and then bond combinations for 2 or "
+						+ "more cuts) is stopped once either of the limits below is "
+						+ "reached, and the fragmentations found so far are output. "
+						+ "A 'Fragmentation Status' column is added to "
+						+ "the output, indicating whether the fragmentation of the molecule was "
+						+ "complete or truncated (and why)");
+		addOptionToTab(tab, "Maximum bond combinations",
+				"The maximum number of bond combinations to try for each "
+						+ "molecule. Each direction of a single cut counts as one "
+						+ "combination");
+		addOptionToTab(tab, "Maximum fragmentations",
+				"The maximum number of fragmentations to generate for each "
+						+ "molecule, including single cuts");
+		addOptionToTab(tab, MMPConstants.LIMIT_FRAGMENTATION_TIME,
+				"If checked, the fragmentation of each molecule is stopped once "
+						+ "the time limit below is exceeded, and the molecule is sent to the "
+						+ "second output table. The limit is checked between the "
+						+ "fragmentation stages and between each bond combination, so may "
+						+ "be slightly overrun");
+		addOptionToTab(tab, "Maximum time per molecule (ms)",
+				"The maximum time to spend fragmenting each molecule, in "
+						+ "milliseconds");
 		addOptionToTab(tab, "Treat no undefined chiral centres as chiral",
 				"In molecules with explicit chiral centres, newly created "
 						+ "stereocentres are given defined chirality. Molecules with only undefined "
@@ -339,6 +372,15 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 		addOptionToTab(tab, "Add failure reasons to 2nd output table",
 				"If checked, the reason the molecule could not be fragmented "
 						+ "is added to the second output table");
+		if (hasDiagnosticsPort) {
+			addOptionToTab(tab,
+					"Output fragmentation diagnostics to 3rd output table",
+					"If checked, the third output table lists, for each input row, "
+							+ "the time spent fragmenting the molecule, the number of bond "
+							+ "combinations tried, the number of fragmentations output, and the "
+							+ "fragmentation status (including the reason for any rejection). "
+							+ "Otherwise, the third output table is empty");
+		}
 
 		if (fragUtilityFactory.getRendererType() != null) {
 			addOptionToTab(tab, "Render Fragmentation",
@@ -407,6 +449,13 @@ public class AbstractMMPFragmentNodeDescription<T, U> extends NodeDescription {
 		outport.setName(getOutportName(1));
 		outport.newCursor().setTextValue(getOutportDescription(1));
 
+		if (hasDiagnosticsPort) {
+			outport = ports.addNewOutPort();
+			outport.setIndex(2);
+			outport.setName(getOutportName(2));
+			outport.newCursor().setTextValue(getOutportDescription(2));
+		}
+
 		if (getViewCount() > 0) {
 			Views views = node.addNewViews();
 			for (int i = 0; i < getViewCount(); i++) {
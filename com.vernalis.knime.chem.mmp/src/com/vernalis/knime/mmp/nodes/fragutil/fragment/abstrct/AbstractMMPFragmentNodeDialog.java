@@ -88,6 +88,50 @@ public class AbstractMMPFragmentNodeDialog<T, U>
 		addDialogComponent(new DialogComponentNumber(maxFragmentationsMdl,
 				"Maximum Fragmentations", 1000));
 
+		createNewGroup("Per-molecule budget");
+		SettingsModelBoolean applyBudgetMdl = createApplyBudgetModel();
+		SettingsModelIntegerBounded budgetMaxCombinationsMdl =
+				createBudgetMaxCombinationsModel();
+		SettingsModelIntegerBounded budgetMaxFragmentationsMdl =
+				createBudgetMaxFragmentationsModel();
+		applyBudgetMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				budgetMaxCombinationsMdl
+						.setEnabled(applyBudgetMdl.getBooleanValue());
+				budgetMaxFragmentationsMdl
+						.setEnabled(applyBudgetMdl.getBooleanValue());
+			}
+		});
+		budgetMaxCombinationsMdl.setEnabled(applyBudgetMdl.getBooleanValue());
+		budgetMaxFragmentationsMdl
+				.setEnabled(applyBudgetMdl.getBooleanValue());
+
+		addDialogComponent(new DialogComponentBoolean(applyBudgetMdl,
+				MMPConstants.APPLY_FRAGMENTATION_BUDGET));
+		addDialogComponent(new DialogComponentNumber(budgetMaxCombinationsMdl,
+				"Maximum bond combinations", 1000));
+		addDialogComponent(new DialogComponentNumber(
+				budgetMaxFragmentationsMdl, "Maximum fragmentations", 1000));
+
+		createNewGroup("Per-molecule time limit");
+		SettingsModelBoolean limitTimeMdl = createLimitFragmentationTimeModel();
+		SettingsModelIntegerBounded maxTimeMdl =
+				createMaxFragmentationTimeModel();
+		limitTimeMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				maxTimeMdl.setEnabled(limitTimeMdl.getBooleanValue());
+			}
+		});
+		maxTimeMdl.setEnabled(limitTimeMdl.getBooleanValue());
+		addDialogComponent(new DialogComponentBoolean(limitTimeMdl,
+				MMPConstants.LIMIT_FRAGMENTATION_TIME));
+		addDialogComponent(new DialogComponentNumber(maxTimeMdl,
+				"Maximum time per molecule (ms)", 1000));
+
 		createNewGroup("Chirality");
 		addDialogComponent(new DialogComponentBoolean(createProchiralModel(),
 				"Treat no undefined chiral centres as chiral"));
@@ -175,6 +219,11 @@ public class AbstractMMPFragmentNodeDialog<T, U>
 		addDialogComponent(
 				new DialogComponentBoolean(createAddFailReasonModel(),
 						"Add failure reasons to 2nd output table"));
+		if (version >= AbstractMMPFragmentNodeModel.DIAGNOSTICS_PORT_VERSION) {
+			addDialogComponent(new DialogComponentBoolean(
+					createOutputDiagnosticsModel(),
+					"Output fragmentation diagnostics to 3rd output table"));
+		}
 
 		if (fragUtilityFactory.getRendererType() != null) {
 			createNewGroup("Fragmentation rendering");
@@ -484,6 +533,52 @@ public class AbstractMMPFragmentNodeDialog<T, U>
 				MMPConstants.MAXIMUM_MAX_FRAGMENTATIONS);
 	}
 
+	/** Create settings model for applying the per-molecule budget */
+	public static SettingsModelBoolean createApplyBudgetModel() {
+		return new SettingsModelBoolean(
+				MMPConstants.APPLY_FRAGMENTATION_BUDGET,
+				MMPConstants.DEFAULT_APPLY_FRAGMENTATION_BUDGET);
+	}
+
+	/**
+	 * Create settings model for the per-molecule budget maximum bond
+	 * combinations
+	 */
+	public static SettingsModelIntegerBounded
+			createBudgetMaxCombinationsModel() {
+		return new SettingsModelIntegerBounded(
+				MMPConstants.BUDGET_MAX_COMBINATIONS,
+				MMPConstants.DEFAULT_BUDGET_MAX_COMBINATIONS, 1,
+				Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Create settings model for the per-molecule budget maximum
+	 * fragmentations
+	 */
+	public static SettingsModelIntegerBounded
+			createBudgetMaxFragmentationsModel() {
+		return new SettingsModelIntegerBounded(
+				MMPConstants.BUDGET_MAX_FRAGMENTATIONS,
+				MMPConstants.DEFAULT_BUDGET_MAX_FRAGMENTATIONS, 1,
+				Integer.MAX_VALUE);
+	}
+
+	/** Create settings model for limiting the time spent on each molecule */
+	public static SettingsModelBoolean createLimitFragmentationTimeModel() {
+		return new SettingsModelBoolean(MMPConstants.LIMIT_FRAGMENTATION_TIME,
+				MMPConstants.DEFAULT_LIMIT_FRAGMENTATION_TIME);
+	}
+
+	/** Create settings model for the maximum time spent on each molecule */
+	public static SettingsModelIntegerBounded
+			createMaxFragmentationTimeModel() {
+		return new SettingsModelIntegerBounded(
+				MMPConstants.MAX_FRAGMENTATION_TIME,
+				MMPConstants.DEFAULT_MAX_FRAGMENTATION_TIME, 1,
+				Integer.MAX_VALUE);
+	}
+
 	/**
 	 * Create Settings Model for the option to deal with generated chirality for
 	 * molecules with no centres
@@ -547,6 +642,12 @@ public class AbstractMMPFragmentNodeDialog<T, U>
 				MMPConstants.DEFAULT_OUTPUT_CHANGING_UNCHANGING_HAC_RATIOS);
 	}
 
+	/** Create settings model for the fragmentation diagnostics output */
+	public static SettingsModelBoolean createOutputDiagnosticsModel() {
+		return new SettingsModelBoolean(MMPConstants.OUTPUT_DIAGNOSTICS,
+				MMPConstants.DEFAULT_OUTPUT_DIAGNOSTICS);
+	}
+
 	/** Create settings model for extra failure reasons column */
 	public static SettingsModelBoolean createAddFailReasonModel() {
 		return new SettingsModelBoolean(MMPConstants.ADD_FAILURE_REASONS,
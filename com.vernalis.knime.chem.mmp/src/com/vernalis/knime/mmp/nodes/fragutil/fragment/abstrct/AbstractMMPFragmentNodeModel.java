@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -53,6 +54,7 @@ import org.knime.core.data.container.DataContainerException;
 import org.knime.core.data.def.DefaultRow;
 import org.knime.core.data.def.DoubleCell;
 import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
 import org.knime.core.data.def.StringCell;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
 import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
@@ -85,18 +87,19 @@ import org.knime.core.node.streamable.RowInput;
 import org.knime.core.node.streamable.RowOutput;
 import org.knime.core.node.streamable.StreamableOperator;
 import org.knime.core.util.MultiThreadWorker;
+import org.knime.core.util.Pair;
 
 import com.vernalis.knime.mmp.IncomingMoleculeException;
 import com.vernalis.knime.mmp.MMPConstants;
 import com.vernalis.knime.mmp.ToolkitException;
 import com.vernalis.knime.mmp.fragmentors.AbstractFragmentationFactory;
 import com.vernalis.knime.mmp.fragmentors.ClosedFactoryException;
+import com.vernalis.knime.mmp.fragmentors.FragmentationBudget;
 import com.vernalis.knime.mmp.fragmentors.MoleculeFragmentationException;
 import com.vernalis.knime.mmp.fragmentors.MoleculeFragmentationFactory2;
 import com.vernalis.knime.mmp.frags.abstrct.AbstractFragmentKey;
 import com.vernalis.knime.mmp.frags.abstrct.AbstractLeaf;
 import com.vernalis.knime.mmp.frags.abstrct.AbstractMulticomponentFragmentationParser;
-import com.vernalis.knime.mmp.frags.abstrct.BondIdentifier;
 import com.vernalis.knime.mmp.fragutils.FragmentationUtilsFactory;
 import com.vernalis.knime.mmp.nodes.fragutil.abstrct.AbstractMMPFragmentationFactoryNodeModel;
 import com.vernalis.knime.mmp.prefs.MatchedPairPreferencePage;
@@ -105,7 +108,10 @@ import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMP
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createAddValueGraphDistanceFPModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createAllowHiliteModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createApFingerprintsModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createApplyBudgetModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createBreakingBondColourModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createBudgetMaxCombinationsModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createBudgetMaxFragmentationsModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createFpLengthModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createFpUseBondTypesModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createFpUseChiralityModel;
@@ -117,11 +123,14 @@ import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMP
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createKeptColumnsModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createKeyColourModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createLimitByComplexityModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createLimitFragmentationTimeModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createMaxChangingAtomsModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createMaxFragmentationTimeModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createMaxFragmentationsModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createMinFixedAtomsModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createMorganRadiusModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createOutputChangingHACountsModel;
+import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createOutputDiagnosticsModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createOutputHARatiosModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createProchiralModel;
 import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMPFragmentNodeDialog.createRenderBreakingBondModel;
@@ -148,6 +157,13 @@ import static com.vernalis.knime.mmp.nodes.fragutil.fragment.abstrct.AbstractMMP
 public class AbstractMMPFragmentNodeModel<T, U>
 		extends AbstractMMPFragmentationFactoryNodeModel<T, U> {
 
+	/**
+	 * The first node version with the fragmentation diagnostics output port.
+	 * Earlier versions keep their original 2 output ports so that existing
+	 * workflow connections are unaffected
+	 */
+	public static final int DIAGNOSTICS_PORT_VERSION = 5;
+
 	protected final SettingsModelBoolean m_prochiralAsChiral =
 			createProchiralModel();
 	protected final SettingsModelColumnName m_idColName =
@@ -191,6 +207,18 @@ public class AbstractMMPFragmentNodeModel<T, U>
 			createLimitByComplexityModel();
 	protected final SettingsModelIntegerBounded m_maxFragmentations =
 			createMaxFragmentationsModel();
+	protected final SettingsModelBoolean m_applyBudget =
+			createApplyBudgetModel();
+	protected final SettingsModelIntegerBounded m_budgetMaxCombinations =
+			createBudgetMaxCombinationsModel();
+	protected final SettingsModelIntegerBounded m_budgetMaxFragmentations =
+			createBudgetMaxFragmentationsModel();
+	protected final SettingsModelBoolean m_limitTime =
+			createLimitFragmentationTimeModel();
+	protected final SettingsModelIntegerBounded m_maxTime =
+			createMaxFragmentationTimeModel();
+	protected final SettingsModelBoolean m_outputDiagnostics =
+			createOutputDiagnosticsModel();
 	protected SettingsModelBoolean m_addValueGraphDistanceFingerprint =
 			createAddValueGraphDistanceFPModel();
 
@@ -198,6 +226,8 @@ public class AbstractMMPFragmentNodeModel<T, U>
 	protected DataTableSpec m_spec_0;
 	/** Output table specs */
 	protected DataTableSpec m_spec_1;
+	/** Output table specs */
+	protected DataTableSpec m_spec_2;
 
 	// Some fields to be accesses by the progress view
 	protected Long numRows = null;
@@ -228,7 +258,8 @@ public class AbstractMMPFragmentNodeModel<T, U>
 	 */
 	public AbstractMMPFragmentNodeModel(boolean isMulticut,
 			FragmentationUtilsFactory<T, U> fragUtilityFactory, int version) {
-		super(1, 2, fragUtilityFactory, isMulticut, version);
+		super(1, version >= DIAGNOSTICS_PORT_VERSION ? 3 : 2,
+				fragUtilityFactory, isMulticut, version);
 
 		// SettingsModels
 		m_hasChangingAtoms.addChangeListener(new ChangeListener() {
@@ -264,6 +295,30 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		});
 		m_maxFragmentations.setEnabled(m_limitByComplexity.getBooleanValue());
 
+		m_applyBudget.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				m_budgetMaxCombinations
+						.setEnabled(m_applyBudget.getBooleanValue());
+				m_budgetMaxFragmentations
+						.setEnabled(m_applyBudget.getBooleanValue());
+
+			}
+		});
+		m_budgetMaxCombinations.setEnabled(m_applyBudget.getBooleanValue());
+		m_budgetMaxFragmentations.setEnabled(m_applyBudget.getBooleanValue());
+
+		m_limitTime.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				m_maxTime.setEnabled(m_limitTime.getBooleanValue());
+
+			}
+		});
+		m_maxTime.setEnabled(m_limitTime.getBooleanValue());
+
 		hasMinFixedHAFilter.addChangeListener(new ChangeListener() {
 
 			@Override
@@ -482,6 +537,7 @@ public class AbstractMMPFragmentNodeModel<T, U>
 
 		m_spec_0 = createSpec_0(inSpecs[0]);
 		m_spec_1 = createSpec_1(inSpecs[0]);
+		m_spec_2 = hasDiagnosticsPort() ? createSpec_2() : null;
 		keptColMask = createKeptColMask(inSpecs[0]);
 
 		// Update any views parameters
@@ -490,7 +546,9 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		completedQueue = 0;
 		activeThreads = 0;
 		notifyViews(true);
-		return new DataTableSpec[] { m_spec_0, m_spec_1 };
+		return hasDiagnosticsPort()
+				? new DataTableSpec[] { m_spec_0, m_spec_1, m_spec_2 }
+				: new DataTableSpec[] { m_spec_0, m_spec_1 };
 	}
 
 	protected int countFragmentationColumns() {
@@ -513,6 +571,9 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		if (isMulticut) {
 			colCnt++;
 		}
+		if (m_applyBudget.getBooleanValue()) {
+			colCnt++;
+		}
 		if (renderFragmentationMdl != null
 				&& renderFragmentationMdl.getBooleanValue()) {
 			colCnt++;
@@ -593,6 +654,9 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		if (isMulticut) {
 			specs[i++] = createColSpec("Number of Cuts", IntCell.TYPE);
 		}
+		if (m_applyBudget.getBooleanValue()) {
+			specs[i++] = createColSpec("Fragmentation Status", StringCell.TYPE);
+		}
 
 		for (String keptCol : keptColNames) {
 			DataColumnSpec inColSpec = spec.getColumnSpec(keptCol);
@@ -632,6 +696,81 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		}
 	}
 
+	/**
+	 * Method to create the 3rd output table spec (fragmentation diagnostics)
+	 * 
+	 * @return The diagnostics table spec
+	 */
+	protected DataTableSpec createSpec_2() {
+		return new DataTableSpec(createColSpec("ID", StringCell.TYPE),
+				createColSpec("Fragmentation Time (ms)", LongCell.TYPE),
+				createColSpec("Bond Combinations Tried", LongCell.TYPE),
+				createColSpec("Fragmentations", LongCell.TYPE),
+				createColSpec("Fragmentation Status", StringCell.TYPE));
+	}
+
+	/**
+	 * Method to create a row for the diagnostics table
+	 * 
+	 * @param inRow
+	 *            The incoming row
+	 * @param idCell
+	 *            The ID cell
+	 * @param budget
+	 *            The {@link FragmentationBudget} used to track the
+	 *            fragmentation
+	 * @param numFragmentations
+	 *            The number of fragmentations output
+	 * @param rejectionReason
+	 *            The reason the molecule was rejected, or {@code null} if it
+	 *            was not
+	 * @return The diagnostics row
+	 */
+	protected DataRow createDiagnosticsRow(DataRow inRow, DataCell idCell,
+			FragmentationBudget budget, long numFragmentations,
+			String rejectionReason) {
+		return new DefaultRow(inRow.getKey(), idCell,
+				new LongCell(budget.getElapsedMillis()),
+				new LongCell(budget.getCombinationsTried()),
+				new LongCell(numFragmentations),
+				new StringCell(rejectionReason == null ? budget.getStatus()
+						: "Rejected - " + rejectionReason));
+	}
+
+	/**
+	 * Method to get the ID cell for a row. A missing ID (which is only
+	 * possible for a row which has been rejected) gives a missing cell
+	 * 
+	 * @param row
+	 *            The incoming row
+	 * @param idColIdx
+	 *            The index of the ID column, or -1 to use the row ID
+	 * @return The ID cell
+	 */
+	protected DataCell getIdCell(DataRow row, int idColIdx) {
+		if (idColIdx < 0) {
+			return new StringCell(row.getKey().getString());
+		}
+		final DataCell cell = row.getCell(idColIdx);
+		return cell.isMissing() ? DataType.getMissingCell()
+				: new StringCell(((StringValue) cell).getStringValue());
+	}
+
+	/**
+	 * @return {@code true} if the node has the fragmentation diagnostics
+	 *         output port
+	 */
+	protected boolean hasDiagnosticsPort() {
+		return version >= DIAGNOSTICS_PORT_VERSION;
+	}
+
+	/**
+	 * @return {@code true} if fragmentation diagnostics should be output
+	 */
+	protected boolean isOutputDiagnostics() {
+		return hasDiagnosticsPort() && m_outputDiagnostics.getBooleanValue();
+	}
+
 	protected int[] createKeptColIds(DataTableSpec spec) {
 		return Arrays.stream(m_keptColumns.applyTo(spec).getIncludes())
 				.filter(x -> !x.equals(m_idColName.getStringValue()))
@@ -684,11 +823,19 @@ public class AbstractMMPFragmentNodeModel<T, U>
 						? valueColourMdl.getColorValue()
 						: null;
 
-		final BufferedDataContainer[] dc = new BufferedDataContainer[] {
-				exec.createDataContainer(
-						m_spec_0)/* A table for the processed output */,
-				exec.createDataContainer(
-						m_spec_1)/* And a table for unprocessed rows */ };
+		final BufferedDataContainer[] dc = hasDiagnosticsPort()
+				? new BufferedDataContainer[] {
+						exec.createDataContainer(
+								m_spec_0)/* A table for the processed output */,
+						exec.createDataContainer(
+								m_spec_1)/* And a table for unprocessed rows */,
+						exec.createDataContainer(
+								m_spec_2)/* And a table for diagnostics */ }
+				: new BufferedDataContainer[] {
+						exec.createDataContainer(
+								m_spec_0)/* A table for the processed output */,
+						exec.createDataContainer(
+								m_spec_1)/* And a table for unprocessed rows */ };
 
 		// Deal with the empty table situation
 		if (numRows == 0) {
@@ -737,22 +884,31 @@ public class AbstractMMPFragmentNodeModel<T, U>
 			long systemStartTime = System.nanoTime();
 
 			Map<RowKey, Set<RowKey>> mapping = new HashMap<>();
+			// Budgets for rows in progress, when diagnostics are required
+			final Map<RowKey, FragmentationBudget> budgets =
+					new ConcurrentHashMap<>();
 
-			MultiThreadWorker<DataRow, Set<AbstractMulticomponentFragmentationParser<T>>> processor =
-					new MultiThreadWorker<DataRow, Set<AbstractMulticomponentFragmentationParser<T>>>(
+			MultiThreadWorker<DataRow, Pair<Set<AbstractMulticomponentFragmentationParser<T>>, FragmentationBudget>> processor =
+					new MultiThreadWorker<DataRow, Pair<Set<AbstractMulticomponentFragmentationParser<T>>, FragmentationBudget>>(
 							getQueueSize(), getNumThreads()) {
 
 						@Override
 						protected
-								Set<AbstractMulticomponentFragmentationParser<T>>
+								Pair<Set<AbstractMulticomponentFragmentationParser<T>>, FragmentationBudget>
 								compute(DataRow in, long index)
 										throws IncomingMoleculeException,
 										ClosedFactoryException {
 
 							try {
 								long index1 = index + 1L;
-								Set<AbstractMulticomponentFragmentationParser<T>> retVal =
-										runFragmentationsOnRow(
+								FragmentationBudget budget =
+										createFragmentationBudget();
+								if (isOutputDiagnostics()) {
+									budgets.put(in.getKey(), budget);
+								}
+								Set<AbstractMulticomponentFragmentationParser<T>> retVal;
+								try {
+									retVal = runFragmentationsOnRow(
 												getMoleculeFromRow(in,
 														molColIdx, idColIdx,
 														index1),
@@ -764,10 +920,16 @@ public class AbstractMMPFragmentNodeModel<T, U>
 												m_allowTwoCutsToBondValue
 														.getBooleanValue(),
 												maxNumVarAtm, minNumFixedAtm,
-												minCnstToVarAtmRatio, exec);
+												minCnstToVarAtmRatio, budget,
+												exec);
+								} finally {
+									if (budget != null) {
+										budget.finish();
+									}
+								}
 
 								updateProgress(exec);
-								return retVal;
+								return new Pair<>(retVal, budget);
 							} catch (CanceledExecutionException e) {
 								throw new CancellationException();
 							} finally {
@@ -783,28 +945,34 @@ public class AbstractMMPFragmentNodeModel<T, U>
 							DataRow inRow = task.getInput();
 							Set<RowKey> inKeySet =
 									Collections.singleton(inRow.getKey());
-							Set<AbstractMulticomponentFragmentationParser<T>> result;
+							Pair<Set<AbstractMulticomponentFragmentationParser<T>>, FragmentationBudget> result;
 							long subRowIdx = 0;
+							final FragmentationBudget budget =
+									budgets.remove(inRow.getKey());
 							try {
 								result = task.get();
-								DataCell idCell = idColIdx < 0
-										? new StringCell(
-												inRow.getKey().getString())
-										: new StringCell(((StringValue) inRow
-												.getCell(idColIdx))
-														.getStringValue());
-								for (AbstractMulticomponentFragmentationParser<T> fragmentation : result) {
+								// The row has been validated, so the ID is not
+								// missing
+								DataCell idCell = getIdCell(inRow, idColIdx);
+								for (AbstractMulticomponentFragmentationParser<T> fragmentation : result
+										.getFirst()) {
 									DataRow baseRow = new DefaultRow(
 											inRow.getKey().getString() + "_"
 													+ (subRowIdx++),
 											getCellsForFragmentation(idCell,
-													fragmentation));
+													fragmentation,
+													result.getSecond()));
 									if (m_hiliteMdl.getBooleanValue()) {
 										mapping.put(baseRow.getKey(), inKeySet);
 									}
 									dc[0].addRowToTable(new AppendedColumnRow(
 											baseRow, inRow, keptColMask));
 								}
+								if (budget != null) {
+									dc[2].addRowToTable(createDiagnosticsRow(
+											inRow, idCell, budget, subRowIdx,
+											null));
+								}
 
 							} catch (ExecutionException ee) {
 								Throwable e = ee.getCause();
@@ -821,6 +989,14 @@ public class AbstractMMPFragmentNodeModel<T, U>
 															new StringCell(e
 																	.getMessage()))
 													: inRow);
+									if (budget != null) {
+										dc[2].addRowToTable(
+												createDiagnosticsRow(inRow,
+														getIdCell(inRow,
+																idColIdx),
+														budget, 0,
+														e.getMessage()));
+									}
 								} else {
 									throw ee;
 								}
@@ -923,6 +1099,22 @@ public class AbstractMMPFragmentNodeModel<T, U>
 
 	protected DataCell[] getCellsForFragmentation(DataCell idCell,
 			AbstractMulticomponentFragmentationParser<T> fragmentation) {
+		return getCellsForFragmentation(idCell, fragmentation, null);
+	}
+
+	/**
+	 * @param idCell
+	 *            The ID cell for the row
+	 * @param fragmentation
+	 *            The fragmentation
+	 * @param budget
+	 *            The {@link FragmentationBudget} used for the molecule, or
+	 *            {@code null} if none was used
+	 * @return The cells for the fragmentation output row
+	 */
+	protected DataCell[] getCellsForFragmentation(DataCell idCell,
+			AbstractMulticomponentFragmentationParser<T> fragmentation,
+			FragmentationBudget budget) {
 		DataCell[] cells = new DataCell[countFragmentationColumns()];
 		Arrays.fill(cells, DataType.getMissingCell());
 		int colIdx = 0;
@@ -972,6 +1164,9 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		if (isMulticut) {
 			cells[colIdx++] = new IntCell(fragmentation.getNumCuts());
 		}
+		if (m_applyBudget.getBooleanValue() && budget != null) {
+			cells[colIdx++] = new StringCell(budget.getStatus());
+		}
 
 		return cells;
 	}
@@ -1011,6 +1206,51 @@ public class AbstractMMPFragmentNodeModel<T, U>
 					Integer minNumFixedAtm, Double minCnstToVarAtmRatio,
 					ExecutionContext exec) throws CanceledExecutionException,
 					IncomingMoleculeException, ClosedFactoryException {
+		return runFragmentationsOnRow(mol, bondMatch, rowIndexForGc,
+				minNumCuts, maxNumCuts, prochiralAsChiral, addHs, stripHsAtEnd,
+				allowTwoCutsToBondValue, maxNumVarAtm, minNumFixedAtm,
+				minCnstToVarAtmRatio, null, exec);
+	}
+
+	/**
+	 * Method to run the fragmentation of a single molecule. Combinations of 2
+	 * or more cuts are enumerated lazily, and stop once the supplied budget
+	 * (if any) is exhausted, in which case the fragmentations generated so
+	 * far are returned and the budget is flagged as truncated
+	 * 
+	 * @param mol
+	 * @param bondMatch
+	 * @param rowIndexForGc
+	 *            The index of the row, for possible GC
+	 * @param minNumCuts
+	 * @param maxNumCuts
+	 * @param prochiralAsChiral
+	 * @param addHs
+	 * @param stripHsAtEnd
+	 * @param allowTwoCutsToBondValue
+	 * @param maxNumVarAtm
+	 * @param minNumFixedAtm
+	 * @param minCnstToVarAtmRatio
+	 * @param budget
+	 *            The {@link FragmentationBudget} for the molecule, or
+	 *            {@code null} for no budget
+	 * @param exec
+	 * 
+	 * @return The fragmentations
+	 * 
+	 * @throws CanceledExecutionException
+	 * @throws IncomingMoleculeException
+	 * @throws ClosedFactoryException
+	 */
+	protected Set<AbstractMulticomponentFragmentationParser<T>>
+			runFragmentationsOnRow(T mol, U bondMatch, long rowIndexForGc,
+					int minNumCuts, int maxNumCuts, boolean prochiralAsChiral,
+					boolean addHs, boolean stripHsAtEnd,
+					boolean allowTwoCutsToBondValue, Integer maxNumVarAtm,
+					Integer minNumFixedAtm, Double minCnstToVarAtmRatio,
+					FragmentationBudget budget, ExecutionContext exec)
+					throws CanceledExecutionException,
+					IncomingMoleculeException, ClosedFactoryException {
 
 		Set<AbstractMulticomponentFragmentationParser<T>> fragmentations =
 				new TreeSet<>();
@@ -1086,12 +1326,14 @@ public class AbstractMMPFragmentNodeModel<T, U>
 			}
 		}
 
-		// Now do the fragmentations
+		// Now do the fragmentations. All stages share the budget, so that once
+		// it is exhausted, the remaining stages generate nothing further
+		checkTimeLimit(budget, fragFactory, fragFactoryHAdded);
 		if (addHs) {
 			try {
 				fragmentations.addAll(
 						fragFactoryHAdded.breakMoleculeAlongMatchingBonds(exec,
-								bondColour, keyColour, valueColour));
+								budget, bondColour, keyColour, valueColour));
 			} catch (IllegalArgumentException | ToolkitException
 					| MoleculeFragmentationException e) {
 				fragFactory.close();
@@ -1107,7 +1349,7 @@ public class AbstractMMPFragmentNodeModel<T, U>
 			try {
 				fragmentations.addAll(
 						fragFactory.breakMoleculeAlongMatchingBonds(exec,
-								bondColour, keyColour, valueColour));
+								budget, bondColour, keyColour, valueColour));
 			} catch (ToolkitException | IllegalArgumentException
 					| MoleculeFragmentationException e) {
 				fragFactory.close();
@@ -1117,11 +1359,12 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		}
 
 		// Deal with the special case of 2 cuts, and allowing *-* as a value
+		checkTimeLimit(budget, fragFactory, null);
 		if (minNumCuts <= 2 && maxNumCuts >= 2 && allowTwoCutsToBondValue) {
 			try {
 				fragmentations.addAll(fragFactory
 						.breakMoleculeAlongMatchingBondsWithBondInsertion(exec,
-								bondColour, keyColour, valueColour));
+								budget, bondColour, keyColour, valueColour));
 			} catch (ToolkitException | IllegalArgumentException
 					| MoleculeFragmentationException e) {
 				fragFactory.close();
@@ -1131,22 +1374,19 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		}
 
 		// Now do 2 or more cuts
+		checkTimeLimit(budget, fragFactory, null);
 		if (maxNumCuts >= 2) {
-
-			// Now generate the combinations of bonds to cut for 2 or more cuts,
-			// removing higher
-			// graphs of invalid triplets where appropriate
-			// Why doesnt this take cuttableBonds as an argument? - Because
-			// cuttable
-			// bonds change with number of cuts!
-			Set<Set<BondIdentifier>> bondCombos;
+			// The combinations of bonds to cut for 2 or more cuts are
+			// generated lazily, with invalid triplets and combinations which
+			// cannot pass the filters pruned as they are enumerated, and each
+			// fragmented as it is found
 			try {
-				bondCombos = fragFactory.generateCuttableBondCombos(
-						Math.max(minNumCuts, 2), maxNumCuts);
-				fragmentations.addAll(fragFactory.breakMoleculeAlongBondCombos(
-						bondCombos, prochiralAsChiral, exec, bondColour,
-						keyColour, valueColour, logger, verboseLogging));
-			} catch (IllegalArgumentException | ToolkitException
+				fragmentations.addAll(
+						fragFactory.breakMoleculeAlongCuttableBondCombos(
+								Math.max(minNumCuts, 2), maxNumCuts, budget,
+								prochiralAsChiral, exec, bondColour, keyColour,
+								valueColour, logger, verboseLogging));
+			} catch (IllegalArgumentException
 					| MoleculeFragmentationException e) {
 				fragFactory.close();
 				throw new IncomingMoleculeException(
@@ -1154,6 +1394,7 @@ public class AbstractMMPFragmentNodeModel<T, U>
 			}
 		}
 		fragFactory.close();
+		checkTimeLimit(budget, null, null);
 
 		// If we are here and no fragmentations, then there will not be any...
 		if (fragmentations.size() == 0) {
@@ -1163,6 +1404,59 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		return fragmentations;
 	}
 
+	/**
+	 * Method to reject the molecule if the time limit in the budget has been
+	 * exceeded, closing any open fragmentation factories
+	 * 
+	 * @param budget
+	 *            The budget (may be {@code null})
+	 * @param fragFactory
+	 *            The fragmentation factory to close (may be {@code null})
+	 * @param fragFactoryHAdded
+	 *            The H-added fragmentation factory to close (may be
+	 *            {@code null})
+	 * @throws IncomingMoleculeException
+	 *             If the time limit has been exceeded
+	 */
+	protected void checkTimeLimit(FragmentationBudget budget,
+			MoleculeFragmentationFactory2<T, U> fragFactory,
+			MoleculeFragmentationFactory2<T, U> fragFactoryHAdded)
+			throws IncomingMoleculeException {
+		if (budget == null || budget.checkTime()) {
+			return;
+		}
+		if (fragFactoryHAdded != null) {
+			fragFactoryHAdded.close();
+		}
+		if (fragFactory != null) {
+			fragFactory.close();
+		}
+		throw new IncomingMoleculeException(
+				"Fragmentation exceeded time limit of " + budget.getMaxMillis()
+						+ "ms");
+	}
+
+	/**
+	 * @return A new {@link FragmentationBudget} for a molecule, or
+	 *         {@code null} if no budget, time limit or diagnostics are
+	 *         required
+	 */
+	protected FragmentationBudget createFragmentationBudget() {
+		if (!m_applyBudget.getBooleanValue() && !m_limitTime.getBooleanValue()
+				&& !isOutputDiagnostics()) {
+			return null;
+		}
+		return new FragmentationBudget(
+				m_applyBudget.getBooleanValue()
+						? m_budgetMaxCombinations.getIntValue()
+						: Long.MAX_VALUE,
+				m_applyBudget.getBooleanValue()
+						? m_budgetMaxFragmentations.getIntValue()
+						: Long.MAX_VALUE,
+				m_limitTime.getBooleanValue() ? m_maxTime.getIntValue()
+						: Long.MAX_VALUE);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1180,8 +1474,11 @@ public class AbstractMMPFragmentNodeModel<T, U>
 	 */
 	@Override
 	public OutputPortRole[] getOutputPortRoles() {
-		return new OutputPortRole[] { OutputPortRole.DISTRIBUTED,
-				OutputPortRole.DISTRIBUTED };
+		return hasDiagnosticsPort()
+				? new OutputPortRole[] { OutputPortRole.DISTRIBUTED,
+						OutputPortRole.DISTRIBUTED, OutputPortRole.DISTRIBUTED }
+				: new OutputPortRole[] { OutputPortRole.DISTRIBUTED,
+						OutputPortRole.DISTRIBUTED };
 	}
 
 	/*
@@ -1241,12 +1538,17 @@ public class AbstractMMPFragmentNodeModel<T, U>
 					RowInput input = (RowInput) inputs[0];
 					RowOutput fragmentTable = (RowOutput) outputs[0];
 					RowOutput rejectTable = (RowOutput) outputs[1];
+					RowOutput diagnosticsTable = hasDiagnosticsPort()
+							? (RowOutput) outputs[2]
+							: null;
 					DataRow row;
 					while ((row = input.poll()) != null) {
+						FragmentationBudget budget = createFragmentationBudget();
 						try {
 							long idx = rowIdx.incrementAndGet();
-							Set<AbstractMulticomponentFragmentationParser<T>> frags =
-									runFragmentationsOnRow(
+							Set<AbstractMulticomponentFragmentationParser<T>> frags;
+							try {
+								frags = runFragmentationsOnRow(
 											getMoleculeFromRow(row, molColIdx,
 													idColIdx, idx),
 											bondMatch, idx, minNumCuts,
@@ -1257,27 +1559,33 @@ public class AbstractMMPFragmentNodeModel<T, U>
 											m_allowTwoCutsToBondValue
 													.getBooleanValue(),
 											maxNumVarAtm, minNumFixedAtm,
-											minCnstToVarAtmRatio, exec);
+											minCnstToVarAtmRatio, budget,
+											exec);
+							} finally {
+								if (budget != null) {
+									budget.finish();
+								}
+							}
 							long subRowIdx = 0;
 							Set<RowKey> mappedKeys = new HashSet<>();
 
-							DataCell idCell = idColIdx < 0
-									? new StringCell(row.getKey().getString())
-									: new StringCell(((StringValue) row
-											.getCell(idColIdx))
-													.getStringValue());
+							DataCell idCell = getIdCell(row, idColIdx);
 							for (AbstractMulticomponentFragmentationParser<T> fragmentation : frags) {
 								DataRow baseRow = new DefaultRow(
 										row.getKey().getString() + "_"
 												+ (subRowIdx++),
 										getCellsForFragmentation(idCell,
-												fragmentation));
+												fragmentation, budget));
 								if (m_hiliteMdl.getBooleanValue()) {
 									mappedKeys.add(baseRow.getKey());
 								}
 								fragmentTable.push(new AppendedColumnRow(
 										baseRow, row, keptColMask));
 							}
+							if (isOutputDiagnostics()) {
+								diagnosticsTable.push(createDiagnosticsRow(row,
+										idCell, budget, subRowIdx, null));
+							}
 							// if (m_hiliteMdl.getBooleanValue()) {
 							// mapping.put(row.getKey(), mappedKeys);
 							// }
@@ -1293,11 +1601,19 @@ public class AbstractMMPFragmentNodeModel<T, U>
 													new StringCell(
 															e.getMessage()))
 											: row);
+							if (isOutputDiagnostics()) {
+								diagnosticsTable.push(createDiagnosticsRow(row,
+										getIdCell(row, idColIdx), budget, 0,
+										e.getMessage()));
+							}
 						}
 						exec.checkCanceled();
 					}
 					fragmentTable.close();
 					rejectTable.close();
+					if (diagnosticsTable != null) {
+						diagnosticsTable.close();
+					}
 				}
 			};
 		} catch (Exception e) {
@@ -1338,6 +1654,12 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		m_hiliteMdl.saveSettingsTo(settings);
 		m_limitByComplexity.saveSettingsTo(settings);
 		m_maxFragmentations.saveSettingsTo(settings);
+		m_applyBudget.saveSettingsTo(settings);
+		m_budgetMaxCombinations.saveSettingsTo(settings);
+		m_budgetMaxFragmentations.saveSettingsTo(settings);
+		m_limitTime.saveSettingsTo(settings);
+		m_maxTime.saveSettingsTo(settings);
+		m_outputDiagnostics.saveSettingsTo(settings);
 
 		m_prochiralAsChiral.saveSettingsTo(settings);
 		m_hasChangingAtoms.saveSettingsTo(settings);
@@ -1384,6 +1706,22 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		m_hiliteMdl.loadSettingsFrom(settings);
 		m_limitByComplexity.loadSettingsFrom(settings);
 		m_maxFragmentations.loadSettingsFrom(settings);
+		try {
+			m_applyBudget.loadSettingsFrom(settings);
+			m_budgetMaxCombinations.loadSettingsFrom(settings);
+			m_budgetMaxFragmentations.loadSettingsFrom(settings);
+		} catch (InvalidSettingsException e) {
+			getLogger().info(
+					"No settings found for per-molecule fragmentation budget - using legacy defaults");
+		}
+		try {
+			m_limitTime.loadSettingsFrom(settings);
+			m_maxTime.loadSettingsFrom(settings);
+			m_outputDiagnostics.loadSettingsFrom(settings);
+		} catch (InvalidSettingsException e) {
+			getLogger().info(
+					"No settings found for per-molecule time limit or diagnostics - using legacy defaults");
+		}
 
 		m_prochiralAsChiral.loadSettingsFrom(settings);
 		m_hasChangingAtoms.loadSettingsFrom(settings);
@@ -1444,7 +1782,8 @@ public class AbstractMMPFragmentNodeModel<T, U>
 		m_limitByComplexity.validateSettings(settings);
 		m_maxFragmentations.validateSettings(settings);
 
-		// Dont validate min fixed HAC filter settings
+		// Dont validate min fixed HAC filter, fragmentation budget, time limit
+		// or diagnostics settings
 
 		m_fpLength.validateSettings(settings);
 		m_morganRadius.validateSettings(settings);
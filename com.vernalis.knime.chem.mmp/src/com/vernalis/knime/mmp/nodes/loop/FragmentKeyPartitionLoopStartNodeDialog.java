@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU General Public License, Version 3, as 
+ * published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of 
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>
+ *******************************************************************************/
+package com.vernalis.knime.mmp.nodes.loop;
+
+import org.knime.chem.types.SmilesValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+/**
+ * The node dialog panel for the Fragment Key Partition loop start node
+ * 
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ * 
+ */
+public class FragmentKeyPartitionLoopStartNodeDialog
+		extends DefaultNodeSettingsPane {
+
+	/**
+	 * Constructor for the Fragment Key Partition loop start node dialog pane
+	 */
+	@SuppressWarnings("unchecked")
+	public FragmentKeyPartitionLoopStartNodeDialog() {
+		super();
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createFragKeyModel(), "Fragment Key column", 0,
+				SmilesValue.class));
+		addDialogComponent(new DialogComponentNumber(
+				createNumPartitionsModel(), "Number of partitions", 1));
+	}
+
+	/**
+	 * @return The settings model for the fragment key column
+	 */
+	public static SettingsModelString createFragKeyModel() {
+		return new SettingsModelString("Fragment Key Column", null);
+	}
+
+	/**
+	 * @return The settings model for the number of partitions
+	 */
+	public static SettingsModelIntegerBounded createNumPartitionsModel() {
+		return new SettingsModelIntegerBounded("Number of partitions", 4, 1,
+				Integer.MAX_VALUE);
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU General Public License, Version 3, as 
+ * published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of 
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>
+ *******************************************************************************/
+package com.vernalis.knime.mmp.nodes.loop;
+
+import org.knime.core.node.NodeDialogPane;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeView;
+
+/**
+ * Node Factory for the Fragment Key Partition loop start node
+ * 
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ * 
+ */
+public class FragmentKeyPartitionLoopStartNodeFactory
+		extends NodeFactory<FragmentKeyPartitionLoopStartNodeModel> {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeModel()
+	 */
+	@Override
+	public FragmentKeyPartitionLoopStartNodeModel createNodeModel() {
+		return new FragmentKeyPartitionLoopStartNodeModel();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#getNrNodeViews()
+	 */
+	@Override
+	protected int getNrNodeViews() {
+		return 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeView(int,
+	 * org.knime.core.node.NodeModel)
+	 */
+	@Override
+	public NodeView<FragmentKeyPartitionLoopStartNodeModel> createNodeView(
+			int viewIndex, FragmentKeyPartitionLoopStartNodeModel nodeModel) {
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#hasDialog()
+	 */
+	@Override
+	protected boolean hasDialog() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeDialogPane()
+	 */
+	@Override
+	protected NodeDialogPane createNodeDialogPane() {
+		return new FragmentKeyPartitionLoopStartNodeDialog();
+	}
+
+}
@@ -0,0 +1,295 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU General Public License, Version 3, as 
+ * published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of 
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>
+ *******************************************************************************/
+package com.vernalis.knime.mmp.nodes.loop;
+
+import static com.vernalis.knime.mmp.nodes.loop.FragmentKeyPartitionLoopStartNodeDialog.createFragKeyModel;
+import static com.vernalis.knime.mmp.nodes.loop.FragmentKeyPartitionLoopStartNodeDialog.createNumPartitionsModel;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.chem.types.SmilesValue;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.data.sort.BufferedDataTableSorter;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.workflow.LoopStartNodeTerminator;
+
+/**
+ * Node Model class for the Fragment Key Partition loop start node. The
+ * incoming fragment table is split into a fixed number of partitions by a hash
+ * of the fragment key SMILES, and one partition is output per iteration. As
+ * all fragments with the same key fall into the same partition, running a
+ * pair generation node inside the loop and concatenating the results gives the
+ * same pairs as a single run over the full table, but only one partition
+ * needs to be held in memory at a time. The input table is sorted by
+ * partition once, in the first iteration, and each iteration then reads the
+ * next block of rows from the sorted table
+ * 
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ * 
+ */
+public class FragmentKeyPartitionLoopStartNodeModel extends NodeModel
+		implements LoopStartNodeTerminator {
+
+	private final SettingsModelString m_keyColName = createFragKeyModel();
+	private final SettingsModelIntegerBounded m_numPartitions =
+			createNumPartitionsModel();
+	private int iteration = 0;
+	private FragmentKeyPartitioner partitioner = null;
+	private CloseableRowIterator rowIter = null;
+	private DataRow nextRow = null;
+	private long rowsRead = 0;
+
+	/**
+	 * Constructor for the node model
+	 */
+	protected FragmentKeyPartitionLoopStartNodeModel() {
+		super(1, 1);
+	}
+
+	/**
+	 * Method to get the partition for a fragment key. The partition is
+	 * calculated from the {@link String#hashCode()} of the key SMILES, which is
+	 * fixed by the Java language specification, so the same key is always
+	 * assigned to the same partition, between iterations, nodes and sessions
+	 * 
+	 * @param keySmiles
+	 *            The fragment key SMILES
+	 * @param numPartitions
+	 *            The number of partitions
+	 * @return The partition index, in the range {@code 0 - (numPartitions-1)}
+	 */
+	public static int getPartition(String keySmiles, int numPartitions) {
+		return Math.floorMod(keySmiles.hashCode(), numPartitions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.knime.core.node.NodeModel#execute(org.knime.core.node.BufferedDataTable
+	 * [], org.knime.core.node.ExecutionContext)
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final int numPartitions = m_numPartitions.getIntValue();
+		pushFlowVariableInt("Current Iteration", iteration);
+		pushFlowVariableInt("Max Iterations", numPartitions);
+
+		ExecutionContext extractExec = exec;
+		if (iteration == 0) {
+			// Sort the table by partition once, so that each iteration only
+			// reads its own rows rather than re-scanning the whole input
+			closeIterator();
+			partitioner = new FragmentKeyPartitioner(
+					inData[0].getDataTableSpec()
+							.findColumnIndex(m_keyColName.getStringValue()),
+					numPartitions);
+			exec.setMessage("Partitioning input table");
+			BufferedDataTable sortedTable =
+					new BufferedDataTableSorter(inData[0], partitioner)
+							.sort(exec.createSubExecutionContext(0.5));
+			rowIter = sortedTable.iterator();
+			nextRow = rowIter.hasNext() ? rowIter.next() : null;
+			extractExec = exec.createSubExecutionContext(0.5);
+		}
+
+		BufferedDataContainer dc =
+				exec.createDataContainer(inData[0].getDataTableSpec());
+		final long numRows = inData[0].size();
+		extractExec.setMessage("Extracting partition " + (iteration + 1) + " of "
+				+ numPartitions);
+		while (nextRow != null
+				&& partitioner.getPartition(nextRow) == iteration) {
+			dc.addRowToTable(nextRow);
+			nextRow = rowIter.hasNext() ? rowIter.next() : null;
+			extractExec.setProgress((double) (++rowsRead) / numRows,
+					"Read " + rowsRead + " of " + numRows + " rows");
+			extractExec.checkCanceled();
+		}
+		dc.close();
+		pushFlowVariableInt("Partition Size", (int) Math.min(
+				dc.getTable().size(), Integer.MAX_VALUE));
+		iteration++;
+		if (terminateLoop()) {
+			closeIterator();
+		}
+		return new BufferedDataTable[] { dc.getTable() };
+	}
+
+	/**
+	 * Method to close the iterator over the sorted input table, if it is open,
+	 * and clear the iteration state
+	 */
+	private void closeIterator() {
+		if (rowIter != null) {
+			rowIter.close();
+		}
+		rowIter = null;
+		nextRow = null;
+		partitioner = null;
+		rowsRead = 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.knime.core.node.NodeModel#configure(org.knime.core.data.DataTableSpec
+	 * [])
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		if (m_keyColName.getStringValue() == null) {
+			// Autoguess - the last SMILES column with 'Key' in the name
+			for (int i = inSpecs[0].getNumColumns() - 1; i >= 0; i--) {
+				DataColumnSpec colSpec = inSpecs[0].getColumnSpec(i);
+				if (colSpec.getType().isCompatible(SmilesValue.class)
+						&& colSpec.getName().toLowerCase().contains("key")) {
+					m_keyColName.setStringValue(colSpec.getName());
+					setWarningMessage("Fragment Key column '"
+							+ colSpec.getName() + "' auto-selected");
+					break;
+				}
+			}
+		}
+		DataColumnSpec keyColSpec =
+				inSpecs[0].getColumnSpec(m_keyColName.getStringValue());
+		if (keyColSpec == null) {
+			throw new InvalidSettingsException(
+					"No Fragment Key column selected or found in input table");
+		}
+		if (!keyColSpec.getType().isCompatible(SmilesValue.class)) {
+			throw new InvalidSettingsException("The selected column '"
+					+ keyColSpec.getName() + "' is not a SMILES column");
+		}
+
+		pushFlowVariableInt("Current Iteration", iteration);
+		pushFlowVariableInt("Max Iterations", m_numPartitions.getIntValue());
+		pushFlowVariableInt("Partition Size", 0);
+		return inSpecs;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.workflow.LoopStartNodeTerminator#terminateLoop()
+	 */
+	@Override
+	public boolean terminateLoop() {
+		return iteration >= m_numPartitions.getIntValue();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#loadInternals(java.io.File,
+	 * org.knime.core.node.ExecutionMonitor)
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#saveInternals(java.io.File,
+	 * org.knime.core.node.ExecutionMonitor)
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#saveSettingsTo(org.knime.core.node.
+	 * NodeSettingsWO)
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_keyColName.saveSettingsTo(settings);
+		m_numPartitions.saveSettingsTo(settings);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#validateSettings(org.knime.core.node.
+	 * NodeSettingsRO)
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_keyColName.validateSettings(settings);
+		m_numPartitions.validateSettings(settings);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.knime.core.node.NodeModel#loadValidatedSettingsFrom(org.knime.core
+	 * .node.NodeSettingsRO)
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_keyColName.loadSettingsFrom(settings);
+		m_numPartitions.loadSettingsFrom(settings);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#reset()
+	 */
+	@Override
+	protected void reset() {
+		iteration = 0;
+		closeIterator();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeModel#onDispose()
+	 */
+	@Override
+	protected void onDispose() {
+		closeIterator();
+		super.onDispose();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ * This program is free software; you can redistribute it and/or modify it 
+ * under the terms of the GNU General Public License, Version 3, as 
+ * published by the Free Software Foundation.
+ *
+ * This program is distributed in the hope that it will be useful, but 
+ * WITHOUT ANY WARRANTY; without even the implied warranty of 
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ * See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program; if not, see <http://www.gnu.org/licenses>
+ *******************************************************************************/
+package com.vernalis.knime.mmp.nodes.loop;
+
+import java.util.Comparator;
+
+import org.knime.chem.types.SmilesValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+
+/**
+ * Class to assign the rows of a fragment table to partitions by their
+ * fragment key. The class is also a {@link Comparator} which orders rows by
+ * their partition, so that a table sorted with it holds each partition as a
+ * single contiguous block of rows, in partition order
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+final class FragmentKeyPartitioner implements Comparator<DataRow> {
+
+	private final int keyColIdx;
+	private final int numPartitions;
+
+	/**
+	 * Constructor
+	 *
+	 * @param keyColIdx
+	 *            The index of the fragment key SMILES column
+	 * @param numPartitions
+	 *            The number of partitions
+	 */
+	FragmentKeyPartitioner(int keyColIdx, int numPartitions) {
+		this.keyColIdx = keyColIdx;
+		this.numPartitions = numPartitions;
+	}
+
+	/**
+	 * Method to get the partition for a row. Missing keys cannot form pairs,
+	 * but are kept in the first partition so that no rows are lost
+	 *
+	 * @param row
+	 *            The row
+	 * @return The partition index, in the range {@code 0 - (numPartitions-1)}
+	 * @see FragmentKeyPartitionLoopStartNodeModel#getPartition(String, int)
+	 */
+	int getPartition(DataRow row) {
+		DataCell keyCell = row.getCell(keyColIdx);
+		return keyCell.isMissing() ? 0
+				: FragmentKeyPartitionLoopStartNodeModel.getPartition(
+						((SmilesValue) keyCell).getSmilesValue(),
+						numPartitions);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public int compare(DataRow o1, DataRow o2) {
+		return Integer.compare(getPartition(o1), getPartition(o2));
+	}
+
+}
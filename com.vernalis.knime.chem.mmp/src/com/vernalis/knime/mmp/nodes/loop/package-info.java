@@ -14,7 +14,7 @@
  *******************************************************************************/
 /**
  * This package provides the Java classes and files required for the 'Cut Types
- * Loop Start' KNIME node
+ * Loop Start' and 'MMP Fragment Key Partition Loop Start' KNIME nodes
  */
 package com.vernalis.knime.mmp.nodes.loop;
 
@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.pmi.nodes.plot.convexhull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.vernalis.knime.chem.pmi.nodes.plot.convexhull.ConvexHull.DataPoint;
+
+/**
+ * Test class for {@link ConvexHull}. The hull of each series of points is
+ * checked against a reference hull found by gift wrapping all of the points,
+ * including series long enough for the hull to be updated, and the interior
+ * filter applied, while points are still being added
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class ConvexHullTest {
+
+	/**
+	 * Test a hull with no points
+	 */
+	@Test
+	public void testNoPoints() {
+		final ConvexHull hull = createHull(1.0);
+		hull.generateHull();
+		assertTrue(hull.getHullPoints().isEmpty());
+		assertEquals(0.0, hull.getArea(), 0.0);
+	}
+
+	/**
+	 * Test a single point, added once or many times
+	 */
+	@Test
+	public void testOnePoint() {
+		check(1.0, new double[][] { { 3, 4 } });
+		final double[][] points = new double[5000][];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new double[] { -7, 2 };
+		}
+		check(1.0, points);
+	}
+
+	/**
+	 * Test two distinct points, with and without duplicates
+	 */
+	@Test
+	public void testTwoPoints() {
+		check(1.0, new double[][] { { 5, 1 }, { -2, 3 } });
+		final Random rand = new Random(3L);
+		final double[][] points = new double[5000][];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = rand.nextBoolean() ? new double[] { 5, 1 }
+					: new double[] { 5, -3 };
+		}
+		check(1.0, points);
+	}
+
+	/**
+	 * Test collinear points, which have a hull of the two end points
+	 */
+	@Test
+	public void testCollinear() {
+		final Random rand = new Random(5L);
+		final int[][] directions = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 3, -2 } };
+		for (int[] direction : directions) {
+			final double[][] points = new double[5000][];
+			for (int i = 0; i < points.length; i++) {
+				final int t = rand.nextInt(2001) - 1000;
+				points[i] = new double[] { 10 + t * direction[0],
+						-4 + t * direction[1] };
+			}
+			check(1.0, points);
+			// Increasing order, so each new point extends the line
+			final double[][] sorted = new double[5000][];
+			for (int i = 0; i < sorted.length; i++) {
+				sorted[i] = new double[] { i * direction[0],
+						i * direction[1] };
+			}
+			check(1.0, sorted);
+		}
+	}
+
+	/**
+	 * Test points on the edges of a square, which have a hull of the four
+	 * corners. Points on the edges of the hull are excluded
+	 */
+	@Test
+	public void testCollinearEdges() {
+		final Random rand = new Random(7L);
+		final double[][] points = new double[5000][];
+		for (int i = 0; i < points.length; i++) {
+			final int t = rand.nextInt(101);
+			switch (rand.nextInt(4)) {
+			case 0:
+				points[i] = new double[] { t, 0 };
+				break;
+			case 1:
+				points[i] = new double[] { 100, t };
+				break;
+			case 2:
+				points[i] = new double[] { t, 100 };
+				break;
+			default:
+				points[i] = new double[] { 0, t };
+			}
+		}
+		final List<DataPoint> hull = check(1.0, points);
+		assertEquals(4, hull.size());
+	}
+
+	/**
+	 * Test random points with many duplicates
+	 */
+	@Test
+	public void testDuplicates() {
+		final Random rand = new Random(11L);
+		for (int n : new int[] { 3, 10, 100, 5000 }) {
+			final double[][] points = new double[n][];
+			for (int i = 0; i < n; i++) {
+				points[i] = new double[] { rand.nextInt(5), rand.nextInt(5) };
+			}
+			check(1.0, points);
+		}
+	}
+
+	/**
+	 * Test random points in a disc, a triangle and a square, in random order
+	 * and sorted so that the hull grows steadily as points are added
+	 */
+	@Test
+	public void testRandom() {
+		final Random rand = new Random(13L);
+		for (int n : new int[] { 3, 4, 50, 1023, 1024, 1025, 20000 }) {
+			final double[][] disc = new double[n][];
+			final double[][] triangle = new double[n][];
+			final double[][] square = new double[n][];
+			for (int i = 0; i < n; i++) {
+				final double r = 1000.0 * Math.sqrt(rand.nextDouble());
+				final double theta = 2.0 * Math.PI * rand.nextDouble();
+				disc[i] = new double[] { r * Math.cos(theta),
+						r * Math.sin(theta) };
+				final double u = rand.nextDouble();
+				final double v = rand.nextDouble() * (1.0 - u);
+				triangle[i] = new double[] { 1000.0 * (u + v / 2.0),
+						1000.0 * v };
+				square[i] = new double[] { rand.nextInt(1000),
+						rand.nextInt(1000) };
+			}
+			for (double[][] points : new double[][][] { disc, triangle,
+					square }) {
+				check(1.0, points);
+				final double[][] sorted = points.clone();
+				Arrays.sort(sorted, (a, b) -> Double.compare(
+						a[0] * a[0] + a[1] * a[1], b[0] * b[0] + b[1] * b[1]));
+				check(1.0, sorted);
+			}
+		}
+	}
+
+	/**
+	 * Test the points are rounded to the precision grid
+	 */
+	@Test
+	public void testPrecision() {
+		final Random rand = new Random(17L);
+		final double[][] points = new double[10000][];
+		for (int i = 0; i < points.length; i++) {
+			points[i] = new double[] { rand.nextDouble(),
+					0.5 + 0.5 * rand.nextDouble() };
+		}
+		for (double precision : new double[] { 1e-2,
+				ConvexHull.DEFAULT_PRECISION, 1e-5 }) {
+			check(precision, points);
+		}
+	}
+
+	/**
+	 * Test points cannot be added once the hull is closed
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() {
+		final ConvexHull hull = createHull(1.0);
+		hull.addPoint(1.0, 2.0);
+		hull.generateHull();
+		assertFalse(hull.getHullPoints().isEmpty());
+		hull.addPoint(3.0, 4.0);
+	}
+
+	/**
+	 * Check the hull of a series of points, added in order, against the
+	 * reference hull
+	 *
+	 * @return The hull vertices
+	 */
+	private static List<DataPoint> check(double precision,
+			double[][] points) {
+		final ConvexHull hull = createHull(precision);
+		final List<DataPoint> gridPoints = new ArrayList<>();
+		for (double[] point : points) {
+			hull.addPoint(point[0], point[1]);
+			gridPoints.add(new DataPoint(point[0], point[1], precision));
+		}
+		hull.generateHull();
+
+		final List<DataPoint> expected = giftWrap(gridPoints);
+		final List<DataPoint> actual = new ArrayList<>(hull.getHullPoints());
+		final String msg = points.length + " points, precision " + precision;
+		assertEquals(msg, expected, actual);
+		assertEquals(msg, area(expected), hull.getArea(), 1e-6);
+		return actual;
+	}
+
+	/**
+	 * Find the hull vertices, excluding any points on the edges, by gift
+	 * wrapping
+	 *
+	 * @return The vertices in anticlockwise order, starting from the lowest
+	 *         of the leftmost points
+	 */
+	private static List<DataPoint> giftWrap(List<DataPoint> points) {
+		final List<DataPoint> hull = new ArrayList<>();
+		final DataPoint start = Collections.min(points);
+		DataPoint current = start;
+		do {
+			hull.add(current);
+			DataPoint next = null;
+			for (DataPoint p : points) {
+				if (p.equals(current)) {
+					continue;
+				}
+				if (next == null) {
+					next = p;
+					continue;
+				}
+				final long cross = DataPoint.cross(current.x, current.y,
+						next.x, next.y, p.x, p.y);
+				if (cross < 0L || cross == 0L
+						&& distSq(current, p) > distSq(current, next)) {
+					next = p;
+				}
+			}
+			current = next;
+		} while (current != null && !current.equals(start));
+		return hull;
+	}
+
+	private static long distSq(DataPoint a, DataPoint b) {
+		return (b.x - a.x) * (b.x - a.x) + (b.y - a.y) * (b.y - a.y);
+	}
+
+	/**
+	 * The shoelace area of a polygon, in grid units
+	 */
+	private static double area(List<DataPoint> polygon) {
+		long twiceArea = 0L;
+		for (int i = 0, j = polygon.size() - 1; i < polygon.size(); j = i++) {
+			twiceArea += polygon.get(j).x * polygon.get(i).y
+					- polygon.get(i).x * polygon.get(j).y;
+		}
+		return Math.abs(twiceArea) / 2.0;
+	}
+
+	private static ConvexHull createHull(double precision) {
+		return new ConvexHull("Test", precision, null, Color.RED, 128, true,
+				5.0, 1.0);
+	}
+}
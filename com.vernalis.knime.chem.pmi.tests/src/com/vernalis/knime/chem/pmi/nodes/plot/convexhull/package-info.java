@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+/**
+ * This package contains test cases for the classes in the
+ * {@code com.vernalis.knime.chem.pmi.nodes.plot.convexhull} package
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+package com.vernalis.knime.chem.pmi.nodes.plot.convexhull;
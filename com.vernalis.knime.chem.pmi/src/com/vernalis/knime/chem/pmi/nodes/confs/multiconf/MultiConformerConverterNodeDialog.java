@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it 
+ *  under the terms of the GNU General Public License, Version 3, as 
+ *  published by the Free Software Foundation.
+ *  
+ *  This program is distributed in the hope that it will be useful, but 
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ *  See the GNU General Public License for more details.
+ *   
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.pmi.nodes.confs.multiconf;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.collection.ListDataValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.util.ColumnFilter;
+
+import com.vernalis.knime.chem.conformers.MultiConformerValue;
+import com.vernalis.knime.chem.rdkit.RdkitCompatibleColumnFormats;
+
+/**
+ * Node dialog for the 'Multi-Conformer Converter' node
+ * 
+ * @author S.Roughley knime@vernalis.com
+ *
+ */
+public class MultiConformerConverterNodeDialog extends DefaultNodeSettingsPane {
+
+	static final String CONFORMERS = "Conformers";
+	static final String REMOVE_INPUT_COLUMN = "Remove input column";
+
+	/**
+	 * {@link ColumnFilter} for a list cell containing Mol, Sdf or RDKit
+	 * molecules, or a multi-conformer cell
+	 */
+	static final ColumnFilter CONFORMERS_FILTER = new ColumnFilter() {
+
+		@Override
+		public boolean includeColumn(DataColumnSpec colSpec) {
+			DataType type = colSpec.getType();
+			return type.isCompatible(MultiConformerValue.class)
+					|| type.isCompatible(ListDataValue.class)
+							&& RdkitCompatibleColumnFormats.MOL_WITH_COORDS
+									.includeColumn(
+											type.getCollectionElementType());
+		}
+
+		@Override
+		public String allFilteredMsg() {
+			return "No Lists of  RDKit, SDF, Molecule or Multi-Conformer "
+					+ "columns are available";
+		}
+	};
+
+	/**
+	 * Constructor
+	 */
+	public MultiConformerConverterNodeDialog() {
+		super();
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createColumnNameModel(), CONFORMERS, 0, CONFORMERS_FILTER));
+		addDialogComponent(new DialogComponentBoolean(
+				createRemoveInputColumnModel(), REMOVE_INPUT_COLUMN));
+	}
+
+	/**
+	 * @return Settings model for the {@value #REMOVE_INPUT_COLUMN} option
+	 */
+	static SettingsModelBoolean createRemoveInputColumnModel() {
+		return new SettingsModelBoolean(REMOVE_INPUT_COLUMN, true);
+	}
+
+	/**
+	 * @return Settings model for the {@value #CONFORMERS} option
+	 */
+	static SettingsModelString createColumnNameModel() {
+		return new SettingsModelString(CONFORMERS, "");
+	}
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it 
+ *  under the terms of the GNU General Public License, Version 3, as 
+ *  published by the Free Software Foundation.
+ *  
+ *  This program is distributed in the hope that it will be useful, but 
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of 
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. 
+ *  See the GNU General Public License for more details.
+ *   
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.pmi.nodes.confs.multiconf;
+
+import org.knime.core.node.NodeDialogPane;
+import org.knime.core.node.NodeFactory;
+import org.knime.core.node.NodeView;
+
+/**
+ * Node Factory implementation for the 'Multi-Conformer Converter' node
+ * 
+ * @author S.Roughley knime@vernalis.com
+ *
+ */
+public class MultiConformerConverterNodeFactory
+		extends NodeFactory<MultiConformerConverterNodeModel> {
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeModel()
+	 */
+	@Override
+	public MultiConformerConverterNodeModel createNodeModel() {
+		return new MultiConformerConverterNodeModel();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#getNrNodeViews()
+	 */
+	@Override
+	protected int getNrNodeViews() {
+		return 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeView(int,
+	 * org.knime.core.node.NodeModel)
+	 */
+	@Override
+	public NodeView<MultiConformerConverterNodeModel> createNodeView(
+			int viewIndex, MultiConformerConverterNodeModel nodeModel) {
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#hasDialog()
+	 */
+	@Override
+	protected boolean hasDialog() {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see org.knime.core.node.NodeFactory#createNodeDialogPane()
+	 */
+	@Override
+	protected NodeDialogPane createNodeDialogPane() {
+		return new MultiConformerConverterNodeDialog();
+	}
+
+}
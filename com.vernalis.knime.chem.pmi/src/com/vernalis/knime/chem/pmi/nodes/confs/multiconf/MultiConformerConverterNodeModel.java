@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.chem.pmi.nodes.confs.multiconf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.knime.chem.types.MolValue;
+import org.knime.chem.types.SdfAdapterCell;
+import org.knime.chem.types.SdfCellFactory;
+import org.knime.chem.types.SdfValue;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.ListCell;
+import org.knime.core.data.collection.ListDataValue;
+import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.RDKit.ROMol;
+
+import com.vernalis.exceptions.RowExecutionException;
+import com.vernalis.knime.chem.conformers.MultiConformerCell;
+import com.vernalis.knime.chem.conformers.MultiConformerCellFactory;
+import com.vernalis.knime.chem.conformers.MultiConformerValue;
+import com.vernalis.knime.chem.rdkit.RdkitCompatibleColumnFormats;
+import com.vernalis.knime.nodes.AbstractSimpleStreamableFunctionNodeModel;
+
+import static com.vernalis.knime.chem.pmi.nodes.confs.multiconf.MultiConformerConverterNodeDialog.CONFORMERS_FILTER;
+import static com.vernalis.knime.chem.pmi.nodes.confs.multiconf.MultiConformerConverterNodeDialog.createColumnNameModel;
+import static com.vernalis.knime.chem.pmi.nodes.confs.multiconf.MultiConformerConverterNodeDialog.createRemoveInputColumnModel;
+
+/**
+ * Node Model implementation for the 'Multi-Conformer Converter' node. A List
+ * of Mol, SDF or RDKit conformers is converted to a {@link MultiConformerCell}
+ * and a Multi-Conformer column is converted to a List of SDF cells
+ *
+ * @author S.Roughley knime@vernalis.com
+ *
+ */
+public class MultiConformerConverterNodeModel
+		extends AbstractSimpleStreamableFunctionNodeModel {
+
+	private static final String SDF_RECORD_END = "$$$$\n";
+
+	private final SettingsModelString colNameMdl =
+			registerSettingsModel(createColumnNameModel());
+	private final SettingsModelBoolean removeInputColMdl =
+			registerSettingsModel(createRemoveInputColumnModel());
+
+	private final AtomicInteger failedCount = new AtomicInteger();
+
+	@Override
+	protected ColumnRearranger createColumnRearranger(DataTableSpec spec)
+			throws InvalidSettingsException {
+		final int colIdx = getValidatedColumnSelectionModelColumnIndex(
+				colNameMdl, CONFORMERS_FILTER, spec, getLogger());
+		final boolean toMultiConformer = !spec.getColumnSpec(colIdx).getType()
+				.isCompatible(MultiConformerValue.class);
+
+		final String colName = removeInputColMdl.getBooleanValue()
+				? colNameMdl.getStringValue()
+				: DataTableSpec.getUniqueColumnName(spec,
+						colNameMdl.getStringValue() + (toMultiConformer
+								? " (Multi-Conformer)" : " (SDF List)"));
+		final DataColumnSpec newColSpec = new DataColumnSpecCreator(colName,
+				toMultiConformer ? MultiConformerCell.TYPE
+						: ListCell.getCollectionType(SdfAdapterCell.RAW_TYPE))
+								.createSpec();
+		failedCount.set(0);
+
+		// Rows are independent, so can be processed concurrently
+		final AbstractCellFactory cellFact =
+				new AbstractCellFactory(true, newColSpec) {
+
+					@Override
+					public DataCell[] getCells(DataRow row) {
+						final DataCell cell = row.getCell(colIdx);
+						if (cell.isMissing()) {
+							return new DataCell[] { cell };
+						}
+						try {
+							return new DataCell[] { toMultiConformer
+									? toMultiConformerCell(
+											(ListDataValue) cell)
+									: toSdfList((MultiConformerValue) cell) };
+						} catch (RowExecutionException
+								| IllegalArgumentException
+								| IndexOutOfBoundsException e) {
+							failedCount.incrementAndGet();
+							getLogger().info(
+									"Unable to convert conformers in row '"
+											+ row.getKey().getString() + "' - "
+											+ e.getMessage());
+							return new DataCell[] {
+									DataType.getMissingCell() };
+						}
+					}
+
+					@Override
+					public void afterProcessing() {
+						if (failedCount.get() > 0) {
+							setWarningMessage(failedCount.get()
+									+ " rows could not be converted - "
+									+ "see log for details");
+						}
+						super.afterProcessing();
+					}
+				};
+
+		final ColumnRearranger rearranger = new ColumnRearranger(spec);
+		if (removeInputColMdl.getBooleanValue()) {
+			rearranger.replace(cellFact, colIdx);
+		} else {
+			rearranger.append(cellFact);
+		}
+		return rearranger;
+	}
+
+	/**
+	 * Method to convert a list of conformers to a multi-conformer cell
+	 *
+	 * @param confs
+	 *            The list of conformers
+	 * @return The new cell
+	 * @throws RowExecutionException
+	 *             If the list contains missing values or a molecule could not
+	 *             be read
+	 * @throws IllegalArgumentException
+	 *             If the list is empty, or the conformers are not all of the
+	 *             same molecule
+	 */
+	private static DataCell toMultiConformerCell(ListDataValue confs)
+			throws RowExecutionException {
+		final List<String> molBlocks = new ArrayList<>(confs.size());
+		for (DataCell conf : confs) {
+			if (conf.isMissing()) {
+				throw new RowExecutionException(
+						"Conformer list contains missing values");
+			}
+			final DataType type = conf.getType();
+			if (type.isCompatible(MolValue.class)) {
+				molBlocks.add(((MolValue) conf).getMolValue());
+			} else if (type.isCompatible(SdfValue.class)) {
+				molBlocks.add(((SdfValue) conf).getSdfValue());
+			} else {
+				final ROMol mol = RdkitCompatibleColumnFormats
+						.getRDKitObjectFromCell(conf);
+				if (mol == null) {
+					throw new RowExecutionException(
+							"Unable to read conformer");
+				}
+				try {
+					molBlocks.add(mol.MolToMolBlock());
+				} finally {
+					mol.delete();
+				}
+			}
+		}
+		return MultiConformerCellFactory.createCell(molBlocks);
+	}
+
+	/**
+	 * Method to convert a multi-conformer value to a list of SDF cells
+	 *
+	 * @param confs
+	 *            The conformers
+	 * @return The list cell
+	 */
+	private static DataCell toSdfList(MultiConformerValue confs) {
+		final List<DataCell> sdfCells =
+				new ArrayList<>(confs.getConformerCount());
+		for (int i = 0; i < confs.getConformerCount(); i++) {
+			final String molBlock = confs.getConformerMolBlock(i);
+			sdfCells.add(SdfCellFactory.createAdapterCell(molBlock
+					+ (molBlock.endsWith("\n") ? "" : "\n") + SDF_RECORD_END));
+		}
+		return CollectionCellFactory.createListCell(sdfCells);
+	}
+
+}
@@ -16,11 +16,15 @@ package com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate;
 
 import java.util.Optional;
 
+import org.RDKit.Conformer;
 import org.RDKit.Match_Vect;
 import org.RDKit.Match_Vect_Vect;
+import org.RDKit.Point3D;
 import org.RDKit.ROMol;
 import org.RDKit.Transform3D;
 
+import com.vernalis.knime.chem.util.points.InertialTensor;
+import com.vernalis.knime.chem.util.points.PointArrays;
 import com.vernalis.knime.swiggc.SWIGObjectGarbageCollector2WaveSupplier;
 
 /**
@@ -29,7 +33,8 @@ import com.vernalis.knime.swiggc.SWIGObjectGarbageCollector2WaveSupplier;
  * <p>
  * H-removed versions are cached along with SMILES and Mol block
  * representations. An optimised method for checking whether another conformer
- * falls within an RMSD of the current conformer is provided.
+ * falls within an RMSD of the current conformer is provided, along with a
+ * cheap lower bound for the RMSD which does not require an alignment.
  * </p>
  * <p>
  * A {@link #delete()} method is also provided as a convenience to allow simple
@@ -41,6 +46,13 @@ import com.vernalis.knime.swiggc.SWIGObjectGarbageCollector2WaveSupplier;
  */
 public final class Conformation implements Comparable<Conformation> {
 
+	/**
+	 * Per-thread container for the atom coordinates when calculating the
+	 * shape moments
+	 */
+	private static final ThreadLocal<PointArrays> ATOM_POINTS =
+			ThreadLocal.withInitial(PointArrays::new);
+
 	private ROMol mol;
 	private ROMol minusHMol = null;
 	private Optional<ROMol> template;
@@ -49,6 +61,8 @@ public final class Conformation implements Comparable<Conformation> {
 	private final String smiles, molblock;
 	private boolean selfSymmetric;
 	private Boolean noHselfSymmetric;
+	private double[] shapeMoments = null;
+	private double[] noHShapeMoments = null;
 
 	/**
 	 * Simple constructor only storing a molecule
@@ -235,6 +249,78 @@ public final class Conformation implements Comparable<Conformation> {
 		}
 	}
 
+	/**
+	 * Calculate a lower bound for the RMSD between the two conformations after
+	 * optimal superposition, without performing an alignment. The bound is
+	 * {@code sqrt(sum((s1 - s2)^2) / N)}, where {@code s1} and {@code s2} are
+	 * the sorted singular values of the centred coordinates of each
+	 * conformation (i.e. the square roots of the principal second moments),
+	 * which follows from the von Neumann trace inequality. It does not depend
+	 * on the order of the atoms, so is a bound for every symmetry-equivalent
+	 * atom mapping
+	 * 
+	 * @param o
+	 *            The other {@link Conformation}
+	 * @param ignoreHs
+	 *            Should H's be ignored
+	 * @return The lower bound, which is 0.0 if the conformations have
+	 *         different numbers of atoms
+	 */
+	public final double getRMSDLowerBound(Conformation o, boolean ignoreHs) {
+		final double[] s1 = getShapeMoments(ignoreHs);
+		final double[] s2 = o.getShapeMoments(ignoreHs);
+		if (s1[3] != s2[3] || s1[3] == 0.0) {
+			return 0.0;
+		}
+		double sumSq = 0.0;
+		for (int i = 0; i < 3; i++) {
+			final double d = s1[i] - s2[i];
+			sumSq += d * d;
+		}
+		return Math.sqrt(sumSq / s1[3]);
+	}
+
+	/**
+	 * @return The singular values of the centred atom coordinates in
+	 *         descending order, followed by the number of atoms. The values
+	 *         are lazily initialized
+	 */
+	private double[] getShapeMoments(boolean ignoreHs) {
+		if (ignoreHs) {
+			if (noHShapeMoments == null) {
+				noHShapeMoments = calculateShapeMoments(getMinusHMol());
+			}
+			return noHShapeMoments;
+		}
+		if (shapeMoments == null) {
+			shapeMoments = calculateShapeMoments(getMol());
+		}
+		return shapeMoments;
+	}
+
+	private static double[] calculateShapeMoments(ROMol mol) {
+		final PointArrays points = ATOM_POINTS.get();
+		points.clear();
+		final Conformer conf = mol.getConformer();
+		for (long i = 0; i < conf.getNumAtoms(); i++) {
+			final Point3D coords = conf.getAtomPos(i);
+			points.add(coords.getX(), coords.getY(), coords.getZ(), 1.0);
+			coords.delete();
+		}
+		conf.delete();
+		// With unit masses, the principal moments of inertia are
+		// (trace(C) - c) for each eigenvalue c of the second moment matrix C
+		final double[] moments = new double[4];
+		new InertialTensor().calculate(points).getPrincipalMoments(moments);
+		final double halfTrace = (moments[0] + moments[1] + moments[2]) / 2.0;
+		final double[] retVal = new double[4];
+		for (int i = 0; i < 3; i++) {
+			retVal[i] = Math.sqrt(Math.max(0.0, halfTrace - moments[i]));
+		}
+		retVal[3] = points.size();
+		return retVal;
+	}
+
 	/**
 	 * Destroyer method to allow simple use with
 	 * {@link SWIGObjectGarbageCollector2WaveSupplier}
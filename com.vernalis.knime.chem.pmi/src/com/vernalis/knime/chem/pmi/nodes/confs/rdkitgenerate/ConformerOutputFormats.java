@@ -14,14 +14,22 @@
  ******************************************************************************/
 package com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.knime.chem.types.MolAdapterCell;
 import org.knime.chem.types.MolCellFactory;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataType;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.ListCell;
 import org.knime.core.node.util.ButtonGroupEnumInterface;
 import org.rdkit.knime.types.RDKitAdapterCell;
 import org.rdkit.knime.types.RDKitMolCellFactory;
 
+import com.vernalis.knime.chem.conformers.MultiConformerCell;
+import com.vernalis.knime.chem.conformers.MultiConformerCellFactory;
+
 /**
  * Enum for the possible output formats for the node
  * 
@@ -39,8 +47,8 @@ enum ConformerOutputFormats implements ButtonGroupEnumInterface {
 
 		@Override
 		public DataCell getConformerCell(Conformation conf, boolean removeHs) {
-			return MolCellFactory.createAdapterCell(removeHs
-					? conf.getMinusHMol().MolToMolBlock() : conf.getMolblock());
+			return MolCellFactory
+					.createAdapterCell(getMolBlock(conf, removeHs));
 		}
 
 		@Override
@@ -70,16 +78,49 @@ enum ConformerOutputFormats implements ButtonGroupEnumInterface {
 			return RDKitMolCellFactory
 					.createRDKitAdapterCell(conf.getTemplate().get());
 		}
+	},
+	Multi_Conformer {
+
+		@Override
+		public DataType getCellType() {
+			// Used for the template
+			return Mol.getCellType();
+		}
+
+		@Override
+		public DataCell getConformerCell(Conformation conf, boolean removeHs) {
+			return Mol.getConformerCell(conf, removeHs);
+		}
+
+		@Override
+		protected DataCell getTemplate(Conformation conf) {
+			return Mol.getTemplate(conf);
+		}
+
+		@Override
+		public DataType getConformersColumnType() {
+			return MultiConformerCell.TYPE;
+		}
+
+		@Override
+		public DataCell createConformersCell(List<Conformation> confs,
+				boolean removeHs) {
+			final List<String> molBlocks = new ArrayList<>(confs.size());
+			for (Conformation conf : confs) {
+				molBlocks.add(getMolBlock(conf, removeHs));
+			}
+			return MultiConformerCellFactory.createCell(molBlocks);
+		}
 	};
 
 	@Override
 	public String getText() {
-		return name();
+		return name().replace('_', '-');
 	}
 
 	@Override
 	public String getActionCommand() {
-		return getText();
+		return name();
 	}
 
 	@Override
@@ -108,6 +149,32 @@ enum ConformerOutputFormats implements ButtonGroupEnumInterface {
 	public abstract DataCell getConformerCell(Conformation conf,
 			boolean removeHs);
 
+	/**
+	 * @return The type of the column containing all the conformers for a row
+	 */
+	public DataType getConformersColumnType() {
+		return ListCell.getCollectionType(getCellType());
+	}
+
+	/**
+	 * Method to generate the output cell containing all the conformers for a
+	 * row
+	 * 
+	 * @param confs
+	 *            The conformations
+	 * @param removeHs
+	 *            Should explicit H's be removed
+	 * @return The output cell, by default a list of conformer cells
+	 */
+	public DataCell createConformersCell(List<Conformation> confs,
+			boolean removeHs) {
+		final List<DataCell> confCells = new ArrayList<>(confs.size());
+		for (Conformation conf : confs) {
+			confCells.add(getConformerCell(conf, removeHs));
+		}
+		return CollectionCellFactory.createListCell(confCells);
+	}
+
 	/**
 	 * @param conf
 	 *            The {@link Conformation}
@@ -124,6 +191,11 @@ enum ConformerOutputFormats implements ButtonGroupEnumInterface {
 
 	protected abstract DataCell getTemplate(Conformation conf);
 
+	private static String getMolBlock(Conformation conf, boolean removeHs) {
+		return removeHs ? conf.getMinusHMol().MolToMolBlock()
+				: conf.getMolblock();
+	}
+
 	/**
 	 * @return The default output format
 	 */
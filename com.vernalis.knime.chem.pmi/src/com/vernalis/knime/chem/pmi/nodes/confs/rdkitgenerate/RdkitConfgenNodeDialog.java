@@ -53,6 +53,7 @@ public class RdkitConfgenNodeDialog extends DefaultNodeSettingsPane {
 	static final String ALLOW_HEAVY_ATOM_MISMATCHES =
 			"Allow heavy atom mismatches";
 	static final String RANDOM_SEED = "Random Seed";
+	static final String MOLECULE_TIMEOUT = "Timeout per molecule (s)";
 	static final String GEOMETRY_OPTIMISATION = "Geometry Optimisation";
 	static final String TEMPLATE_OPTIONS = "Template options";
 	static final String REMOVE_H_S = "Remove H's";
@@ -159,6 +160,9 @@ public class RdkitConfgenNodeDialog extends DefaultNodeSettingsPane {
 				new DialogComponentBoolean(createBasicKnowledgeModel(),
 						USE_BASIC_KNOWLEDGE_I_E_FLAT_RINGS_ETC));
 
+		addDialogComponent(new DialogComponentNumber(
+				createMoleculeTimeoutModel(), MOLECULE_TIMEOUT, 10, 7));
+
 		final SettingsModelBoolean filterByRMSDMdl = createFilterByRMSDModel();
 		final SettingsModelDoubleBounded minRMSDMdl = createMinRMSDModel();
 		final SettingsModelBoolean ignoreHMdl = createIgnoreHsRMSDModel();
@@ -400,6 +404,15 @@ public class RdkitConfgenNodeDialog extends DefaultNodeSettingsPane {
 		return new SettingsModelInteger(RANDOM_SEED, -1);
 	}
 
+	/**
+	 * @return The settings model for the {@value #MOLECULE_TIMEOUT} option. A
+	 *         value of 0 means no timeout
+	 */
+	static SettingsModelIntegerBounded createMoleculeTimeoutModel() {
+		return new SettingsModelIntegerBounded(MOLECULE_TIMEOUT, 0, 0,
+				Integer.MAX_VALUE);
+	}
+
 	/**
 	 * @return The settings model for the {@value #REMOVE_H_S} option
 	 */
@@ -54,6 +54,7 @@ import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgen
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.MAX_TEMPLATE_RMSD;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.MINIMUM_RMSD;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.MOLECULE_COLUMN;
+import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.MOLECULE_TIMEOUT;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.NUMBER_OF_CONFORMERS;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.OUTPUT_ACTUAL_TEMPLATE_FOR_ROW;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.RANDOM_SEED;
@@ -243,6 +244,14 @@ public class RdkitConfgenNodeFactory
 				addOptionToTab(optionsTab,
 						USE_BASIC_KNOWLEDGE_I_E_FLAT_RINGS_ETC,
 						"Should 'basic knowledge' be used (i.e. flat rings etc)");
+				addOptionToTab(optionsTab, MOLECULE_TIMEOUT,
+						"The maximum time in seconds to spend on each molecule. "
+								+ "Molecules which take longer have missing values "
+								+ "in the output columns, and a warning is shown. The "
+								+ "time is checked after the template MCS search, "
+								+ "after embedding and after each conformer is "
+								+ "optimised, so the limit may be exceeded by the time "
+								+ "for a single step. A value of 0 means no timeout");
 				addOptionToTab(optionsTab, FILTER_CONFORMERS_BY_RMSD,
 						"Should conformers be filtered such that no two conformers are within "
 								+ "the RMSD threshold of each other?");
@@ -253,7 +262,11 @@ public class RdkitConfgenNodeFactory
 				addOptionToTab(optionsTab, REMOVE_H_S,
 						"Should explicit H's be removed from the output molecules?");
 				addOptionToTab(optionsTab, CONFORMER_OUTPUT_FORMAT,
-						"The cell type to output (RDKit or Mol)");
+						"The cell type to output (RDKit or Mol). 'Multi-Conformer' "
+								+ "outputs a single compact cell for each row, "
+								+ "containing the shared topology and packed "
+								+ "coordinates of all the conformers, in place "
+								+ "of a List of Mol cells");
 
 				/*
 				 * Template Options tab
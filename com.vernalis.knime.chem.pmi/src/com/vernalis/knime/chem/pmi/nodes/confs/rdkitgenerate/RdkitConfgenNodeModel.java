@@ -20,6 +20,9 @@ import java.util.List;
 import java.util.NavigableSet;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
@@ -90,6 +93,7 @@ import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgen
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createMaxEnergyModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createMaxTemplateRMSDModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createMinRMSDModel;
+import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createMoleculeTimeoutModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createNumConfsModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createNumTriesModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.RdkitConfgenNodeDialog.createOutputActualTemplateModel;
@@ -113,6 +117,22 @@ public class RdkitConfgenNodeModel
 
 	private static final String ACYCLIC_SINGLE_BOND_SMARTS = "-&!@";
 	private static final String NROT = "NRot";
+	/** The MCS search timeout (s) when there is no molecule timeout */
+	private static final int MAX_MCS_TIMEOUT = 3600;
+	/** The deadline used when there is no molecule timeout */
+	private static final long NO_DEADLINE = Long.MAX_VALUE;
+	/**
+	 * The number of molecules processed concurrently. Each molecule is
+	 * expensive, so there is no benefit from more workers than processors
+	 */
+	private static final int NUM_WORKERS =
+			Math.max(1, Runtime.getRuntime().availableProcessors());
+	/**
+	 * The maximum number of rows queued for the workers or waiting to be
+	 * written in order. This is kept small to limit the number of completed
+	 * conformer lists held in memory behind a slow molecule
+	 */
+	private static final int MAX_QUEUE_SIZE = 4 * NUM_WORKERS;
 	private final SettingsModelString colNameMdl =
 			registerSettingsModel(createColumnNameModel());
 	private final SettingsModelBoolean addHsMdl =
@@ -179,18 +199,22 @@ public class RdkitConfgenNodeModel
 			registerSettingsModel(createRingMatchesRingOnlyModel());
 	private final SettingsModelBoolean completeRingsOnlyMdl =
 			registerSettingsModel(createCompleteRingsOnlyModel());
+	private final SettingsModelIntegerBounded moleculeTimeoutMdl =
+			registerSettingsModel(createMoleculeTimeoutModel(), 2,
+					mdl -> mdl.setIntValue(0));
 
 	private final SWIGObjectGarbageCollector2WaveSupplier gc =
 			new SWIGObjectGarbageCollector2WaveSupplier();
 
 	private AtomComparator templateAtomComparator = null;
 	private BondComparator templateBondComparator = null;
+	private final AtomicInteger timedOutCount = new AtomicInteger();
 
 	/**
 	 * Node Model constructor
 	 */
 	public RdkitConfgenNodeModel() {
-		super();
+		super(2);
 		numConfsMdl.setEnabled(!useNRotForNConfMdl.getBooleanValue());
 		useNRotForNConfMdl.addChangeListener(new ChangeListener() {
 
@@ -372,6 +396,9 @@ public class RdkitConfgenNodeModel
 		}
 		final int nConfs = useNRotForNConfMdl.getBooleanValue() ? -1
 				: numConfsMdl.getIntValue();
+		final long timeoutNanos = TimeUnit.SECONDS
+				.toNanos(moleculeTimeoutMdl.getIntValue());
+		timedOutCount.set(0);
 
 		ColumnRearranger rearranger = new ColumnRearranger(spec);
 
@@ -384,8 +411,7 @@ public class RdkitConfgenNodeModel
 		}
 		newColSpecs.add(new DataColumnSpecCreator(
 				DataTableSpec.getUniqueColumnName(spec, "Conformers"),
-				ListCell.getCollectionType(outputFormat.getCellType()))
-						.createSpec());
+				outputFormat.getConformersColumnType()).createSpec());
 		newColSpecs.add(new DataColumnSpecCreator(
 				DataTableSpec.getUniqueColumnName(spec,
 						forceFieldMdl.getStringValue()
@@ -408,7 +434,10 @@ public class RdkitConfgenNodeModel
 					ListCell.getCollectionType(DoubleCell.TYPE)).createSpec());
 		}
 
-		rearranger.append(new AbstractCellFactory(true,
+		// Each row uses its own wave of SWIG objects, so rows can be processed
+		// concurrently. The rows are still output in the incoming order
+		rearranger.append(new AbstractCellFactory(true, NUM_WORKERS,
+				MAX_QUEUE_SIZE,
 				newColSpecs.toArray(new DataColumnSpec[newColSpecs.size()])) {
 
 			@Override
@@ -420,6 +449,9 @@ public class RdkitConfgenNodeModel
 					return ArrayUtils.fill(new DataCell[newColSpecs.size()],
 							DataType.getMissingCell());
 				}
+				final long deadline = timeoutNanos > 0
+						? System.nanoTime() + timeoutNanos
+						: NO_DEADLINE;
 				long waveID = gc.getNextWaveIndex();
 				ROMol mol;
 				try {
@@ -440,8 +472,8 @@ public class RdkitConfgenNodeModel
 				// If there is a template, then
 				ROMol rowBaseTemplateMol = getRowBaseTemplate(templateColIdx,
 						globalTemplateMol, row, waveID);
-				ROMol rowTemplateMol =
-						getRowTemplate(row, waveID, mol, rowBaseTemplateMol);
+				ROMol rowTemplateMol = getRowTemplate(row, waveID, mol,
+						rowBaseTemplateMol, deadline);
 
 				int numRotBond = (int) (useNRotForNConfMdl.getBooleanValue()
 						? RDKFuncs.calcNumRotatableBonds(mol)
@@ -452,6 +484,8 @@ public class RdkitConfgenNodeModel
 								: maxTemplateRMSDMdl.getDoubleValue();
 
 				try {
+					// The MCS search may have used up the time
+					checkDeadline(deadline);
 					SortedSet<Conformation> confs = generateConformers(mol,
 							rowTemplateMol/* Template */, numRotBond, nConfs,
 							maxTriesMdl.getIntValue(),
@@ -461,7 +495,7 @@ public class RdkitConfgenNodeModel
 							useBasicKnowledgeMdl.getBooleanValue(), forceField,
 							uffCleanupMdl.getBooleanValue(),
 							iterationsMdl.getIntValue(), waveID,
-							maxTemplateRMSD);
+							maxTemplateRMSD, deadline);
 					if (confs.isEmpty()) {
 						return ArrayUtils.fill(new DataCell[newColSpecs.size()],
 								DataType.getMissingCell());
@@ -472,7 +506,7 @@ public class RdkitConfgenNodeModel
 					}
 					double eMin = confs.stream().findFirst().get()
 							.getConformerEnergy();
-					List<DataCell> confCells = new ArrayList<>();
+					List<Conformation> keptConfs = new ArrayList<>();
 					List<DataCell> absECells = new ArrayList<>();
 					List<DataCell> relECells = new ArrayList<>();
 					List<DataCell> rmsdCells =
@@ -487,8 +521,7 @@ public class RdkitConfgenNodeModel
 							break;
 						}
 
-						confCells.add(outputFormat.getConformerCell(conf,
-								removeHsMdl.getBooleanValue()));
+						keptConfs.add(conf);
 						absECells
 								.add(new DoubleCell(conf.getConformerEnergy()));
 						relECells.add(new DoubleCell(dE));
@@ -498,8 +531,8 @@ public class RdkitConfgenNodeModel
 						}
 					}
 
-					newCells.add(
-							CollectionCellFactory.createListCell(confCells));
+					newCells.add(outputFormat.createConformersCell(keptConfs,
+							removeHsMdl.getBooleanValue()));
 					newCells.add(
 							CollectionCellFactory.createListCell(absECells));
 					newCells.add(
@@ -514,6 +547,12 @@ public class RdkitConfgenNodeModel
 								.createListCell(rmsdCells));
 					}
 					return newCells.toArray(new DataCell[newCells.size()]);
+				} catch (TimeoutException e) {
+					timedOutCount.incrementAndGet();
+					getLogger().info("Conformer generation timed out for row '"
+							+ row.getKey().getString() + "'");
+					return ArrayUtils.fill(new DataCell[newColSpecs.size()],
+							DataType.getMissingCell());
 				} catch (MolSanitizeException e) {
 					throw new RDKitRuntimeExceptionHandler(e);
 				} catch (GenericRDKitException e) {
@@ -536,6 +575,13 @@ public class RdkitConfgenNodeModel
 			public void afterProcessing() {
 				// quarantine in case user cancels which bombs JVM
 				gc.quarantineAndCleanupMarkedObjects();
+				final int timedOut = timedOutCount.get();
+				if (timedOut > 0) {
+					setWarningMessage("Conformer generation timed out for "
+							+ timedOut + " molecule"
+							+ (timedOut == 1 ? "" : "s")
+							+ " - see log for details");
+				}
 				super.afterProcessing();
 			}
 		});
@@ -547,7 +593,7 @@ public class RdkitConfgenNodeModel
 	 *         MCS of the base row template and the incoming molecule
 	 */
 	private ROMol getRowTemplate(DataRow row, long waveID, ROMol mol,
-			ROMol rowBaseTemplateMol) {
+			ROMol rowBaseTemplateMol, long deadline) {
 		ROMol rowTemplateMol;
 		if (rowBaseTemplateMol == null) {
 			rowTemplateMol = null;
@@ -570,7 +616,8 @@ public class RdkitConfgenNodeModel
 						1.0/*
 							 * threshold - we want it to cover both template and
 							 * molecule
-							 */, 3600/* Timeout */, false/* verbose */,
+							 */, getMCSTimeout(deadline)/* Timeout */,
+						false/* verbose */,
 						matchValencesMdl.getBooleanValue() /* match valences */,
 						ringMatchesRingOnlyMdl
 								.getBooleanValue()/* Ring matches ring only */,
@@ -621,6 +668,36 @@ public class RdkitConfgenNodeModel
 		return rowTemplateMol;
 	}
 
+	/**
+	 * @param deadline
+	 *            The {@link System#nanoTime()} by which the molecule should be
+	 *            finished
+	 * @return The timeout in seconds for the MCS search, which is the time
+	 *         remaining until the deadline, up to a maximum of
+	 *         {@value #MAX_MCS_TIMEOUT}
+	 */
+	private static int getMCSTimeout(long deadline) {
+		if (deadline == NO_DEADLINE) {
+			return MAX_MCS_TIMEOUT;
+		}
+		final long remaining = TimeUnit.NANOSECONDS
+				.toSeconds(deadline - System.nanoTime());
+		return (int) Math.max(1L, Math.min(MAX_MCS_TIMEOUT, remaining));
+	}
+
+	/**
+	 * @param deadline
+	 *            The {@link System#nanoTime()} by which the molecule should be
+	 *            finished
+	 * @throws TimeoutException
+	 *             If the deadline has passed
+	 */
+	private static void checkDeadline(long deadline) throws TimeoutException {
+		if (deadline != NO_DEADLINE && System.nanoTime() - deadline > 0) {
+			throw new TimeoutException();
+		}
+	}
+
 	/**
 	 * Method to generate the base template for the row, before any SS-matching
 	 * is tried
@@ -683,14 +760,20 @@ public class RdkitConfgenNodeModel
 	 *            The wave index for garbage collection
 	 * @param maxTemplateRMSD
 	 *            TODO
+	 * @param deadline
+	 *            The {@link System#nanoTime()} by which the molecule should be
+	 *            finished, or {@value #NO_DEADLINE} for no timeout
 	 * @return A set of Conformations, sorted in increasing order of energy
+	 * @throws TimeoutException
+	 *             If the deadline passed before all the conformers were
+	 *             optimised
 	 */
 	private SortedSet<Conformation> generateConformers(ROMol mol,
 			ROMol template, int nRotForNConf, int nConfs, int nTries,
 			boolean useTethers, boolean useExperimentalTorsions,
 			boolean useBasicKnowledge, ForceFieldFactory forceField,
 			boolean uffCleanup, int iterations, long waveId,
-			double maxTemplateRMSD) {
+			double maxTemplateRMSD, long deadline) throws TimeoutException {
 
 		NavigableSet<Conformation> retVal = new TreeSet<>();
 
@@ -754,6 +837,8 @@ public class RdkitConfgenNodeModel
 		// Now we have to create multiple copies, each with only one conformer,
 		// and optimize the conformer geometry
 		for (int i = 0; i < confIds.size(); i++) {
+			// Embedding cannot be interrupted, so we check between conformers
+			checkDeadline(deadline);
 			ROMol tmp = gc.markForCleanup(new ROMol(mol), waveId);
 			Conformer conf = gc.markForCleanup(
 					new Conformer(molConfs.getConformer(confIds.get(i))),
@@ -817,7 +902,13 @@ public class RdkitConfgenNodeModel
 			boolean ignoreHs) {
 		Iterator<Conformation> iter = retVal.descendingIterator();
 		while (iter.hasNext()) {
-			if (!conformation.checkRMSDThreshold(iter.next(), rmsdThreshold,
+			final Conformation other = iter.next();
+			if (conformation.getRMSDLowerBound(other,
+					ignoreHs) > rmsdThreshold) {
+				// Cannot be within the threshold - no need to align
+				continue;
+			}
+			if (!conformation.checkRMSDThreshold(other, rmsdThreshold,
 					ignoreHs)) {
 				return false;
 			}
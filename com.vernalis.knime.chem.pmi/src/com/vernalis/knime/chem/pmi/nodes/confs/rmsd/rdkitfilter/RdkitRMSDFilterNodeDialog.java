@@ -16,6 +16,7 @@ package com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter;
 
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.collection.ListDataValue;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
 import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
@@ -30,6 +31,7 @@ import org.knime.core.node.util.ColumnFilter;
 import org.knime.core.node.util.filter.InputFilter;
 import org.knime.core.node.util.filter.column.DataColumnSpecFilterConfiguration;
 
+import com.vernalis.knime.chem.conformers.MultiConformerValue;
 import com.vernalis.knime.chem.rdkit.RdkitCompatibleColumnFormats;
 import com.vernalis.knime.dialog.components.DialogComponentGroup;
 
@@ -49,24 +51,47 @@ public class RdkitRMSDFilterNodeDialog extends DefaultNodeSettingsPane {
 	private static final String CONFORMERS = "Conformers";
 	private static final String CONFORMER_PROPERTIES_COLUMNS =
 			"Conformer Properties Columns";
+	private static final String CONFORMER_ENERGIES = "Conformer Energies";
 
 	/**
 	 * {@link ColumnFilter} for a list cell containing Mol, Sdf or RDKit
-	 * molecules
+	 * molecules, or a multi-conformer cell
 	 */
 	static final ColumnFilter MOL_LIST_FILTER = new ColumnFilter() {
 
+		@Override
+		public boolean includeColumn(DataColumnSpec colSpec) {
+			DataType type = colSpec.getType();
+			return type.isCompatible(MultiConformerValue.class)
+					|| type.isCompatible(ListDataValue.class)
+							&& RdkitCompatibleColumnFormats.MOL_WITH_COORDS
+									.includeColumn(
+											type.getCollectionElementType());
+		}
+
+		@Override
+		public String allFilteredMsg() {
+			return "No Lists of  RDKit, SDF, Molecule or Multi-Conformer "
+					+ "columns are available";
+		}
+	};
+
+	/**
+	 * {@link ColumnFilter} for a list cell containing numbers
+	 */
+	static final ColumnFilter ENERGY_LIST_FILTER = new ColumnFilter() {
+
 		@Override
 		public boolean includeColumn(DataColumnSpec colSpec) {
 			DataType type = colSpec.getType();
 			return type.isCompatible(ListDataValue.class)
-					&& RdkitCompatibleColumnFormats.MOL_WITH_COORDS
-							.includeColumn(type.getCollectionElementType());
+					&& type.getCollectionElementType()
+							.isCompatible(DoubleValue.class);
 		}
 
 		@Override
 		public String allFilteredMsg() {
-			return "No Lists of  RDKit, SDF, Molecule columns are available";
+			return "No List of numbers columns are available";
 		}
 	};
 
@@ -112,6 +137,18 @@ public class RdkitRMSDFilterNodeDialog extends DefaultNodeSettingsPane {
 
 		addDialogComponent(
 				new DialogComponentBoolean(createIgnoreHsModel(), IGNORE_H_S));
+		setHorizontalPlacement(false);
+
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createEnergyColumnNameModel(), CONFORMER_ENERGIES, 0, false,
+				true, ENERGY_LIST_FILTER));
+	}
+
+	/**
+	 * @return Settings model for the {@value #CONFORMER_ENERGIES} option
+	 */
+	static SettingsModelString createEnergyColumnNameModel() {
+		return new SettingsModelString(CONFORMER_ENERGIES, null);
 	}
 
 	/**
@@ -17,14 +17,18 @@ package com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
+import org.knime.core.data.DoubleValue;
 import org.knime.core.data.RowKey;
 import org.knime.core.data.collection.CollectionCellFactory;
 import org.knime.core.data.collection.ListDataValue;
@@ -36,15 +40,23 @@ import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelColumnFilter2;
 import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.RDKit.Conformer;
+import org.RDKit.Point3D;
+import org.RDKit.ROMol;
+import org.RDKit.RWMol;
 
 import com.vernalis.exceptions.RowExecutionException;
+import com.vernalis.knime.chem.conformers.MultiConformerCellFactory;
+import com.vernalis.knime.chem.conformers.MultiConformerValue;
 import com.vernalis.knime.chem.pmi.nodes.confs.rdkitgenerate.Conformation;
 import com.vernalis.knime.chem.rdkit.RdkitCompatibleColumnFormats;
 import com.vernalis.knime.nodes.AbstractSimpleStreamableFunctionNodeModel;
 import com.vernalis.knime.swiggc.SWIGObjectGarbageCollector2WaveSupplier;
 
+import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.ENERGY_LIST_FILTER;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.MOL_LIST_FILTER;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.createConformerPropertiesModels;
+import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.createEnergyColumnNameModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.createFilterModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.createIgnoreHsModel;
 import static com.vernalis.knime.chem.pmi.nodes.confs.rmsd.rdkitfilter.RdkitRMSDFilterNodeDialog.createMakeUnfilterablesMissingModel;
@@ -72,12 +84,23 @@ public class RdkitRMSDFilterNodeModel
 			registerSettingsModel(createFilterModel());
 	private final SettingsModelBoolean m_ignoreHs =
 			registerSettingsModel(createIgnoreHsModel());
+	private final SettingsModelString m_energyColName =
+			registerSettingsModel(createEnergyColumnNameModel(), 2,
+					mdl -> mdl.setStringValue(null));
+
+	/** The number of conformer pairs which were aligned */
+	private final AtomicLong alignmentCount = new AtomicLong();
+	/**
+	 * The number of conformer pairs which were not aligned because the RMSD
+	 * lower bound was above the threshold
+	 */
+	private final AtomicLong skippedAlignmentCount = new AtomicLong();
 
 	/**
 	 * Constructor
 	 */
 	public RdkitRMSDFilterNodeModel() {
-		super();
+		super(2);
 	}
 
 	@Override
@@ -94,11 +117,37 @@ public class RdkitRMSDFilterNodeModel
 		System.arraycopy(spec.columnsToIndices(includeNames), 0, propColIdx, 1,
 				includeNames.length);
 
-		CellFactory cellFact = new AbstractCellFactory(
+		final int energyColIdx;
+		if (isStringModelFilled(m_energyColName)) {
+			energyColIdx =
+					spec.findColumnIndex(m_energyColName.getStringValue());
+			if (energyColIdx < 0) {
+				throw new InvalidSettingsException(
+						"The selected energy column '"
+								+ m_energyColName.getStringValue()
+								+ "' is no longer present in the incoming table");
+			}
+			if (!ENERGY_LIST_FILTER
+					.includeColumn(spec.getColumnSpec(energyColIdx))) {
+				throw new InvalidSettingsException(
+						"The selected energy column '"
+								+ m_energyColName.getStringValue()
+								+ "' is not a List of numbers");
+			}
+		} else {
+			energyColIdx = -1;
+		}
+		alignmentCount.set(0);
+		skippedAlignmentCount.set(0);
+
+		// Each row uses its own wave of SWIG objects, so rows can be processed
+		// concurrently
+		CellFactory cellFact = new AbstractCellFactory(true,
 				Arrays.stream(propColIdx).mapToObj(i -> spec.getColumnSpec(i))
 						.toArray(DataColumnSpec[]::new)) {
 
-			List<RowKey> cantFilterRows = new ArrayList<>();
+			List<RowKey> cantFilterRows =
+					Collections.synchronizedList(new ArrayList<>());
 
 			/*
 			 * (non-Javadoc)
@@ -110,6 +159,11 @@ public class RdkitRMSDFilterNodeModel
 			@Override
 			public void afterProcessing() {
 				gc.cleanupMarkedObjects();
+				final long aligned = alignmentCount.get();
+				final long skipped = skippedAlignmentCount.get();
+				getLogger().info("RMSD filter comparisons: " + aligned
+						+ " alignments performed, " + skipped
+						+ " alignments skipped by RMSD lower bound");
 				if (!cantFilterRows.isEmpty()) {
 					setWarningMessage(
 							"Unable to filter rows " + cantFilterRows.stream()
@@ -139,23 +193,47 @@ public class RdkitRMSDFilterNodeModel
 				Arrays.fill(retVal, DataType.getMissingCell());
 
 				long waveId = gc.getNextWaveIndex();
-				final ListDataValue molListValue = (ListDataValue) molCell;
-				Conformation[] mols = molListValue.stream().map(c -> {
-					try {
-						return c.isMissing() ? null
-								: RdkitCompatibleColumnFormats
-										.getRDKitObjectFromCell(c);
-					} catch (RowExecutionException e) {
-						throw new RuntimeException(e);
+				final Conformation[] mols;
+				if (molCell instanceof MultiConformerValue) {
+					mols = getConformations((MultiConformerValue) molCell,
+							waveId);
+					if (mols == null) {
+						gc.cleanupMarkedObjects(waveId);
+						cantFilterRows.add(row.getKey());
+						getLogger().info("Unable to filter row '"
+								+ row.getKey().getString()
+								+ "' - the conformer topology could not be "
+								+ "parsed");
+						retVal[0] = molCell;
+						System.arraycopy(propCells, 0, retVal, 1,
+								propCells.length);
+						return retVal;
 					}
-				}).map(mol -> mol == null ? null : new Conformation(mol))
-						.peek(x -> gc.markForCleanup(x, waveId))
-						.toArray(Conformation[]::new);
+				} else {
+					mols = ((ListDataValue) molCell).stream().map(c -> {
+						try {
+							return c.isMissing() ? null
+									: RdkitCompatibleColumnFormats
+											.getRDKitObjectFromCell(c);
+						} catch (RowExecutionException e) {
+							throw new RuntimeException(e);
+						}
+					}).map(mol -> mol == null ? null : new Conformation(mol))
+							.peek(x -> gc.markForCleanup(x, waveId))
+							.toArray(Conformation[]::new);
+				}
 				int size = mols.length;
-				BitSet keeps = filterConformers(mols);
-				retVal[0] = CollectionCellFactory.createListCell(
-						keeps.stream().mapToObj(i -> molListValue.get(i))
-								.collect(Collectors.toList()));
+				BitSet keeps = filterConformers(mols,
+						getEnergies(row, energyColIdx, size));
+				if (molCell instanceof MultiConformerValue) {
+					retVal[0] = MultiConformerCellFactory
+							.subset((MultiConformerValue) molCell, keeps);
+				} else {
+					final ListDataValue molListValue = (ListDataValue) molCell;
+					retVal[0] = CollectionCellFactory.createListCell(
+							keeps.stream().mapToObj(i -> molListValue.get(i))
+									.collect(Collectors.toList()));
+				}
 				for (int i = 1; i < propColIdx.length; i++) {
 					if (propCells[i - 1].isMissing()) {
 						continue;
@@ -213,15 +291,122 @@ public class RdkitRMSDFilterNodeModel
 		super.onDispose();
 	}
 
+	/**
+	 * Method to create a {@link Conformation} for each conformer of a
+	 * multi-conformer cell. The topology is only parsed once, and each
+	 * conformer is a copy of it with the conformer coordinates set
+	 * 
+	 * @param confs
+	 *            The conformers
+	 * @param waveId
+	 *            The garbage collection wave for the current row
+	 * @return The conformations, or {@code null} if the topology could not be
+	 *         parsed
+	 */
+	private Conformation[] getConformations(MultiConformerValue confs,
+			long waveId) {
+		final RWMol base;
+		try {
+			base = RWMol.MolFromMolBlock(confs.getTopology(), true, false);
+		} catch (RuntimeException e) {
+			return null;
+		}
+		if (base == null) {
+			return null;
+		}
+		gc.markForCleanup(base, waveId);
+		if (base.getNumAtoms() != confs.getAtomCount()
+				|| base.getNumConformers() == 0) {
+			return null;
+		}
+		final int numAtoms = confs.getAtomCount();
+		final float[] coords = new float[3 * numAtoms];
+		final Conformation[] retVal =
+				new Conformation[confs.getConformerCount()];
+		for (int i = 0; i < retVal.length; i++) {
+			confs.getCoordinates(i, coords, 0);
+			final ROMol mol = new ROMol(base);
+			final Conformer conformer =
+					gc.markForCleanup(mol.getConformer(), waveId);
+			for (int j = 0, k = 0; j < numAtoms; j++) {
+				final Point3D pos = gc.markForCleanup(
+						new Point3D(coords[k++], coords[k++], coords[k++]),
+						waveId);
+				conformer.setAtomPos(j, pos);
+			}
+			retVal[i] = gc.markForCleanup(new Conformation(mol), waveId);
+		}
+		return retVal;
+	}
+
+	/**
+	 * @param row
+	 *            The incoming row
+	 * @param energyColIdx
+	 *            The index of the energy column, or -1 if there is none
+	 * @param size
+	 *            The number of conformers in the row
+	 * @return The conformer energies, with {@code Double.NaN} for missing
+	 *         values, or {@code null} if the conformers should be considered
+	 *         in the incoming order
+	 */
+	private double[] getEnergies(DataRow row, int energyColIdx, int size) {
+		if (energyColIdx < 0) {
+			return null;
+		}
+		DataCell energyCell = row.getCell(energyColIdx);
+		if (energyCell.isMissing()
+				|| ((ListDataValue) energyCell).size() != size) {
+			getLogger().info("Unable to use conformer energies in row '"
+					+ row.getKey().getString()
+					+ "' - conformers considered in incoming order");
+			return null;
+		}
+		return ((ListDataValue) energyCell).stream()
+				.mapToDouble(c -> c.isMissing() ? Double.NaN
+						: ((DoubleValue) c).getDoubleValue())
+				.toArray();
+	}
+
 	/**
 	 * @param mols
 	 *            The incoming conformers for the current row
 	 * @return A bitset indicating which are to be kept
 	 */
 	protected BitSet filterConformers(Conformation[] mols) {
-		BitSet retVal = new BitSet(mols.length);
+		return filterConformers(mols, null);
+	}
 
-		nextConf: for (int i = 0; i < mols.length; i++) {
+	/**
+	 * Greedy filter, in which each conformer is kept only if its RMSD to all
+	 * the conformers kept so far is above the threshold. The RMSD lower bound
+	 * from {@link Conformation#getRMSDLowerBound(Conformation, boolean)} is
+	 * checked first, and the alignment is only performed if the bound does not
+	 * exceed the threshold
+	 * 
+	 * @param mols
+	 *            The incoming conformers for the current row
+	 * @param energies
+	 *            The conformer energies, or {@code null}. If supplied, the
+	 *            conformers are considered in increasing order of energy,
+	 *            with {@code Double.NaN} values last, otherwise they are
+	 *            considered in the incoming order
+	 * @return A bitset indicating which are to be kept
+	 */
+	protected BitSet filterConformers(Conformation[] mols, double[] energies) {
+		final double threshold = m_threshold.getDoubleValue();
+		final boolean ignoreHs = m_ignoreHs.getBooleanValue();
+		final int[] order = energies == null
+				? IntStream.range(0, mols.length).toArray()
+				: IntStream.range(0, mols.length).boxed()
+						.sorted((a, b) -> Double.compare(energies[a],
+								energies[b]))
+						.mapToInt(Integer::intValue).toArray();
+		final int[] kept = new int[mols.length];
+		int numKept = 0;
+		long aligned = 0;
+		long skipped = 0;
+		nextConf: for (int i : order) {
 			// Loop through the conformers - some may be null of there were
 			// missing cells in the collection
 			if (mols[i] == null) {
@@ -229,18 +414,31 @@ public class RdkitRMSDFilterNodeModel
 			}
 
 			// Work back through the kept conformers comparing RMSD
-			for (int j =
-					retVal.length(); (j = retVal.previousSetBit(j - 1)) >= 0;) {
-				if (!mols[i].checkRMSDThreshold(mols[j],
-						m_threshold.getDoubleValue(),
-						m_ignoreHs.getBooleanValue())) {
+			for (int k = numKept - 1; k >= 0; k--) {
+				final Conformation keptConf = mols[kept[k]];
+				if (mols[i].getRMSDLowerBound(keptConf,
+						ignoreHs) > threshold) {
+					// Cannot be within the threshold - no need to align
+					skipped++;
+					continue;
+				}
+				aligned++;
+				if (!mols[i].checkRMSDThreshold(keptConf, threshold,
+						ignoreHs)) {
 					// RMSD threshold violated in current comparison for current
 					// conformer - go to next conformer
-					break nextConf;
+					continue nextConf;
 				}
 			}
 			// If we are here the conformer passed
-			retVal.set(i);
+			kept[numKept++] = i;
+		}
+		alignmentCount.addAndGet(aligned);
+		skippedAlignmentCount.addAndGet(skipped);
+
+		BitSet retVal = new BitSet(mols.length);
+		for (int k = 0; k < numKept; k++) {
+			retVal.set(kept[k]);
 		}
 		return retVal;
 	}
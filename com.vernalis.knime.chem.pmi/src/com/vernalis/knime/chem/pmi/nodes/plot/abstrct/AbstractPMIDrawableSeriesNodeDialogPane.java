@@ -16,6 +16,9 @@ package com.vernalis.knime.chem.pmi.nodes.plot.abstrct;
 
 import java.awt.Color;
 
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DoubleValue;
@@ -31,6 +34,7 @@ import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelColor;
 import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.util.DataValueColumnFilter;
 import org.knime.ext.jfc.node.base.JfcBaseNodeDialogPane;
@@ -62,6 +66,8 @@ public class AbstractPMIDrawableSeriesNodeDialogPane
 	static final String SHOW_SHAPE_NOMINAL_COLOURS_LEGEND =
 			"Show Shape/Nominal Colours Legend";
 	static final String SHOW_SIZE_LEGEND = "Show Size legend";
+	static final String DOWNSAMPLE_POINTS = "Downsample dense scatter points";
+	static final String DOWNSAMPLE_RESOLUTION = "Downsampling grid resolution";
 	public static final String N_PMI2_I2_I3_COLUMN =
 			"nPMI2 (I2/I3, npr2) column";
 	public static final String N_PMI1_I1_I3_COLUMN =
@@ -140,6 +146,25 @@ public class AbstractPMIDrawableSeriesNodeDialogPane
 				SHOW_COLOUR_GRADIENT_LEGEND));
 		closeCurrentGroup();
 
+		createNewGroup("Rendering");
+		final SettingsModelBoolean downsampleMdl = createDownsampleModel();
+		final SettingsModelIntegerBounded downsampleResolutionMdl =
+				createDownsampleResolutionModel();
+		downsampleMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				downsampleResolutionMdl
+						.setEnabled(downsampleMdl.getBooleanValue());
+			}
+		});
+		downsampleResolutionMdl.setEnabled(downsampleMdl.getBooleanValue());
+		addDialogComponent(
+				new DialogComponentBoolean(downsampleMdl, DOWNSAMPLE_POINTS));
+		addDialogComponent(new DialogComponentNumber(downsampleResolutionMdl,
+				DOWNSAMPLE_RESOLUTION, 100));
+		closeCurrentGroup();
+
 		if (numPorts > 1) {
 			createNewTabAt(PMI_OPTIONS, 0);
 			setSelected(PMI_OPTIONS);
@@ -281,4 +306,20 @@ public class AbstractPMIDrawableSeriesNodeDialogPane
 				false);
 	}
 
+	/**
+	 * @return The Settings model for the {@value #DOWNSAMPLE_POINTS} setting
+	 */
+	static SettingsModelBoolean createDownsampleModel() {
+		return new SettingsModelBoolean(DOWNSAMPLE_POINTS, false);
+	}
+
+	/**
+	 * @return The Settings model for the {@value #DOWNSAMPLE_RESOLUTION}
+	 *         setting
+	 */
+	static SettingsModelIntegerBounded createDownsampleResolutionModel() {
+		return new SettingsModelIntegerBounded(DOWNSAMPLE_RESOLUTION, 1000, 10,
+				10000);
+	}
+
 }
@@ -33,6 +33,8 @@ import org.w3c.dom.Element;
 import com.vernalis.knime.nodes.NodeDescriptionUtils;
 
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.DEFAULT_SHAPE;
+import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.DOWNSAMPLE_POINTS;
+import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.DOWNSAMPLE_RESOLUTION;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.ITEM_SIZE;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.N_PMI1_I1_I3_COLUMN;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.N_PMI2_I2_I3_COLUMN;
@@ -209,6 +211,17 @@ public abstract class AbstractPMIDrawableSeriesPlotNodeDescription
 				"Show a colour spectrum legend for the scatter plot colours "
 						+ "(Only available if the scatter table has a continuous "
 						+ "colour manager associated with it)");
+		addOptionToTab(tab, DOWNSAMPLE_POINTS,
+				"If selected, the scatter points are binned into a regular grid "
+						+ "spanning the data, and only the last point in each "
+						+ "grid cell is drawn for each combination of colour, "
+						+ "shape and size. For very large tables this greatly "
+						+ "reduces the time taken to draw the plot, with little "
+						+ "visible change if the grid resolution is similar to "
+						+ "the size of the plot in pixels");
+		addOptionToTab(tab, DOWNSAMPLE_RESOLUTION,
+				"The number of grid cells along each axis when downsampling "
+						+ "the scatter points");
 
 		tab = createTab(fullDesc, "General Plot Options");
 		addOptionToTab(tab, "Type of Image",
@@ -25,10 +25,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
 import org.jfree.chart.ChartUtilities;
 import org.jfree.chart.JFreeChart;
 import org.jfree.chart.LegendItemSource;
@@ -61,6 +63,7 @@ import org.knime.core.node.defaultnodesettings.SettingsModel;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelColor;
 import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.node.port.PortObject;
 import org.knime.core.node.port.PortObjectSpec;
@@ -71,6 +74,7 @@ import org.knime.ext.jfc.node.heatmap.util.TwoValuePaintScale;
 
 import com.vernalis.knime.dialog.components.SettingsModelShape;
 import com.vernalis.knime.jfcplot.core.drawabledataobject.DrawableDataObject;
+import com.vernalis.knime.jfcplot.core.drawabledataobject.GridDownsampler;
 import com.vernalis.knime.jfcplot.core.drawabledataobject.SimpleShapeDrawableDataObject;
 import com.vernalis.knime.jfcplot.core.legend.TitledLegend;
 import com.vernalis.knime.jfcplot.core.legenditemsources.ColourLegendItemSource;
@@ -79,7 +83,10 @@ import com.vernalis.knime.jfcplot.core.legenditemsources.ShapeLegendItemSource;
 import com.vernalis.knime.jfcplot.core.legenditemsources.SizeLegendItemSource;
 import com.vernalis.knime.misc.ArrayUtils;
 import com.vernalis.knime.nodes.SettingsModelRegistry;
+import com.vernalis.knime.nodes.SettingsModelRegistryImpl;
 
+import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.createDownsampleModel;
+import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.createDownsampleResolutionModel;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.createShowFullTriangleModel;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.getColourGradientModel;
 import static com.vernalis.knime.chem.pmi.nodes.plot.abstrct.AbstractPMIDrawableSeriesNodeDialogPane.getDefaultShapeModel;
@@ -239,14 +246,14 @@ public class AbstractPMIDrawableSeriesPlotNodeModel<T extends DrawableDataObject
 		}
 	}
 
-	private final Set<SettingsModel> models = new LinkedHashSet<>();
-	protected final SettingsModelRegistry smr = new SettingsModelRegistry() {
+	protected final SettingsModelRegistry smr =
+			new SettingsModelRegistryImpl(2, getLogger()) {
 
-		@Override
-		public Set<SettingsModel> getModels() {
-			return models;
-		}
-	};
+				@Override
+				public void doSetWarningMessage(String message) {
+					setWarningMessage(message);
+				}
+			};
 
 	protected final SettingsModelString npr1ColumnNameMdl =
 			registerSettingsModel(getNPMI1ColumnModel());
@@ -270,6 +277,13 @@ public class AbstractPMIDrawableSeriesPlotNodeModel<T extends DrawableDataObject
 			registerSettingsModel(getColourGradientModel());
 	protected final SettingsModelBoolean sizeLegendMdl = registerSettingsModel(
 			AbstractPMIDrawableSeriesNodeDialogPane.getSizeLegendModel());
+	// From v2
+	protected final SettingsModelBoolean downsampleMdl =
+			smr.registerSettingsModel(createDownsampleModel(), 2,
+					mdl -> mdl.setBooleanValue(false));
+	protected final SettingsModelIntegerBounded downsampleResolutionMdl =
+			smr.registerSettingsModel(createDownsampleResolutionModel(), 2,
+					mdl -> mdl.setIntValue(1000));
 
 	public static final Pattern NPR1_PATTERN = Pattern
 			.compile("^(I1\\s*/\\s*I3|npr1|nPMI1).*", Pattern.CASE_INSENSITIVE);
@@ -314,6 +328,15 @@ public class AbstractPMIDrawableSeriesPlotNodeModel<T extends DrawableDataObject
 	public AbstractPMIDrawableSeriesPlotNodeModel(PortType[] inPorts) {
 		super(inPorts);
 		scatterPortId = inPorts.length - 1;
+		downsampleMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				downsampleResolutionMdl
+						.setEnabled(downsampleMdl.getBooleanValue());
+			}
+		});
+		downsampleResolutionMdl.setEnabled(downsampleMdl.getBooleanValue());
 	}
 
 	/**
@@ -783,6 +806,17 @@ public class AbstractPMIDrawableSeriesPlotNodeModel<T extends DrawableDataObject
 				ChartData.createNoMemberList();
 		createDataSeriesFromScatterPort(dataTable, colorcolumn, shapecolumn,
 				sizecolumn, tempData, exec);
+		if (downsampleMdl.getBooleanValue()) {
+			// Keep one point per grid cell for each colour/shape/size. The
+			// legends are unaffected as every combination is retained
+			final List<SimpleShapeDrawableDataObject> retained =
+					GridDownsampler.downsample(tempData.getData(),
+							downsampleResolutionMdl.getIntValue());
+			getLogger().debug("Downsampled " + tempData.getData().size()
+					+ " scatter points to " + retained.size());
+			tempData = ChartData.createNoMemberList();
+			tempData.addData(retained);
+		}
 		tempData.addLegends(createLegendsFromScatterPort(
 				dataTable.getDataTableSpec(), tempData.getData(), colorcolumn,
 				shapecolumn, sizecolumn));
@@ -19,11 +19,11 @@ import java.awt.Graphics2D;
 import java.awt.geom.Path2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.stream.DoubleStream;
 
 import org.jfree.chart.axis.ValueAxis;
@@ -38,8 +38,15 @@ import com.vernalis.knime.jfcplot.core.drawabledataobject.DrawableDataObject;
 /**
  * A class representing a 2D Convex Hull from a set of points. Points can be
  * added by calling {@link #addPoint(double, double)} until a call to
- * {@link #generateHull()} is made, whereupon the hull is closed. Implements the
- * Quick Hull algorithm
+ * {@link #generateHull()} is made, whereupon the hull is closed.
+ * <p>
+ * The hull is maintained incrementally as points are added, so that memory use
+ * is proportional to the size of the hull rather than the number of points.
+ * Points lying strictly inside the polygon formed by the extreme points of the
+ * current hull (an Akl-Toussaint filter) are discarded immediately, and the
+ * remaining points are buffered and periodically merged into the hull using
+ * Andrew's monotone chain algorithm
+ * </p>
  * 
  * @author s.roughley
  *
@@ -48,10 +55,27 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 
 	static final double DEFAULT_PRECISION = 1e-3;
 
+	/**
+	 * The minimum number of buffered points before they are merged into the
+	 * hull
+	 */
+	private static final int MIN_BUFFER_SIZE = 1024;
+
 	private double area = 0.0;
 
 	private Set<DataPoint> dataPoints;
 
+	/** The hull of the points merged so far, in anticlockwise order */
+	private List<DataPoint> hull = new ArrayList<>();
+
+	/** Points added since the hull was last updated */
+	private final List<DataPoint> buffer = new ArrayList<>();
+
+	/**
+	 * The vertices of the interior filter polygon, in anticlockwise order
+	 */
+	private long[] filterX = new long[0], filterY = new long[0];
+
 	private final String ID;
 
 	private final Color lineColour, fillColour;
@@ -130,8 +154,6 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 				new Color(colour.getRed(), colour.getGreen(), colour.getBlue(),
 						fillAlpha < 0 ? 0 : fillAlpha > 255 ? 255 : fillAlpha);
 		this.shape = shape;
-		// The points will be de-duplicated and sorted on addition
-		dataPoints = new TreeSet<>();
 		shapeTrans = new ShapeTranslator((float) symbolSize);
 		this.showBondaries = showBoundaries;
 		pmiTriangleArea =
@@ -211,89 +233,164 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 	}
 
 	/**
-	 * This is the recursive partitioning method
-	 * 
-	 * @param A
-	 *            the datapoint at the start of the line
-	 * @param B
-	 *            the datapoint at the end of the line
+	 * Add a new point to the set of points to be considered for hulling
 	 * 
+	 * @param x
+	 *            The x coordinate
+	 * @param y
+	 *            The y coordinate
+	 * @throws IllegalStateException
+	 *             If the hull has been closed
 	 */
-	private synchronized void hullSet(DataPoint A, DataPoint B,
-			List<DataPoint> points, List<DataPoint> hull) {
-
-		if (points.size() == 0) {
-			// We are done
-			return;
+	void addPoint(double x, double y) throws IllegalStateException {
+		if (!isClosed) {
+			// We let the datapoint take care of the precision rounding
+			final long pX = DataPoint.toGrid(x, precision);
+			final long pY = DataPoint.toGrid(y, precision);
+			if (isInsideFilter(pX, pY)) {
+				// Inside the current hull, so cannot be on the final hull
+				return;
+			}
+			buffer.add(new DataPoint(pX, pY, precision));
+			if (buffer.size() >= Math.max(MIN_BUFFER_SIZE, hull.size())) {
+				updateHull();
+			}
+		} else {
+			throw new IllegalStateException(
+					"The hull has been closed.  No further points can be added");
 		}
+	}
 
-		// Find the correct place in the
-		int insertPos = hull.indexOf(B);
+	/**
+	 * @return {@code true} if the point is strictly inside the filter polygon,
+	 *         or if the current hull is a single point or a line and the point
+	 *         lies on it
+	 */
+	private boolean isInsideFilter(long x, long y) {
+		final int n = filterX.length;
+		if (n == 0) {
+			return false;
+		}
+		if (n == 1) {
+			return x == filterX[0] && y == filterY[0];
+		}
+		if (n == 2) {
+			return DataPoint.cross(filterX[0], filterY[0], filterX[1],
+					filterY[1], x, y) == 0L
+					&& x >= Math.min(filterX[0], filterX[1])
+					&& x <= Math.max(filterX[0], filterX[1])
+					&& y >= Math.min(filterY[0], filterY[1])
+					&& y <= Math.max(filterY[0], filterY[1]);
+		}
+		for (int i = 0, j = n - 1; i < n; j = i++) {
+			if (DataPoint.cross(filterX[j], filterY[j], filterX[i],
+					filterY[i], x, y) <= 0L) {
+				return false;
+			}
+		}
+		return true;
+	}
 
-		if (points.size() == 1) {
-			// Just need to add the 1 remaining point and we are done
-			// We can add it safely because we never include in 'points' and
-			// which are colinear with the line
-			hull.add(insertPos, points.remove(0));
+	/**
+	 * Merge the buffered points into the hull, and update the filter polygon
+	 */
+	private void updateHull() {
+		buffer.addAll(hull);
+		hull = monotoneChain(buffer);
+		buffer.clear();
+
+		// The filter polygon is formed from the hull points which are extreme
+		// in x, y, x + y and x - y. These are kept in hull order, so the
+		// polygon is also anticlockwise
+		final int n = hull.size();
+		if (n < 3) {
+			// A point or a line - use it directly
+			filterX = hull.stream().mapToLong(p -> p.x).toArray();
+			filterY = hull.stream().mapToLong(p -> p.y).toArray();
 			return;
 		}
-
-		// Now we need to find the furthest point from line AB
-		long maxDist = Long.MIN_VALUE;
-		int furthestPt = -1;
-		for (int i = 0; i < points.size(); i++) {
-			DataPoint P = points.get(i);
-			long distP = P.distFromLine(A, B);
-			if (distP > maxDist) {
-				maxDist = distP;
-				furthestPt = i;
+		final boolean[] isExtreme = new boolean[n];
+		final int[] extremes = new int[8];
+		for (int i = 1; i < n; i++) {
+			final DataPoint p = hull.get(i);
+			for (int d = 0; d < 4; d++) {
+				final long v = DataPoint.project(p, d);
+				if (v < DataPoint.project(hull.get(extremes[2 * d]), d)) {
+					extremes[2 * d] = i;
+				}
+				if (v > DataPoint.project(hull.get(extremes[2 * d + 1]), d)) {
+					extremes[2 * d + 1] = i;
+				}
 			}
 		}
-
-		// We remove it from the test points, and add it to the hull
-		DataPoint P = points.remove(furthestPt);
-		hull.add(insertPos, P);
-
-		// Now we partition the remaining points into those above AP and those
-		// above PB, and discard the others (they are inside triangle ABP, and
-		// so inside the hull)
-		List<DataPoint> leftAP = new ArrayList<>();
-		List<DataPoint> leftPB = new ArrayList<>();
-		for (int i = 0; i < points.size(); i++) {
-			DataPoint M = points.get(i);
-			if (M.isAbove(A, P) == 1) {
-				leftAP.add(M);
-			} else if (M.isAbove(P, B) == 1) {
-				leftPB.add(M);
+		int numExtremes = 0;
+		for (int idx : extremes) {
+			if (!isExtreme[idx]) {
+				isExtreme[idx] = true;
+				numExtremes++;
+			}
+		}
+		if (numExtremes < 3) {
+			// Cannot happen for a hull of 3 or more points, but be safe
+			filterX = new long[0];
+			filterY = new long[0];
+			return;
+		}
+		filterX = new long[numExtremes];
+		filterY = new long[numExtremes];
+		for (int i = 0, j = 0; i < n; i++) {
+			if (isExtreme[i]) {
+				filterX[j] = hull.get(i).x;
+				filterY[j++] = hull.get(i).y;
 			}
-			// M Can't be above AP and above PB because it would be further from
-			// AB then P, and so would be P
 		}
-
-		// Now recurse on the two sets on either side of the new point, P
-		hullSet(A, P, leftAP, hull);
-		hullSet(P, B, leftPB, hull);
-
 	}
 
 	/**
-	 * Add a new point to the set of points to be considered for hulling
+	 * Andrew's monotone chain algorithm. Duplicate and co-linear points are
+	 * not included in the hull
 	 * 
-	 * @param x
-	 *            The x coordinate
-	 * @param y
-	 *            The y coordinate
-	 * @throws IllegalStateException
-	 *             If the hull has been closed
+	 * @param points
+	 *            The points to hull. The list will be sorted
+	 * @return The hull points in anticlockwise order, starting with the
+	 *         leftmost point
 	 */
-	void addPoint(double x, double y) throws IllegalStateException {
-		if (!isClosed) {
-			// We let the datapoint take care of the precision rounding
-			dataPoints.add(new DataPoint(x, y, precision));
-		} else {
-			throw new IllegalStateException(
-					"The hull has been closed.  No further points can be added");
+	private static List<DataPoint> monotoneChain(List<DataPoint> points) {
+		Collections.sort(points);
+		final List<DataPoint> distinct = new ArrayList<>(points.size());
+		for (DataPoint p : points) {
+			if (distinct.isEmpty()
+					|| !p.equals(distinct.get(distinct.size() - 1))) {
+				distinct.add(p);
+			}
 		}
+		if (distinct.size() <= 2) {
+			return distinct;
+		}
+
+		final List<DataPoint> chain = new ArrayList<>();
+		// Lower hull, left to right
+		for (DataPoint p : distinct) {
+			while (chain.size() >= 2 && p.isAbove(chain.get(chain.size() - 2),
+					chain.get(chain.size() - 1)) <= 0) {
+				chain.remove(chain.size() - 1);
+			}
+			chain.add(p);
+		}
+		// Upper hull, right to left
+		final int lowerSize = chain.size() + 1;
+		for (int i = distinct.size() - 2; i >= 0; i--) {
+			final DataPoint p = distinct.get(i);
+			while (chain.size() >= lowerSize
+					&& p.isAbove(chain.get(chain.size() - 2),
+							chain.get(chain.size() - 1)) <= 0) {
+				chain.remove(chain.size() - 1);
+			}
+			chain.add(p);
+		}
+		// The last point is the first point again
+		chain.remove(chain.size() - 1);
+		return chain;
 	}
 
 	/**
@@ -301,9 +398,7 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 	 * called, the hull is closed and no further points can be added
 	 */
 	synchronized void generateHull() {
-		if (isClosed || dataPoints.size() <= 2) {
-			// We already have a hull (3 points could be co-linear!)
-			isClosed = true;
+		if (isClosed) {
 			return;
 		}
 
@@ -311,34 +406,7 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 		// different thread
 		isClosed = true;
 
-		// The points are sorted in ascending x value
-		List<DataPoint> hull = new ArrayList<>();
-
-		// Points are sorted by x, so min and max points are first and last -
-		// add
-		// them to the hull and remove from remaining points
-		DataPoint A = ((TreeSet<DataPoint>) dataPoints).first();
-		hull.add(A);
-		DataPoint B = ((TreeSet<DataPoint>) dataPoints).last();
-		hull.add(B);
-		dataPoints.remove(A);
-		dataPoints.remove(B);
-
-		// Now partition remaining points between above and below the line AB
-		List<DataPoint> below = new ArrayList<>();
-		List<DataPoint> above = new ArrayList<>();
-		for (DataPoint P : dataPoints) {
-			int side = P.isAbove(A, B);
-			if (side == -1) {
-				below.add(P);
-			} else if (side == 1) {
-				above.add(P);
-			}
-			// Otherwise it is colinear with A and B and we ignore it
-		}
-		hullSet(A, B, above, hull);
-		hullSet(B, A, below, hull);
-
+		updateHull();
 		// hull is now the points on the hull - keeping them in order!
 		dataPoints = new LinkedHashSet<>(hull);
 
@@ -466,11 +534,22 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 		long x, y;
 
 		DataPoint(double x, double y, double precision) {
-			this.x = (long) (x / precision);
-			this.y = (long) (y / precision);
+			this(toGrid(x, precision), toGrid(y, precision), precision);
+		}
+
+		DataPoint(long x, long y, double precision) {
+			this.x = x;
+			this.y = y;
 			this.precision = precision;
 		}
 
+		/**
+		 * @return The coordinate rounded to the precision grid
+		 */
+		static long toGrid(double value, double precision) {
+			return (long) (value / precision);
+		}
+
 		double getXDbl() {
 			return x * precision;
 		}
@@ -486,8 +565,7 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 		 * @return 1 if above, -1 if below, 0 if co-linear
 		 */
 		int isAbove(DataPoint lineA, DataPoint lineB) {
-			long comp = ((lineB.x - lineA.x) * (this.y - lineA.y)
-					- (lineB.y - lineA.y) * (this.x - lineA.x));
+			long comp = cross(lineA.x, lineA.y, lineB.x, lineB.y, x, y);
 			if (comp > 0L) {
 				return 1;
 			} else if (comp < 0L) {
@@ -496,6 +574,39 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 			return 0;
 		}
 
+		/**
+		 * The cross product of the vectors AB and AP
+		 * 
+		 * @return A positive value if P is to the left of the line AB, a
+		 *         negative value if it is to the right, or 0 if co-linear
+		 */
+		static long cross(long aX, long aY, long bX, long bY, long pX,
+				long pY) {
+			return (bX - aX) * (pY - aY) - (bY - aY) * (pX - aX);
+		}
+
+		/**
+		 * Project a point onto one of the directions x, y, x + y and x - y
+		 * 
+		 * @param point
+		 *            The point
+		 * @param direction
+		 *            The direction index (0 - 3)
+		 * @return The projected coordinate
+		 */
+		static long project(DataPoint point, int direction) {
+			switch (direction) {
+			case 0:
+				return point.x;
+			case 1:
+				return point.y;
+			case 2:
+				return point.x + point.y;
+			default:
+				return point.x - point.y;
+			}
+		}
+
 		/**
 		 * Determine the area of a triangle between three points
 		 * 
@@ -511,17 +622,6 @@ class ConvexHull implements Iterable<ConvexHull.DataPoint>, DrawableDataObject {
 					+ point2.x * (point0.y - point1.y)) / 2.0);
 		}
 
-		/**
-		 * Determine the distance of this point to a line between two points A
-		 * and B
-		 * 
-		 * @return the distance
-		 */
-		long distFromLine(DataPoint lineA, DataPoint lineB) {
-			return Math.abs((lineB.x - lineA.x) * (this.y - lineA.y)
-					- (lineB.y - lineA.y) * (this.x - lineA.x));
-		}
-
 		@Override
 		public int compareTo(DataPoint o) {
 			int retVal = Long.compare(x, o.x);
@@ -14,15 +14,15 @@
  ******************************************************************************/
 package com.vernalis.knime.chem.pmi.nodes.props.pmiderived;
 
-import java.util.List;
+import org.knime.core.node.util.ColumnFilter;
 
 import com.vernalis.exceptions.RowExecutionException;
+import com.vernalis.knime.chem.conformers.MultiConformerColumnFilter;
 import com.vernalis.knime.chem.pmi.props.PMI;
 import com.vernalis.knime.chem.pmi.props.PrincipalMomentOfInertiaDerivedProperties;
-import com.vernalis.knime.chem.util.points.AbstractPoint;
-import com.vernalis.knime.chem.util.points.PointFactory;
+import com.vernalis.knime.chem.util.points.PointArrays;
 import com.vernalis.knime.core.nodes.props.abstrct.AbstractMoleculePropertyCalcNodeFactory;
-import com.vernalis.knime.core.nodes.props.abstrct.AbstractPointListMoleculePropertyCalcNodeModel;
+import com.vernalis.knime.core.nodes.props.abstrct.AbstractPointArrayMoleculePropertyCalcNodeModel;
 
 /**
  * Node Factory implementation for the PMI-Derived properties node
@@ -31,7 +31,7 @@ import com.vernalis.knime.core.nodes.props.abstrct.AbstractPointListMoleculeProp
  *
  */
 public class PmiDerivedPropsNodeFactory extends
-AbstractMoleculePropertyCalcNodeFactory<AbstractPointListMoleculePropertyCalcNodeModel<PMI, Double>, PMI> {
+AbstractMoleculePropertyCalcNodeFactory<AbstractPointArrayMoleculePropertyCalcNodeModel<PMI>, PMI> {
 
 	/**
 	 * Constructor
@@ -44,19 +44,22 @@ AbstractMoleculePropertyCalcNodeFactory<AbstractPointListMoleculePropertyCalcNod
 	}
 
 	@Override
-	public AbstractPointListMoleculePropertyCalcNodeModel<PMI, Double> createNodeModel() {
-		return new AbstractPointListMoleculePropertyCalcNodeModel<PMI, Double>(
+	protected ColumnFilter getAcceptedColumnsFilter() {
+		// Multi-conformer columns give a list of values for each property
+		return new MultiConformerColumnFilter(
+				super.getAcceptedColumnsFilter());
+	}
+
+	@Override
+	public AbstractPointArrayMoleculePropertyCalcNodeModel<PMI> createNodeModel() {
+		return new AbstractPointArrayMoleculePropertyCalcNodeModel<PMI>(
 				getPropertyFilterTitle(), getProperties(),
-				getAcceptedColumnsFilter(),
-				PointFactory.elementSymbolFromPdbAtom
-				.andThen(PointFactory.elementWeightFromSymbol),
-				PointFactory.elementSymbolFromMolAtom
-				.andThen(PointFactory.elementWeightFromSymbol)) {
+				getAcceptedColumnsFilter(), true) {
 
 			@Override
-			protected PMI getObjFromPointList(
-					List<AbstractPoint<Double>> points) throws RowExecutionException {
-				return PMI.fromPoints(points);
+			protected PMI getObjFromPointArrays(PointArrays points)
+					throws RowExecutionException {
+				return PMI.fromPointArrays(points);
 			}
 
 		};
@@ -49,6 +49,9 @@ public class AlignToPrincipalAxesNodeDialog extends DefaultNodeSettingsPane {
 		addDialogComponent(new DialogComponentBoolean(
 				AbstractVerRDKitRearrangerNodeModel.createRemoveInputColModel(),
 				"Remove input column"));
+		addDialogComponent(new DialogComponentBoolean(
+				AlignToPrincipalAxesNodeModel.createLegacyRotationModel(),
+				"Use legacy axis rotation"));
 
 	}
 
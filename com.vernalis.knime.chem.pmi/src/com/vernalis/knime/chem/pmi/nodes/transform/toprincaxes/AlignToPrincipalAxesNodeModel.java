@@ -22,6 +22,9 @@ import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.ExecutionContext;
 import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 
 import com.vernalis.knime.chem.pmi.nodes.rdkit.abstrct.AbstractVerRDKitRearrangerNodeModel;
 import com.vernalis.knime.chem.pmi.util.misc.PmiUtils;
@@ -34,6 +37,14 @@ import com.vernalis.knime.chem.pmi.util.misc.PmiUtils;
  */
 public class AlignToPrincipalAxesNodeModel extends AbstractVerRDKitRearrangerNodeModel {
 
+	/**
+	 * The settings model key for the legacy rotation settings model
+	 */
+	static final String CFG_LEGACY_ROTATION = "Legacy_rotation";
+
+	private final SettingsModelBoolean legacyRotationMdl =
+			createLegacyRotationModel();
+
 	/**
 	 * Constructor for the node model.
 	 */
@@ -42,6 +53,15 @@ public class AlignToPrincipalAxesNodeModel extends AbstractVerRDKitRearrangerNod
 		addRemoveInputColumnModel();
 	}
 
+	/**
+	 * @return The settings model for the legacy rotation option. Settings
+	 *         saved before v1.36.4 do not contain this setting, and are loaded
+	 *         with the option selected
+	 */
+	static SettingsModelBoolean createLegacyRotationModel() {
+		return new SettingsModelBoolean(CFG_LEGACY_ROTATION, false);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -71,8 +91,37 @@ public class AlignToPrincipalAxesNodeModel extends AbstractVerRDKitRearrangerNod
 
 	@Override
 	protected void calculateResultCells(DataCell[] resultCells, ROMol mol) {
-		PmiUtils.alignToPrincipalAxes(mol);
+		PmiUtils.alignToPrincipalAxes(mol, legacyRotationMdl.getBooleanValue());
 		resultCells[0] = MolCellFactory.createAdapterCell(mol.MolToMolBlock());
 	}
 
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		super.saveSettingsTo(settings);
+		legacyRotationMdl.saveSettingsTo(settings);
+	}
+
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		super.validateSettings(settings);
+		if (settings.containsKey(CFG_LEGACY_ROTATION)) {
+			legacyRotationMdl.validateSettings(settings);
+		}
+	}
+
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		super.loadValidatedSettingsFrom(settings);
+		if (settings.containsKey(CFG_LEGACY_ROTATION)) {
+			legacyRotationMdl.loadSettingsFrom(settings);
+		} else {
+			// Keep the rotation of nodes saved before v1.36.4
+			legacyRotationMdl.setBooleanValue(true);
+			setWarningMessage(
+					"Applied legacy compatible principal axes rotation");
+		}
+	}
+
 }
@@ -20,6 +20,8 @@ import java.util.List;
 
 import com.vernalis.exceptions.RowExecutionException;
 import com.vernalis.knime.chem.util.points.AbstractPoint;
+import com.vernalis.knime.chem.util.points.InertialTensor;
+import com.vernalis.knime.chem.util.points.PointArrays;
 import com.vernalis.knime.util.math.Cubic;
 
 /**
@@ -63,6 +65,17 @@ public class PMI {
 		this.MWt = MWt;
 	}
 
+	/**
+	 * @param pmis
+	 *            The 3 PMIs in ascending order
+	 * @param MWt
+	 *            The total mass
+	 */
+	private PMI(double[] pmis, Double MWt) {
+		this.pmis = pmis;
+		this.MWt = MWt;
+	}
+
 	public static PMI fromPoints(Collection<AbstractPoint<Double>> points) throws RowExecutionException {
 
 		AbstractPoint<Double> cOfGravity;
@@ -72,8 +85,46 @@ public class PMI {
 		} catch (final NullPointerException e) {
 			throw new RowExecutionException("Error calculating centre of gravity!");
 		}
-		final double[][] inertialTensor =
-				AbstractPoint.getInertialTensor(points, cOfGravity);
+		return fromInertialTensor(
+				AbstractPoint.getInertialTensor(points, cOfGravity),
+				cOfGravity.getProperty());
+	}
+
+	/**
+	 * Method to calculate the PMIs of a set of points, with the point weights
+	 * as the masses
+	 *
+	 * @param points
+	 *            The points
+	 * @return The PMIs, with the total mass as the MWt
+	 * @throws RowExecutionException
+	 *             If any of the points do not have a mass
+	 */
+	public static PMI fromPointArrays(PointArrays points)
+			throws RowExecutionException {
+		if (points.hasMissingWeights()) {
+			throw new RowExecutionException(
+					"Error calculating centre of gravity!");
+		}
+		return fromInertialTensor(new InertialTensor().calculate(points));
+	}
+
+	/**
+	 * Method to create the PMIs from a calculated inertial tensor. The PMIs
+	 * are found in closed form, and the total mass is used as the MWt
+	 *
+	 * @param tensor
+	 *            The inertial tensor
+	 * @return The PMIs
+	 */
+	public static PMI fromInertialTensor(InertialTensor tensor) {
+		final double[] pmis = new double[3];
+		tensor.getPrincipalMoments(pmis);
+		return new PMI(pmis, tensor.getMass());
+	}
+
+	private static PMI fromInertialTensor(double[][] inertialTensor,
+			Double MWt) {
 		final Double a = -1.0 * (inertialTensor[0][0] + inertialTensor[1][1]
 				+ inertialTensor[2][2]);
 		final Double b = inertialTensor[0][0] * inertialTensor[1][1]
@@ -93,7 +144,7 @@ public class PMI {
 																		- inertialTensor[0][0] * inertialTensor[1][1]
 																				* inertialTensor[2][2];
 		final Cubic cubic = new Cubic(a, b, c);
-		return new PMI(cubic.getRoots(), cOfGravity.getProperty());
+		return new PMI(cubic.getRoots(), MWt);
 	}
 
 	public double I1() {
@@ -15,9 +15,9 @@
 package com.vernalis.knime.chem.pmi.util.misc;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
+import org.RDKit.Atom;
 import org.RDKit.Conformer;
 import org.RDKit.Point3D;
 import org.RDKit.ROMol;
@@ -30,6 +30,8 @@ import org.knime.core.node.InvalidSettingsException;
 import org.knime.core.node.NodeLogger;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 
+import com.vernalis.knime.chem.util.points.InertialTensor;
+import com.vernalis.knime.chem.util.points.PointArrays;
 import com.vernalis.knime.util.math.Cubic;
 import com.vernalis.knime.util.math.TransformUtil;
 
@@ -45,6 +47,13 @@ public abstract class PmiUtils {
 	public static final String CFG_PMIs = "Report_PMIs";
 	public static final String CFG_nPMIs = "Report_Normalised_PMIs";
 
+	/**
+	 * Per-thread containers for the atom coordinates and masses, which are
+	 * re-used for each molecule
+	 */
+	private static final ThreadLocal<PointArrays> ATOM_POINTS =
+			ThreadLocal.withInitial(PointArrays::new);
+
 	/** Create the return PMIs settings model */
 	public static final SettingsModelBoolean createPmisModel() {
 		return new SettingsModelBoolean(CFG_PMIs, false);
@@ -123,26 +132,41 @@ public abstract class PmiUtils {
 	 * @return The 3 PMIs in ascending order
 	 */
 	public static List<Double> getPMIs(ROMol mol) {
-
-		// First we need to find the centre of gravity
-		Point3D geoCentroid = getCentreOfGravity(mol);
-
-		// Now the inertial Tensor:
-		double[][] inertialTensor = getInertialTensor(mol, geoCentroid);
-		geoCentroid.delete();
-
-		// And now the PMIs
-		List<Double> PMIs = calcPMIs(mol, inertialTensor);
-
-		while (PMIs.size() < 3) {
-			// Duplicate the first element of the list
-			PMIs.add(PMIs.get(0));
+		// The centre of gravity and inertial tensor in a single pass, and
+		// then the PMIs in closed form
+		final double[] moments = new double[3];
+		calculateInertialTensor(mol).getPrincipalMoments(moments);
+		final List<Double> PMIs = new ArrayList<>(3);
+		for (double moment : moments) {
+			PMIs.add(moment);
 		}
-		// Sort Low to High
-		Collections.sort(PMIs);
 		return PMIs;
 	}
 
+	/**
+	 * Method to read the atom coordinates and masses of a molecule into
+	 * primitive arrays, and calculate the inertial tensor from them
+	 *
+	 * @param mol
+	 *            The molecule
+	 * @return The inertial tensor
+	 */
+	private static InertialTensor calculateInertialTensor(ROMol mol) {
+		final PointArrays points = ATOM_POINTS.get();
+		points.clear();
+		final Conformer conf = mol.getConformer();
+		for (long i = 0; i < conf.getNumAtoms(); i++) {
+			final Point3D coords = conf.getAtomPos(i);
+			final Atom atom = mol.getAtomWithIdx(i);
+			points.add(coords.getX(), coords.getY(), coords.getZ(),
+					atom.getMass());
+			atom.delete();
+			coords.delete();
+		}
+		conf.delete();
+		return new InertialTensor().calculate(points);
+	}
+
 	/**
 	 * Hidden method to actually calculate the PMIs from the inertial tensor
 	 * 
@@ -251,23 +275,47 @@ public abstract class PmiUtils {
 	 *            The molecule
 	 */
 	public static void alignToPrincipalAxes(ROMol mol) {
+		alignToPrincipalAxes(mol, false);
+	}
+
+	/**
+	 * Method to align a molecule to it's principal inertial axes
+	 * 
+	 * @param mol
+	 *            The molecule
+	 * @param legacyRotation
+	 *            If {@code true}, the rotation is found with
+	 *            {@link TransformUtil#makeRotationMatrix(double[][])} as in
+	 *            versions before v1.36.4, which may order and orient the axes
+	 *            differently, and does not always give a pure rotation
+	 *
+	 * @since v1.36.4
+	 */
+	@SuppressWarnings("deprecation")
+	public static void alignToPrincipalAxes(ROMol mol,
+			boolean legacyRotation) {
 
 		// Build the transforms
-		// Start with the translation to the centre of gravity
-		Point3D cOfG = getCentreOfGravity(mol);
+		// Start with the centre of gravity and inertial tensor
+		final InertialTensor inertialTensor = calculateInertialTensor(mol);
 
 		// Find the rotation
-		double[][] inertialTensor = getInertialTensor(mol, cOfG);
-		double[] rotationMatrix =
-				TransformUtil.makeRotationMatrix(inertialTensor);
+		double[] rotationMatrix;
+		if (legacyRotation) {
+			rotationMatrix = TransformUtil
+					.makeRotationMatrix(inertialTensor.getTensor());
+		} else {
+			rotationMatrix = new double[9];
+			inertialTensor.getPrincipalAxes(new double[3], rotationMatrix);
+		}
 
 		// Now set up the transforms (NB RDKit does rotate-then-transform so do
 		// separately
 		// Translation first - need to negate the C of G for the
 		// transform
-		cOfG.setX(-cOfG.getX());
-		cOfG.setY(-cOfG.getY());
-		cOfG.setZ(-cOfG.getZ());
+		Point3D cOfG = new Point3D(-inertialTensor.getCentreOfGravityX(),
+				-inertialTensor.getCentreOfGravityY(),
+				-inertialTensor.getCentreOfGravityZ());
 		Transform3D trans = new Transform3D();
 		trans.SetTranslation(cOfG);
 		mol.getConformer().transformConformer(trans);
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.util.math;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link SymmetricEigen3}. Each matrix is built as
+ * R<sup>T</sup>DR from known eigenvalues D and a rotation R, and the
+ * eigenvalues found are checked against those used, and the eigenvectors
+ * checked to satisfy Av = &lambda;v and to form a right-handed orthonormal
+ * set
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class SymmetricEigen3Test {
+
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The tolerance of the eigenvalues, relative to the largest. The
+	 * trigonometric solution loses about half the significant figures of
+	 * eigenvalues which are equal or nearly so
+	 */
+	private static final double EIGENVALUE_TOLERANCE = 1e-7;
+
+	/**
+	 * Test a diagonal matrix with distinct eigenvalues
+	 */
+	@Test
+	public void testDiagonal() {
+		check(new double[] { 3.0, 1.0, 2.0 }, identity());
+		check(new double[] { -5.0, 0.0, 7.5 }, identity());
+	}
+
+	/**
+	 * Test a matrix with two equal eigenvalues
+	 */
+	@Test
+	public void testTwoEqual() {
+		final Random rand = new Random(3L);
+		check(new double[] { 2.0, 5.0, 2.0 }, identity());
+		check(new double[] { 5.0, 2.0, 2.0 }, identity());
+		for (int i = 0; i < 200; i++) {
+			check(new double[] { 2.0, 2.0, 5.0 }, randomRotation(rand));
+			check(new double[] { -1.0, 3.0, 3.0 }, randomRotation(rand));
+		}
+	}
+
+	/**
+	 * Test a matrix with three equal eigenvalues
+	 */
+	@Test
+	public void testThreeEqual() {
+		final Random rand = new Random(5L);
+		check(new double[] { 4.0, 4.0, 4.0 }, identity());
+		check(new double[] { 0.0, 0.0, 0.0 }, identity());
+		for (int i = 0; i < 20; i++) {
+			check(new double[] { -2.5, -2.5, -2.5 }, randomRotation(rand));
+		}
+	}
+
+	/**
+	 * Test randomly rotated matrices with random eigenvalues
+	 */
+	@Test
+	public void testRandomRotated() {
+		final Random rand = new Random(7L);
+		for (int i = 0; i < 2000; i++) {
+			final double[] eigenvalues = new double[3];
+			for (int j = 0; j < 3; j++) {
+				eigenvalues[j] = 10.0 * (rand.nextDouble() - 0.5);
+			}
+			check(eigenvalues, randomRotation(rand));
+		}
+	}
+
+	/**
+	 * Test randomly rotated matrices with nearly equal eigenvalues
+	 */
+	@Test
+	public void testNearlyEqual() {
+		final Random rand = new Random(11L);
+		for (int i = 0; i < 500; i++) {
+			final double e = 1e-6 * rand.nextDouble();
+			check(new double[] { 1.0, 1.0 + e, 3.0 }, randomRotation(rand));
+			check(new double[] { 1.0, 3.0, 3.0 + e }, randomRotation(rand));
+		}
+	}
+
+	/**
+	 * Check the eigenvalues and eigenvectors of R<sup>T</sup>DR
+	 *
+	 * @param d
+	 *            The eigenvalues, in any order
+	 * @param r
+	 *            The rotation, in row-major order
+	 */
+	private static void check(double[] d, double[] r) {
+		// A = R^T D R
+		final double[] a = new double[9];
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				for (int k = 0; k < 3; k++) {
+					a[3 * i + j] += r[3 * k + i] * d[k] * r[3 * k + j];
+				}
+			}
+		}
+		final String msg = "Eigenvalues " + Arrays.toString(d)
+				+ ", rotation " + Arrays.toString(r);
+		final double scale = Math.max(1.0,
+				Math.max(Math.abs(d[0]), Math.max(Math.abs(d[1]),
+						Math.abs(d[2]))));
+
+		final double[] eigenvalues = new double[3];
+		SymmetricEigen3.getEigenvalues(a[0], a[4], a[8], a[1], a[2], a[5],
+				eigenvalues);
+		final double[] expected = d.clone();
+		Arrays.sort(expected);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(msg, expected[i], eigenvalues[i],
+					EIGENVALUE_TOLERANCE * scale);
+		}
+
+		final double[] v = new double[9];
+		SymmetricEigen3.getEigenvectors(a[0], a[4], a[8], a[1], a[2], a[5],
+				eigenvalues, v);
+		for (int i = 0; i < 3; i++) {
+			// Av = lambda v
+			for (int j = 0; j < 3; j++) {
+				double av = 0.0;
+				for (int k = 0; k < 3; k++) {
+					av += a[3 * j + k] * v[3 * i + k];
+				}
+				assertEquals(msg + ", eigenvector " + i,
+						eigenvalues[i] * v[3 * i + j], av,
+						EIGENVALUE_TOLERANCE * scale);
+			}
+			// Orthonormal
+			for (int j = 0; j < 3; j++) {
+				assertEquals(msg + ", eigenvectors " + i + "." + j,
+						i == j ? 1.0 : 0.0, dot(v, i, j), TOLERANCE);
+			}
+		}
+		// Right-handed, i.e. v0 x v1 = v2
+		assertEquals(msg + ", handedness", 1.0,
+				v[0] * (v[4] * v[8] - v[5] * v[7])
+						- v[1] * (v[3] * v[8] - v[5] * v[6])
+						+ v[2] * (v[3] * v[7] - v[4] * v[6]),
+				TOLERANCE);
+	}
+
+	private static double dot(double[] m, int row0, int row1) {
+		return m[3 * row0] * m[3 * row1] + m[3 * row0 + 1] * m[3 * row1 + 1]
+				+ m[3 * row0 + 2] * m[3 * row1 + 2];
+	}
+
+	private static double[] identity() {
+		return new double[] { 1, 0, 0, 0, 1, 0, 0, 0, 1 };
+	}
+
+	/**
+	 * Create a uniformly distributed random rotation from a random unit
+	 * quaternion
+	 */
+	private static double[] randomRotation(Random rand) {
+		double w, x, y, z, norm;
+		do {
+			w = rand.nextGaussian();
+			x = rand.nextGaussian();
+			y = rand.nextGaussian();
+			z = rand.nextGaussian();
+			norm = Math.sqrt(w * w + x * x + y * y + z * z);
+		} while (norm < 1e-6);
+		w /= norm;
+		x /= norm;
+		y /= norm;
+		z /= norm;
+		return new double[] { 1 - 2 * (y * y + z * z), 2 * (x * y - w * z),
+				2 * (x * z + w * y), 2 * (x * y + w * z),
+				1 - 2 * (x * x + z * z), 2 * (y * z - w * x),
+				2 * (x * z - w * y), 2 * (y * z + w * x),
+				1 - 2 * (x * x + y * y) };
+	}
+}
@@ -152,7 +152,7 @@ public abstract class AbstractPropertyCalcNodeFactory<T extends AbstractProperty
 	@Override
 	protected NodeDialogPane createNodeDialogPane() {
 		return new AbstractPropertyCalcNodeDialog<>(propertyFilterTitle,
-				columnName, properties, acceptedColumnsFilter);
+				columnName, properties, getAcceptedColumnsFilter());
 	}
 
 	/**
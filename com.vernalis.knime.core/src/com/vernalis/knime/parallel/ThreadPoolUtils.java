@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.parallel;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.util.ThreadPool;
+
+/**
+ * Utility methods for running jobs on a sub-pool of the KNIME global thread
+ * pool
+ *
+ * @author s.roughley
+ *
+ */
+public final class ThreadPoolUtils {
+
+	private ThreadPoolUtils() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to wait for jobs enqueued on a {@link ThreadPool}. A node's
+	 * execute thread already occupies a slot of the KNIME global thread pool,
+	 * so if it blocks on the futures of jobs in a sub-pool of the same pool,
+	 * and enough nodes do so at the same time to fill the pool, the jobs never
+	 * start. The waiting is therefore run with
+	 * {@link ThreadPool#runInvisible(Callable)}, which releases the slot of
+	 * the current thread while it waits. Exceptions thrown by the waiter are
+	 * re-thrown unwrapped
+	 *
+	 * @param <T>
+	 *            The type of the result
+	 * @param pool
+	 *            The pool the jobs were enqueued on
+	 * @param waiter
+	 *            The code which waits for the jobs, e.g. by calling
+	 *            {@link java.util.concurrent.Future#get()} on each
+	 * @return The result of the waiter
+	 * @throws ExecutionException
+	 *             If the waiter throws an {@link ExecutionException}, or any
+	 *             other checked exception not listed here
+	 * @throws CanceledExecutionException
+	 *             If the waiter throws a {@link CanceledExecutionException}
+	 * @throws InterruptedException
+	 *             If the current thread is interrupted
+	 */
+	public static <T> T waitInvisibly(ThreadPool pool, Callable<T> waiter)
+			throws ExecutionException, CanceledExecutionException,
+			InterruptedException {
+		try {
+			return pool.runInvisible(waiter);
+		} catch (ExecutionException e) {
+			// runInvisible wraps anything thrown by the waiter
+			final Throwable cause = e.getCause();
+			if (cause instanceof ExecutionException) {
+				throw (ExecutionException) cause;
+			}
+			if (cause instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) cause;
+			}
+			if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+}
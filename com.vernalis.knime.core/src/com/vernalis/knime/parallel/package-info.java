@@ -13,6 +13,7 @@
  *  along with this program; if not, see <http://www.gnu.org/licenses>
  ******************************************************************************/
 /**
- * This package contains classes for result containers for parallel execution
+ * This package contains classes for result containers and utilities for
+ * parallel execution
  */
 package com.vernalis.knime.parallel;
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.util.math;
+
+/**
+ * Utility class to solve the eigenproblem for a real symmetric 3x3 matrix in
+ * closed form, without creating any objects. The matrix is supplied as its 6
+ * unique elements.
+ * <p>
+ * The eigenvalues are found with the trigonometric solution of the
+ * characteristic cubic (O. K. Smith, Commun. ACM 4(4) 1961, 168), which is
+ * always real for a symmetric matrix. Each eigenvector is the largest cross
+ * product of two rows of (A - &lambda;I). The vector of the eigenvalue best
+ * separated from the others is found first, and the second is then made
+ * orthogonal to it, so that degenerate eigenvalues still give an orthonormal
+ * set of eigenvectors
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+public final class SymmetricEigen3 {
+
+	private static final double TWO_THIRDS_PI = 2.0 * Math.PI / 3.0;
+
+	/**
+	 * The squared length below which a cross product is considered to be zero,
+	 * relative to the squared scale of the matrix
+	 */
+	private static final double ZERO_LENGTH_SQ = 1.0e-24;
+
+	private SymmetricEigen3() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to find the eigenvalues of a symmetric matrix
+	 *
+	 * @param a00
+	 *            Element (0,0)
+	 * @param a11
+	 *            Element (1,1)
+	 * @param a22
+	 *            Element (2,2)
+	 * @param a01
+	 *            Element (0,1)
+	 * @param a02
+	 *            Element (0,2)
+	 * @param a12
+	 *            Element (1,2)
+	 * @param eigenvalues
+	 *            Array of length at least 3, which will contain the eigenvalues
+	 *            in ascending order
+	 */
+	public static void getEigenvalues(double a00, double a11, double a22,
+			double a01, double a02, double a12, double[] eigenvalues) {
+		final double offDiag = a01 * a01 + a02 * a02 + a12 * a12;
+		final double q = (a00 + a11 + a22) / 3.0;
+		final double b00 = a00 - q;
+		final double b11 = a11 - q;
+		final double b22 = a22 - q;
+		final double p =
+				Math.sqrt((b00 * b00 + b11 * b11 + b22 * b22 + 2.0 * offDiag)
+						/ 6.0);
+		if (offDiag == 0.0 || p == 0.0) {
+			// Diagonal matrix
+			sort3(a00, a11, a22, eigenvalues);
+			return;
+		}
+		// det((A - qI) / p) / 2
+		double r = (b00 * (b11 * b22 - a12 * a12) - a01 * (a01 * b22 - a12 * a02)
+				+ a02 * (a01 * a12 - b11 * a02)) / (2.0 * p * p * p);
+		r = Math.max(-1.0, Math.min(1.0, r));
+		final double phi = Math.acos(r) / 3.0;
+		eigenvalues[2] = q + 2.0 * p * Math.cos(phi);
+		eigenvalues[0] = q + 2.0 * p * Math.cos(phi + TWO_THIRDS_PI);
+		eigenvalues[1] = 3.0 * q - eigenvalues[0] - eigenvalues[2];
+		// Rounding can leave the middle value just outside the others
+		sort3(eigenvalues[0], eigenvalues[1], eigenvalues[2], eigenvalues);
+	}
+
+	/**
+	 * Method to find the eigenvectors of a symmetric matrix given its
+	 * eigenvalues. The eigenvectors are returned as the rows of a right-handed
+	 * orthonormal (i.e. rotation) matrix in row-major order, so that applying
+	 * the matrix to a vector gives its components along the eigenvectors
+	 *
+	 * @param a00
+	 *            Element (0,0)
+	 * @param a11
+	 *            Element (1,1)
+	 * @param a22
+	 *            Element (2,2)
+	 * @param a01
+	 *            Element (0,1)
+	 * @param a02
+	 *            Element (0,2)
+	 * @param a12
+	 *            Element (1,2)
+	 * @param eigenvalues
+	 *            The eigenvalues in ascending order, from
+	 *            {@link #getEigenvalues(double, double, double, double, double, double, double[])}
+	 * @param eigenvectors
+	 *            Array of length at least 9, which will contain the unit
+	 *            eigenvectors, in the same order as the eigenvalues
+	 */
+	public static void getEigenvectors(double a00, double a11, double a22,
+			double a01, double a02, double a12, double[] eigenvalues,
+			double[] eigenvectors) {
+		final double scale = Math.max(Math.abs(eigenvalues[0]),
+				Math.abs(eigenvalues[2]));
+		if (scale == 0.0 || a01 == 0.0 && a02 == 0.0 && a12 == 0.0
+				&& eigenvalues[0] == eigenvalues[2]) {
+			setIdentity(eigenvectors);
+			return;
+		}
+		// Find the vector for the best separated eigenvalue first
+		final boolean lowestFirst = eigenvalues[1]
+				- eigenvalues[0] >= eigenvalues[2] - eigenvalues[1];
+		final int first = lowestFirst ? 0 : 2;
+		if (!getNullVector(a00, a11, a22, a01, a02, a12, eigenvalues[first],
+				scale, eigenvectors, 3 * first)) {
+			// All eigenvalues are equal
+			setIdentity(eigenvectors);
+			return;
+		}
+		if (!getNullVector(a00, a11, a22, a01, a02, a12, eigenvalues[1], scale,
+				eigenvectors, 3)
+				|| !orthogonalise(eigenvectors, 3, 3 * first)) {
+			// Degenerate - any vector perpendicular to the first will do
+			getPerpendicular(eigenvectors, 3 * first, eigenvectors, 3);
+		}
+		if (lowestFirst) {
+			cross(eigenvectors, 0, 3, eigenvectors, 6);
+		} else {
+			cross(eigenvectors, 3, 6, eigenvectors, 0);
+		}
+	}
+
+	private static void sort3(double v0, double v1, double v2,
+			double[] sorted) {
+		double tmp;
+		if (v0 > v1) {
+			tmp = v0;
+			v0 = v1;
+			v1 = tmp;
+		}
+		if (v1 > v2) {
+			tmp = v1;
+			v1 = v2;
+			v2 = tmp;
+		}
+		if (v0 > v1) {
+			tmp = v0;
+			v0 = v1;
+			v1 = tmp;
+		}
+		sorted[0] = v0;
+		sorted[1] = v1;
+		sorted[2] = v2;
+	}
+
+	private static void setIdentity(double[] m) {
+		for (int i = 0; i < 9; i++) {
+			m[i] = i % 4 == 0 ? 1.0 : 0.0;
+		}
+	}
+
+	/**
+	 * Method to find a unit vector in the null space of (A - &lambda;I) from
+	 * the largest cross product of its rows
+	 *
+	 * @return {@code false} if all the cross products are zero, i.e. the
+	 *         eigenvalue is degenerate
+	 */
+	private static boolean getNullVector(double a00, double a11, double a22,
+			double a01, double a02, double a12, double lambda, double scale,
+			double[] out, int offset) {
+		final double r00 = a00 - lambda;
+		final double r11 = a11 - lambda;
+		final double r22 = a22 - lambda;
+		// Row 0 x Row 1
+		final double c0x = a01 * a12 - a02 * r11;
+		final double c0y = a02 * a01 - r00 * a12;
+		final double c0z = r00 * r11 - a01 * a01;
+		// Row 0 x Row 2
+		final double c1x = a01 * r22 - a02 * a12;
+		final double c1y = a02 * a02 - r00 * r22;
+		final double c1z = r00 * a12 - a01 * a02;
+		// Row 1 x Row 2
+		final double c2x = r11 * r22 - a12 * a12;
+		final double c2y = a12 * a02 - a01 * r22;
+		final double c2z = a01 * a12 - r11 * a02;
+		final double l0 = c0x * c0x + c0y * c0y + c0z * c0z;
+		final double l1 = c1x * c1x + c1y * c1y + c1z * c1z;
+		final double l2 = c2x * c2x + c2y * c2y + c2z * c2z;
+		final double scaleSq = scale * scale;
+		if (Math.max(l0, Math.max(l1, l2)) <= ZERO_LENGTH_SQ * scaleSq
+				* scaleSq) {
+			return false;
+		}
+		if (l0 >= l1 && l0 >= l2) {
+			set(out, offset, c0x, c0y, c0z, Math.sqrt(l0));
+		} else if (l1 >= l2) {
+			set(out, offset, c1x, c1y, c1z, Math.sqrt(l1));
+		} else {
+			set(out, offset, c2x, c2y, c2z, Math.sqrt(l2));
+		}
+		return true;
+	}
+
+	private static void set(double[] out, int offset, double x, double y,
+			double z, double length) {
+		out[offset] = x / length;
+		out[offset + 1] = y / length;
+		out[offset + 2] = z / length;
+	}
+
+	/**
+	 * Method to remove the component of the vector at {@code offset} along the
+	 * unit vector at {@code unitOffset}, and renormalise it
+	 *
+	 * @return {@code false} if nothing was left
+	 */
+	private static boolean orthogonalise(double[] v, int offset,
+			int unitOffset) {
+		final double dot = v[offset] * v[unitOffset]
+				+ v[offset + 1] * v[unitOffset + 1]
+				+ v[offset + 2] * v[unitOffset + 2];
+		final double x = v[offset] - dot * v[unitOffset];
+		final double y = v[offset + 1] - dot * v[unitOffset + 1];
+		final double z = v[offset + 2] - dot * v[unitOffset + 2];
+		final double length = Math.sqrt(x * x + y * y + z * z);
+		if (length < 1.0e-8) {
+			return false;
+		}
+		set(v, offset, x, y, z, length);
+		return true;
+	}
+
+	/**
+	 * Method to find a unit vector perpendicular to a unit vector
+	 */
+	private static void getPerpendicular(double[] unit, int unitOffset,
+			double[] out, int offset) {
+		final double x = unit[unitOffset];
+		final double y = unit[unitOffset + 1];
+		final double z = unit[unitOffset + 2];
+		// Cross with the axis the vector is least aligned with
+		if (Math.abs(x) <= Math.abs(y) && Math.abs(x) <= Math.abs(z)) {
+			set(out, offset, 0.0, z, -y, Math.sqrt(y * y + z * z));
+		} else if (Math.abs(y) <= Math.abs(z)) {
+			set(out, offset, -z, 0.0, x, Math.sqrt(x * x + z * z));
+		} else {
+			set(out, offset, y, -x, 0.0, Math.sqrt(x * x + y * y));
+		}
+	}
+
+	private static void cross(double[] v, int aOffset, int bOffset,
+			double[] out, int offset) {
+		final double x = v[aOffset + 1] * v[bOffset + 2]
+				- v[aOffset + 2] * v[bOffset + 1];
+		final double y = v[aOffset + 2] * v[bOffset]
+				- v[aOffset] * v[bOffset + 2];
+		final double z = v[aOffset] * v[bOffset + 1]
+				- v[aOffset + 1] * v[bOffset];
+		set(out, offset, x, y, z, Math.sqrt(x * x + y * y + z * z));
+	}
+}
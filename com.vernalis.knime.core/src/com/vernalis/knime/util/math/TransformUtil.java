@@ -39,6 +39,12 @@ public class TransformUtil {
 	 * http://sourceforge.net/p/openbabel/code
 	 * /HEAD/tree/openbabel/trunk/src/obutil.cpp
 	 * </p>
+	 * <p>
+	 * NB The z-component of the second axis is calculated from the wrong
+	 * vector, so the returned matrix is not always orthonormal. The method is
+	 * retained unchanged so that nodes can reproduce the alignments of
+	 * earlier versions
+	 * </p>
 	 * 
 	 * @param inertialTensor
 	 *            The inertial tensor (or other weighted covariance matrix)
@@ -46,7 +52,11 @@ public class TransformUtil {
 	 *         principal axes to align with the co-ordinate axes
 	 * @throws IllegalArgumentException
 	 *             if the matrix is not 3x3
+	 * @deprecated Use
+	 *             {@link SymmetricEigen3#getEigenvectors(double, double, double, double, double, double, double[], double[])}
+	 *             for new code
 	 */
+	@Deprecated
 	public static double[] makeRotationMatrix(double[][] inertialTensor)
 			throws IllegalArgumentException {
 		if (inertialTensor.length != 3 || inertialTensor[0].length != 3) {
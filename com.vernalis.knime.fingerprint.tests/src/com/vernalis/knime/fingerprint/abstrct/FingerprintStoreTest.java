@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.knime.core.data.DataRow;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearcher;
+import com.vernalis.knime.fingerprint.nodes.similarity.search.HitHeap;
+
+/**
+ * Test class for {@link FingerprintStore}. Fingerprints written to a store
+ * and read back are checked against the same fingerprints packed into a
+ * {@link PackedBitVectors} sorted by cardinality
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class FingerprintStoreTest {
+
+	private static final int FP_LENGTH = 300;
+
+	/** A folder for the store files, deleted after each test */
+	@Rule
+	public TemporaryFolder tmpFolder = new TemporaryFolder();
+
+	/**
+	 * Test the fingerprints, cardinalities, original indices and row IDs
+	 * read from a store match those written
+	 */
+	@Test
+	public void testRoundTrip() throws Exception {
+		final BitSet[] fps =
+				FingerprintTestData.random(new Random(3L), 500, FP_LENGTH, 0.2);
+		for (int i = 0; i < fps.length; i += 11) {
+			fps[i] = null;
+		}
+		final File file = tmpFolder.newFile("round_trip.vfps");
+		assertEquals(FingerprintTestData.removeMissing(fps).length,
+				write(fps, file));
+
+		final PackedBitVectors expected =
+				FingerprintTestData.pack(fps, FP_LENGTH).sortByCardinality();
+		try (FingerprintStore store = FingerprintStore.open(file)) {
+			assertEquals(expected.size(), store.size());
+			assertEquals(FP_LENGTH, store.getFingerprintLength());
+			assertEquals(expected.getWordsPerFingerprint(),
+					store.getWordsPerFingerprint());
+			assertTrue(store.isSortedByCardinality());
+
+			final int numWords = store.getWordsPerFingerprint();
+			final long[] expectedWords = new long[store.size() * numWords];
+			expected.getWords(0, expected.size(), expectedWords);
+			final long[] words = new long[store.size() * numWords];
+			store.getWords(0, store.size(), words);
+			assertArrayEquals(expectedWords, words);
+
+			for (int i = 0; i < store.size(); i++) {
+				assertEquals(expected.getCardinality(i),
+						store.getCardinality(i));
+				assertEquals(expected.getOriginalIndex(i),
+						store.getOriginalIndex(i));
+				assertEquals(expected.getRowKey(i).getString(), store
+						.getRowIdForOriginalIndex(store.getOriginalIndex(i)));
+			}
+			for (int card = 0; card <= FP_LENGTH + 1; card++) {
+				assertEquals("Cardinality " + card,
+						expected.findFirstWithCardinalityAtLeast(card, 0,
+								expected.size()),
+						store.findFirstWithCardinalityAtLeast(card, 0,
+								store.size()));
+			}
+		}
+	}
+
+	/**
+	 * Test an empty store can be written and read
+	 */
+	@Test
+	public void testEmptyStore() throws Exception {
+		final File file = tmpFolder.newFile("empty.vfps");
+		assertEquals(0, write(new BitSet[] { null, null }, file));
+		try (FingerprintStore store = FingerprintStore.open(file)) {
+			assertEquals(0, store.size());
+		}
+	}
+
+	/**
+	 * Test a search of a store gives the same hits as a search of the packed
+	 * fingerprints
+	 */
+	@Test
+	public void testSearch() throws Exception {
+		final Random rand = new Random(5L);
+		final BitSet[] refFps =
+				FingerprintTestData.random(rand, 1000, FP_LENGTH, 0.2);
+		final File file = tmpFolder.newFile("search.vfps");
+		write(refFps, file);
+		final PackedBitVectors queries = FingerprintTestData.pack(
+				FingerprintTestData.random(rand, 30, FP_LENGTH, 0.0),
+				FP_LENGTH);
+		final PackedBitVectors refs =
+				FingerprintTestData.pack(refFps, FP_LENGTH).sortByCardinality();
+		for (SimilarityMetric metric : SimilarityMetric.values()) {
+			final HitHeap[] expected = new FingerprintSimilaritySearcher(
+					metric, 0.3, 0.7, 0.4, 10, true)
+							.search(queries, refs, new ExecutionMonitor());
+			final HitHeap[] actual;
+			try (FingerprintStore store = FingerprintStore.open(file)) {
+				actual = new FingerprintSimilaritySearcher(metric, 0.3, 0.7,
+						0.4, 10, true).search(queries, store,
+								new ExecutionMonitor());
+			}
+			for (int q = 0; q < expected.length; q++) {
+				if (expected[q] == null) {
+					assertEquals(null, actual[q]);
+					continue;
+				}
+				expected[q].sortDescending();
+				actual[q].sortDescending();
+				assertEquals(expected[q].size(), actual[q].size());
+				for (int i = 0; i < expected[q].size(); i++) {
+					assertEquals(expected[q].getIndex(i),
+							actual[q].getIndex(i));
+					assertEquals(expected[q].getSimilarity(i),
+							actual[q].getSimilarity(i), 0.0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test a closed store can be replaced, and rejects further reads
+	 */
+	@Test
+	public void testRewriteAfterClose() throws Exception {
+		final Random rand = new Random(7L);
+		final File file = tmpFolder.newFile("rewrite.vfps");
+		write(FingerprintTestData.random(rand, 100, FP_LENGTH, 0.0), file);
+		final FingerprintStore store = FingerprintStore.open(file);
+		assertEquals(100, store.size());
+		store.close();
+		try {
+			store.getCardinality(0);
+			throw new AssertionError("Closed store was read");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+
+		write(FingerprintTestData.random(rand, 50, FP_LENGTH, 0.0), file);
+		try (FingerprintStore newStore = FingerprintStore.open(file)) {
+			assertEquals(50, newStore.size());
+		}
+	}
+
+	/**
+	 * Test a file which is not a store is rejected
+	 */
+	@Test(expected = IOException.class)
+	public void testNotAStore() throws Exception {
+		final File file = tmpFolder.newFile("not_a_store.vfps");
+		Files.write(file.toPath(), "This is not a fingerprint store"
+				.repeat(10).getBytes(StandardCharsets.UTF_8));
+		FingerprintStore.open(file).close();
+	}
+
+	private static int write(BitSet[] fps, File file) throws Exception {
+		final List<DataRow> rows =
+				FingerprintTestData.createRows(fps, FP_LENGTH);
+		return FingerprintStore.write(rows, rows.size(), 0, file,
+				new ExecutionMonitor());
+	}
+}
@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+
+/**
+ * Test class for {@link FingerprintStringCodec}
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class FingerprintStringCodecTest {
+
+	/**
+	 * Test hexadecimal strings decode to the words of the encoded
+	 * fingerprint, for lengths which are and are not a multiple of 4 bits
+	 */
+	@Test
+	public void testHexRoundTrip() {
+		final Random rand = new Random(3L);
+		for (int length = 1; length <= 300; length += 7) {
+			final BitSet fp = FingerprintTestData.random(rand, 1, length,
+					0.0)[0];
+			final String hex = FingerprintStringCodec.encodeHex(toValue(fp,
+					length));
+			assertEquals((length + 3) / 4, hex.length());
+			assertWords("Length " + length, fp,
+					FingerprintStringCodec.decodeHex(hex));
+			assertWords("Length " + length + " (lower case)", fp,
+					FingerprintStringCodec.decodeHex(hex.toLowerCase()));
+		}
+	}
+
+	/**
+	 * Test binary strings decode to the words of the encoded fingerprint
+	 */
+	@Test
+	public void testBinRoundTrip() {
+		final Random rand = new Random(5L);
+		for (int length = 1; length <= 300; length += 7) {
+			final BitSet fp = FingerprintTestData.random(rand, 1, length,
+					0.0)[0];
+			final String bin = FingerprintStringCodec.encodeBin(toValue(fp,
+					length));
+			assertEquals(length, bin.length());
+			assertWords("Length " + length, fp,
+					FingerprintStringCodec.decodeBin(bin));
+		}
+	}
+
+	/**
+	 * Test the encoded strings match those of {@link DenseBitVector}
+	 */
+	@Test
+	public void testMatchesDenseBitVector() {
+		final Random rand = new Random(7L);
+		for (int length = 1; length <= 300; length += 7) {
+			final BitSet fp = FingerprintTestData.random(rand, 1, length,
+					0.0)[0];
+			final DenseBitVector bv = new DenseBitVector(
+					Arrays.copyOf(fp.toLongArray(), (length + 63) / 64),
+					length);
+			final BitVectorValue value = toValue(fp, length);
+			assertTrue("Length " + length, bv.toHexString()
+					.equalsIgnoreCase(FingerprintStringCodec.encodeHex(value)));
+			assertEquals("Length " + length, bv.toBinaryString(),
+					FingerprintStringCodec.encodeBin(value));
+		}
+	}
+
+	/**
+	 * Test the lowest bits are in the last character
+	 */
+	@Test
+	public void testLayout() {
+		final BitSet fp = new BitSet();
+		fp.set(0);
+		fp.set(5);
+		fp.set(11);
+		final BitVectorValue value = toValue(fp, 12);
+		assertEquals("821", FingerprintStringCodec.encodeHex(value));
+		assertEquals("100000100001", FingerprintStringCodec.encodeBin(value));
+		assertArrayEquals(new long[] { 0x821L },
+				FingerprintStringCodec.decodeHex("821"));
+		assertArrayEquals(new long[] { 0x821L },
+				FingerprintStringCodec.decodeBin("100000100001"));
+	}
+
+	/**
+	 * Test invalid and empty strings are rejected
+	 */
+	@Test
+	public void testInvalid() {
+		assertNull(FingerprintStringCodec.decodeHex(""));
+		assertNull(FingerprintStringCodec.decodeHex("12G4"));
+		assertNull(FingerprintStringCodec.decodeHex("12 4"));
+		assertNull(FingerprintStringCodec.decodeHex("12\u00C04"));
+		assertNull(FingerprintStringCodec.decodeBin(""));
+		assertNull(FingerprintStringCodec.decodeBin("0120"));
+		assertNotNull(FingerprintStringCodec.decodeBin("0110"));
+	}
+
+	/**
+	 * Test a fingerprint too long to encode in full is truncated to the
+	 * highest bits, without allocating the full length
+	 */
+	@Test
+	public void testTruncation() {
+		final int maxChars = FingerprintStringCodec.MAX_CHARS;
+		final int length = maxChars + 100;
+		final BitSet fp = new BitSet();
+		fp.set(0);
+		fp.set(length - 1);
+		fp.set(length - 6);
+		final String bin = FingerprintStringCodec.encodeBin(toValue(fp,
+				length));
+		assertEquals(maxChars, bin.length());
+		assertTrue(bin.endsWith("..."));
+		assertEquals("100001000", bin.substring(0, 9));
+		assertEquals(2, bin.chars().filter(c -> c == '1').count());
+	}
+
+	/**
+	 * Test the set bit conversions are the inverse of each other
+	 */
+	@Test
+	public void testSetBitsRoundTrip() {
+		final BitSet fp =
+				FingerprintTestData.random(new Random(11L), 1, 500, 0.0)[0];
+		final long[] setBits = fp.stream().asLongStream().toArray();
+		final long[] words =
+				FingerprintStringCodec.getWordsFromSetBits(500, setBits);
+		assertWords("Words", fp, words);
+		assertArrayEquals(setBits,
+				FingerprintStringCodec.getSetBitsFromWords(words));
+	}
+
+	/**
+	 * Test only the word-encoded string types can be decoded to words
+	 */
+	@Test
+	public void testGetWordsFromString() {
+		for (FingerprintStringTypes type : FingerprintStringTypes.values()) {
+			if (type.isWordEncoded()) {
+				assertNotNull(type.getWordsFromString("101"));
+				continue;
+			}
+			try {
+				type.getWordsFromString("{1, 2}");
+				throw new AssertionError(type + " decoded to words");
+			} catch (UnsupportedOperationException e) {
+				assertNotNull(type.toString(), e.getMessage());
+			}
+		}
+	}
+
+	private static BitVectorValue toValue(BitSet fp, int length) {
+		return (BitVectorValue) FingerprintTestData.createCell(fp, length);
+	}
+
+	/**
+	 * Check decoded words hold the bits of a fingerprint
+	 */
+	private static void assertWords(String msg, BitSet expected,
+			long[] words) {
+		assertNotNull(msg, words);
+		assertEquals(msg, expected, BitSet.valueOf(words));
+	}
+}
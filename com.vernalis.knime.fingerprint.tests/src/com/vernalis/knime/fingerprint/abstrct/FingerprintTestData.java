@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * Factory methods for reproducible sets of fingerprints, for use as test
+ * data. Each fingerprint is a {@link BitSet}, and a {@code null} fingerprint
+ * represents a missing cell
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public final class FingerprintTestData {
+
+	private FingerprintTestData() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to create random fingerprints with a range of bit densities.
+	 * Some fingerprints are copies of earlier fingerprints, so that searches
+	 * have tied hits
+	 *
+	 * @param rand
+	 *            The random number generator
+	 * @param numFps
+	 *            The number of fingerprints
+	 * @param length
+	 *            The fingerprint length
+	 * @param duplicateFraction
+	 *            The fraction of fingerprints which are copies of earlier
+	 *            fingerprints
+	 * @return The fingerprints
+	 */
+	public static BitSet[] random(Random rand, int numFps, int length,
+			double duplicateFraction) {
+		final BitSet[] retVal = new BitSet[numFps];
+		for (int i = 0; i < numFps; i++) {
+			if (i > 0 && rand.nextDouble() < duplicateFraction) {
+				retVal[i] = (BitSet) retVal[rand.nextInt(i)].clone();
+				continue;
+			}
+			final double density = 0.02 + 0.3 * rand.nextDouble();
+			retVal[i] = new BitSet(length);
+			for (int bit = 0; bit < length; bit++) {
+				if (rand.nextDouble() < density) {
+					retVal[i].set(bit);
+				}
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to create a dense bitvector cell
+	 *
+	 * @param fp
+	 *            The fingerprint, or {@code null} for a missing cell
+	 * @param length
+	 *            The fingerprint length
+	 * @return The cell
+	 */
+	public static DataCell createCell(BitSet fp, int length) {
+		if (fp == null) {
+			return DataType.getMissingCell();
+		}
+		final DenseBitVector bv = new DenseBitVector(length);
+		for (int bit = fp.nextSetBit(0); bit >= 0; bit =
+				fp.nextSetBit(bit + 1)) {
+			bv.set(bit);
+		}
+		return new DenseBitVectorCellFactory(bv).createDataCell();
+	}
+
+	/**
+	 * Method to create single-column rows of dense bitvector cells
+	 *
+	 * @param fps
+	 *            The fingerprints, which may include {@code null}s for
+	 *            missing cells
+	 * @param length
+	 *            The fingerprint length
+	 * @return The rows, with keys 'Row0', 'Row1' etc.
+	 */
+	public static List<DataRow> createRows(BitSet[] fps, int length) {
+		final List<DataRow> retVal = new ArrayList<>();
+		for (int i = 0; i < fps.length; i++) {
+			retVal.add(new DefaultRow(RowKey.createRowKey((long) i),
+					createCell(fps[i], length)));
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to pack fingerprints
+	 *
+	 * @param fps
+	 *            The fingerprints, which may include {@code null}s for
+	 *            missing cells
+	 * @param length
+	 *            The fingerprint length
+	 * @return The packed fingerprints
+	 * @throws CanceledExecutionException
+	 *             Not thrown
+	 */
+	public static PackedBitVectors pack(BitSet[] fps, int length)
+			throws CanceledExecutionException {
+		return PackedBitVectors.load(createRows(fps, length), fps.length, 0,
+				length, new ExecutionMonitor());
+	}
+
+	/**
+	 * Method to remove the missing fingerprints, so that the index of each
+	 * fingerprint is its original index in the packed fingerprints
+	 *
+	 * @param fps
+	 *            The fingerprints, which may include {@code null}s
+	 * @return The non-{@code null} fingerprints, in order
+	 */
+	public static BitSet[] removeMissing(BitSet[] fps) {
+		final List<BitSet> retVal = new ArrayList<>();
+		for (BitSet fp : fps) {
+			if (fp != null) {
+				retVal.add(fp);
+			}
+		}
+		return retVal.toArray(new BitSet[retVal.size()]);
+	}
+
+	/**
+	 * Method to calculate the similarity of two fingerprints
+	 *
+	 * @param metric
+	 *            The similarity metric
+	 * @param a
+	 *            The first fingerprint
+	 * @param b
+	 *            The second fingerprint
+	 * @param alpha
+	 *            The Tversky alpha parameter
+	 * @param beta
+	 *            The Tversky beta parameter
+	 * @return The similarity
+	 */
+	public static double getSimilarity(SimilarityMetric metric, BitSet a,
+			BitSet b, double alpha, double beta) {
+		final BitSet common = (BitSet) a.clone();
+		common.and(b);
+		return metric.getSimilarity(a.cardinality(), b.cardinality(),
+				common.cardinality(), alpha, beta);
+	}
+}
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.RowKey;
+
+/**
+ * Test class for {@link PackedBitVectors}
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class PackedBitVectorsTest {
+
+	private static final int FP_LENGTH = 150;
+
+	/**
+	 * Test the words, cardinalities and row keys of packed fingerprints,
+	 * with missing cells skipped
+	 */
+	@Test
+	public void testLoad() throws Exception {
+		final BitSet[] fps =
+				FingerprintTestData.random(new Random(3L), 200, FP_LENGTH, 0.1);
+		for (int i = 0; i < fps.length; i += 13) {
+			fps[i] = null;
+		}
+		final PackedBitVectors packed =
+				FingerprintTestData.pack(fps, FP_LENGTH);
+		final BitSet[] nonMissing = FingerprintTestData.removeMissing(fps);
+		assertEquals(nonMissing.length, packed.size());
+		assertEquals(fps.length - nonMissing.length, packed.getNumMissing());
+		assertEquals(3, packed.getWordsPerFingerprint());
+		int idx = 0;
+		for (int i = 0; i < fps.length; i++) {
+			if (fps[i] == null) {
+				continue;
+			}
+			assertEquals(RowKey.createRowKey((long) i),
+					packed.getRowKey(idx));
+			checkFingerprint(fps[i], packed, idx++);
+		}
+	}
+
+	/**
+	 * Test sorting by cardinality is stable and keeps the original indices
+	 */
+	@Test
+	public void testSortByCardinality() throws Exception {
+		final BitSet[] fps =
+				FingerprintTestData.random(new Random(5L), 500, FP_LENGTH, 0.2);
+		final PackedBitVectors packed =
+				FingerprintTestData.pack(fps, FP_LENGTH);
+		final PackedBitVectors sorted = packed.sortByCardinality();
+		assertTrue(sorted.isSortedByCardinality());
+		assertEquals(packed.size(), sorted.size());
+		final boolean[] seen = new boolean[fps.length];
+		for (int i = 0; i < sorted.size(); i++) {
+			final int origIdx = sorted.getOriginalIndex(i);
+			assertTrue("Duplicate original index", !seen[origIdx]);
+			seen[origIdx] = true;
+			assertEquals(packed.getRowKey(origIdx), sorted.getRowKey(i));
+			checkFingerprint(fps[origIdx], sorted, i);
+			if (i > 0 && sorted.getCardinality(i) == sorted
+					.getCardinality(i - 1)) {
+				assertTrue("Unstable sort",
+						origIdx > sorted.getOriginalIndex(i - 1));
+			}
+		}
+	}
+
+	/**
+	 * Test the sorted fingerprints share the words of the unsorted
+	 * fingerprints, and that a range of sorted fingerprints is gathered into
+	 * contiguous words
+	 */
+	@Test
+	public void testSortedWordsNotCopied() throws Exception {
+		final BitSet[] fps =
+				FingerprintTestData.random(new Random(7L), 100, FP_LENGTH, 0.0);
+		final PackedBitVectors packed =
+				FingerprintTestData.pack(fps, FP_LENGTH);
+		final PackedBitVectors sorted = packed.sortByCardinality();
+		assertSame(packed.getWords(), sorted.getWords());
+
+		final int numWords = sorted.getWordsPerFingerprint();
+		final long[] dest = new long[60 * numWords];
+		sorted.getWords(20, 80, dest);
+		for (int i = 20; i < 80; i++) {
+			final BitSet fp = fps[sorted.getOriginalIndex(i)];
+			final long[] expected = fp.toLongArray();
+			for (int w = 0; w < numWords; w++) {
+				assertEquals("Fingerprint " + i + ", word " + w,
+						w < expected.length ? expected[w] : 0L,
+						dest[(i - 20) * numWords + w]);
+			}
+		}
+	}
+
+	/**
+	 * Test a sorted set of fingerprints is not re-sorted
+	 */
+	@Test
+	public void testSortSorted() throws Exception {
+		final PackedBitVectors sorted = FingerprintTestData
+				.pack(FingerprintTestData.random(new Random(9L), 50,
+						FP_LENGTH, 0.0), FP_LENGTH)
+				.sortByCardinality();
+		assertSame(sorted, sorted.sortByCardinality());
+	}
+
+	/**
+	 * Test finding the first fingerprint with at least a cardinality
+	 */
+	@Test
+	public void testFindFirstWithCardinalityAtLeast() throws Exception {
+		final PackedBitVectors sorted = FingerprintTestData
+				.pack(FingerprintTestData.random(new Random(11L), 300,
+						FP_LENGTH, 0.1), FP_LENGTH)
+				.sortByCardinality();
+		for (int card = 0; card <= FP_LENGTH + 1; card++) {
+			int expected = 0;
+			while (expected < sorted.size()
+					&& sorted.getCardinality(expected) < card) {
+				expected++;
+			}
+			assertEquals("Cardinality " + card, expected,
+					sorted.findFirstWithCardinalityAtLeast(card, 0,
+							sorted.size()));
+		}
+	}
+
+	/**
+	 * Check the words and cardinality of a packed fingerprint
+	 */
+	private static void checkFingerprint(BitSet expected,
+			PackedBitVectors packed, int index) {
+		final long[] expectedWords = expected.toLongArray();
+		final long[] words = packed.getWords();
+		final int offset = packed.getOffset(index);
+		for (int w = 0; w < packed.getWordsPerFingerprint(); w++) {
+			assertEquals("Fingerprint " + index + ", word " + w,
+					w < expectedWords.length ? expectedWords[w] : 0L,
+					words[offset + w]);
+		}
+		assertEquals(expected.cardinality(), packed.getCardinality(index));
+	}
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.cluster;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintTestData;
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+
+/**
+ * Test class for the neighbour finding and cluster assignment of the
+ * Fingerprint Clustering node (see {@link FingerprintClusteringNodeModel}),
+ * with the neighbour lists held both in memory and on disk
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class FingerprintClusteringTest {
+
+	private static final int FP_LENGTH = 160;
+
+	/**
+	 * Test the neighbour lists are symmetric and match an exhaustive scan
+	 */
+	@Test
+	public void testNeighbourListsSymmetric() throws Exception {
+		final BitSet[] fps =
+				FingerprintTestData.random(new Random(3L), 800, FP_LENGTH, 0.1);
+		for (double threshold : new double[] { 0.3, 0.6, 1.0 }) {
+			for (boolean spill : new boolean[] { false, true }) {
+				checkNeighbours(fps, threshold, spill);
+			}
+		}
+	}
+
+	/**
+	 * Test well-separated groups of fingerprints, in shuffled input order,
+	 * are found as clusters by both methods, and that an outlier is a
+	 * singleton cluster
+	 */
+	@Test
+	public void testKnownClusters() throws Exception {
+		// Three groups in disjoint ranges of bits, each of a centre and
+		// copies of the centre with two bits removed, and an outlier
+		final BitSet[] fps = new BitSet[31];
+		final int[] groups = new int[fps.length];
+		final Random rand = new Random(5L);
+		for (int i = 0; i < 30; i++) {
+			final int group = i / 10;
+			final BitSet fp = new BitSet();
+			fp.set(group * 50, group * 50 + 30);
+			if (i % 10 != 0) {
+				fp.clear(group * 50 + 2 * (i % 10) - 2);
+				fp.clear(group * 50 + 2 * (i % 10) - 1);
+			}
+			fps[i] = fp;
+			groups[i] = group;
+		}
+		fps[30] = new BitSet();
+		fps[30].set(150, 160);
+		groups[30] = 3;
+		shuffle(fps, groups, rand);
+
+		for (ClusteringMethod method : ClusteringMethod.values()) {
+			for (boolean spill : new boolean[] { false, true }) {
+				final String msg = method + (spill ? " (on disk)" : "");
+				final Clusters clusters = cluster(fps, 0.6, method, spill);
+				assertEquals(msg, 4, clusters.numClusters);
+				for (int i = 0; i < fps.length; i++) {
+					for (int j = 0; j < fps.length; j++) {
+						assertEquals(msg + ", " + i + ", " + j,
+								groups[i] == groups[j],
+								clusters.ids[i] == clusters.ids[j]);
+					}
+				}
+				checkCentroidsAndDistances(msg, fps, clusters);
+				// All group members are neighbours, so the centroid is the
+				// first member in input order for both methods
+				final Set<Integer> seenGroups = new HashSet<>();
+				for (int i = 0; i < fps.length; i++) {
+					assertEquals(msg + ", " + i, seenGroups.add(groups[i]),
+							clusters.isCentroid[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Test the methods differ in the order candidate centroids are
+	 * considered. For a chain of three fingerprints, where only the middle
+	 * fingerprint is a neighbour of both the others, Butina chooses the
+	 * middle fingerprint as the centroid of a single cluster, and sphere
+	 * exclusion chooses the first fingerprint, leaving the last as a
+	 * singleton
+	 */
+	@Test
+	public void testChain() throws Exception {
+		final BitSet first = new BitSet();
+		first.set(0, 10);
+		final BitSet middle = new BitSet();
+		middle.set(3, 13);
+		final BitSet last = new BitSet();
+		last.set(6, 16);
+		final BitSet[] fps = new BitSet[] { first, middle, last };
+
+		final Clusters butina =
+				cluster(fps, 0.5, ClusteringMethod.BUTINA, false);
+		assertEquals(1, butina.numClusters);
+		assertArrayEquals(new boolean[] { false, true, false },
+				butina.isCentroid);
+		checkCentroidsAndDistances("Butina", fps, butina);
+
+		final Clusters sphere =
+				cluster(fps, 0.5, ClusteringMethod.SPHERE_EXCLUSION, false);
+		assertEquals(2, sphere.numClusters);
+		assertArrayEquals(new int[] { 1, 1, 2 }, sphere.ids);
+		assertArrayEquals(new boolean[] { true, false, true },
+				sphere.isCentroid);
+		checkCentroidsAndDistances("Sphere exclusion", fps, sphere);
+	}
+
+	/**
+	 * Test identical fingerprints are in the same cluster. Empty fingerprints
+	 * have a similarity of 0 to each other, so are not neighbours
+	 */
+	@Test
+	public void testIdentical() throws Exception {
+		final BitSet[] fps = FingerprintTestData.random(new Random(7L), 200,
+				FP_LENGTH, 0.5);
+		for (ClusteringMethod method : ClusteringMethod.values()) {
+			final Clusters clusters = cluster(fps, 0.9, method, false);
+			checkCentroidsAndDistances(method.toString(), fps, clusters);
+			for (int i = 0; i < fps.length; i++) {
+				for (int j = 0; j < i; j++) {
+					if (!fps[i].isEmpty() && fps[i].equals(fps[j])) {
+						assertEquals(clusters.ids[j], clusters.ids[i]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check the neighbour lists of the packed fingerprints
+	 */
+	private static void checkNeighbours(BitSet[] fps, double threshold,
+			boolean spill) throws Exception {
+		final PackedBitVectors packed =
+				FingerprintTestData.pack(fps, FP_LENGTH).sortByCardinality();
+		try (NeighbourLists neighbours =
+				new NeighbourLists(packed.size(), spill)) {
+			FingerprintClusteringNodeModel.findNeighbours(packed, threshold,
+					spill, neighbours, new ExecutionMonitor());
+			long total = 0;
+			for (int i = 0; i < packed.size(); i++) {
+				final int[] list = neighbours.get(i);
+				assertEquals(list.length, neighbours.getCount(i));
+				total += list.length;
+				final Set<Integer> actual = new HashSet<>();
+				for (int j : list) {
+					assertTrue("Duplicate neighbour", actual.add(j));
+					assertFalse("Self neighbour", j == i);
+					assertTrue("Asymmetric neighbours " + i + ", " + j,
+							contains(neighbours.get(j), i));
+				}
+				final BitSet fpI = fps[packed.getOriginalIndex(i)];
+				for (int j = 0; j < packed.size(); j++) {
+					final double sim = FingerprintTestData.getSimilarity(
+							SimilarityMetric.TANIMOTO, fpI,
+							fps[packed.getOriginalIndex(j)], 1.0, 1.0);
+					assertEquals("Threshold " + threshold + ", " + i + ", "
+							+ j, j != i && sim >= threshold,
+							actual.contains(j));
+				}
+			}
+			assertEquals(total, neighbours.getTotalNeighbours());
+		}
+	}
+
+	/**
+	 * Check each cluster has one centroid, which has a distance of 0, and
+	 * the distance of each other member is its Tanimoto distance to the
+	 * centroid
+	 */
+	private static void checkCentroidsAndDistances(String msg, BitSet[] fps,
+			Clusters clusters) {
+		final int[] centroids = new int[clusters.numClusters + 1];
+		Arrays.fill(centroids, -1);
+		for (int i = 0; i < fps.length; i++) {
+			assertTrue(msg, clusters.ids[i] >= 1
+					&& clusters.ids[i] <= clusters.numClusters);
+			if (clusters.isCentroid[i]) {
+				assertEquals(msg + ", duplicate centroid", -1,
+						centroids[clusters.ids[i]]);
+				centroids[clusters.ids[i]] = i;
+			}
+		}
+		for (int i = 0; i < fps.length; i++) {
+			final int centroid = centroids[clusters.ids[i]];
+			assertTrue(msg + ", no centroid", centroid >= 0);
+			assertEquals(msg + ", " + i,
+					1.0 - FingerprintTestData.getSimilarity(
+							SimilarityMetric.TANIMOTO, fps[centroid], fps[i],
+							1.0, 1.0),
+					clusters.distances[i], 1e-12);
+		}
+	}
+
+	private static boolean contains(int[] list, int value) {
+		for (int i : list) {
+			if (i == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Clusters cluster(BitSet[] fps, double threshold,
+			ClusteringMethod method, boolean spill) throws Exception {
+		final PackedBitVectors packed =
+				FingerprintTestData.pack(fps, FP_LENGTH).sortByCardinality();
+		final Clusters clusters = new Clusters(fps.length);
+		try (NeighbourLists neighbours =
+				new NeighbourLists(packed.size(), spill)) {
+			FingerprintClusteringNodeModel.findNeighbours(packed, threshold,
+					spill, neighbours, new ExecutionMonitor());
+			clusters.numClusters = FingerprintClusteringNodeModel
+					.assignClusters(packed, neighbours, method, clusters.ids,
+							clusters.isCentroid, clusters.distances,
+							new ExecutionMonitor());
+		}
+		return clusters;
+	}
+
+	private static void shuffle(BitSet[] fps, int[] groups, Random rand) {
+		for (int i = fps.length - 1; i > 0; i--) {
+			final int j = rand.nextInt(i + 1);
+			final BitSet fp = fps[i];
+			fps[i] = fps[j];
+			fps[j] = fp;
+			final int group = groups[i];
+			groups[i] = groups[j];
+			groups[j] = group;
+		}
+	}
+
+	/** The cluster assignments, indexed by input order */
+	private static final class Clusters {
+
+		private final int[] ids;
+		private final boolean[] isCentroid;
+		private final double[] distances;
+		private int numClusters;
+
+		private Clusters(int size) {
+			ids = new int[size];
+			isCentroid = new boolean[size];
+			distances = new double[size];
+		}
+	}
+}
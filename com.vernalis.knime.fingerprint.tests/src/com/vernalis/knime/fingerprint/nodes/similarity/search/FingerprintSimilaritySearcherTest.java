@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintTestData;
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+
+/**
+ * Test class for {@link FingerprintSimilaritySearcher}. The hits from both
+ * the pruned (cardinality-bounded) and the unpruned search are checked
+ * against an exhaustive scan of all query-reference pairs, for each metric,
+ * with and without a hit limit and a similarity threshold. The reference
+ * fingerprints include duplicates, so that the tie-breaking on the original
+ * reference index is checked, including where the hit limit falls within a
+ * group of tied hits
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class FingerprintSimilaritySearcherTest {
+
+	private static final int FP_LENGTH = 200;
+	private static final double ALPHA = 0.3;
+	private static final double BETA = 0.7;
+
+	/**
+	 * Test the top-K hits with no threshold
+	 */
+	@Test
+	public void testTopK() throws Exception {
+		checkAllMetrics(new Random(3L), 40, 2000, 0.0, 5);
+	}
+
+	/**
+	 * Test all hits above a threshold with no hit limit
+	 */
+	@Test
+	public void testThreshold() throws Exception {
+		checkAllMetrics(new Random(5L), 40, 2000, 0.6, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Test the top-K hits above a threshold
+	 */
+	@Test
+	public void testTopKWithThreshold() throws Exception {
+		checkAllMetrics(new Random(7L), 40, 2000, 0.4, 3);
+	}
+
+	/**
+	 * Test the ties are broken on the original reference index, including
+	 * when the hit limit falls within a group of tied hits. Each query is
+	 * also a reference, which is repeated many times
+	 */
+	@Test
+	public void testTies() throws Exception {
+		final Random rand = new Random(11L);
+		final BitSet[] queries =
+				FingerprintTestData.random(rand, 10, FP_LENGTH, 0.0);
+		final BitSet[] refs =
+				FingerprintTestData.random(rand, 500, FP_LENGTH, 0.0);
+		for (int i = 0; i < refs.length; i += 7) {
+			refs[i] = (BitSet) queries[i % queries.length].clone();
+		}
+		for (SimilarityMetric metric : SimilarityMetric.values()) {
+			for (int maxHits : new int[] { 1, 4, 10, Integer.MAX_VALUE }) {
+				check(queries, refs, metric, 0.0, maxHits);
+				check(queries, refs, metric, 1.0, maxHits);
+			}
+		}
+	}
+
+	/**
+	 * Test missing fingerprints are skipped, and the hit indices are the
+	 * original indices of the non-missing reference fingerprints
+	 */
+	@Test
+	public void testMissing() throws Exception {
+		final Random rand = new Random(13L);
+		final BitSet[] queries =
+				FingerprintTestData.random(rand, 20, FP_LENGTH, 0.0);
+		final BitSet[] refs =
+				FingerprintTestData.random(rand, 500, FP_LENGTH, 0.2);
+		for (int i = 0; i < refs.length; i += 9) {
+			refs[i] = null;
+		}
+		check(queries, refs, SimilarityMetric.TANIMOTO, 0.3, 10);
+	}
+
+	/**
+	 * Test a search with more queries than fit in a single tile
+	 */
+	@Test
+	public void testManyQueries() throws Exception {
+		checkAllMetrics(new Random(17L), 2500, 300, 0.5, 5);
+	}
+
+	/**
+	 * Test that pruning skips comparisons at a high threshold
+	 */
+	@Test
+	public void testPruningSkipsComparisons() throws Exception {
+		final Random rand = new Random(19L);
+		final PackedBitVectors queries = FingerprintTestData.pack(
+				FingerprintTestData.random(rand, 20, FP_LENGTH, 0.0),
+				FP_LENGTH);
+		final PackedBitVectors refs = FingerprintTestData.pack(
+				FingerprintTestData.random(rand, 2000, FP_LENGTH, 0.0),
+				FP_LENGTH).sortByCardinality();
+		final FingerprintSimilaritySearcher searcher =
+				new FingerprintSimilaritySearcher(SimilarityMetric.TANIMOTO,
+						ALPHA, BETA, 0.8, Integer.MAX_VALUE, true);
+		searcher.search(queries, refs, new ExecutionMonitor());
+		assertEquals(20L * 2000, searcher.getNumComparisons());
+		assertTrue(searcher.getNumScored() < searcher.getNumComparisons());
+		assertTrue(searcher.getPruningRatio() > 0.0);
+	}
+
+	/**
+	 * Test that a pruned search of unsorted references is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testPruningRequiresSortedReferences() throws Exception {
+		final BitSet fp = new BitSet();
+		fp.set(3);
+		fp.set(17);
+		final PackedBitVectors fps =
+				FingerprintTestData.pack(new BitSet[] { fp, new BitSet() }, 64);
+		new FingerprintSimilaritySearcher(SimilarityMetric.TANIMOTO, ALPHA,
+				BETA, 0.5, 1, true).search(fps, fps, new ExecutionMonitor());
+	}
+
+	/**
+	 * Check the search of random fingerprints for each metric
+	 */
+	private static void checkAllMetrics(Random rand, int numQueries,
+			int numRefs, double threshold, int maxHits) throws Exception {
+		final BitSet[] queries =
+				FingerprintTestData.random(rand, numQueries, FP_LENGTH, 0.0);
+		final BitSet[] refs =
+				FingerprintTestData.random(rand, numRefs, FP_LENGTH, 0.2);
+		for (SimilarityMetric metric : SimilarityMetric.values()) {
+			check(queries, refs, metric, threshold, maxHits);
+		}
+	}
+
+	/**
+	 * Check the hits of the pruned and unpruned searches against an
+	 * exhaustive scan
+	 */
+	private static void check(BitSet[] queryFps, BitSet[] refFps,
+			SimilarityMetric metric, double threshold, int maxHits)
+			throws Exception {
+		final PackedBitVectors queries =
+				FingerprintTestData.pack(queryFps, FP_LENGTH);
+		final PackedBitVectors refs =
+				FingerprintTestData.pack(refFps, FP_LENGTH);
+		final HitHeap[] unpruned = new FingerprintSimilaritySearcher(metric,
+				ALPHA, BETA, threshold, maxHits, false)
+						.search(queries, refs, new ExecutionMonitor());
+		final HitHeap[] pruned = new FingerprintSimilaritySearcher(metric,
+				ALPHA, BETA, threshold, maxHits, true).search(queries,
+						refs.sortByCardinality(), new ExecutionMonitor());
+
+		final BitSet[] nonMissingRefs =
+				FingerprintTestData.removeMissing(refFps);
+		for (int q = 0; q < queryFps.length; q++) {
+			final List<double[]> expected = scan(queryFps[q], nonMissingRefs,
+					metric, threshold, maxHits);
+			final String msg = metric + ", threshold " + threshold
+					+ ", max hits " + maxHits + ", query " + q;
+			checkHits(msg + " (unpruned)", expected, unpruned[q]);
+			checkHits(msg + " (pruned)", expected, pruned[q]);
+		}
+	}
+
+	/**
+	 * Exhaustive scan of all references for a query
+	 *
+	 * @return The hits, best first, each as {similarity, index}
+	 */
+	private static List<double[]> scan(BitSet query, BitSet[] refs,
+			SimilarityMetric metric, double threshold, int maxHits) {
+		final List<double[]> hits = new ArrayList<>();
+		for (int r = 0; r < refs.length; r++) {
+			final double sim = FingerprintTestData.getSimilarity(metric,
+					query, refs[r], ALPHA, BETA);
+			if (sim >= threshold) {
+				hits.add(new double[] { sim, r });
+			}
+		}
+		hits.sort((a, b) -> a[0] != b[0] ? Double.compare(b[0], a[0])
+				: Double.compare(a[1], b[1]));
+		return hits.subList(0, Math.min(maxHits, hits.size()));
+	}
+
+	private static void checkHits(String msg, List<double[]> expected,
+			HitHeap actual) {
+		if (actual == null) {
+			assertEquals(msg, 0, expected.size());
+			return;
+		}
+		assertEquals(msg, expected.size(), actual.size());
+		actual.sortDescending();
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(msg + ", hit " + i, (int) expected.get(i)[1],
+					actual.getIndex(i));
+			assertEquals(msg + ", hit " + i, expected.get(i)[0],
+					actual.getSimilarity(i), 0.0);
+		}
+	}
+}
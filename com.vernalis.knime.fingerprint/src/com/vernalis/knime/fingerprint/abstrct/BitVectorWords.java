@@ -0,0 +1,463 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import java.util.Arrays;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+
+/**
+ * Word-level kernel for the bitvector fingerprint logic operations. Dense
+ * fingerprints are handled as {@code long[]} words in the layout used by
+ * {@code DenseBitVector#getAllBits()}, and sparse fingerprints as sorted
+ * {@code long[]} arrays of set bit indices. The fingerprints are read directly
+ * from the cells via {@link BitVectorValue#nextSetBit(long)}, without
+ * obtaining copies of the underlying vectors, and the results are in the form
+ * required by {@link FingerPrintTypes#getDataCellFromWords(long, long[])} and
+ * {@link FingerPrintTypes#getDataCellFromSetBits(long, long[])}. In all cases,
+ * bits of the final word beyond the fingerprint length are clear
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public final class BitVectorWords {
+
+	private static final int BITS_PER_WORD = 64;
+	private static final long[] EMPTY = new long[0];
+
+	private BitVectorWords() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * @param length
+	 *            The fingerprint length
+	 * @return The number of words required to hold the fingerprint
+	 */
+	public static int getNumWords(long length) {
+		return (int) ((length + BITS_PER_WORD - 1) / BITS_PER_WORD);
+	}
+
+	/**
+	 * @param bv
+	 *            The fingerprint
+	 * @return The words of the fingerprint
+	 */
+	public static long[] getWords(BitVectorValue bv) {
+		final long length = bv.length();
+		final long[] words = new long[getNumWords(length)];
+		getWords(bv, length, words, 0);
+		return words;
+	}
+
+	/**
+	 * Method to set the set bits of a fingerprint in a cleared region of an
+	 * existing word array, without copying the vector
+	 *
+	 * @param bv
+	 *            The fingerprint
+	 * @param maxLength
+	 *            The number of bits to read. Any set bits at or beyond this
+	 *            index are ignored
+	 * @param words
+	 *            The word array, which must be clear for the
+	 *            {@link #getNumWords(long)} words of {@code maxLength} bits
+	 *            starting at {@code offset}
+	 * @param offset
+	 *            The index in the array of the first word of the fingerprint
+	 * @return The number of bits set
+	 */
+	public static int getWords(BitVectorValue bv, long maxLength,
+			long[] words, int offset) {
+		int card = 0;
+		for (long bit = bv.nextSetBit(0); bit >= 0
+				&& bit < maxLength; bit = bv.nextSetBit(bit + 1)) {
+			words[offset + (int) (bit >>> 6)] |= 1L << bit;
+			card++;
+		}
+		return card;
+	}
+
+	/**
+	 * @param bv
+	 *            The fingerprint
+	 * @return The set bit indices of the fingerprint, in ascending order
+	 */
+	public static long[] getSetBits(BitVectorValue bv) {
+		final long[] setBits = new long[(int) bv.cardinality()];
+		getSetBits(bv, setBits);
+		return setBits;
+	}
+
+	/**
+	 * Method to read the set bit indices of a fingerprint into the start of an
+	 * existing array, without copying the vector
+	 *
+	 * @param bv
+	 *            The fingerprint
+	 * @param setBits
+	 *            The array, which must have room for the cardinality of the
+	 *            fingerprint
+	 * @return The number of set bits, in ascending order from the start of
+	 *         the array
+	 */
+	public static int getSetBits(BitVectorValue bv, long[] setBits) {
+		int count = 0;
+		for (long bit = bv.nextSetBit(0); bit >= 0; bit = bv.nextSetBit(bit + 1)) {
+			setBits[count++] = bit;
+		}
+		return count;
+	}
+
+	/**
+	 * @param a
+	 *            The first fingerprint words
+	 * @param b
+	 *            The second fingerprint words
+	 * @return The words of the logical AND, with the length of the longer
+	 *         fingerprint
+	 */
+	public static long[] and(long[] a, long[] b) {
+		final long[] result = new long[Math.max(a.length, b.length)];
+		for (int i = 0, n = Math.min(a.length, b.length); i < n; i++) {
+			result[i] = a[i] & b[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @param a
+	 *            The first fingerprint words
+	 * @param b
+	 *            The second fingerprint words
+	 * @return The words of the logical OR, with the length of the longer
+	 *         fingerprint
+	 */
+	public static long[] or(long[] a, long[] b) {
+		final long[] longer = a.length >= b.length ? a : b;
+		final long[] shorter = longer == a ? b : a;
+		final long[] result = Arrays.copyOf(longer, longer.length);
+		for (int i = 0; i < shorter.length; i++) {
+			result[i] |= shorter[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @param a
+	 *            The first fingerprint words
+	 * @param b
+	 *            The second fingerprint words
+	 * @return The words of the logical XOR, with the length of the longer
+	 *         fingerprint
+	 */
+	public static long[] xor(long[] a, long[] b) {
+		final long[] longer = a.length >= b.length ? a : b;
+		final long[] shorter = longer == a ? b : a;
+		final long[] result = Arrays.copyOf(longer, longer.length);
+		for (int i = 0; i < shorter.length; i++) {
+			result[i] ^= shorter[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @param words
+	 *            The fingerprint words
+	 * @param length
+	 *            The fingerprint length
+	 * @return The words of the logical inverse
+	 */
+	public static long[] invert(long[] words, long length) {
+		final long[] result = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			result[i] = ~words[i];
+		}
+		clearUnusedBits(result, length);
+		return result;
+	}
+
+	/**
+	 * Method to extract a contiguous range of bits as a new fingerprint, using
+	 * shifted word copies
+	 *
+	 * @param words
+	 *            The fingerprint words
+	 * @param from
+	 *            The first bit index (inclusive)
+	 * @param to
+	 *            The last bit index (exclusive), which must not exceed the
+	 *            fingerprint length
+	 * @return The words of the subset, of length {@code to - from}
+	 */
+	public static long[] subset(long[] words, long from, long to) {
+		final long length = Math.max(0, to - from);
+		final long[] result = new long[getNumWords(length)];
+		final int wordOffset = (int) (from >>> 6);
+		final int bitOffset = (int) (from & 63);
+		for (int i = 0; i < result.length; i++) {
+			final int src = wordOffset + i;
+			long word = words[src] >>> bitOffset;
+			if (bitOffset != 0 && src + 1 < words.length) {
+				word |= words[src + 1] << (BITS_PER_WORD - bitOffset);
+			}
+			result[i] = word;
+		}
+		clearUnusedBits(result, length);
+		return result;
+	}
+
+	/**
+	 * Method to fold a fingerprint, by ORing the lower half (including the
+	 * middle bit for fingerprints of odd length) with the upper half
+	 *
+	 * @param words
+	 *            The fingerprint words
+	 * @param length
+	 *            The fingerprint length
+	 * @return The words of the folded fingerprint, of length
+	 *         {@link #getFoldedLength(long)}
+	 */
+	public static long[] fold(long[] words, long length) {
+		final long midPoint = getFoldedLength(length);
+		final long[] result = subset(words, 0, midPoint);
+		final long[] upper = subset(words, midPoint, length);
+		for (int i = 0; i < upper.length; i++) {
+			result[i] |= upper[i];
+		}
+		return result;
+	}
+
+	/**
+	 * @param length
+	 *            The fingerprint length
+	 * @return The length of the folded fingerprint
+	 */
+	public static long getFoldedLength(long length) {
+		return (length + 1) / 2;
+	}
+
+	/**
+	 * @param a
+	 *            The first fingerprint words
+	 * @param lengthA
+	 *            The length of the first fingerprint
+	 * @param b
+	 *            The second fingerprint words
+	 * @param lengthB
+	 *            The length of the second fingerprint
+	 * @return The words of the concatenated fingerprint, with the first
+	 *         fingerprint at the lower bit indices
+	 */
+	public static long[] concatenate(long[] a, long lengthA, long[] b,
+			long lengthB) {
+		final long[] result = Arrays.copyOf(a, getNumWords(lengthA + lengthB));
+		final int wordOffset = (int) (lengthA >>> 6);
+		final int bitOffset = (int) (lengthA & 63);
+		for (int i = 0; i < b.length; i++) {
+			final int dest = wordOffset + i;
+			result[dest] |= b[i] << bitOffset;
+			if (bitOffset != 0 && dest + 1 < result.length) {
+				result[dest + 1] |= b[i] >>> (BITS_PER_WORD - bitOffset);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @param a
+	 *            The first sorted set bit indices
+	 * @param b
+	 *            The second sorted set bit indices
+	 * @return The sorted set bit indices of the logical AND
+	 */
+	public static long[] andSetBits(long[] a, long[] b) {
+		final long[] result = new long[Math.min(a.length, b.length)];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[k++] = a[i++];
+				j++;
+			}
+		}
+		return trim(result, k);
+	}
+
+	/**
+	 * @param a
+	 *            The first sorted set bit indices
+	 * @param b
+	 *            The second sorted set bit indices
+	 * @return The sorted set bit indices of the logical OR
+	 */
+	public static long[] orSetBits(long[] a, long[] b) {
+		return mergeSetBits(a, b, true);
+	}
+
+	/**
+	 * @param a
+	 *            The first sorted set bit indices
+	 * @param b
+	 *            The second sorted set bit indices
+	 * @return The sorted set bit indices of the logical XOR
+	 */
+	public static long[] xorSetBits(long[] a, long[] b) {
+		return mergeSetBits(a, b, false);
+	}
+
+	/**
+	 * @param setBits
+	 *            The sorted set bit indices
+	 * @param from
+	 *            The first bit index (inclusive)
+	 * @param to
+	 *            The last bit index (exclusive)
+	 * @return The sorted set bit indices of the subset, of length
+	 *         {@code to - from}
+	 */
+	public static long[] subsetSetBits(long[] setBits, long from, long to) {
+		final int start = findFirstAtLeast(setBits, from);
+		final int end = findFirstAtLeast(setBits, to);
+		if (end <= start) {
+			return EMPTY;
+		}
+		final long[] result = new long[end - start];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = setBits[start + i] - from;
+		}
+		return result;
+	}
+
+	/**
+	 * Method to fold a fingerprint, by ORing the lower half (including the
+	 * middle bit for fingerprints of odd length) with the upper half
+	 *
+	 * @param setBits
+	 *            The sorted set bit indices
+	 * @param length
+	 *            The fingerprint length
+	 * @return The sorted set bit indices of the folded fingerprint, of length
+	 *         {@link #getFoldedLength(long)}
+	 */
+	public static long[] foldSetBits(long[] setBits, long length) {
+		final long midPoint = getFoldedLength(length);
+		final int split = findFirstAtLeast(setBits, midPoint);
+		// Merge the lower range with the upper range offset by -midPoint
+		final long[] result = new long[setBits.length];
+		int i = 0, j = split, k = 0;
+		while (i < split || j < setBits.length) {
+			final long upper = j < setBits.length ? setBits[j] - midPoint
+					: Long.MAX_VALUE;
+			if (i < split && setBits[i] <= upper) {
+				if (setBits[i] == upper) {
+					j++;
+				}
+				result[k++] = setBits[i++];
+			} else {
+				result[k++] = upper;
+				j++;
+			}
+		}
+		return trim(result, k);
+	}
+
+	/**
+	 * @param a
+	 *            The first sorted set bit indices
+	 * @param lengthA
+	 *            The length of the first fingerprint
+	 * @param b
+	 *            The second sorted set bit indices
+	 * @return The sorted set bit indices of the concatenated fingerprint, with
+	 *         the first fingerprint at the lower bit indices
+	 */
+	public static long[] concatenateSetBits(long[] a, long lengthA,
+			long[] b) {
+		final long[] result = Arrays.copyOf(a, a.length + b.length);
+		for (int i = 0; i < b.length; i++) {
+			result[a.length + i] = b[i] + lengthA;
+		}
+		return result;
+	}
+
+	/**
+	 * Merge two sorted arrays of set bits
+	 *
+	 * @param a
+	 *            The first sorted set bit indices
+	 * @param b
+	 *            The second sorted set bit indices
+	 * @param keepCommon
+	 *            Should indices present in both arrays be retained (OR) or
+	 *            discarded (XOR)?
+	 * @return The merged indices
+	 */
+	private static long[] mergeSetBits(long[] a, long[] b, boolean keepCommon) {
+		final long[] result = new long[a.length + b.length];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				result[k++] = a[i++];
+			} else if (a[i] > b[j]) {
+				result[k++] = b[j++];
+			} else {
+				if (keepCommon) {
+					result[k++] = a[i];
+				}
+				i++;
+				j++;
+			}
+		}
+		while (i < a.length) {
+			result[k++] = a[i++];
+		}
+		while (j < b.length) {
+			result[k++] = b[j++];
+		}
+		return trim(result, k);
+	}
+
+	/**
+	 * @return The index of the first value in the sorted array not less than
+	 *         the key, or the array length if there is none
+	 */
+	private static int findFirstAtLeast(long[] sorted, long key) {
+		int lo = 0, hi = sorted.length;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (sorted[mid] < key) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private static long[] trim(long[] arr, int size) {
+		return size == arr.length ? arr : Arrays.copyOf(arr, size);
+	}
+
+	private static void clearUnusedBits(long[] words, long length) {
+		final int used = (int) (length & 63);
+		if (used != 0 && words.length > 0) {
+			words[words.length - 1] &= -1L >>> (BITS_PER_WORD - used);
+		}
+	}
+}
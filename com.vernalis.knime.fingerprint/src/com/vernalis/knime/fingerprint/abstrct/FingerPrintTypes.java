@@ -46,6 +46,12 @@ public enum FingerPrintTypes implements ButtonGroupEnumInterface {
 					.createDataCell();
 		}
 
+		@Override
+		public DataCell getDataCellFromWords(long length, long[] words) {
+			return getDataCellFromSetBits(length,
+					FingerprintStringCodec.getSetBitsFromWords(words));
+		}
+
 		@Override
 		public DataCell getDataCellFromCounts(byte[] counts) {
 			SparseByteVector sbv = new SparseByteVector(counts.length);
@@ -60,11 +66,14 @@ public enum FingerPrintTypes implements ButtonGroupEnumInterface {
 			((long) Integer.MAX_VALUE - 1) * 64, ((long) Integer.MAX_VALUE - 1) * 64) {
 		@Override
 		public DataCell getDataCellFromSetBits(long length, long[] setBits) {
-			DenseBitVector dbv = new DenseBitVector(length);
-			for (long l : setBits) {
-				dbv.set(l);
-			}
-			return (new DenseBitVectorCellFactory(dbv)).createDataCell();
+			return getDataCellFromWords(length,
+					FingerprintStringCodec.getWordsFromSetBits(length, setBits));
+		}
+
+		@Override
+		public DataCell getDataCellFromWords(long length, long[] words) {
+			return (new DenseBitVectorCellFactory(new DenseBitVector(words, length)))
+					.createDataCell();
 		}
 
 		@Override
@@ -148,6 +157,18 @@ public enum FingerPrintTypes implements ButtonGroupEnumInterface {
 	 */
 	public abstract DataCell getDataCellFromSetBits(long length, long[] setBits);
 
+	/**
+	 * Method to return a binary bitvector fingerprint from {@code long[]}
+	 * words in the layout used by {@link DenseBitVector#getAllBits()}
+	 * 
+	 * @param length
+	 *            the length of the fingerprint
+	 * @param words
+	 *            the words. Bits beyond the fingerprint length must be clear
+	 * @return The fingerprint cell
+	 */
+	public abstract DataCell getDataCellFromWords(long length, long[] words);
+
 	/**
 	 * Method to return a count bytevector fingerprint from an array of set bit
 	 * indices
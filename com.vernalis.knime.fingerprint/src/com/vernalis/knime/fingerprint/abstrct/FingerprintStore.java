@@ -0,0 +1,676 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.pathresolve.ResolverUtil;
+
+/**
+ * A read-only, memory-mapped file store of binary (bitvector) fingerprints.
+ * The store holds the same information as a {@link PackedBitVectors} sorted
+ * by cardinality, i.e. the packed words, the cardinality and original
+ * (non-missing) table order index of each fingerprint, and the row IDs, so
+ * that repeated similarity searches against the same reference set do not
+ * need to read and decode a KNIME table. As the file is mapped rather than
+ * read, the words are shared between all processes searching the store via
+ * the OS page cache.
+ * <p>
+ * The file is little-endian, and has the following layout:
+ * <ul>
+ * <li>A fixed-length header, starting with {@link #MAGIC} and
+ * {@link #VERSION}, followed by the fingerprint length, the number of words
+ * per fingerprint, the number of fingerprints and the offset of the row ID
+ * data</li>
+ * <li>The cardinalities, as {@code int}s in increasing order</li>
+ * <li>The original indices, as {@code int}s</li>
+ * <li>The lengths of the UTF-8 encoded row IDs, as {@code int}s in original
+ * order</li>
+ * <li>The offsets of the row IDs from the start of the row ID data, as
+ * {@code long}s in original order</li>
+ * <li>The packed words, as {@code long}s</li>
+ * <li>The UTF-8 encoded row IDs, in original order</li>
+ * </ul>
+ * All sections apart from the row ID data are of a size determined by the
+ * header, and sections of {@code long}s start on an 8-byte boundary. Stores
+ * are written to a temporary file which is then moved into place, so a
+ * partially written store is never visible
+ * </p>
+ * <p>
+ * The store can be used as the reference set of a similarity search via the
+ * {@link ReferenceFingerprints} interface. Closing the store unmaps the file,
+ * where the JVM allows it, as on Windows a store file cannot be replaced
+ * while it is mapped. The store must therefore not be used after it is
+ * closed, by any thread. If the JVM does not allow the file to be unmapped,
+ * it is unmapped when the store is garbage collected, and until then the
+ * file cannot be replaced on Windows
+ * </p>
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public final class FingerprintStore
+		implements ReferenceFingerprints, AutoCloseable {
+
+	/** The file format identifier, 'VFPS' */
+	public static final int MAGIC = 0x56465053;
+	/** The current file format version */
+	public static final int VERSION = 1;
+	/** The recommended file extension */
+	public static final String FILE_EXTENSION = ".vfps";
+
+	private static final int HEADER_BYTES = 64;
+	/**
+	 * The maximum number of bytes in a single mapped segment of the words.
+	 * Segments always contain a whole number of fingerprints
+	 */
+	private static final long MAX_SEGMENT_BYTES = 1L << 30;
+	private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+	private final FileChannel channel;
+	/** The mapped buffers, which are unmapped on closing */
+	private final List<MappedByteBuffer> mappedBuffers = new ArrayList<>();
+	private volatile boolean closed = false;
+	private final long fpLength;
+	private final int wordsPerFp;
+	private final int size;
+	private final IntBuffer cardinalities;
+	private final IntBuffer originalIndices;
+	private final IntBuffer rowIdLengths;
+	private final LongBuffer rowIdOffsets;
+	private final LongBuffer[] wordSegments;
+	private final int fpsPerSegment;
+	private final long rowIdDataOffset;
+
+	private FingerprintStore(File file) throws IOException {
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			if (channel.size() < HEADER_BYTES) {
+				throw new IOException(
+						"The file '" + file + "' is not a fingerprint store");
+			}
+			final ByteBuffer header = map(0, HEADER_BYTES);
+			if (header.getInt(0) != MAGIC) {
+				throw new IOException(
+						"The file '" + file + "' is not a fingerprint store");
+			}
+			final int version = header.getInt(4);
+			if (version != VERSION) {
+				throw new IOException("The fingerprint store '" + file
+						+ "' has format version " + version
+						+ ", but only version " + VERSION
+						+ " is supported. Re-write the store");
+			}
+			fpLength = header.getLong(8);
+			wordsPerFp = header.getInt(16);
+			size = header.getInt(20);
+			rowIdDataOffset = header.getLong(24);
+			if (rowIdDataOffset > channel.size()) {
+				throw new IOException(
+						"The fingerprint store '" + file + "' is truncated");
+			}
+
+			long offset = HEADER_BYTES;
+			cardinalities = map(offset, 4L * size).asIntBuffer();
+			offset += 4L * size;
+			originalIndices = map(offset, 4L * size).asIntBuffer();
+			offset += 4L * size;
+			rowIdLengths = map(offset, 4L * size).asIntBuffer();
+			offset = align(offset + 4L * size);
+			rowIdOffsets = map(offset, 8L * size).asLongBuffer();
+			offset = align(offset + 8L * size);
+
+			fpsPerSegment = (int) Math.max(1,
+					MAX_SEGMENT_BYTES / Math.max(1, 8L * wordsPerFp));
+			final int numSegments = (size + fpsPerSegment - 1) / fpsPerSegment;
+			wordSegments = new LongBuffer[numSegments];
+			for (int s = 0; s < numSegments; s++) {
+				final int segSize =
+						Math.min(fpsPerSegment, size - s * fpsPerSegment);
+				final long segBytes = 8L * wordsPerFp * segSize;
+				wordSegments[s] = map(offset, segBytes).asLongBuffer();
+				offset += segBytes;
+			}
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	private ByteBuffer map(long offset, long length) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException(
+					"The fingerprint store is too large to be mapped");
+		}
+		final MappedByteBuffer buffer =
+				channel.map(MapMode.READ_ONLY, offset, length);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		mappedBuffers.add(buffer);
+		return buffer;
+	}
+
+	private static long align(long offset) {
+		return (offset + 7) & ~7L;
+	}
+
+	/**
+	 * Method to open a fingerprint store
+	 *
+	 * @param file
+	 *            The store file
+	 * @return The opened store
+	 * @throws IOException
+	 *             If the file could not be read, or is not a fingerprint
+	 *             store of the current version
+	 */
+	public static FingerprintStore open(File file) throws IOException {
+		return new FingerprintStore(file);
+	}
+
+	/**
+	 * Method to write a column of fingerprints to a new store. The table is
+	 * read twice, firstly to find the fingerprint length and cardinalities, so
+	 * that the sorted position of each fingerprint is known, and secondly to
+	 * write the words of each fingerprint directly to its position in the
+	 * file. The fingerprints are therefore never all held in memory. Missing
+	 * cells are skipped
+	 *
+	 * @param table
+	 *            The table
+	 * @param colIdx
+	 *            The index of the bitvector column
+	 * @param file
+	 *            The file to write. Any existing file is replaced
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The number of fingerprints written
+	 * @throws IOException
+	 *             If there was an error writing the file
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws IllegalArgumentException
+	 *             If there are too many fingerprints for a single store
+	 */
+	public static int write(BufferedDataTable table, int colIdx, File file,
+			ExecutionMonitor exec) throws IOException,
+			CanceledExecutionException, IllegalArgumentException {
+		return write(table, table.size(), colIdx, file, exec);
+	}
+
+	/**
+	 * Method to write a column of fingerprints from a sequence of rows to a
+	 * new store. The rows are iterated twice, as for
+	 * {@link #write(BufferedDataTable, int, File, ExecutionMonitor)}
+	 *
+	 * @param rows
+	 *            The rows
+	 * @param numRows
+	 *            The number of rows
+	 * @param colIdx
+	 *            The index of the bitvector column
+	 * @param file
+	 *            The file to write. Any existing file is replaced
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The number of fingerprints written
+	 * @throws IOException
+	 *             If there was an error writing the file
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws IllegalArgumentException
+	 *             If there are too many fingerprints for a single store
+	 */
+	public static int write(Iterable<? extends DataRow> rows, long numRows,
+			int colIdx, File file, ExecutionMonitor exec) throws IOException,
+			CanceledExecutionException, IllegalArgumentException {
+		if (numRows > Integer.MAX_VALUE / 8) {
+			throw new IllegalArgumentException("Unable to store " + numRows
+					+ " fingerprints in a single store");
+		}
+		// Pass 1 - the length and cardinalities
+		exec.setMessage("Finding fingerprint cardinalities");
+		final ExecutionMonitor exec1 = exec.createSubProgress(0.3);
+		final int maxRows = (int) numRows;
+		final double progPerRow = 1.0 / Math.max(1, maxRows);
+		int[] cards = new int[maxRows];
+		long fpLength = 0;
+		int size = 0;
+		long rowIdx = 0;
+		for (DataRow row : rows) {
+			exec1.checkCanceled();
+			exec1.setProgress((rowIdx++) * progPerRow);
+			final DataCell cell = row.getCell(colIdx);
+			if (!cell.isMissing()) {
+				final BitVectorValue bv = (BitVectorValue) cell;
+				fpLength = Math.max(fpLength, bv.length());
+				cards[size++] = (int) bv.cardinality();
+			}
+		}
+		final int wordsPerFp = (int) PackedBitVectors.getNumWords(fpLength);
+
+		// Counting sort of the cardinalities to give the sorted positions
+		int maxCard = 0;
+		for (int i = 0; i < size; i++) {
+			maxCard = Math.max(maxCard, cards[i]);
+		}
+		final int[] starts = new int[maxCard + 2];
+		for (int i = 0; i < size; i++) {
+			starts[cards[i] + 1]++;
+		}
+		for (int c = 1; c < starts.length; c++) {
+			starts[c] += starts[c - 1];
+		}
+		final int[] positions = new int[size];
+		final int[] sortedCards = new int[size];
+		final int[] sortedOrigIdx = new int[size];
+		for (int i = 0; i < size; i++) {
+			final int pos = starts[cards[i]]++;
+			positions[i] = pos;
+			sortedCards[pos] = cards[i];
+			sortedOrigIdx[pos] = i;
+		}
+		cards = null;
+
+		final long cardsOffset = HEADER_BYTES;
+		final long lengthsOffset = cardsOffset + 8L * size;
+		final long offsetsOffset = align(lengthsOffset + 4L * size);
+		final long wordsOffset = align(offsetsOffset + 8L * size);
+		final long rowIdDataOffset = wordsOffset + 8L * wordsPerFp * size;
+
+		// Pass 2 - the words and row IDs, written to a temporary file
+		exec.setMessage("Writing fingerprints");
+		final ExecutionMonitor exec2 = exec.createSubProgress(0.7);
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Unable to create the folder " + parent);
+		}
+		final File tmpFile =
+				File.createTempFile(file.getName(), ".tmp", parent);
+		boolean success = false;
+		try (FileChannel out = FileChannel.open(tmpFile.toPath(),
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final int[] idLengths = new int[size];
+			final long[] idOffsets = new long[size];
+			final ByteBuffer fpBuffer = ByteBuffer.allocate(8 * wordsPerFp)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			final long[] words = new long[wordsPerFp];
+			final ByteBuffer idBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+			long idDataPos = 0;
+			int fpIdx = 0;
+			rowIdx = 0;
+			for (DataRow row : rows) {
+				exec2.checkCanceled();
+				exec2.setProgress((rowIdx++) * progPerRow);
+				final DataCell cell = row.getCell(colIdx);
+				if (cell.isMissing()) {
+					continue;
+				}
+				final BitVectorValue bv = (BitVectorValue) cell;
+				final int pos = positions[fpIdx];
+				Arrays.fill(words, 0L);
+				BitVectorWords.getWords(bv, fpLength, words, 0);
+				fpBuffer.clear();
+				fpBuffer.asLongBuffer().put(words);
+				writeFully(out, fpBuffer,
+						wordsOffset + 8L * wordsPerFp * pos);
+
+				final byte[] id = row.getKey().getString()
+						.getBytes(StandardCharsets.UTF_8);
+				idLengths[fpIdx] = id.length;
+				idOffsets[fpIdx++] = idDataPos;
+				if (id.length > idBuffer.remaining()) {
+					flush(out, idBuffer, rowIdDataOffset + idDataPos
+							- idBuffer.position());
+				}
+				if (id.length > idBuffer.capacity()) {
+					writeFully(out, ByteBuffer.wrap(id),
+							rowIdDataOffset + idDataPos);
+				} else {
+					idBuffer.put(id);
+				}
+				idDataPos += id.length;
+			}
+			flush(out, idBuffer,
+					rowIdDataOffset + idDataPos - idBuffer.position());
+
+			// Now the header and index sections
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putLong(fpLength)
+					.putInt(wordsPerFp).putInt(size).putLong(rowIdDataOffset);
+			header.clear();
+			writeFully(out, header, 0);
+			writeInts(out, sortedCards, cardsOffset);
+			writeInts(out, sortedOrigIdx, cardsOffset + 4L * size);
+			writeInts(out, idLengths, lengthsOffset);
+			writeLongs(out, idOffsets, offsetsOffset);
+			out.force(false);
+			success = true;
+		} finally {
+			if (!success) {
+				tmpFile.delete();
+			}
+		}
+		try {
+			Files.move(tmpFile.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			tmpFile.delete();
+			throw new IOException("Unable to replace the file '" + file
+					+ "'. If it is a fingerprint store which is open in "
+					+ "another node, reset that node and try again", e);
+		} catch (RuntimeException e) {
+			tmpFile.delete();
+			throw e;
+		}
+		return size;
+	}
+
+	/**
+	 * Method to write the contents of a buffer which has been filled up to
+	 * its position, and clear it
+	 *
+	 * @return The number of bytes written
+	 */
+	private static int flush(FileChannel out, ByteBuffer buffer,
+			long position) throws IOException {
+		buffer.flip();
+		final int numBytes = buffer.remaining();
+		writeFully(out, buffer, position);
+		buffer.clear();
+		return numBytes;
+	}
+
+	private static void writeFully(FileChannel out, ByteBuffer buffer,
+			long position) throws IOException {
+		long pos = position;
+		while (buffer.hasRemaining()) {
+			pos += out.write(buffer, pos);
+		}
+	}
+
+	private static void writeInts(FileChannel out, int[] values,
+			long position) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		long pos = position;
+		for (int i = 0; i < values.length;) {
+			final int n = Math.min(values.length - i, buffer.capacity() / 4);
+			buffer.clear();
+			buffer.asIntBuffer().put(values, i, n);
+			buffer.position(4 * n);
+			pos += flush(out, buffer, pos);
+			i += n;
+		}
+	}
+
+	private static void writeLongs(FileChannel out, long[] values,
+			long position) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		long pos = position;
+		for (int i = 0; i < values.length;) {
+			final int n = Math.min(values.length - i, buffer.capacity() / 8);
+			buffer.clear();
+			buffer.asLongBuffer().put(values, i, n);
+			buffer.position(8 * n);
+			pos += flush(out, buffer, pos);
+			i += n;
+		}
+	}
+
+	/**
+	 * Method to resolve a file path or URL (including {@code knime:} URLs)
+	 * to a local file
+	 *
+	 * @param path
+	 *            The path or URL
+	 * @return The local file
+	 * @throws IOException
+	 *             If the path could not be resolved to a local file
+	 */
+	public static File resolveFile(String path) throws IOException {
+		if (path == null || path.isEmpty()) {
+			throw new IOException("No file specified");
+		}
+		try {
+			if (path.toLowerCase().startsWith("file:")) {
+				return new File(new URI(path));
+			} else if (path.toLowerCase().startsWith("knime:")) {
+				final File f = ResolverUtil.resolveURItoLocalFile(new URI(path));
+				if (f == null) {
+					throw new IOException(
+							"The URL '" + path + "' is not a local file");
+				}
+				return f;
+			}
+		} catch (URISyntaxException e) {
+			throw new IOException(
+					"File path looks like URL but unable to create URI", e);
+		}
+		return new File(path);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void getWords(int fromIndex, int toIndex, long[] dest) {
+		checkOpen();
+		int destPos = 0;
+		int i = fromIndex;
+		while (i < toIndex) {
+			final int seg = i / fpsPerSegment;
+			final int segStart = seg * fpsPerSegment;
+			final int n = Math.min(toIndex, segStart + fpsPerSegment) - i;
+			// Absolute bulk get, so the shared buffers are not modified
+			final LongBuffer src = wordSegments[seg].duplicate();
+			src.position((i - segStart) * wordsPerFp);
+			src.get(dest, destPos, n * wordsPerFp);
+			destPos += n * wordsPerFp;
+			i += n;
+		}
+	}
+
+	/**
+	 * Method to find the first fingerprint with at least the specified
+	 * cardinality within a range of indices
+	 *
+	 * @param cardinality
+	 *            The cardinality
+	 * @param fromIndex
+	 *            The first index to search (inclusive)
+	 * @param toIndex
+	 *            The last index to search (exclusive)
+	 * @return The index of the first fingerprint in the range with at least
+	 *         the cardinality, or {@code toIndex} if there is none
+	 */
+	@Override
+	public int findFirstWithCardinalityAtLeast(long cardinality,
+			int fromIndex, int toIndex) {
+		checkOpen();
+		int lo = fromIndex;
+		int hi = toIndex;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (cardinalities.get(mid) < cardinality) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The number of set bits in the fingerprint
+	 */
+	@Override
+	public int getCardinality(int index) {
+		checkOpen();
+		return cardinalities.get(index);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Stored fingerprints are always sorted by cardinality
+	 * </p>
+	 */
+	@Override
+	public boolean isSortedByCardinality() {
+		return true;
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The index of the fingerprint amongst the non-missing
+	 *         fingerprints of the table the store was written from
+	 */
+	@Override
+	public int getOriginalIndex(int index) {
+		checkOpen();
+		return originalIndices.get(index);
+	}
+
+	/**
+	 * @param originalIndex
+	 *            The index of the fingerprint in the original order
+	 * @return The row ID of the row the fingerprint came from
+	 * @throws IOException
+	 *             If the row ID could not be read
+	 * @see #getOriginalIndex(int)
+	 */
+	public String getRowIdForOriginalIndex(int originalIndex)
+			throws IOException {
+		checkOpen();
+		final ByteBuffer buffer =
+				ByteBuffer.allocate(rowIdLengths.get(originalIndex));
+		long pos = rowIdDataOffset + rowIdOffsets.get(originalIndex);
+		while (buffer.hasRemaining()) {
+			final int n = channel.read(buffer, pos);
+			if (n < 0) {
+				throw new IOException("The fingerprint store is truncated");
+			}
+			pos += n;
+		}
+		return new String(buffer.array(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return The number of fingerprints in the store
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The length all fingerprints were packed to
+	 */
+	public long getFingerprintLength() {
+		return fpLength;
+	}
+
+	/**
+	 * @return The number of words occupied by each fingerprint
+	 */
+	@Override
+	public int getWordsPerFingerprint() {
+		return wordsPerFp;
+	}
+
+	/**
+	 * @throws IllegalStateException
+	 *             If the store has been closed, and so may be unmapped
+	 */
+	private void checkOpen() throws IllegalStateException {
+		if (closed) {
+			throw new IllegalStateException(
+					"The fingerprint store has been closed");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The mapped buffers are unmapped if the JVM allows it, and otherwise are
+	 * released when the store is garbage collected
+	 * </p>
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			channel.close();
+		} finally {
+			for (MappedByteBuffer buffer : mappedBuffers) {
+				unmap(buffer);
+			}
+			mappedBuffers.clear();
+		}
+	}
+
+	/**
+	 * Method to unmap a mapped buffer immediately, rather than when it is
+	 * garbage collected, using {@code sun.misc.Unsafe#invokeCleaner}. If
+	 * that is not available, nothing is done
+	 */
+	private static void unmap(MappedByteBuffer buffer) {
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			final Method invokeCleaner =
+					unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			invokeCleaner.invoke(theUnsafe.get(null), buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// Leave it to the garbage collector
+		}
+	}
+}
@@ -0,0 +1,326 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import java.util.Arrays;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+
+/**
+ * Fast conversion between hexadecimal or binary strings and bitvector
+ * fingerprints. Strings are decoded directly into {@code long[]} words (in the
+ * layout used by {@code DenseBitVector}) via a 256-entry lookup table, with
+ * validation performed in the same pass, and are encoded into a single
+ * preallocated {@code char[]}. The string layouts match those of
+ * {@code DenseBitVector#toHexString()} and
+ * {@code DenseBitVector#toBinaryString()}, i.e. the last character of the
+ * string holds the lowest bit indices. Encoded strings are limited to 16M
+ * (2<sup>24</sup>) characters, so that a very long (e.g. sparse) fingerprint
+ * does not allocate a {@code char[]} of up to 4 GB
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public final class FingerprintStringCodec {
+
+	/** The value returned by the lookup tables for an invalid character */
+	private static final byte INVALID = -1;
+
+	/** The number of bits per {@code long} word */
+	private static final int BITS_PER_WORD = 64;
+
+	/**
+	 * The largest number of characters which can be encoded, including the
+	 * truncation suffix. This is 16M characters, i.e. 64M bits as hex or 16M
+	 * bits as binary
+	 */
+	static final int MAX_CHARS = 1 << 24;
+
+	/**
+	 * The suffix appended to truncated strings, matching
+	 * {@link FingerprintStringTypes#getTruncationEnding()}
+	 */
+	private static final String TRUNCATION_SUFFIX = "...";
+
+	private static final char[] HEX_CHARS = "0123456789ABCDEF".toCharArray();
+
+	private static final byte[] HEX_VALUES = new byte[256];
+	private static final byte[] BIN_VALUES = new byte[256];
+	static {
+		Arrays.fill(HEX_VALUES, INVALID);
+		for (int i = 0; i < 10; i++) {
+			HEX_VALUES['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 6; i++) {
+			HEX_VALUES['A' + i] = (byte) (10 + i);
+			HEX_VALUES['a' + i] = (byte) (10 + i);
+		}
+		Arrays.fill(BIN_VALUES, INVALID);
+		BIN_VALUES['0'] = 0;
+		BIN_VALUES['1'] = 1;
+	}
+
+	private FingerprintStringCodec() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to decode a hexadecimal string to bitvector words. Each character
+	 * encodes 4 bits, so the fingerprint length is 4 times the string length
+	 *
+	 * @param fpString
+	 *            The hexadecimal string
+	 * @return The words of the fingerprint, or {@code null} if the string is
+	 *         empty or contains any non-hexadecimal character
+	 */
+	public static long[] decodeHex(String fpString) {
+		return decode(fpString, HEX_VALUES, 2);
+	}
+
+	/**
+	 * Method to decode a binary string to bitvector words. Each character
+	 * encodes 1 bit
+	 *
+	 * @param fpString
+	 *            The binary string
+	 * @return The words of the fingerprint, or {@code null} if the string is
+	 *         empty or contains any character other than '0' or '1'
+	 */
+	public static long[] decodeBin(String fpString) {
+		return decode(fpString, BIN_VALUES, 0);
+	}
+
+	/**
+	 * Decode and validate in a single pass, starting from the end of the
+	 * string (i.e. the lowest bits)
+	 *
+	 * @param fpString
+	 *            The string
+	 * @param lookup
+	 *            The character value lookup table
+	 * @param log2BitsPerChar
+	 *            The log<sub>2</sub> of the number of bits encoded by each
+	 *            character
+	 * @return The words, or {@code null} if the string is invalid
+	 */
+	private static long[] decode(String fpString, byte[] lookup,
+			int log2BitsPerChar) {
+		final int numChars = fpString.length();
+		if (numChars == 0) {
+			return null;
+		}
+		final int charsPerWord = BITS_PER_WORD >>> log2BitsPerChar;
+		final long[] words = new long[(numChars + charsPerWord - 1) / charsPerWord];
+		int pos = numChars - 1;
+		for (int w = 0; w < words.length; w++) {
+			long word = 0L;
+			final int end = Math.max(-1, pos - charsPerWord);
+			for (int shift = 0; pos > end; pos--, shift += 1 << log2BitsPerChar) {
+				final char c = fpString.charAt(pos);
+				final byte val = c < 256 ? lookup[c] : INVALID;
+				if (val < 0) {
+					return null;
+				}
+				word |= (long) val << shift;
+			}
+			words[w] = word;
+		}
+		return words;
+	}
+
+	/**
+	 * Method to encode a bitvector fingerprint as a hexadecimal string. Any
+	 * fingerprint too long to be represented in full (i.e. longer than 64M
+	 * bits) is truncated to the highest bits, and the truncation suffix
+	 * appended
+	 *
+	 * @param fp
+	 *            The fingerprint
+	 * @return The hexadecimal string
+	 */
+	public static String encodeHex(BitVectorValue fp) {
+		return encode(fp, 2, HEX_CHARS);
+	}
+
+	/**
+	 * Method to encode a bitvector fingerprint as a binary string. Any
+	 * fingerprint too long to be represented in full (i.e. longer than 16M
+	 * bits) is truncated to the highest bits, and the truncation suffix
+	 * appended
+	 *
+	 * @param fp
+	 *            The fingerprint
+	 * @return The binary string
+	 */
+	public static String encodeBin(BitVectorValue fp) {
+		return encode(fp, 0, HEX_CHARS);
+	}
+
+	/**
+	 * Encode a fingerprint by accumulating the value of each character from
+	 * the set bits, and then mapping the values to characters in place
+	 *
+	 * @param fp
+	 *            The fingerprint
+	 * @param log2BitsPerChar
+	 *            The log<sub>2</sub> of the number of bits encoded by each
+	 *            character
+	 * @param digits
+	 *            The characters for each value
+	 * @return The string
+	 */
+	private static String encode(BitVectorValue fp, int log2BitsPerChar,
+			char[] digits) {
+		final long charMask = (1L << log2BitsPerChar) - 1;
+		final long numChars = (fp.length() + charMask) >>> log2BitsPerChar;
+		final boolean truncated = numChars > MAX_CHARS;
+		final int charsKept = truncated ? MAX_CHARS - TRUNCATION_SUFFIX.length()
+				: (int) numChars;
+		final char[] chars = new char[truncated ? MAX_CHARS : charsKept];
+		// The lowest bit index which is represented
+		final long firstBit = (numChars - charsKept) << log2BitsPerChar;
+		for (long bit = fp.nextSetBit(firstBit); bit >= 0; bit =
+				fp.nextSetBit(bit + 1)) {
+			final int pos = (int) (numChars - 1 - (bit >>> log2BitsPerChar));
+			chars[pos] |= 1 << (bit & charMask);
+		}
+		for (int i = 0; i < charsKept; i++) {
+			chars[i] = digits[chars[i]];
+		}
+		if (truncated) {
+			TRUNCATION_SUFFIX.getChars(0, TRUNCATION_SUFFIX.length(), chars,
+					charsKept);
+		}
+		return new String(chars);
+	}
+
+	/**
+	 * Method to convert an array of set bit indices to bitvector words
+	 *
+	 * @param length
+	 *            The fingerprint length
+	 * @param setBits
+	 *            The set bit indices
+	 * @return The words
+	 * @throws IndexOutOfBoundsException
+	 *             If any index is negative or not less than the length
+	 */
+	public static long[] getWordsFromSetBits(long length, long[] setBits)
+			throws IndexOutOfBoundsException {
+		final long[] words = new long[(int) ((length + BITS_PER_WORD - 1)
+				/ BITS_PER_WORD)];
+		for (long bit : setBits) {
+			if (bit < 0 || bit >= length) {
+				throw new IndexOutOfBoundsException("Bit index " + bit
+						+ " is outside the fingerprint length " + length);
+			}
+			words[(int) (bit >>> 6)] |= 1L << bit;
+		}
+		return words;
+	}
+
+	/**
+	 * Method to convert bitvector words to an array of the set bit indices
+	 *
+	 * @param words
+	 *            The words
+	 * @return The set bit indices, in ascending order
+	 */
+	public static long[] getSetBitsFromWords(long[] words) {
+		int cardinality = 0;
+		for (long word : words) {
+			cardinality += Long.bitCount(word);
+		}
+		final long[] setBits = new long[cardinality];
+		int idx = 0;
+		for (int w = 0; w < words.length; w++) {
+			long word = words[w];
+			while (word != 0L) {
+				setBits[idx++] = ((long) w << 6) + Long.numberOfTrailingZeros(word);
+				word &= word - 1;
+			}
+		}
+		return setBits;
+	}
+
+	/**
+	 * Method to parse a comma-separated list of non-negative integers, as
+	 * found in the verbose bitvector and bytevector string representations,
+	 * without splitting the string. Whitespace around the values is ignored,
+	 * but whitespace within a value (e.g. {@code "1 2"}) is rejected
+	 *
+	 * @param str
+	 *            The string containing the list
+	 * @param start
+	 *            The start index of the list (inclusive)
+	 * @param end
+	 *            The end index of the list (exclusive)
+	 * @return The values, in the order they appear
+	 * @throws NumberFormatException
+	 *             If the list contains anything other than digits, commas and
+	 *             whitespace, contains an empty value, or contains whitespace
+	 *             within a value
+	 */
+	public static long[] parseNumberList(String str, int start, int end)
+			throws NumberFormatException {
+		while (start < end && Character.isWhitespace(str.charAt(start))) {
+			start++;
+		}
+		if (start >= end) {
+			return new long[0];
+		}
+		int count = 1;
+		for (int i = start; i < end; i++) {
+			if (str.charAt(i) == ',') {
+				count++;
+			}
+		}
+		final long[] retVal = new long[count];
+		int idx = 0;
+		long value = 0;
+		boolean hasDigits = false;
+		boolean valueEnded = false;
+		for (int i = start; i <= end; i++) {
+			final char c = i < end ? str.charAt(i) : ',';
+			if (c >= '0' && c <= '9') {
+				if (valueEnded) {
+					throw new NumberFormatException(
+							"Whitespace within value in '" + str + "'");
+				}
+				value = value * 10 + (c - '0');
+				if (value < 0) {
+					throw new NumberFormatException(
+							"Value too large in '" + str + "'");
+				}
+				hasDigits = true;
+			} else if (c == ',') {
+				if (!hasDigits) {
+					throw new NumberFormatException(
+							"Empty value in '" + str + "'");
+				}
+				retVal[idx++] = value;
+				value = 0;
+				hasDigits = false;
+				valueEnded = false;
+			} else if (Character.isWhitespace(c)) {
+				valueEnded = hasDigits;
+			} else {
+				throw new NumberFormatException(
+						"Unexpected character '" + c + "' in '" + str + "'");
+			}
+		}
+		return retVal;
+	}
+}
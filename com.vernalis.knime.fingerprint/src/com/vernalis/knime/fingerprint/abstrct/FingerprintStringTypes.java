@@ -14,7 +14,6 @@
  ******************************************************************************/
 package com.vernalis.knime.fingerprint.abstrct;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 
 import org.knime.core.data.vector.bitvector.BitVectorValue;
@@ -32,8 +31,17 @@ public enum FingerprintStringTypes implements ButtonGroupEnumInterface {
 			(long) Integer.MAX_VALUE * 4) {
 		@Override
 		public long[] setBitsFromString(String fpString) {
-			throw new UnsupportedOperationException(
-					"Use the Dense/Sparse BitVector Constuctor with the string");
+			return FingerprintStringCodec.getSetBitsFromWords(getWordsFromString(fpString));
+		}
+
+		@Override
+		public long[] getWordsFromString(String fpString) {
+			return FingerprintStringCodec.decodeHex(fpString);
+		}
+
+		@Override
+		public boolean isWordEncoded() {
+			return true;
 		}
 
 		@Override
@@ -46,20 +54,17 @@ public enum FingerprintStringTypes implements ButtonGroupEnumInterface {
 			(long) Integer.MAX_VALUE) {
 		@Override
 		public long[] setBitsFromString(String fpString) {
-			ArrayList<Long> setBits = new ArrayList<>();
-			for (long idx = 0, l = fpString.length(); idx < l; idx++) {
-				if (fpString.charAt((int) (l - 1 - idx)) == '1') {
-					setBits.add(idx);
-				}
-			}
+			return FingerprintStringCodec.getSetBitsFromWords(getWordsFromString(fpString));
+		}
 
-			long[] retVal = new long[setBits.size()];
-			int idx = 0;
-			for (long l : setBits) {
-				retVal[idx++] = l;
-			}
-			Arrays.sort(retVal);
-			return retVal;
+		@Override
+		public long[] getWordsFromString(String fpString) {
+			return FingerprintStringCodec.decodeBin(fpString);
+		}
+
+		@Override
+		public boolean isWordEncoded() {
+			return true;
 		}
 
 		@Override
@@ -73,11 +78,8 @@ public enum FingerprintStringTypes implements ButtonGroupEnumInterface {
 			"... }", Long.MAX_VALUE, null) {
 		@Override
 		public long[] setBitsFromString(String fpString) {
-			String[] vals = fpString.replaceAll(".*set bits=(.*?)(... )*\\}", "$1").split(",\\s*");
-			long[] retVal = new long[vals.length];
-			for (int i = 0; i < vals.length; i++) {
-				retVal[i] = Long.parseLong(vals[i]);
-			}
+			long[] retVal = FingerprintStringCodec.parseNumberList(fpString,
+					fpString.indexOf("set bits=") + 9, getListEnd(fpString));
 			Arrays.sort(retVal);
 			return retVal;
 		}
@@ -102,13 +104,15 @@ public enum FingerprintStringTypes implements ButtonGroupEnumInterface {
 
 		@Override
 		public byte[] getCountsFromString(String fpString) {
-			final String countsStr = fpString.replaceAll(getValidationRegex(), "$1").trim();
-			String[] vals = countsStr.isEmpty() ? new String[0]
-					: countsStr.contains(",") ? countsStr.split(",\\s*")
-							: new String[] { countsStr };
+			final long[] vals = FingerprintStringCodec.parseNumberList(fpString,
+					fpString.indexOf('{') + 1, getListEnd(fpString));
 			byte[] retVal = new byte[vals.length];
 			for (int i = 0; i < vals.length; i++) {
-				retVal[i] = Byte.parseByte(vals[i]);
+				if (vals[i] > Byte.MAX_VALUE) {
+					throw new NumberFormatException(
+							"Value out of range. Value:\"" + vals[i] + "\"");
+				}
+				retVal[i] = (byte) vals[i];
 			}
 			return retVal;
 		}
@@ -290,6 +294,42 @@ public enum FingerprintStringTypes implements ButtonGroupEnumInterface {
 	 */
 	public abstract long getLengthFromString(String fpString);
 
+	/**
+	 * @param fpString
+	 *            The string representation of the fingerprint
+	 * @return The fingerprint as {@code long[]} words in the layout used by
+	 *         {@code DenseBitVector}, or {@code null} if the string is not a
+	 *         valid representation. Only supported by types for which
+	 *         {@link #isWordEncoded()} returns {@code true}, which are
+	 *         validated during decoding
+	 * @throws UnsupportedOperationException
+	 *             For other types
+	 */
+	public long[] getWordsFromString(String fpString) throws UnsupportedOperationException {
+		throw new UnsupportedOperationException("The " + getText()
+				+ " string type cannot be decoded directly to words");
+	}
+
+	/**
+	 * @return Can the string be decoded directly to {@code long[]} words by
+	 *         {@link #getWordsFromString(String)}?
+	 */
+	public boolean isWordEncoded() {
+		return false;
+	}
+
+	/**
+	 * @param fpString
+	 *            A verbose bitvector or bytevector string
+	 * @return The index of the end of the list of values, excluding any
+	 *         truncation marker and the closing brace
+	 */
+	private static int getListEnd(String fpString) {
+		final int end = fpString.lastIndexOf('}');
+		final int dots = fpString.indexOf("...");
+		return dots >= 0 && dots < end ? dots : end;
+	}
+
 	/**
 	 * @param fpString
 	 *            The string representation of the fingerprint
@@ -0,0 +1,419 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+/**
+ * A column of binary (bitvector) fingerprints packed into a single contiguous
+ * {@code long[]} array of words, together with the cardinality and
+ * {@link RowKey} of each fingerprint. Every fingerprint occupies the same
+ * number of words, so the words of the fingerprint at index {@code i} start
+ * at {@code i * getWordsPerFingerprint()}. Dense and sparse bitvector cells
+ * can both be packed, although sparse fingerprints must have a length which
+ * can reasonably be stored as a dense array. Missing cells are skipped.
+ * <p>
+ * The fingerprints can be re-ordered by cardinality (see
+ * {@link #sortByCardinality()}), e.g. to allow cardinality-bounded pruning of
+ * similarity searches, in which case the index of each fingerprint in the
+ * original packed order is available from {@link #getOriginalIndex(int)}.
+ * Re-ordering does not move the words, so {@link #getOffset(int)} must
+ * always be used to find the words of a fingerprint in {@link #getWords()}.
+ * The packed fingerprints can be used as the reference set of a similarity
+ * search via the {@link ReferenceFingerprints} interface
+ * </p>
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public final class PackedBitVectors implements ReferenceFingerprints {
+
+	/**
+	 * The maximum number of words which can be packed into a single array
+	 */
+	public static final long MAX_WORDS = Integer.MAX_VALUE - 8;
+
+	private final long[] words;
+	private final int wordsPerFp;
+	private final int[] cardinalities;
+	private final RowKey[] rowKeys;
+	private final int size;
+	private final long fpLength;
+	private final long numMissing;
+	/** The original indices, in the original order, or {@code null} */
+	private final int[] originalIndices;
+
+	private PackedBitVectors(long[] words, int wordsPerFp,
+			int[] cardinalities, RowKey[] rowKeys, int size, long fpLength,
+			long numMissing, int[] originalIndices) {
+		this.words = words;
+		this.wordsPerFp = wordsPerFp;
+		this.cardinalities = cardinalities;
+		this.rowKeys = rowKeys;
+		this.size = size;
+		this.fpLength = fpLength;
+		this.numMissing = numMissing;
+		this.originalIndices = originalIndices;
+	}
+
+	/**
+	 * Method to find the length of the longest fingerprint in a column
+	 *
+	 * @param table
+	 *            The table
+	 * @param colIdx
+	 *            The index of the bitvector column
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The maximum length, or 0 if the column contains no fingerprints
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 */
+	public static long getMaxLength(BufferedDataTable table, int colIdx,
+			ExecutionMonitor exec) throws CanceledExecutionException {
+		long maxLength = 0;
+		final double progPerRow = 1.0 / Math.max(1, table.size());
+		long rowIdx = 0;
+		for (DataRow row : table) {
+			exec.checkCanceled();
+			exec.setProgress((rowIdx++) * progPerRow);
+			final DataCell cell = row.getCell(colIdx);
+			if (!cell.isMissing()) {
+				maxLength =
+						Math.max(maxLength, ((BitVectorValue) cell).length());
+			}
+		}
+		return maxLength;
+	}
+
+	/**
+	 * Method to load a column of fingerprints into a packed array
+	 *
+	 * @param table
+	 *            The table
+	 * @param colIdx
+	 *            The index of the bitvector column
+	 * @param fpLength
+	 *            The length to pack all fingerprints to. Any set bits beyond
+	 *            this length are ignored
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The packed fingerprints
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws IllegalArgumentException
+	 *             If the fingerprints are too long or too numerous to be
+	 *             packed into a single array
+	 */
+	public static PackedBitVectors load(BufferedDataTable table, int colIdx,
+			long fpLength, ExecutionMonitor exec)
+			throws CanceledExecutionException, IllegalArgumentException {
+		return load(table, table.size(), colIdx, fpLength, exec);
+	}
+
+	/**
+	 * Method to load a column of fingerprints from a sequence of rows into a
+	 * packed array
+	 *
+	 * @param rows
+	 *            The rows
+	 * @param numRows
+	 *            The number of rows
+	 * @param colIdx
+	 *            The index of the bitvector column
+	 * @param fpLength
+	 *            The length to pack all fingerprints to. Any set bits beyond
+	 *            this length are ignored
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The packed fingerprints
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws IllegalArgumentException
+	 *             If the fingerprints are too long or too numerous to be
+	 *             packed into a single array
+	 */
+	public static PackedBitVectors load(Iterable<? extends DataRow> rows,
+			long numRows, int colIdx, long fpLength, ExecutionMonitor exec)
+			throws CanceledExecutionException, IllegalArgumentException {
+		final long numWords = getNumWords(fpLength);
+		if (numRows * numWords > MAX_WORDS) {
+			throw new IllegalArgumentException("Unable to pack " + numRows
+					+ " fingerprints of length " + fpLength
+					+ " into memory");
+		}
+		final int wordsPerFp = (int) numWords;
+		final int maxRows = (int) numRows;
+		final long[] words = new long[maxRows * wordsPerFp];
+		final int[] cardinalities = new int[maxRows];
+		final RowKey[] rowKeys = new RowKey[maxRows];
+		final double progPerRow = 1.0 / Math.max(1, maxRows);
+		int size = 0;
+		long numMissing = 0;
+		long rowIdx = 0;
+		for (DataRow row : rows) {
+			exec.checkCanceled();
+			exec.setProgress((rowIdx++) * progPerRow);
+			final DataCell cell = row.getCell(colIdx);
+			if (cell.isMissing()) {
+				numMissing++;
+				continue;
+			}
+			final BitVectorValue bv = (BitVectorValue) cell;
+			final int packedCard = BitVectorWords.getWords(bv, fpLength,
+					words, size * wordsPerFp);
+			// Use the same cardinality as the Fingerprint Cardinality node,
+			// unless the fingerprint was truncated
+			cardinalities[size] = bv.length() <= fpLength
+					? (int) bv.cardinality() : packedCard;
+			rowKeys[size++] = row.getKey();
+		}
+		return new PackedBitVectors(words, wordsPerFp, cardinalities,
+				rowKeys, size, fpLength, numMissing, null);
+	}
+
+	/**
+	 * Method to create a view of the packed fingerprints re-ordered by
+	 * increasing cardinality. Fingerprints with the same cardinality retain
+	 * their relative order. Only an index permutation and the cardinalities
+	 * are sorted; the view shares the words array with this instance
+	 *
+	 * @return The sorted view, or this instance if it is already sorted
+	 */
+	public PackedBitVectors sortByCardinality() {
+		if (isSortedByCardinality()) {
+			return this;
+		}
+		// Counting sort, as cardinalities are bounded by the length
+		int maxCard = 0;
+		for (int i = 0; i < size; i++) {
+			maxCard = Math.max(maxCard, cardinalities[i]);
+		}
+		final int[] starts = new int[maxCard + 2];
+		for (int i = 0; i < size; i++) {
+			starts[cardinalities[i] + 1]++;
+		}
+		for (int c = 1; c < starts.length; c++) {
+			starts[c] += starts[c - 1];
+		}
+		final int[] sortedCards = new int[size];
+		final int[] sortedOrigIdx = new int[size];
+		for (int i = 0; i < size; i++) {
+			final int pos = starts[cardinalities[i]]++;
+			sortedCards[pos] = cardinalities[i];
+			sortedOrigIdx[pos] = getOriginalIndex(i);
+		}
+		return new PackedBitVectors(words, wordsPerFp, sortedCards, rowKeys,
+				size, fpLength, numMissing, sortedOrigIdx);
+	}
+
+	/**
+	 * @return {@code true} if the fingerprints are in order of increasing
+	 *         cardinality
+	 */
+	@Override
+	public boolean isSortedByCardinality() {
+		for (int i = 1; i < size; i++) {
+			if (cardinalities[i] < cardinalities[i - 1]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method to find the first fingerprint with at least the specified
+	 * cardinality within a range of indices. The fingerprints must be sorted
+	 * by cardinality
+	 *
+	 * @param cardinality
+	 *            The cardinality
+	 * @param fromIndex
+	 *            The first index to search (inclusive)
+	 * @param toIndex
+	 *            The last index to search (exclusive)
+	 * @return The index of the first fingerprint in the range with at least
+	 *         the cardinality, or {@code toIndex} if there is none
+	 * @see #sortByCardinality()
+	 */
+	@Override
+	public int findFirstWithCardinalityAtLeast(long cardinality,
+			int fromIndex, int toIndex) {
+		int lo = fromIndex;
+		int hi = toIndex;
+		while (lo < hi) {
+			final int mid = (lo + hi) >>> 1;
+			if (cardinalities[mid] < cardinality) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	/**
+	 * @param length
+	 *            The bitvector length
+	 * @return The number of 64-bit words needed to hold the vector
+	 */
+	public static long getNumWords(long length) {
+		return (length + 63) >>> 6;
+	}
+
+	/**
+	 * Method to count the bits set in both of two packed fingerprints
+	 *
+	 * @param a
+	 *            The first word array
+	 * @param aOffset
+	 *            The offset of the first fingerprint in the first array
+	 * @param b
+	 *            The second word array
+	 * @param bOffset
+	 *            The offset of the second fingerprint in the second array
+	 * @param numWords
+	 *            The number of words in each fingerprint
+	 * @return The number of bits in common
+	 */
+	public static int countCommonBits(long[] a, int aOffset, long[] b,
+			int bOffset, int numWords) {
+		int common = 0;
+		for (int i = 0; i < numWords; i++) {
+			common += Long.bitCount(a[aOffset + i] & b[bOffset + i]);
+		}
+		return common;
+	}
+
+	/**
+	 * @return The packed words, in the original packed order. This is the
+	 *         backing array, and should not be modified
+	 * @see #getOffset(int)
+	 */
+	public long[] getWords() {
+		return words;
+	}
+
+	/**
+	 * @return The number of words occupied by each fingerprint
+	 */
+	@Override
+	public int getWordsPerFingerprint() {
+		return wordsPerFp;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void getWords(int fromIndex, int toIndex, long[] dest) {
+		if (originalIndices == null) {
+			System.arraycopy(words, getOffset(fromIndex), dest, 0,
+					(toIndex - fromIndex) * wordsPerFp);
+			return;
+		}
+		// Gather the fingerprints via the permutation
+		for (int i = fromIndex; i < toIndex; i++) {
+			System.arraycopy(words, getOffset(i), dest,
+					(i - fromIndex) * wordsPerFp, wordsPerFp);
+		}
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The offset of the first word of the fingerprint in
+	 *         {@link #getWords()}
+	 */
+	public int getOffset(int index) {
+		return getOriginalIndex(index) * wordsPerFp;
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The number of set bits in the fingerprint
+	 */
+	@Override
+	public int getCardinality(int index) {
+		return cardinalities[index];
+	}
+
+	/**
+	 * @return The cardinalities array. This is the backing array, and should
+	 *         not be modified. It may be longer than {@link #size()}
+	 */
+	public int[] getCardinalities() {
+		return cardinalities;
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The {@link RowKey} of the row the fingerprint came from
+	 */
+	public RowKey getRowKey(int index) {
+		return rowKeys[getOriginalIndex(index)];
+	}
+
+	/**
+	 * @param originalIndex
+	 *            The index of the fingerprint in the original packed order
+	 * @return The {@link RowKey} of the row the fingerprint came from
+	 * @see #getOriginalIndex(int)
+	 */
+	public RowKey getRowKeyForOriginalIndex(int originalIndex) {
+		return rowKeys[originalIndex];
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The index of the fingerprint in the original packed order, i.e.
+	 *         before any re-ordering by cardinality
+	 */
+	@Override
+	public int getOriginalIndex(int index) {
+		return originalIndices == null ? index : originalIndices[index];
+	}
+
+	/**
+	 * @return The number of packed fingerprints
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The length all fingerprints were packed to
+	 */
+	public long getFingerprintLength() {
+		return fpLength;
+	}
+
+	/**
+	 * @return The number of missing cells skipped during loading
+	 */
+	public long getNumMissing() {
+		return numMissing;
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+/**
+ * A source of reference fingerprints for a similarity search. The
+ * fingerprints are indexed from 0 to {@code size() - 1}, and every
+ * fingerprint occupies the same number of words. The words are copied out of
+ * the source a range of fingerprints at a time, so that the source may be
+ * held in memory or mapped from a file. Implementations must be safe for
+ * concurrent reading
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public interface ReferenceFingerprints {
+
+	/**
+	 * @return The number of fingerprints
+	 */
+	int size();
+
+	/**
+	 * @return The number of words occupied by each fingerprint
+	 */
+	int getWordsPerFingerprint();
+
+	/**
+	 * Method to copy the words of a range of fingerprints into an array
+	 *
+	 * @param fromIndex
+	 *            The first fingerprint (inclusive)
+	 * @param toIndex
+	 *            The last fingerprint (exclusive)
+	 * @param dest
+	 *            The destination array, which must have space for
+	 *            {@code (toIndex - fromIndex) * getWordsPerFingerprint()}
+	 *            words. The words of fingerprint {@code fromIndex} start at 0
+	 */
+	void getWords(int fromIndex, int toIndex, long[] dest);
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The number of set bits in the fingerprint
+	 */
+	int getCardinality(int index);
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The index of the fingerprint in the original order of the
+	 *         table it was read from, ignoring missing cells
+	 */
+	int getOriginalIndex(int index);
+
+	/**
+	 * @return {@code true} if the fingerprints are in order of increasing
+	 *         cardinality
+	 */
+	boolean isSortedByCardinality();
+
+	/**
+	 * Method to find the first fingerprint with at least the specified
+	 * cardinality within a range of indices. The fingerprints must be sorted
+	 * by cardinality
+	 *
+	 * @param cardinality
+	 *            The cardinality
+	 * @param fromIndex
+	 *            The first index to search (inclusive)
+	 * @param toIndex
+	 *            The last index to search (exclusive)
+	 * @return The index of the first fingerprint in the range with at least
+	 *         the cardinality, or {@code toIndex} if there is none
+	 */
+	int findFirstWithCardinalityAtLeast(long cardinality, int fromIndex,
+			int toIndex);
+}
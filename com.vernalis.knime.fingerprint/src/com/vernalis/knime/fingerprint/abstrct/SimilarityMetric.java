@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.abstrct;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * An enum representing binary fingerprint similarity metrics. All metrics are
+ * calculated from the cardinalities of the two fingerprints and the number of
+ * bits they have in common, so that the bit counting can be performed once on
+ * packed words (see {@link PackedBitVectors}). Two empty fingerprints have a
+ * similarity of 0.0.
+ * <p>
+ * Each metric also provides the range of reference cardinalities which can
+ * possibly reach a given similarity threshold for a query of known
+ * cardinality (the 'BitBound' approach of Swamidass and Baldi), allowing
+ * reference fingerprints outside the range to be excluded without being
+ * scored. The bounds are conservative, so that pruning never excludes a
+ * reference which would have reached the threshold
+ * </p>
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public enum SimilarityMetric implements ButtonGroupEnumInterface {
+	TANIMOTO("Tanimoto", "c / (a + b - c)") {
+
+		@Override
+		public double getSimilarity(int a, int b, int c, double alpha,
+				double beta) {
+			final int denom = a + b - c;
+			return denom == 0 ? 0.0 : (double) c / denom;
+		}
+
+		@Override
+		public int getMinReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= b, so b / a >= t
+			return ceil(threshold * a);
+		}
+
+		@Override
+		public int getMaxReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= a, so a / b >= t
+			return threshold <= 0.0 ? Integer.MAX_VALUE : floor(a / threshold);
+		}
+	},
+
+	DICE("Dice", "2c / (a + b)") {
+
+		@Override
+		public double getSimilarity(int a, int b, int c, double alpha,
+				double beta) {
+			final int denom = a + b;
+			return denom == 0 ? 0.0 : 2.0 * c / denom;
+		}
+
+		@Override
+		public int getMinReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= b, so 2b / (a + b) >= t
+			return ceil(a * threshold / (2.0 - threshold));
+		}
+
+		@Override
+		public int getMaxReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= a, so 2a / (a + b) >= t
+			return threshold <= 0.0 ? Integer.MAX_VALUE
+					: floor(a * (2.0 - threshold) / threshold);
+		}
+	},
+
+	TVERSKY("Tversky", "c / (alpha(a - c) + beta(b - c) + c)") {
+
+		@Override
+		public double getSimilarity(int a, int b, int c, double alpha,
+				double beta) {
+			final double denom = alpha * (a - c) + beta * (b - c) + c;
+			return denom == 0.0 ? 0.0 : c / denom;
+		}
+
+		@Override
+		public int getMinReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= b, so b / (alpha(a - b) + b) >= t for b <= a
+			final double denom = 1.0 - threshold + threshold * alpha;
+			return denom <= 0.0 ? 0 : ceil(threshold * alpha * a / denom);
+		}
+
+		@Override
+		public int getMaxReferenceCardinality(int a, double threshold,
+				double alpha, double beta) {
+			// c <= a, so a / (beta(b - a) + a) >= t for b >= a
+			final double denom = threshold * beta;
+			return denom <= 0.0 ? Integer.MAX_VALUE
+					: floor(a + a * (1.0 - threshold) / denom);
+		}
+
+		@Override
+		public boolean usesWeights() {
+			return true;
+		}
+	};
+
+	/** The relative tolerance applied to cardinality bounds */
+	private static final double BOUND_TOLERANCE = 1e-9;
+
+	private final String m_name;
+	private final String m_formula;
+
+	private SimilarityMetric(String name, String formula) {
+		m_name = name;
+		m_formula = formula;
+	}
+
+	/**
+	 * Method to calculate the similarity
+	 *
+	 * @param a
+	 *            The cardinality of the first (query) fingerprint
+	 * @param b
+	 *            The cardinality of the second (reference) fingerprint
+	 * @param c
+	 *            The number of bits set in both fingerprints
+	 * @param alpha
+	 *            The query weighting (only used by weighted metrics)
+	 * @param beta
+	 *            The reference weighting (only used by weighted metrics)
+	 * @return The similarity
+	 */
+	public abstract double getSimilarity(int a, int b, int c, double alpha,
+			double beta);
+
+	/**
+	 * Method to find the lowest reference cardinality which can reach the
+	 * similarity threshold
+	 *
+	 * @param a
+	 *            The cardinality of the query fingerprint
+	 * @param threshold
+	 *            The similarity threshold
+	 * @param alpha
+	 *            The query weighting (only used by weighted metrics)
+	 * @param beta
+	 *            The reference weighting (only used by weighted metrics)
+	 * @return The minimum reference cardinality
+	 */
+	public abstract int getMinReferenceCardinality(int a, double threshold,
+			double alpha, double beta);
+
+	/**
+	 * Method to find the highest reference cardinality which can reach the
+	 * similarity threshold
+	 *
+	 * @param a
+	 *            The cardinality of the query fingerprint
+	 * @param threshold
+	 *            The similarity threshold
+	 * @param alpha
+	 *            The query weighting (only used by weighted metrics)
+	 * @param beta
+	 *            The reference weighting (only used by weighted metrics)
+	 * @return The maximum reference cardinality, which may be
+	 *         {@link Integer#MAX_VALUE} if there is no upper bound
+	 */
+	public abstract int getMaxReferenceCardinality(int a, double threshold,
+			double alpha, double beta);
+
+	/**
+	 * Conservative ceiling, allowing for rounding errors in the bound
+	 */
+	private static int ceil(double x) {
+		return (int) Math.max(0.0, Math.min(Integer.MAX_VALUE,
+				Math.ceil(x - BOUND_TOLERANCE * (1.0 + x))));
+	}
+
+	/**
+	 * Conservative floor, allowing for rounding errors in the bound
+	 */
+	private static int floor(double x) {
+		return (int) Math.max(0.0, Math.min(Integer.MAX_VALUE,
+				Math.floor(x + BOUND_TOLERANCE * (1.0 + x))));
+	}
+
+	/**
+	 * @return {@code true} if the metric uses the alpha and beta weightings
+	 */
+	public boolean usesWeights() {
+		return false;
+	}
+
+	@Override
+	public String getText() {
+		return m_name;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return m_name + ": " + m_formula;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default metric
+	 */
+	public static SimilarityMetric getDefault() {
+		return TANIMOTO;
+	}
+}
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.aggregators.bitvector;
+
+import java.util.Arrays;
+
+import org.knime.base.data.aggregation.AggregationOperator;
+import org.knime.base.data.aggregation.GlobalSettings;
+import org.knime.base.data.aggregation.OperatorColumnSettings;
+import org.knime.base.data.aggregation.OperatorData;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bitvector.SparseBitVector;
+import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
+
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+
+/**
+ * Abstract base class for bitwise logic aggregation operators. Rather than
+ * copying each incoming cell to a new bit vector and combining vectors (which
+ * allocates a new vector for every row), the set bits of each cell are read
+ * directly from the {@link BitVectorValue} into re-used buffers, and combined
+ * in place with the accumulated result. For dense vectors the buffers are
+ * {@code long[]} word arrays; for sparse vectors they are sorted arrays of set
+ * bit indices. The result cell is only created in
+ * {@link #getResultInternal()}, and the buffers are retained between groups
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public abstract class AbstractBitVectorLogicOperator
+		extends AggregationOperator {
+
+	/** The column type */
+	protected DataType colType;
+
+	/** The accumulated length, or -1 if no cells have been seen */
+	private long length = -1;
+
+	/** Dense accumulator and row buffers */
+	private long[] accWords = new long[0];
+	private int accWordCount = 0;
+	private long[] rowWords = new long[0];
+
+	/** Sparse accumulator and row buffers of sorted set bit indices */
+	private long[] accBits = new long[0];
+	private int accBitCount = 0;
+	private long[] rowBits = new long[0];
+	private long[] mergeBits = new long[0];
+
+	/**
+	 * Constructor
+	 *
+	 * @param operatorData
+	 *            The operator data
+	 * @param globalSettings
+	 *            The global settings
+	 * @param opColSettings
+	 *            The operator column settings
+	 */
+	protected AbstractBitVectorLogicOperator(OperatorData operatorData,
+			GlobalSettings globalSettings,
+			OperatorColumnSettings opColSettings) {
+		super(operatorData, globalSettings, opColSettings);
+		if (opColSettings.getOriginalColSpec() == null) {
+			colType = null;
+		} else {
+			colType = opColSettings.getOriginalColSpec().getType();
+		}
+	}
+
+	/**
+	 * Method to combine the row words into the accumulated words in place
+	 *
+	 * @param acc
+	 *            The accumulated words
+	 * @param row
+	 *            The words of the incoming row
+	 * @param numWords
+	 *            The number of words to combine
+	 */
+	protected abstract void combineWords(long[] acc, long[] row, int numWords);
+
+	/**
+	 * Method to combine two sorted arrays of set bit indices
+	 *
+	 * @param acc
+	 *            The accumulated set bits
+	 * @param accCount
+	 *            The number of accumulated set bits
+	 * @param row
+	 *            The set bits of the incoming row
+	 * @param rowCount
+	 *            The number of set bits in the incoming row
+	 * @param out
+	 *            The output array, which is guaranteed to have space for
+	 *            {@code accCount + rowCount} indices
+	 * @return The number of set bits in the output
+	 */
+	protected abstract int combineSetBits(long[] acc, int accCount,
+			long[] row, int rowCount, long[] out);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean computeInternal(DataCell cell) {
+		if (cell.isMissing()) {
+			return false;
+		}
+		if (colType == null) {
+			colType = cell.getType();
+		}
+		final BitVectorValue bv = (BitVectorValue) cell;
+		final long cellLength = bv.length();
+		final boolean isFirst = length < 0;
+		length = Math.max(length, cellLength);
+		if (colType == DenseBitVectorCell.TYPE) {
+			final int numWords = BitVectorWords.getNumWords(length);
+			if (isFirst) {
+				accWords = ensureCapacity(accWords, numWords);
+				Arrays.fill(accWords, 0, numWords, 0L);
+				accWordCount = numWords;
+				BitVectorWords.getWords(bv, cellLength, accWords, 0);
+			} else {
+				if (numWords > accWordCount) {
+					// A longer vector - the new words must start clear
+					if (accWords.length < numWords) {
+						accWords = Arrays.copyOf(accWords, numWords);
+					}
+					Arrays.fill(accWords, accWordCount, numWords, 0L);
+					accWordCount = numWords;
+				}
+				rowWords = ensureCapacity(rowWords, numWords);
+				Arrays.fill(rowWords, 0, numWords, 0L);
+				BitVectorWords.getWords(bv, cellLength, rowWords, 0);
+				combineWords(accWords, rowWords, numWords);
+			}
+		} else {
+			if (isFirst) {
+				accBits = ensureCapacity(accBits, (int) bv.cardinality());
+				accBitCount = BitVectorWords.getSetBits(bv, accBits);
+			} else {
+				rowBits = ensureCapacity(rowBits, (int) bv.cardinality());
+				final int rowBitCount = BitVectorWords.getSetBits(bv, rowBits);
+				mergeBits = ensureCapacity(mergeBits, accBitCount + rowBitCount);
+				accBitCount = combineSetBits(accBits, accBitCount, rowBits,
+						rowBitCount, mergeBits);
+				// Swap the buffers
+				final long[] tmp = accBits;
+				accBits = mergeBits;
+				mergeBits = tmp;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataType getDataType(DataType origType) {
+		return origType;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataCell getResultInternal() {
+		if (length < 0) {
+			return DataType.getMissingCell();
+		}
+		if (colType == DenseBitVectorCell.TYPE) {
+			return new DenseBitVectorCellFactory(new DenseBitVector(
+					Arrays.copyOf(accWords, BitVectorWords.getNumWords(length)),
+					length))
+							.createDataCell();
+		} else {
+			return new SparseBitVectorCellFactory(new SparseBitVector(length,
+					Arrays.copyOf(accBits, accBitCount))).createDataCell();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void resetInternal() {
+		// Keep the buffers for the next group
+		length = -1;
+		accBitCount = 0;
+	}
+
+	/**
+	 * @param buffer
+	 *            The current buffer
+	 * @param size
+	 *            The required size
+	 * @return The buffer, or a larger replacement if it was too small. The
+	 *         contents are not preserved
+	 */
+	private static long[] ensureCapacity(long[] buffer, int size) {
+		return buffer.length >= size ? buffer
+				: new long[Math.max(size, buffer.length * 2)];
+	}
+
+}
@@ -18,15 +18,7 @@ import org.knime.base.data.aggregation.AggregationOperator;
 import org.knime.base.data.aggregation.GlobalSettings;
 import org.knime.base.data.aggregation.OperatorColumnSettings;
 import org.knime.base.data.aggregation.OperatorData;
-import org.knime.core.data.DataCell;
-import org.knime.core.data.DataType;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
-import org.knime.core.data.vector.bitvector.DenseBitVector;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVector;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 
 /**
  * Aggregation operator to allow 'AND' of bitvectors
@@ -34,10 +26,7 @@ import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
  * @author s.roughley
  * 
  */
-public class BitVectorAndOperator extends AggregationOperator {
-	SparseBitVector sbv = null;
-	DenseBitVector dbv = null;
-	DataType colType;
+public class BitVectorAndOperator extends AbstractBitVectorLogicOperator {
 
 	public BitVectorAndOperator() {
 		this(new OperatorData("Bitvector AND", "Bitvector AND", "AND", false, true,
@@ -54,12 +43,6 @@ public class BitVectorAndOperator extends AggregationOperator {
 	public BitVectorAndOperator(OperatorData operatorData, GlobalSettings globalSettings,
 			OperatorColumnSettings opColSettings) {
 		super(operatorData, globalSettings, opColSettings);
-		if (opColSettings.getOriginalColSpec() == null) {
-			colType = null;
-		} else {
-			colType = opColSettings.getOriginalColSpec().getType();
-		}
-
 	}
 
 	/**
@@ -83,66 +66,31 @@ public class BitVectorAndOperator extends AggregationOperator {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected boolean computeInternal(DataCell cell) {
-		if (cell.isMissing()) {
-			return false;
-		}
-		if (colType == null) {
-			colType = cell.getType();
-		}
-		if (colType == DenseBitVectorCell.TYPE) {
-			DenseBitVector dbv1 = ((DenseBitVectorCell) cell).getBitVectorCopy();
-			if (dbv == null) {
-				dbv = dbv1;
-			} else {
-				dbv = dbv.and(dbv1);
-			}
-		} else {
-			SparseBitVector sbv1 = ((SparseBitVectorCell) cell).getBitVectorCopy();
-			if (sbv == null) {
-				sbv = sbv1;
-			} else {
-				sbv = sbv.and(sbv1);
-			}
+	protected void combineWords(long[] acc, long[] row, int numWords) {
+		for (int i = 0; i < numWords; i++) {
+			acc[i] &= row[i];
 		}
-		return false;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataType getDataType(DataType origType) {
-		return origType;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected DataCell getResultInternal() {
-		if (colType == DenseBitVectorCell.TYPE) {
-			if (dbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new DenseBitVectorCellFactory(dbv)).createDataCell();
-		} else {
-			if (sbv == null) {
-				return DataType.getMissingCell();
+	protected int combineSetBits(long[] acc, int accCount, long[] row,
+			int rowCount, long[] out) {
+		// Sorted intersection
+		int i = 0, j = 0, n = 0;
+		while (i < accCount && j < rowCount) {
+			if (acc[i] < row[j]) {
+				i++;
+			} else if (acc[i] > row[j]) {
+				j++;
+			} else {
+				out[n++] = acc[i++];
+				j++;
 			}
-			return (new SparseBitVectorCellFactory(sbv)).createDataCell();
 		}
-
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected void resetInternal() {
-		sbv = null;
-		dbv = null;
-
+		return n;
 	}
 
 }
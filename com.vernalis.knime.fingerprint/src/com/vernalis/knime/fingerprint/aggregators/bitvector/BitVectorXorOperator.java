@@ -18,24 +18,13 @@ import org.knime.base.data.aggregation.AggregationOperator;
 import org.knime.base.data.aggregation.GlobalSettings;
 import org.knime.base.data.aggregation.OperatorColumnSettings;
 import org.knime.base.data.aggregation.OperatorData;
-import org.knime.core.data.DataCell;
-import org.knime.core.data.DataType;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
-import org.knime.core.data.vector.bitvector.DenseBitVector;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVector;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 
 /**
  * @author "Stephen Roughley knime@vernalis.com"
  * 
  */
-public class BitVectorXorOperator extends AggregationOperator {
-	SparseBitVector sbv = null;
-	DenseBitVector dbv = null;
-	DataType colType;
+public class BitVectorXorOperator extends AbstractBitVectorLogicOperator {
 
 	public BitVectorXorOperator() {
 		this(new OperatorData("Bitvector XOR", "Bitvector XOR", "XOR", false, true,
@@ -52,12 +41,6 @@ public class BitVectorXorOperator extends AggregationOperator {
 	public BitVectorXorOperator(OperatorData operatorData, GlobalSettings globalSettings,
 			OperatorColumnSettings opColSettings) {
 		super(operatorData, globalSettings, opColSettings);
-		if (opColSettings.getOriginalColSpec() == null) {
-			colType = null;
-		} else {
-			colType = opColSettings.getOriginalColSpec().getType();
-		}
-
 	}
 
 	/**
@@ -81,66 +64,37 @@ public class BitVectorXorOperator extends AggregationOperator {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected boolean computeInternal(DataCell cell) {
-		if (cell.isMissing()) {
-			return false;
+	protected void combineWords(long[] acc, long[] row, int numWords) {
+		for (int i = 0; i < numWords; i++) {
+			acc[i] ^= row[i];
 		}
-		if (colType == null) {
-			colType = cell.getType();
-		}
-		if (colType == DenseBitVectorCell.TYPE) {
-			DenseBitVector dbv1 = ((DenseBitVectorCell) cell).getBitVectorCopy();
-			if (dbv == null) {
-				dbv = new DenseBitVector(dbv1);
-			} else {
-				dbv = dbv.xor(dbv1);
-			}
-		} else {
-			SparseBitVector sbv1 = ((SparseBitVectorCell) cell).getBitVectorCopy();
-			if (sbv == null) {
-				sbv = new SparseBitVector(sbv1);
-			} else {
-				sbv = sbv.xor(sbv1);
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataType getDataType(DataType origType) {
-		return origType;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected DataCell getResultInternal() {
-		if (colType == DenseBitVectorCell.TYPE) {
-			if (dbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new DenseBitVectorCellFactory(dbv)).createDataCell();
-		} else {
-			if (sbv == null) {
-				return DataType.getMissingCell();
+	protected int combineSetBits(long[] acc, int accCount, long[] row,
+			int rowCount, long[] out) {
+		// Sorted symmetric difference
+		int i = 0, j = 0, n = 0;
+		while (i < accCount && j < rowCount) {
+			if (acc[i] < row[j]) {
+				out[n++] = acc[i++];
+			} else if (acc[i] > row[j]) {
+				out[n++] = row[j++];
+			} else {
+				i++;
+				j++;
 			}
-			return (new SparseBitVectorCellFactory(sbv)).createDataCell();
 		}
-
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected void resetInternal() {
-		sbv = null;
-		dbv = null;
-
+		while (i < accCount) {
+			out[n++] = acc[i++];
+		}
+		while (j < rowCount) {
+			out[n++] = row[j++];
+		}
+		return n;
 	}
 
 }
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.aggregators.bytevector;
+
+import java.util.Arrays;
+
+import org.knime.base.data.aggregation.AggregationOperator;
+import org.knime.base.data.aggregation.GlobalSettings;
+import org.knime.base.data.aggregation.OperatorColumnSettings;
+import org.knime.base.data.aggregation.OperatorData;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.bytevector.DenseByteVector;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
+import org.knime.core.data.vector.bytevector.SparseByteVector;
+import org.knime.core.data.vector.bytevector.SparseByteVectorCellFactory;
+
+/**
+ * Abstract base class for element-wise count fingerprint aggregation
+ * operators. Rather than copying each incoming cell to a new byte vector and
+ * combining vectors (which allocates a new vector for every row), the non-zero
+ * counts of each cell are read directly from the {@link ByteVectorValue} into
+ * re-used {@code int[]} buffers, and combined in place with the accumulated
+ * counts in a tight loop. For sparse vectors, only the non-zero positions are
+ * visited, and the buffers hold sorted index and count arrays. The result cell
+ * is only created in {@link #getResultInternal()}, and the buffers are
+ * retained between groups. Counts are held as {@code int}s in the range 0 -
+ * 255 during accumulation and converted to bytes when the result is created
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public abstract class AbstractByteVectorCountOperator
+		extends AggregationOperator {
+
+	/** The column type */
+	protected DataType colType;
+
+	/** The accumulated length, or -1 if no cells have been seen */
+	private long length = -1;
+
+	/** Dense accumulator and row buffers */
+	private int[] accCounts = new int[0];
+	private int accCountLength = 0;
+	private int[] rowCounts = new int[0];
+
+	/** Sparse accumulator, row and merge buffers */
+	private long[] accIdx = new long[0];
+	private int[] accVals = new int[0];
+	private int accSize = 0;
+	private long[] rowIdx = new long[0];
+	private int[] rowVals = new int[0];
+	private long[] mergeIdx = new long[0];
+	private int[] mergeVals = new int[0];
+
+	/**
+	 * Constructor
+	 *
+	 * @param operatorData
+	 *            The operator data
+	 * @param globalSettings
+	 *            The global settings
+	 * @param opColSettings
+	 *            The operator column settings
+	 */
+	protected AbstractByteVectorCountOperator(OperatorData operatorData,
+			GlobalSettings globalSettings,
+			OperatorColumnSettings opColSettings) {
+		super(operatorData, globalSettings, opColSettings);
+		if (opColSettings.getOriginalColSpec() == null) {
+			colType = null;
+		} else {
+			colType = opColSettings.getOriginalColSpec().getType();
+		}
+	}
+
+	/**
+	 * Method to combine the row counts into the accumulated counts in place.
+	 * Positions beyond the end of a shorter vector have a count of 0
+	 *
+	 * @param acc
+	 *            The accumulated counts
+	 * @param row
+	 *            The counts of the incoming row
+	 * @param length
+	 *            The number of positions to combine
+	 */
+	protected abstract void combineCounts(int[] acc, int[] row, int length);
+
+	/**
+	 * Method to combine a single pair of counts, used for sparse vectors
+	 *
+	 * @param acc
+	 *            The accumulated count
+	 * @param row
+	 *            The count of the incoming row
+	 * @return The combined count
+	 */
+	protected abstract int combineCount(int acc, int row);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean computeInternal(DataCell cell) {
+		if (cell.isMissing()) {
+			return false;
+		}
+		if (colType == null) {
+			colType = cell.getType();
+		}
+		final ByteVectorValue bv = (ByteVectorValue) cell;
+		final boolean isFirst = length < 0;
+		length = Math.max(length, bv.length());
+		if (colType == DenseByteVectorCell.TYPE) {
+			final int len = (int) length;
+			if (isFirst) {
+				accCounts = ensureCapacity(accCounts, len);
+				Arrays.fill(accCounts, 0, len, 0);
+				accCountLength = len;
+				readCounts(bv, accCounts);
+			} else {
+				if (len > accCountLength) {
+					// A longer vector - the new positions must start at 0
+					if (accCounts.length < len) {
+						accCounts = Arrays.copyOf(accCounts, len);
+					}
+					Arrays.fill(accCounts, accCountLength, len, 0);
+					accCountLength = len;
+				}
+				rowCounts = ensureCapacity(rowCounts, len);
+				Arrays.fill(rowCounts, 0, len, 0);
+				readCounts(bv, rowCounts);
+				combineCounts(accCounts, rowCounts, len);
+			}
+		} else {
+			final int card = (int) bv.cardinality();
+			if (isFirst) {
+				accIdx = ensureCapacity(accIdx, card);
+				accVals = ensureCapacity(accVals, card);
+				accSize = readNonZeroCounts(bv, accIdx, accVals);
+			} else {
+				rowIdx = ensureCapacity(rowIdx, card);
+				rowVals = ensureCapacity(rowVals, card);
+				final int rowSize = readNonZeroCounts(bv, rowIdx, rowVals);
+				mergeIdx = ensureCapacity(mergeIdx, accSize + rowSize);
+				mergeVals = ensureCapacity(mergeVals, accSize + rowSize);
+				accSize = mergeSparse(rowSize);
+				// Swap the buffers
+				final long[] tmpIdx = accIdx;
+				accIdx = mergeIdx;
+				mergeIdx = tmpIdx;
+				final int[] tmpVals = accVals;
+				accVals = mergeVals;
+				mergeVals = tmpVals;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merge the sorted sparse accumulator and row into the merge buffers,
+	 * dropping any zero counts
+	 *
+	 * @return The number of non-zero positions in the merge buffers
+	 */
+	private int mergeSparse(int rowSize) {
+		int i = 0, j = 0, n = 0;
+		while (i < accSize || j < rowSize) {
+			final long idx;
+			final int val;
+			if (j >= rowSize || (i < accSize && accIdx[i] < rowIdx[j])) {
+				idx = accIdx[i];
+				val = combineCount(accVals[i++], 0);
+			} else if (i >= accSize || accIdx[i] > rowIdx[j]) {
+				idx = rowIdx[j];
+				val = combineCount(0, rowVals[j++]);
+			} else {
+				idx = accIdx[i];
+				val = combineCount(accVals[i++], rowVals[j++]);
+			}
+			if (val != 0) {
+				mergeIdx[n] = idx;
+				mergeVals[n++] = val;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataType getDataType(DataType origType) {
+		return origType;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataCell getResultInternal() {
+		if (length < 0) {
+			return DataType.getMissingCell();
+		}
+		if (colType == DenseByteVectorCell.TYPE) {
+			final byte[] counts = new byte[(int) length];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = (byte) accCounts[i];
+			}
+			return new DenseByteVectorCellFactory(new DenseByteVector(counts))
+					.createDataCell();
+		} else {
+			final SparseByteVector sbv = new SparseByteVector(length);
+			for (int i = 0; i < accSize; i++) {
+				final int count = accVals[i];
+				if (count != 0) {
+					sbv.set(accIdx[i], count);
+				}
+			}
+			return new SparseByteVectorCellFactory(sbv).createDataCell();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void resetInternal() {
+		// Keep the buffers for the next group
+		length = -1;
+		accSize = 0;
+	}
+
+	private static int[] ensureCapacity(int[] buffer, int size) {
+		return buffer.length >= size ? buffer
+				: new int[Math.max(size, buffer.length * 2)];
+	}
+
+	private static long[] ensureCapacity(long[] buffer, int size) {
+		return buffer.length >= size ? buffer
+				: new long[Math.max(size, buffer.length * 2)];
+	}
+
+	/**
+	 * Method to read the non-zero counts of a byte vector into a zeroed count
+	 * array, without copying the vector
+	 */
+	private static void readCounts(ByteVectorValue bv, int[] counts) {
+		for (long i = bv.nextCountIndex(0); i >= 0; i =
+				bv.nextCountIndex(i + 1)) {
+			counts[(int) i] = bv.get(i);
+		}
+	}
+
+	/**
+	 * Method to read the non-zero counts of a byte vector in ascending index
+	 * order, without copying the vector
+	 *
+	 * @return The number of non-zero counts
+	 */
+	private static int readNonZeroCounts(ByteVectorValue bv, long[] indices,
+			int[] values) {
+		int n = 0;
+		for (long i = bv.nextCountIndex(0); i >= 0; i =
+				bv.nextCountIndex(i + 1)) {
+			indices[n] = i;
+			values[n++] = bv.get(i);
+		}
+		return n;
+	}
+
+}
@@ -18,25 +18,14 @@ import org.knime.base.data.aggregation.AggregationOperator;
 import org.knime.base.data.aggregation.GlobalSettings;
 import org.knime.base.data.aggregation.OperatorColumnSettings;
 import org.knime.base.data.aggregation.OperatorData;
-import org.knime.core.data.DataCell;
-import org.knime.core.data.DataType;
-
 import org.knime.core.data.vector.bytevector.ByteVectorValue;
-import org.knime.core.data.vector.bytevector.DenseByteVector;
-import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
-import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
-import org.knime.core.data.vector.bytevector.SparseByteVector;
-import org.knime.core.data.vector.bytevector.SparseByteVectorCell;
-import org.knime.core.data.vector.bytevector.SparseByteVectorCellFactory;
 
 /**
  * @author "Stephen Roughley  knime@vernalis.com"
  * 
  */
-public class ByteVectorAddRemainderOperator extends AggregationOperator {
-	SparseByteVector sbv = null;
-	DenseByteVector dbv = null;
-	DataType colType;
+public class ByteVectorAddRemainderOperator
+		extends AbstractByteVectorCountOperator {
 
 	public ByteVectorAddRemainderOperator() {
 		this(new OperatorData("ByteVector Add (Remainder)",
@@ -57,12 +46,6 @@ public class ByteVectorAddRemainderOperator extends AggregationOperator {
 	public ByteVectorAddRemainderOperator(OperatorData operatorData,
 			GlobalSettings globalSettings, OperatorColumnSettings opColSettings) {
 		super(operatorData, globalSettings, opColSettings);
-		if (opColSettings.getOriginalColSpec() == null) {
-			colType = null;
-		} else {
-			colType = opColSettings.getOriginalColSpec().getType();
-		}
-
 	}
 
 	/**
@@ -89,68 +72,18 @@ public class ByteVectorAddRemainderOperator extends AggregationOperator {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected boolean computeInternal(DataCell cell) {
-		if (cell.isMissing()) {
-			return false;
-		}
-		if (colType == null) {
-			colType = cell.getType();
-		}
-		if (colType == DenseByteVectorCell.TYPE) {
-			DenseByteVector dbv1 = ((DenseByteVectorCell) cell)
-					.getByteVectorCopy();
-			if (dbv == null) {
-				dbv = dbv1;
-			} else {
-				dbv = dbv.add(dbv1, true);
-			}
-		} else {
-			SparseByteVector sbv1 = ((SparseByteVectorCell) cell)
-					.getByteVectorCopy();
-			if (sbv == null) {
-				sbv = sbv1;
-			} else {
-				sbv = sbv.add(sbv1, true);
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataType getDataType(DataType origType) {
-		return origType;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataCell getResultInternal() {
-		if (colType == DenseByteVectorCell.TYPE) {
-			if (dbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new DenseByteVectorCellFactory(dbv)).createDataCell();
-		} else {
-			if (sbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new SparseByteVectorCellFactory(sbv)).createDataCell();
+	protected void combineCounts(int[] acc, int[] row, int length) {
+		for (int i = 0; i < length; i++) {
+			acc[i] = (acc[i] + row[i]) & 0xFF;
 		}
-
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected void resetInternal() {
-		sbv = null;
-		dbv = null;
-
+	protected int combineCount(int acc, int row) {
+		return (acc + row) & 0xFF;
 	}
 
 }
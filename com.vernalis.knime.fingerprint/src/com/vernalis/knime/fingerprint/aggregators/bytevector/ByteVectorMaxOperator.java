@@ -18,25 +18,13 @@ import org.knime.base.data.aggregation.AggregationOperator;
 import org.knime.base.data.aggregation.GlobalSettings;
 import org.knime.base.data.aggregation.OperatorColumnSettings;
 import org.knime.base.data.aggregation.OperatorData;
-import org.knime.core.data.DataCell;
-import org.knime.core.data.DataType;
-
 import org.knime.core.data.vector.bytevector.ByteVectorValue;
-import org.knime.core.data.vector.bytevector.DenseByteVector;
-import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
-import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
-import org.knime.core.data.vector.bytevector.SparseByteVector;
-import org.knime.core.data.vector.bytevector.SparseByteVectorCell;
-import org.knime.core.data.vector.bytevector.SparseByteVectorCellFactory;
 
 /**
  * @author "Stephen Roughley  knime@vernalis.com"
  * 
  */
-public class ByteVectorMaxOperator extends AggregationOperator {
-	SparseByteVector sbv = null;
-	DenseByteVector dbv = null;
-	DataType colType;
+public class ByteVectorMaxOperator extends AbstractByteVectorCountOperator {
 
 	public ByteVectorMaxOperator() {
 		this(new OperatorData("ByteVector Max", "ByteVector Max", "Max", false,
@@ -54,12 +42,6 @@ public class ByteVectorMaxOperator extends AggregationOperator {
 	public ByteVectorMaxOperator(OperatorData operatorData,
 			GlobalSettings globalSettings, OperatorColumnSettings opColSettings) {
 		super(operatorData, globalSettings, opColSettings);
-		if (opColSettings.getOriginalColSpec() == null) {
-			colType = null;
-		} else {
-			colType = opColSettings.getOriginalColSpec().getType();
-		}
-
 	}
 
 	/**
@@ -86,68 +68,18 @@ public class ByteVectorMaxOperator extends AggregationOperator {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected boolean computeInternal(DataCell cell) {
-		if (cell.isMissing()) {
-			return false;
-		}
-		if (colType == null) {
-			colType = cell.getType();
-		}
-		if (colType == DenseByteVectorCell.TYPE) {
-			DenseByteVector dbv1 = ((DenseByteVectorCell) cell)
-					.getByteVectorCopy();
-			if (dbv == null) {
-				dbv = dbv1;
-			} else {
-				dbv = dbv.max(dbv1);
-			}
-		} else {
-			SparseByteVector sbv1 = ((SparseByteVectorCell) cell)
-					.getByteVectorCopy();
-			if (sbv == null) {
-				sbv = sbv1;
-			} else {
-				sbv = sbv.max(sbv1);
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataType getDataType(DataType origType) {
-		return origType;
-	}
-
-	/**
-	 * {@inheritDoc}
-	 */
-	@Override
-	protected DataCell getResultInternal() {
-		if (colType == DenseByteVectorCell.TYPE) {
-			if (dbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new DenseByteVectorCellFactory(dbv)).createDataCell();
-		} else {
-			if (sbv == null) {
-				return DataType.getMissingCell();
-			}
-			return (new SparseByteVectorCellFactory(sbv)).createDataCell();
+	protected void combineCounts(int[] acc, int[] row, int length) {
+		for (int i = 0; i < length; i++) {
+			acc[i] = Math.max(acc[i], row[i]);
 		}
-
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected void resetInternal() {
-		sbv = null;
-		dbv = null;
-
+	protected int combineCount(int acc, int row) {
+		return Math.max(acc, row);
 	}
 
 }
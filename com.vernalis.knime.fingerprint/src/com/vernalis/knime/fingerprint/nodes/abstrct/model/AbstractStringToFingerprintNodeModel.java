@@ -90,15 +90,21 @@ public class AbstractStringToFingerprintNodeModel extends AbstractToFingerprintN
 					+ " - returning missing cell (" + fpString + ")");
 			return DataType.getMissingCell();
 		}
-		if (m_stringType.validateString(fpString)) {
+		if (m_stringType.isWordEncoded()) {
+			// Decode and validate in a single pass
+			final long[] words = m_stringType.getWordsFromString(fpString);
+			if (words != null) {
+				return m_fpType.getDataCellFromWords(
+						m_stringType.getLengthFromString(fpString), words);
+			}
+		} else if (m_stringType.validateString(fpString)) {
 			return getResultCell(fpString);
-		} else {
-			// Error converting the string
-			m_logger.warn("Error converting string '" + fpString
-					+ "' to fingerprint: String does not match correct "
-					+ "pattern for required celltype - returning missing cell");
-			return DataType.getMissingCell();
 		}
+		// Error converting the string
+		m_logger.warn("Error converting string '" + fpString
+				+ "' to fingerprint: String does not match correct "
+				+ "pattern for required celltype - returning missing cell");
+		return DataType.getMissingCell();
 	}
 
 	@Override
@@ -14,13 +14,6 @@
  ******************************************************************************/
 package com.vernalis.knime.fingerprint.nodes.convert.fromhex;
 
-import org.knime.core.data.DataCell;
-import org.knime.core.data.vector.bitvector.DenseBitVector;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVector;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
-
 import com.vernalis.knime.fingerprint.abstrct.FingerprintStringTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractStringToFingerprintNodeModel;
 
@@ -32,21 +25,6 @@ public class HexStringToFingerprintNodeModel extends AbstractStringToFingerprint
 
 	public HexStringToFingerprintNodeModel() {
 		super(FingerprintStringTypes.HEX);
-
-	}
-
-	@Override
-	protected DataCell getResultCell(String fpString) {
-		DataCell retVal;
-		if (m_fpType.getDataType(isOutputCountFp) == SparseBitVectorCell.TYPE) {
-			// Sparse
-			retVal = (new SparseBitVectorCellFactory(new SparseBitVector(fpString)))
-					.createDataCell();
-		} else {
-			// Dense
-			retVal = (new DenseBitVectorCellFactory(new DenseBitVector(fpString))).createDataCell();
-		}
-		return retVal;
 	}
 
 }
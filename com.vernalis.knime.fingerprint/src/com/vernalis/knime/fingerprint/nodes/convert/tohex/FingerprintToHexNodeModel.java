@@ -16,9 +16,9 @@ package com.vernalis.knime.fingerprint.nodes.convert.tohex;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.def.StringCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
 
+import com.vernalis.knime.fingerprint.abstrct.FingerprintStringCodec;
 import com.vernalis.knime.fingerprint.abstrct.FingerprintStringTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractSingleFingerprintSingleOutputNodeModel;
 
@@ -40,14 +40,7 @@ public class FingerprintToHexNodeModel extends AbstractSingleFingerprintSingleOu
 
 	@Override
 	protected DataCell getBitVectorResultCell(DataCell fp1) {
-		String retVal;
-		if (m_fpType == SparseBitVectorCell.TYPE) {
-			// Sparse
-			retVal = ((SparseBitVectorCell) fp1).toHexString();
-		} else {
-			// Dense
-			retVal = ((DenseBitVectorCell) fp1).toHexString();
-		}
+		String retVal = FingerprintStringCodec.encodeHex((BitVectorValue) fp1);
 		if (FingerprintStringTypes.HEX.isTruncated(retVal)) {
 			m_logger.warn(
 					"Fingerprint too long for complete hexadecimal representation - truncated to "
@@ -17,9 +17,9 @@ package com.vernalis.knime.fingerprint.nodes.logic.and;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+import com.vernalis.knime.fingerprint.abstrct.FingerPrintTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractDoubleFingerprintSingleOutNodeModel;
 
 /**
@@ -41,10 +41,15 @@ public class FingerprintAndNodeModel extends AbstractDoubleFingerprintSingleOutN
 	@Override
 	protected DataCell getBitVectorResultCell(DataCell fp1, DataCell fp2)
 			throws UnsupportedOperationException {
+		final BitVectorValue bv1 = (BitVectorValue) fp1;
+		final BitVectorValue bv2 = (BitVectorValue) fp2;
+		final long length = Math.max(bv1.length(), bv2.length());
 		if (m_fpType == DenseBitVectorCell.TYPE) {
-			return DenseBitVectorCellFactory.and((BitVectorValue) fp1, (BitVectorValue) fp2);
+			return FingerPrintTypes.DENSE.getDataCellFromWords(length, BitVectorWords.and(
+					BitVectorWords.getWords(bv1), BitVectorWords.getWords(bv2)));
 		}
-		return SparseBitVectorCellFactory.and((BitVectorValue) fp1, (BitVectorValue) fp2);
+		return FingerPrintTypes.SPARSE.getDataCellFromSetBits(length, BitVectorWords.andSetBits(
+				BitVectorWords.getSetBits(bv1), BitVectorWords.getSetBits(bv2)));
 	}
 
 }
@@ -15,15 +15,15 @@
 package com.vernalis.knime.fingerprint.nodes.logic.concatenate;
 
 import org.knime.core.data.DataCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
 import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
 import org.knime.core.data.vector.bytevector.SparseByteVectorCell;
 import org.knime.core.data.vector.bytevector.SparseByteVectorCellFactory;
 
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+import com.vernalis.knime.fingerprint.abstrct.FingerPrintTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractDoubleFingerprintSingleOutNodeModel;
 
 /**
@@ -60,14 +60,19 @@ public class FingerprintConcatNodeModel extends AbstractDoubleFingerprintSingleO
 	@Override
 	protected DataCell getBitVectorResultCell(DataCell fp1, DataCell fp2)
 			throws UnsupportedOperationException {
+		final BitVectorValue bv1 = (BitVectorValue) fp1;
+		final BitVectorValue bv2 = (BitVectorValue) fp2;
+		final long length = bv1.length() + bv2.length();
 		if (m_fpType == SparseBitVectorCell.TYPE) {
 			// Sparse
-			return new SparseBitVectorCellFactory((((SparseBitVectorCell) fp1).getBitVectorCopy())
-					.concatenate(((SparseBitVectorCell) fp2).getBitVectorCopy())).createDataCell();
+			return FingerPrintTypes.SPARSE.getDataCellFromSetBits(length,
+					BitVectorWords.concatenateSetBits(BitVectorWords.getSetBits(bv1),
+							bv1.length(), BitVectorWords.getSetBits(bv2)));
 		}
 		// Dense
-		return new DenseBitVectorCellFactory((((DenseBitVectorCell) fp1).getBitVectorCopy())
-				.concatenate(((DenseBitVectorCell) fp2).getBitVectorCopy())).createDataCell();
+		return FingerPrintTypes.DENSE.getDataCellFromWords(length,
+				BitVectorWords.concatenate(BitVectorWords.getWords(bv1), bv1.length(),
+						BitVectorWords.getWords(bv2), bv2.length()));
 	}
 
 }
@@ -15,13 +15,11 @@
 package com.vernalis.knime.fingerprint.nodes.logic.fold;
 
 import org.knime.core.data.DataCell;
-import org.knime.core.data.vector.bitvector.DenseBitVector;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVector;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+import com.vernalis.knime.fingerprint.abstrct.FingerPrintTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractSingleFingerprintSingleOutputNodeModel;
 
 public class FoldFingerprintNodeModel extends AbstractSingleFingerprintSingleOutputNodeModel {
@@ -44,29 +42,16 @@ public class FoldFingerprintNodeModel extends AbstractSingleFingerprintSingleOut
 	 */
 	@Override
 	protected DataCell getBitVectorResultCell(DataCell fp1) throws UnsupportedOperationException {
+		final BitVectorValue bv = (BitVectorValue) fp1;
+		final long length = bv.length();
 		if (fp1 instanceof DenseBitVectorCell) {
-			DenseBitVector dbv = ((DenseBitVectorCell) fp1).getBitVectorCopy();
-			long midPoint;
-			if (dbv.length() % 2 == 0) {
-				midPoint = dbv.length() / 2;
-			} else {
-				midPoint = (1 + dbv.length()) / 2;
-			}
-			DenseBitVector ldbv = dbv.subSequence(0, midPoint);
-			DenseBitVector rdbv = dbv.subSequence(midPoint, dbv.length());
-			return new DenseBitVectorCellFactory(ldbv.or(rdbv)).createDataCell();
-		} else {
-			SparseBitVector sbv = ((SparseBitVectorCell) fp1).getBitVectorCopy();
-			long midPoint;
-			if (sbv.length() % 2 == 0) {
-				midPoint = sbv.length() / 2;
-			} else {
-				midPoint = (1 + sbv.length()) / 2;
-			}
-			SparseBitVector lsbv = sbv.subSequence(0, midPoint);
-			SparseBitVector rsbv = sbv.subSequence(midPoint, sbv.length());
-			return new SparseBitVectorCellFactory(lsbv.or(rsbv)).createDataCell();
+			return FingerPrintTypes.DENSE.getDataCellFromWords(
+					BitVectorWords.getFoldedLength(length),
+					BitVectorWords.fold(BitVectorWords.getWords(bv), length));
 		}
+		return FingerPrintTypes.SPARSE.getDataCellFromSetBits(
+				BitVectorWords.getFoldedLength(length),
+				BitVectorWords.foldSetBits(BitVectorWords.getSetBits(bv), length));
 	}
 
 }
@@ -15,10 +15,11 @@
 package com.vernalis.knime.fingerprint.nodes.logic.invert;
 
 import org.knime.core.data.DataCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
 
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+import com.vernalis.knime.fingerprint.abstrct.FingerPrintTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractSingleFingerprintSingleOutputNodeModel;
 
 /**
@@ -38,8 +39,9 @@ public class FingerprintInvertNodeModel extends AbstractSingleFingerprintSingleO
 			throw new UnsupportedOperationException(
 					"Only Dense Bit Vectors can be inverted - use Sparse-To-Dense node first!");
 		}
-		return new DenseBitVectorCellFactory(
-				(((DenseBitVectorCell) fp1).getBitVectorCopy()).invert()).createDataCell();
+		final BitVectorValue bv = (BitVectorValue) fp1;
+		return FingerPrintTypes.DENSE.getDataCellFromWords(bv.length(),
+				BitVectorWords.invert(BitVectorWords.getWords(bv), bv.length()));
 	}
 
 	@Override
@@ -18,9 +18,6 @@ import org.knime.core.data.DataCell;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.vector.bitvector.BitVectorValue;
 import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
-import org.knime.core.data.vector.bitvector.DenseBitVectorCellFactory;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCell;
-import org.knime.core.data.vector.bitvector.SparseBitVectorCellFactory;
 import org.knime.core.data.vector.bytevector.ByteVectorValue;
 import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
 import org.knime.core.data.vector.bytevector.DenseByteVectorCellFactory;
@@ -31,6 +28,8 @@ import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 
+import com.vernalis.knime.fingerprint.abstrct.BitVectorWords;
+import com.vernalis.knime.fingerprint.abstrct.FingerPrintTypes;
 import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractSingleFingerprintSingleOutputNodeModel;
 
 import static com.vernalis.knime.fingerprint.nodes.logic.subset.FingerprintSubsetNodeDialog.createEndModel;
@@ -95,14 +94,13 @@ public class FingerprintSubsetNodeModel extends AbstractSingleFingerprintSingleO
 		if (start > ((BitVectorValue) fp1).length()) {
 			start = (int) ((BitVectorValue) fp1).length();
 		}
+		final BitVectorValue bv = (BitVectorValue) fp1;
 		if (fp1.getType() == DenseBitVectorCell.TYPE) {
-			DenseBitVectorCellFactory fact =
-					new DenseBitVectorCellFactory((DenseBitVectorCell) fp1, start, end);
-			return fact.createDataCell();
+			return FingerPrintTypes.DENSE.getDataCellFromWords(end - start,
+					BitVectorWords.subset(BitVectorWords.getWords(bv), start, end));
 		}
-		SparseBitVectorCellFactory fact =
-				new SparseBitVectorCellFactory((SparseBitVectorCell) fp1, start, end);
-		return fact.createDataCell();
+		return FingerPrintTypes.SPARSE.getDataCellFromSetBits(end - start,
+				BitVectorWords.subsetSetBits(BitVectorWords.getSetBits(bv), start, end));
 	}
 
 	/**
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.frequency;
+
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+
+/**
+ * Accumulator for the per-position set frequencies of a collection of binary
+ * (bitvector) or count (bytevector) fingerprints. For each position, the
+ * number of fingerprints with the bit set (or a non-zero count), and for
+ * count fingerprints the total of the counts, are accumulated in
+ * {@code long[]} arrays which grow as required. Accumulators for separate
+ * subsets of the fingerprints can be combined with {@link #merge(BitFrequencies)}.
+ * This class is not thread-safe
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class BitFrequencies {
+
+	/** The maximum fingerprint length which can be accumulated */
+	public static final long MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private long[] setCounts = new long[0];
+	/** Only allocated once a count fingerprint is added */
+	private long[] totalCounts = null;
+	private long maxLength = 0;
+	private long numFingerprints = 0;
+
+	/**
+	 * Method to add a fingerprint to the accumulator
+	 *
+	 * @param fp
+	 *            The fingerprint cell, which must be a non-missing
+	 *            {@link BitVectorValue} or {@link ByteVectorValue}
+	 * @throws IllegalArgumentException
+	 *             If the fingerprint is longer than {@link #MAX_LENGTH}, or
+	 *             not a fingerprint
+	 */
+	public void add(DataCell fp) throws IllegalArgumentException {
+		if (fp instanceof BitVectorValue) {
+			final BitVectorValue bv = (BitVectorValue) fp;
+			ensureLength(bv.length());
+			for (long bit = bv.nextSetBit(0); bit >= 0; bit =
+					bv.nextSetBit(bit + 1)) {
+				setCounts[(int) bit]++;
+				if (totalCounts != null) {
+					totalCounts[(int) bit]++;
+				}
+			}
+		} else if (fp instanceof ByteVectorValue) {
+			final ByteVectorValue bv = (ByteVectorValue) fp;
+			ensureLength(bv.length());
+			ensureTotalCounts();
+			for (long idx = bv.nextCountIndex(0); idx >= 0; idx =
+					bv.nextCountIndex(idx + 1)) {
+				setCounts[(int) idx]++;
+				totalCounts[(int) idx] += bv.get(idx);
+			}
+		} else {
+			throw new IllegalArgumentException(
+					"The supplied cell appears not to be a recognised fingerprint format");
+		}
+		numFingerprints++;
+	}
+
+	/**
+	 * Method to add the counts from another accumulator to this one
+	 *
+	 * @param other
+	 *            The other accumulator
+	 */
+	public void merge(BitFrequencies other) {
+		ensureLength(other.maxLength);
+		if (other.totalCounts != null) {
+			ensureTotalCounts();
+		}
+		for (int i = 0; i < other.maxLength; i++) {
+			setCounts[i] += other.setCounts[i];
+			if (totalCounts != null) {
+				totalCounts[i] += other.getTotalCount(i);
+			}
+		}
+		numFingerprints += other.numFingerprints;
+	}
+
+	private void ensureLength(long length) {
+		if (length > MAX_LENGTH) {
+			throw new IllegalArgumentException("Fingerprints of length "
+					+ length + " are too long for bit frequency calculation "
+					+ "- the maximum length is " + MAX_LENGTH
+					+ ". Fold or subset the fingerprints first");
+		}
+		if (length > setCounts.length) {
+			final int newCapacity = (int) Math.min(MAX_LENGTH, Math.max(length,
+					Math.max(INITIAL_CAPACITY, 2L * setCounts.length)));
+			setCounts = Arrays.copyOf(setCounts, newCapacity);
+			if (totalCounts != null) {
+				totalCounts = Arrays.copyOf(totalCounts, newCapacity);
+			}
+		}
+		maxLength = Math.max(maxLength, length);
+	}
+
+	private void ensureTotalCounts() {
+		if (totalCounts == null) {
+			// Up to now only binary fingerprints, for which the totals are
+			// the set counts
+			totalCounts = setCounts.clone();
+		}
+	}
+
+	/**
+	 * @return The length of the longest fingerprint added
+	 */
+	public int getLength() {
+		return (int) maxLength;
+	}
+
+	/**
+	 * @return The number of fingerprints added
+	 */
+	public long getNumFingerprints() {
+		return numFingerprints;
+	}
+
+	/**
+	 * @param index
+	 *            The position
+	 * @return The number of fingerprints with the bit set or a non-zero count
+	 *         at the position
+	 */
+	public long getSetCount(int index) {
+		return setCounts[index];
+	}
+
+	/**
+	 * @param index
+	 *            The position
+	 * @return The total of the counts at the position, which for binary
+	 *         fingerprints is the same as {@link #getSetCount(int)}
+	 */
+	public long getTotalCount(int index) {
+		return totalCounts == null ? setCounts[index] : totalCounts[index];
+	}
+
+	/**
+	 * @param index
+	 *            The position
+	 * @return The fraction of the fingerprints with the bit set or a non-zero
+	 *         count at the position
+	 */
+	public double getFrequency(int index) {
+		return numFingerprints == 0 ? 0.0
+				: (double) setCounts[index] / numFingerprints;
+	}
+
+	/**
+	 * @param index
+	 *            The position
+	 * @return The Shannon entropy (in bits) of the position being set, which
+	 *         is 1.0 for a position set in exactly half of the fingerprints
+	 *         and 0.0 for a position set in all or none of them
+	 */
+	public double getEntropy(int index) {
+		final double f = getFrequency(index);
+		if (f <= 0.0 || f >= 1.0) {
+			return 0.0;
+		}
+		return -(f * log2(f) + (1.0 - f) * log2(1.0 - f));
+	}
+
+	private static double log2(double x) {
+		return Math.log(x) / Math.log(2.0);
+	}
+}
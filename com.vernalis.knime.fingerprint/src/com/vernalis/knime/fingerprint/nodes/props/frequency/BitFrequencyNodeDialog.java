@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.frequency;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+/**
+ * Node dialog for the Fingerprint Bit Frequencies node
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class BitFrequencyNodeDialog extends DefaultNodeSettingsPane {
+
+	/**
+	 * Constructor
+	 */
+	@SuppressWarnings("unchecked")
+	public BitFrequencyNodeDialog() {
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createColumnNameModel(), "Fingerprint column", 0,
+				BitVectorValue.class, ByteVectorValue.class));
+
+		createNewGroup("Informative bits");
+		final SettingsModelBoolean selectMdl = createSelectBitsModel();
+		final SettingsModelString methodMdl = createMethodModel();
+		final SettingsModelIntegerBounded maxBitsMdl = createMaxBitsModel();
+		final SettingsModelDoubleBounded minFreqMdl = createMinFrequencyModel();
+		final SettingsModelDoubleBounded maxFreqMdl = createMaxFrequencyModel();
+		final ChangeListener listener = new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				updateEnabled(selectMdl, methodMdl, maxBitsMdl, minFreqMdl,
+						maxFreqMdl);
+			}
+		};
+		selectMdl.addChangeListener(listener);
+		methodMdl.addChangeListener(listener);
+		updateEnabled(selectMdl, methodMdl, maxBitsMdl, minFreqMdl,
+				maxFreqMdl);
+
+		addDialogComponent(new DialogComponentBoolean(selectMdl,
+				"Output ranked informative bits"));
+		addDialogComponent(new DialogComponentButtonGroup(methodMdl,
+				"Selection method", false, InformativeBitSelection.values()));
+		addDialogComponent(new DialogComponentNumber(maxBitsMdl,
+				"Maximum number of bits", 64));
+		setHorizontalPlacement(true);
+		addDialogComponent(new DialogComponentNumber(minFreqMdl,
+				"Minimum frequency", 0.05));
+		addDialogComponent(new DialogComponentNumber(maxFreqMdl,
+				"Maximum frequency", 0.05));
+		setHorizontalPlacement(false);
+	}
+
+	private static void updateEnabled(SettingsModelBoolean selectMdl,
+			SettingsModelString methodMdl,
+			SettingsModelIntegerBounded maxBitsMdl,
+			SettingsModelDoubleBounded minFreqMdl,
+			SettingsModelDoubleBounded maxFreqMdl) {
+		final boolean select = selectMdl.getBooleanValue();
+		methodMdl.setEnabled(select);
+		maxBitsMdl.setEnabled(select);
+		final boolean window = select && InformativeBitSelection.FREQUENCY_WINDOW
+				.getActionCommand().equals(methodMdl.getStringValue());
+		minFreqMdl.setEnabled(window);
+		maxFreqMdl.setEnabled(window);
+	}
+
+	/**
+	 * @return The settings model for the fingerprint column
+	 */
+	static SettingsModelString createColumnNameModel() {
+		return new SettingsModelString("Fingerprint column", null);
+	}
+
+	/**
+	 * @return The settings model for the option to output the ranked
+	 *         informative bits
+	 */
+	static SettingsModelBoolean createSelectBitsModel() {
+		return new SettingsModelBoolean("Select informative bits", true);
+	}
+
+	/**
+	 * @return The settings model for the informative bit selection method
+	 */
+	static SettingsModelString createMethodModel() {
+		return new SettingsModelString("Selection method",
+				InformativeBitSelection.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the maximum number of informative bits
+	 */
+	static SettingsModelIntegerBounded createMaxBitsModel() {
+		return new SettingsModelIntegerBounded("Maximum number of bits", 256,
+				1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the minimum frequency of the window
+	 */
+	static SettingsModelDoubleBounded createMinFrequencyModel() {
+		return new SettingsModelDoubleBounded("Minimum frequency", 0.05, 0.0,
+				1.0);
+	}
+
+	/**
+	 * @return The settings model for the maximum frequency of the window
+	 */
+	static SettingsModelDoubleBounded createMaxFrequencyModel() {
+		return new SettingsModelDoubleBounded("Maximum frequency", 0.95, 0.0,
+				1.0);
+	}
+}
@@ -0,0 +1,481 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.frequency;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataTableSpecCreator;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.port.PortObjectSpec;
+import org.knime.core.node.streamable.BufferedDataTableRowOutput;
+import org.knime.core.node.streamable.DataTableRowInput;
+import org.knime.core.node.streamable.InputPortRole;
+import org.knime.core.node.streamable.PartitionInfo;
+import org.knime.core.node.streamable.PortInput;
+import org.knime.core.node.streamable.PortOutput;
+import org.knime.core.node.streamable.RowInput;
+import org.knime.core.node.streamable.RowOutput;
+import org.knime.core.node.streamable.StreamableOperator;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createMaxBitsModel;
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createMaxFrequencyModel;
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createMethodModel;
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createMinFrequencyModel;
+import static com.vernalis.knime.fingerprint.nodes.props.frequency.BitFrequencyNodeDialog.createSelectBitsModel;
+
+/**
+ * Node model for the Fingerprint Bit Frequencies node. The fingerprint column
+ * is read in a single pass, and the fingerprints are passed in batches to the
+ * global thread pool, where each batch is accumulated into its own
+ * {@link BitFrequencies}. The batch accumulators are merged in the calling
+ * thread as they complete, so that only a bounded number of batches is held
+ * in memory at any time. The node is streamable, with the output tables
+ * written once the input has been exhausted
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class BitFrequencyNodeModel extends NodeModel {
+
+	/** The number of fingerprints in a batch */
+	private static final int BATCH_SIZE = 1024;
+	/** The maximum number of queued batches per available processor */
+	private static final int BATCHES_PER_THREAD = 2;
+
+	private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
+
+	private final SettingsModelString m_colName = createColumnNameModel();
+	private final SettingsModelBoolean m_selectBits = createSelectBitsModel();
+	private final SettingsModelString m_method = createMethodModel();
+	private final SettingsModelIntegerBounded m_maxBits = createMaxBitsModel();
+	private final SettingsModelDoubleBounded m_minFreq =
+			createMinFrequencyModel();
+	private final SettingsModelDoubleBounded m_maxFreq =
+			createMaxFrequencyModel();
+
+	/**
+	 * Constructor
+	 */
+	public BitFrequencyNodeModel() {
+		super(1, 2);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		final DataTableSpec spec = inSpecs[0];
+		final String colName = m_colName.getStringValue();
+		if (colName == null) {
+			for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+				if (isFingerprintColumn(spec.getColumnSpec(i))) {
+					m_colName.setStringValue(spec.getColumnSpec(i).getName());
+					m_logger.warn("No column selected. "
+							+ m_colName.getStringValue() + " auto-selected.");
+					break;
+				}
+			}
+			if (m_colName.getStringValue() == null) {
+				throw new InvalidSettingsException(
+						"No fingerprint column was found");
+			}
+		} else {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName + "' is not in the input table");
+			}
+			if (!isFingerprintColumn(colSpec)) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName + "' is not a fingerprint column");
+			}
+		}
+		final InformativeBitSelection method;
+		try {
+			method = InformativeBitSelection.valueOf(m_method.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown selection method: " + m_method.getStringValue());
+		}
+		if (m_selectBits.getBooleanValue()
+				&& method == InformativeBitSelection.FREQUENCY_WINDOW
+				&& m_minFreq.getDoubleValue() > m_maxFreq.getDoubleValue()) {
+			throw new InvalidSettingsException(
+					"The minimum frequency must not be greater than the "
+							+ "maximum frequency");
+		}
+		return new DataTableSpec[] { createFrequencySpec(spec),
+				createInformativeBitsSpec() };
+	}
+
+	private static boolean isFingerprintColumn(DataColumnSpec colSpec) {
+		return colSpec.getType().isCompatible(BitVectorValue.class)
+				|| colSpec.getType().isCompatible(ByteVectorValue.class);
+	}
+
+	/**
+	 * @return {@code true} if the selected column contains count
+	 *         (bytevector) fingerprints
+	 */
+	private boolean isCountColumn(DataTableSpec spec) {
+		return spec.getColumnSpec(m_colName.getStringValue()).getType()
+				.isCompatible(ByteVectorValue.class);
+	}
+
+	private DataTableSpec createFrequencySpec(DataTableSpec spec) {
+		final List<DataColumnSpec> colSpecs = new ArrayList<>();
+		colSpecs.add(new DataColumnSpecCreator("Bit Index", IntCell.TYPE)
+				.createSpec());
+		colSpecs.add(new DataColumnSpecCreator("Set Count", LongCell.TYPE)
+				.createSpec());
+		if (isCountColumn(spec)) {
+			colSpecs.add(new DataColumnSpecCreator("Total Count",
+					LongCell.TYPE).createSpec());
+		}
+		colSpecs.add(new DataColumnSpecCreator("Frequency", DoubleCell.TYPE)
+				.createSpec());
+		colSpecs.add(new DataColumnSpecCreator("Entropy", DoubleCell.TYPE)
+				.createSpec());
+		return new DataTableSpecCreator().setName("Bit Frequencies")
+				.addColumns(colSpecs.toArray(new DataColumnSpec[0]))
+				.createSpec();
+	}
+
+	private static DataTableSpec createInformativeBitsSpec() {
+		return new DataTableSpecCreator().setName("Informative Bits")
+				.addColumns(
+						new DataColumnSpecCreator("Rank", IntCell.TYPE)
+								.createSpec(),
+						new DataColumnSpecCreator("Bit Index", IntCell.TYPE)
+								.createSpec(),
+						new DataColumnSpecCreator("Set Count", LongCell.TYPE)
+								.createSpec(),
+						new DataColumnSpecCreator("Frequency", DoubleCell.TYPE)
+								.createSpec(),
+						new DataColumnSpecCreator("Entropy", DoubleCell.TYPE)
+								.createSpec())
+				.createSpec();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable table = inData[0];
+		final DataTableSpec spec = table.getDataTableSpec();
+		final BitFrequencies freqs =
+				accumulate(new DataTableRowInput(table), spec, table.size(),
+						exec.createSubProgress(0.9));
+
+		exec.setMessage("Writing output");
+		final BufferedDataContainer freqCont =
+				exec.createDataContainer(createFrequencySpec(spec));
+		final BufferedDataContainer bitsCont =
+				exec.createDataContainer(createInformativeBitsSpec());
+		writeOutput(freqs, isCountColumn(spec),
+				new BufferedDataTableRowOutput(freqCont),
+				new BufferedDataTableRowOutput(bitsCont),
+				exec.createSubProgress(0.1));
+		return new BufferedDataTable[] { freqCont.getTable(),
+				bitsCont.getTable() };
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public InputPortRole[] getInputPortRoles() {
+		return new InputPortRole[] { InputPortRole.NONDISTRIBUTED_STREAMABLE };
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StreamableOperator createStreamableOperator(
+			PartitionInfo partitionInfo, PortObjectSpec[] inSpecs)
+			throws InvalidSettingsException {
+		return new StreamableOperator() {
+
+			@Override
+			public void runFinal(PortInput[] inputs, PortOutput[] outputs,
+					ExecutionContext exec) throws Exception {
+				final DataTableSpec spec = (DataTableSpec) inSpecs[0];
+				final BitFrequencies freqs = accumulate((RowInput) inputs[0],
+						spec, -1, exec);
+				writeOutput(freqs, isCountColumn(spec),
+						(RowOutput) outputs[0], (RowOutput) outputs[1], exec);
+			}
+		};
+	}
+
+	/**
+	 * Method to accumulate the bit frequencies of the selected column in a
+	 * single pass over the input
+	 *
+	 * @param input
+	 *            The input rows
+	 * @param spec
+	 *            The input table spec
+	 * @param numRows
+	 *            The number of rows, or -1 if unknown
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 * @return The accumulated frequencies
+	 */
+	private BitFrequencies accumulate(RowInput input, DataTableSpec spec,
+			long numRows, ExecutionMonitor exec) throws InterruptedException,
+			ExecutionException, CanceledExecutionException {
+		final int colIdx = spec.findColumnIndex(m_colName.getStringValue());
+		final int maxQueued = Runtime.getRuntime().availableProcessors()
+				* BATCHES_PER_THREAD;
+		final ThreadPool pool =
+				KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+		final Deque<Future<BitFrequencies>> futures = new ArrayDeque<>();
+		final BitFrequencies retVal = new BitFrequencies();
+		long numMissing = 0;
+		long rowIdx = 0;
+		try {
+			List<DataCell> batch = new ArrayList<>(BATCH_SIZE);
+			DataRow row;
+			while ((row = input.poll()) != null) {
+				exec.checkCanceled();
+				rowIdx++;
+				final DataCell cell = row.getCell(colIdx);
+				if (cell.isMissing()) {
+					numMissing++;
+				} else {
+					batch.add(cell);
+				}
+				if (batch.size() == BATCH_SIZE) {
+					futures.add(submitBatch(pool, batch, exec));
+					batch = new ArrayList<>(BATCH_SIZE);
+					while (futures.size() >= maxQueued) {
+						retVal.merge(ThreadPoolUtils.waitInvisibly(pool,
+								futures.poll()::get));
+					}
+					if (numRows > 0) {
+						exec.setProgress((double) rowIdx / numRows,
+								"Read " + rowIdx + " of " + numRows + " rows");
+					} else {
+						exec.setMessage("Read " + rowIdx + " rows");
+					}
+				}
+			}
+			if (!batch.isEmpty()) {
+				futures.add(submitBatch(pool, batch, exec));
+			}
+			while (!futures.isEmpty()) {
+				retVal.merge(ThreadPoolUtils.waitInvisibly(pool,
+						futures.poll()::get));
+			}
+		} catch (ExecutionException e) {
+			for (Future<BitFrequencies> future : futures) {
+				future.cancel(true);
+			}
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			if (e.getCause() instanceof IllegalArgumentException) {
+				throw (IllegalArgumentException) e.getCause();
+			}
+			throw e;
+		} finally {
+			input.close();
+		}
+		if (numMissing > 0) {
+			setWarningMessage(numMissing
+					+ " rows with missing fingerprints were ignored");
+		}
+		m_logger.info("Accumulated bit frequencies for "
+				+ retVal.getNumFingerprints() + " fingerprints of maximum length "
+				+ retVal.getLength());
+		return retVal;
+	}
+
+	private static Future<BitFrequencies> submitBatch(ThreadPool pool,
+			List<DataCell> batch, ExecutionMonitor exec)
+			throws InterruptedException {
+		return pool.enqueue(() -> {
+			final BitFrequencies freqs = new BitFrequencies();
+			for (DataCell cell : batch) {
+				exec.checkCanceled();
+				freqs.add(cell);
+			}
+			return freqs;
+		});
+	}
+
+	/**
+	 * Method to write the frequency table and the ranked informative bits
+	 *
+	 * @param freqs
+	 *            The accumulated frequencies
+	 * @param isCount
+	 *            Whether the fingerprints are count fingerprints, in which
+	 *            case the total count column is included
+	 * @param freqOut
+	 *            The output for the frequency table
+	 * @param bitsOut
+	 *            The output for the informative bits table
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 */
+	private void writeOutput(BitFrequencies freqs, boolean isCount,
+			RowOutput freqOut, RowOutput bitsOut, ExecutionMonitor exec)
+			throws InterruptedException, CanceledExecutionException {
+		final int length = freqs.getLength();
+		for (int i = 0; i < length; i++) {
+			exec.checkCanceled();
+			exec.setProgress((double) i / length);
+			final List<DataCell> cells = new ArrayList<>(5);
+			cells.add(new IntCell(i));
+			cells.add(new LongCell(freqs.getSetCount(i)));
+			if (isCount) {
+				cells.add(new LongCell(freqs.getTotalCount(i)));
+			}
+			cells.add(new DoubleCell(freqs.getFrequency(i)));
+			cells.add(new DoubleCell(freqs.getEntropy(i)));
+			freqOut.push(new DefaultRow(RowKey.createRowKey((long) i), cells));
+		}
+		freqOut.close();
+
+		if (m_selectBits.getBooleanValue()) {
+			final int[] bits = InformativeBitSelection
+					.valueOf(m_method.getStringValue())
+					.selectBits(freqs, m_maxBits.getIntValue(),
+							m_minFreq.getDoubleValue(),
+							m_maxFreq.getDoubleValue());
+			for (int r = 0; r < bits.length; r++) {
+				final int bit = bits[r];
+				bitsOut.push(new DefaultRow(RowKey.createRowKey((long) r),
+						new IntCell(r + 1), new IntCell(bit),
+						new LongCell(freqs.getSetCount(bit)),
+						new DoubleCell(freqs.getFrequency(bit)),
+						new DoubleCell(freqs.getEntropy(bit))));
+			}
+		}
+		bitsOut.close();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_colName.saveSettingsTo(settings);
+		m_selectBits.saveSettingsTo(settings);
+		m_method.saveSettingsTo(settings);
+		m_maxBits.saveSettingsTo(settings);
+		m_minFreq.saveSettingsTo(settings);
+		m_maxFreq.saveSettingsTo(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.validateSettings(settings);
+		m_selectBits.validateSettings(settings);
+		m_method.validateSettings(settings);
+		m_maxBits.validateSettings(settings);
+		m_minFreq.validateSettings(settings);
+		m_maxFreq.validateSettings(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.loadSettingsFrom(settings);
+		m_selectBits.loadSettingsFrom(settings);
+		m_method.loadSettingsFrom(settings);
+		m_maxBits.loadSettingsFrom(settings);
+		m_minFreq.loadSettingsFrom(settings);
+		m_maxFreq.loadSettingsFrom(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void reset() {
+		// Nothing to do
+	}
+
+}
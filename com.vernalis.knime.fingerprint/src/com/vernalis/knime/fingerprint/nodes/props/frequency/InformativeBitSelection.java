@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.frequency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * Enum of the methods for selecting informative bits from the accumulated
+ * bit frequencies. In both cases the selected bits are ranked by decreasing
+ * entropy, with ties broken by increasing bit index
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public enum InformativeBitSelection implements ButtonGroupEnumInterface {
+
+	ENTROPY("Entropy",
+			"Select the bits with the highest entropy, i.e. those set in closest "
+					+ "to half of the fingerprints") {
+
+		@Override
+		protected boolean isCandidate(double frequency, double minFrequency,
+				double maxFrequency) {
+			return frequency > 0.0 && frequency < 1.0;
+		}
+	},
+
+	FREQUENCY_WINDOW("Frequency window",
+			"Select the bits set in a fraction of the fingerprints within the "
+					+ "frequency window") {
+
+		@Override
+		protected boolean isCandidate(double frequency, double minFrequency,
+				double maxFrequency) {
+			return frequency >= minFrequency && frequency <= maxFrequency;
+		}
+	};
+
+	private final String m_name;
+	private final String m_description;
+
+	private InformativeBitSelection(String name, String description) {
+		m_name = name;
+		m_description = description;
+	}
+
+	/**
+	 * @param frequency
+	 *            The bit frequency
+	 * @param minFrequency
+	 *            The minimum frequency of the window
+	 * @param maxFrequency
+	 *            The maximum frequency of the window
+	 * @return Can the bit be selected?
+	 */
+	protected abstract boolean isCandidate(double frequency,
+			double minFrequency, double maxFrequency);
+
+	/**
+	 * Method to select and rank the informative bits
+	 *
+	 * @param freqs
+	 *            The accumulated bit frequencies
+	 * @param maxBits
+	 *            The maximum number of bits to select
+	 * @param minFrequency
+	 *            The minimum frequency of the window
+	 * @param maxFrequency
+	 *            The maximum frequency of the window
+	 * @return The selected bit indices, most informative first
+	 */
+	public int[] selectBits(BitFrequencies freqs, int maxBits,
+			double minFrequency, double maxFrequency) {
+		final List<Integer> candidates = new ArrayList<>();
+		for (int i = 0; i < freqs.getLength(); i++) {
+			if (isCandidate(freqs.getFrequency(i), minFrequency,
+					maxFrequency)) {
+				candidates.add(i);
+			}
+		}
+		// Entropy is monotonic in the set count, so compare on that exactly
+		final long n = freqs.getNumFingerprints();
+		candidates.sort((a, b) -> {
+			final int cmp = Long.compare(
+					Math.abs(2 * freqs.getSetCount(a) - n),
+					Math.abs(2 * freqs.getSetCount(b) - n));
+			return cmp != 0 ? cmp : Integer.compare(a, b);
+		});
+		final int[] retVal = new int[Math.min(maxBits, candidates.size())];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = candidates.get(i);
+		}
+		return retVal;
+	}
+
+	@Override
+	public String getText() {
+		return m_name;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return m_description;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default method
+	 */
+	public static InformativeBitSelection getDefault() {
+		return ENTROPY;
+	}
+}
@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.profile;
+
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+
+import com.vernalis.knime.fingerprint.nodes.abstrct.dialog.AbstractSingleFingerprintNodeDialog;
+
+/**
+ * Node dialog for the Fingerprint Properties node
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintPropertiesNodeDialog
+		extends AbstractSingleFingerprintNodeDialog {
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintPropertiesNodeDialog() {
+		super();
+		createNewGroup("Properties");
+		for (FingerprintProperty prop : FingerprintProperty.values()) {
+			addDialogComponent(new DialogComponentBoolean(
+					createPropertyModel(prop), prop.getName()));
+		}
+		closeCurrentGroup();
+	}
+
+	/**
+	 * @param prop
+	 *            The property
+	 * @return The settings model for the option to calculate the property
+	 */
+	static SettingsModelBoolean createPropertyModel(FingerprintProperty prop) {
+		return new SettingsModelBoolean(prop.getSettingsKey(),
+				prop.isDefault());
+	}
+}
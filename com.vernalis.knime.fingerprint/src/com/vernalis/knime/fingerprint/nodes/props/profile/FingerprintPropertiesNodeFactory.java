@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.profile;
+
+import org.knime.core.node.NodeDialogPane;
+
+import com.vernalis.knime.fingerprint.nodes.abstrct.factory.AbstractSingleFingerprintNodeFactory;
+
+/**
+ * Node factory for the Fingerprint Properties node. The node description is
+ * supplied in the XML file
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintPropertiesNodeFactory
+		extends AbstractSingleFingerprintNodeFactory<FingerprintPropertiesNodeModel> {
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintPropertiesNodeFactory() {
+		super();
+	}
+
+	@Override
+	protected FingerprintPropertiesNodeModel createNodeModel(
+			boolean allowSparseBitVector2, boolean allowDenseBitVector2,
+			boolean allowSparseByteVector2, boolean allowDenseByteVector2) {
+		return new FingerprintPropertiesNodeModel();
+	}
+
+	@Override
+	protected NodeDialogPane createNodeDialogPane() {
+		return new FingerprintPropertiesNodeDialog();
+	}
+
+}
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.profile;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.BooleanCell.BooleanCellFactory;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.data.vector.bitvector.DenseBitVectorCell;
+import org.knime.core.data.vector.bytevector.ByteVectorValue;
+import org.knime.core.data.vector.bytevector.DenseByteVectorCell;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+
+import com.vernalis.knime.fingerprint.nodes.abstrct.model.AbstractSingleFingerprintNodeModel;
+
+import static com.vernalis.knime.fingerprint.nodes.props.profile.FingerprintPropertiesNodeDialog.createPropertyModel;
+
+/**
+ * Node model for the Fingerprint Properties node. Any selection of the
+ * properties in {@link FingerprintProperty} is calculated for each
+ * fingerprint in a single (streamable, parallel) column rearranger pass, with
+ * at most one scan over the set bits or non-zero counts of each fingerprint
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintPropertiesNodeModel
+		extends AbstractSingleFingerprintNodeModel {
+
+	private static final long HASH_SEED = 0x9E3779B97F4A7C15L;
+
+	private final Map<FingerprintProperty, SettingsModelBoolean> m_propertyMdls =
+			new EnumMap<>(FingerprintProperty.class);
+
+	/** The selected properties, in output column order */
+	private FingerprintProperty[] m_selected;
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintPropertiesNodeModel() {
+		super(null);
+		for (FingerprintProperty prop : FingerprintProperty.values()) {
+			m_propertyMdls.put(prop, createPropertyModel(prop));
+		}
+	}
+
+	@Override
+	protected ColumnRearranger createColumnRearranger(DataTableSpec inSpec)
+			throws InvalidSettingsException {
+		final List<FingerprintProperty> selected = new ArrayList<>();
+		for (Entry<FingerprintProperty, SettingsModelBoolean> ent : m_propertyMdls
+				.entrySet()) {
+			if (ent.getValue().getBooleanValue()) {
+				selected.add(ent.getKey());
+			}
+		}
+		if (selected.isEmpty()) {
+			throw new InvalidSettingsException(
+					"At least one property must be selected");
+		}
+		m_selected = selected.toArray(new FingerprintProperty[selected.size()]);
+		return super.createColumnRearranger(inSpec);
+	}
+
+	@Override
+	protected String[] getResultColumnNames() {
+		final String[] retVal = new String[m_selected.length];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = m_selected[i]
+					.getColumnName(m_firstColName.getStringValue());
+		}
+		return retVal;
+	}
+
+	@Override
+	protected DataType[] getResultColumnTypes() {
+		final boolean isBitVector = m_fpType.isCompatible(BitVectorValue.class);
+		final DataType[] retVal = new DataType[m_selected.length];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = m_selected[i].getDataType(isBitVector);
+		}
+		return retVal;
+	}
+
+	@Override
+	protected void getBitVectorResultCells(DataCell fp1, DataCell[] result)
+			throws UnsupportedOperationException {
+		final BitVectorValue bv = (BitVectorValue) fp1;
+		final long length = bv.length();
+		final long first = bv.nextSetBit(0);
+		long cardinality;
+		long last = -1;
+		long hash = HASH_SEED ^ length;
+		if (requiresScan(true)) {
+			cardinality = 0;
+			for (long bit = first; bit >= 0; bit = bv.nextSetBit(bit + 1)) {
+				last = bit;
+				cardinality++;
+				hash = combineHash(hash, bit);
+			}
+		} else {
+			cardinality = bv.cardinality();
+		}
+
+		for (int i = 0; i < m_selected.length; i++) {
+			switch (m_selected[i]) {
+				case TYPE:
+					result[i] = new StringCell(
+							((fp1 instanceof DenseBitVectorCell) ? "Dense "
+									: "Sparse ") + fp1.getType().toString());
+					break;
+				case LENGTH:
+					result[i] = new LongCell(length);
+					break;
+				case CARDINALITY:
+				case TOTAL_COUNT:
+					// For a bitvector, the total count is the same as
+					// cardinality
+					result[i] = new LongCell(cardinality);
+					break;
+				case DENSITY:
+					result[i] = new DoubleCell(1.0 * cardinality / length);
+					break;
+				case IS_EMPTY:
+					result[i] = BooleanCellFactory.create(first < 0);
+					break;
+				case FIRST_SET_INDEX:
+					if (first >= 0) {
+						result[i] = new LongCell(first);
+					}
+					break;
+				case LAST_SET_INDEX:
+					if (last >= 0) {
+						result[i] = new LongCell(last);
+					}
+					break;
+				case HASH:
+					result[i] = new LongCell(finishHash(hash));
+					break;
+			}
+		}
+	}
+
+	@Override
+	protected void getByteVectorResultCells(DataCell fp1, DataCell[] result)
+			throws UnsupportedOperationException {
+		final ByteVectorValue bv = (ByteVectorValue) fp1;
+		final long length = bv.length();
+		int cardinality = 0;
+		long totalCount = 0;
+		long first = -1;
+		long last = -1;
+		long hash = HASH_SEED ^ length;
+		if (requiresScan(false)) {
+			for (long idx = bv.nextCountIndex(0); idx >= 0; idx =
+					bv.nextCountIndex(idx + 1)) {
+				final int count = bv.get(idx);
+				if (first < 0) {
+					first = idx;
+				}
+				last = idx;
+				cardinality++;
+				totalCount += count;
+				hash = combineHash(combineHash(hash, idx), count);
+			}
+		}
+
+		for (int i = 0; i < m_selected.length; i++) {
+			switch (m_selected[i]) {
+				case TYPE:
+					result[i] = new StringCell(
+							((fp1 instanceof DenseByteVectorCell) ? "Dense "
+									: "Sparse ") + fp1.getType().toString());
+					break;
+				case LENGTH:
+					result[i] = new LongCell(length);
+					break;
+				case CARDINALITY:
+					result[i] = new IntCell(cardinality);
+					break;
+				case TOTAL_COUNT:
+					result[i] = new LongCell(totalCount);
+					break;
+				case DENSITY:
+					result[i] = new DoubleCell(
+							1.0 * totalCount / (Character.MAX_VALUE * length));
+					break;
+				case IS_EMPTY:
+					result[i] = BooleanCellFactory.create(cardinality == 0);
+					break;
+				case FIRST_SET_INDEX:
+					if (first >= 0) {
+						result[i] = new LongCell(first);
+					}
+					break;
+				case LAST_SET_INDEX:
+					if (last >= 0) {
+						result[i] = new LongCell(last);
+					}
+					break;
+				case HASH:
+					result[i] = new LongCell(finishHash(hash));
+					break;
+			}
+		}
+	}
+
+	/**
+	 * @param isBitVector
+	 *            Is the input a binary (bitvector) fingerprint?
+	 * @return Do any of the selected properties require a scan over the set
+	 *         bits or non-zero counts?
+	 */
+	private boolean requiresScan(boolean isBitVector) {
+		for (FingerprintProperty prop : m_selected) {
+			if (prop.requiresScan(isBitVector)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Combine a value into a running hash. The result depends on the order of
+	 * the values, and so for a given fingerprint is independent of whether it
+	 * is dense or sparse
+	 */
+	private static long combineHash(long hash, long value) {
+		hash ^= value;
+		hash *= HASH_SEED;
+		return hash ^ (hash >>> 32);
+	}
+
+	/**
+	 * Final avalanche step for the running hash (the MurmurHash3 64-bit
+	 * finaliser)
+	 */
+	private static long finishHash(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB9FE1A85EC53L;
+		return hash ^ (hash >>> 33);
+	}
+
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		super.saveSettingsTo(settings);
+		for (SettingsModelBoolean mdl : m_propertyMdls.values()) {
+			mdl.saveSettingsTo(settings);
+		}
+	}
+
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		super.validateSettings(settings);
+		for (SettingsModelBoolean mdl : m_propertyMdls.values()) {
+			mdl.validateSettings(settings);
+		}
+	}
+
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		super.loadValidatedSettingsFrom(settings);
+		for (SettingsModelBoolean mdl : m_propertyMdls.values()) {
+			mdl.loadSettingsFrom(settings);
+		}
+	}
+}
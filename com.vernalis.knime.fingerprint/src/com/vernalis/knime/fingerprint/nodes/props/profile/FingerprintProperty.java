@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.props.profile;
+
+import org.knime.core.data.DataType;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.LongCell;
+import org.knime.core.data.def.StringCell;
+
+/**
+ * Enum of the properties which can be calculated by the Fingerprint
+ * Properties node. The column names and types match those of the
+ * corresponding single-property nodes
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public enum FingerprintProperty {
+
+	TYPE("Type", StringCell.TYPE, StringCell.TYPE, true, false),
+
+	LENGTH("Length", LongCell.TYPE, LongCell.TYPE, true, false),
+
+	CARDINALITY("Cardinality", LongCell.TYPE, IntCell.TYPE, true, true),
+
+	DENSITY("Density", DoubleCell.TYPE, DoubleCell.TYPE, false, true),
+
+	IS_EMPTY("Is Empty?", BooleanCell.TYPE, BooleanCell.TYPE, false, true),
+
+	TOTAL_COUNT("Total Count", LongCell.TYPE, LongCell.TYPE, false, true),
+
+	FIRST_SET_INDEX("First Set Index", LongCell.TYPE, LongCell.TYPE, false,
+			true),
+
+	LAST_SET_INDEX("Last Set Index", LongCell.TYPE, LongCell.TYPE, false,
+			true),
+
+	HASH("Hash", LongCell.TYPE, LongCell.TYPE, false, true);
+
+	private final String m_name;
+	private final DataType m_bitVectorType;
+	private final DataType m_byteVectorType;
+	private final boolean m_isDefault;
+	private final boolean m_requiresByteVectorScan;
+
+	private FingerprintProperty(String name, DataType bitVectorType,
+			DataType byteVectorType, boolean isDefault,
+			boolean requiresByteVectorScan) {
+		m_name = name;
+		m_bitVectorType = bitVectorType;
+		m_byteVectorType = byteVectorType;
+		m_isDefault = isDefault;
+		m_requiresByteVectorScan = requiresByteVectorScan;
+	}
+
+	/**
+	 * @return The display name of the property
+	 */
+	public String getName() {
+		return m_name;
+	}
+
+	/**
+	 * @param fpColName
+	 *            The name of the fingerprint column
+	 * @return The (not necessarily unique) name of the output column
+	 */
+	public String getColumnName(String fpColName) {
+		return m_name + " (" + fpColName + ")";
+	}
+
+	/**
+	 * @param isBitVector
+	 *            Is the input a binary (bitvector) fingerprint?
+	 * @return The output column type
+	 */
+	public DataType getDataType(boolean isBitVector) {
+		return isBitVector ? m_bitVectorType : m_byteVectorType;
+	}
+
+	/**
+	 * @return Is the property calculated by default?
+	 */
+	public boolean isDefault() {
+		return m_isDefault;
+	}
+
+	/**
+	 * @param isBitVector
+	 *            Is the input a binary (bitvector) fingerprint?
+	 * @return Does the property require a scan over the set bits or non-zero
+	 *         counts, rather than being available directly from the cell?
+	 *         For bitvectors, only the last set index and hash require a scan,
+	 *         as the other properties are available from the cell cheaply
+	 */
+	public boolean requiresScan(boolean isBitVector) {
+		if (isBitVector) {
+			return this == LAST_SET_INDEX || this == HASH;
+		}
+		return m_requiresByteVectorScan;
+	}
+
+	/**
+	 * @return The settings model key for the property
+	 */
+	String getSettingsKey() {
+		return "Calculate " + m_name;
+	}
+}
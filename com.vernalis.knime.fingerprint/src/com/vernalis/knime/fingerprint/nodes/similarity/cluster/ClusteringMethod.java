@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.cluster;
+
+import java.util.Arrays;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * Enum of the available clustering methods. Both methods consider candidate
+ * centroids in turn, and each candidate which has not already been assigned
+ * to a cluster becomes the centroid of a new cluster, to which all its
+ * unassigned neighbours are also assigned. The methods differ only in the
+ * order in which candidate centroids are considered
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public enum ClusteringMethod implements ButtonGroupEnumInterface {
+
+	BUTINA("Butina",
+			"Candidates are considered in order of decreasing number of "
+					+ "neighbours") {
+
+		@Override
+		public int[] getCandidateOrder(int[] neighbourCounts,
+				int[] originalIndices) {
+			// Sort by decreasing count, and then increasing original index
+			final int[] byOriginal = getIndicesByOriginalIndex(originalIndices);
+			final long[] keys = new long[neighbourCounts.length];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = ((long) (Integer.MAX_VALUE - neighbourCounts[i]) << 32)
+						| originalIndices[i];
+			}
+			Arrays.sort(keys);
+			final int[] order = new int[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				order[i] = byOriginal[(int) (keys[i] & 0xFFFFFFFFL)];
+			}
+			return order;
+		}
+	},
+
+	SPHERE_EXCLUSION("Sphere exclusion (Leader)",
+			"Candidates are considered in input table order") {
+
+		@Override
+		public int[] getCandidateOrder(int[] neighbourCounts,
+				int[] originalIndices) {
+			return getIndicesByOriginalIndex(originalIndices);
+		}
+	};
+
+	private final String m_name;
+	private final String m_description;
+
+	private ClusteringMethod(String name, String description) {
+		m_name = name;
+		m_description = description;
+	}
+
+	/**
+	 * Method to get the order in which candidate centroids are considered
+	 *
+	 * @param neighbourCounts
+	 *            The number of neighbours of each fingerprint
+	 * @param originalIndices
+	 *            The index of each fingerprint in the input table order
+	 * @return The fingerprint indices in the order they should be considered
+	 */
+	public abstract int[] getCandidateOrder(int[] neighbourCounts,
+			int[] originalIndices);
+
+	/**
+	 * @param originalIndices
+	 *            The index of each fingerprint in the input table order
+	 * @return The fingerprint indices in input table order
+	 */
+	private static int[] getIndicesByOriginalIndex(int[] originalIndices) {
+		final int[] byOriginal = new int[originalIndices.length];
+		for (int i = 0; i < byOriginal.length; i++) {
+			byOriginal[originalIndices[i]] = i;
+		}
+		return byOriginal;
+	}
+
+	@Override
+	public String getText() {
+		return m_name;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return m_description;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default method
+	 */
+	public static ClusteringMethod getDefault() {
+		return BUTINA;
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.cluster;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+/**
+ * Node dialog for the Fingerprint Clustering node
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintClusteringNodeDialog extends DefaultNodeSettingsPane {
+
+	/**
+	 * Constructor
+	 */
+	@SuppressWarnings("unchecked")
+	public FingerprintClusteringNodeDialog() {
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createColumnNameModel(), "Fingerprint column", 0,
+				BitVectorValue.class));
+		addDialogComponent(new DialogComponentNumber(createThresholdModel(),
+				"Minimum Tanimoto similarity for neighbours", 0.05));
+		addDialogComponent(new DialogComponentButtonGroup(createMethodModel(),
+				"Clustering method", false, ClusteringMethod.values()));
+		addDialogComponent(new DialogComponentBoolean(createSpillToDiskModel(),
+				"Store neighbour lists on disk"));
+	}
+
+	/**
+	 * @return The settings model for the fingerprint column
+	 */
+	static SettingsModelString createColumnNameModel() {
+		return new SettingsModelString("Fingerprint column", null);
+	}
+
+	/**
+	 * @return The settings model for the neighbour similarity threshold
+	 */
+	static SettingsModelDoubleBounded createThresholdModel() {
+		return new SettingsModelDoubleBounded("Minimum similarity", 0.7, 0.0,
+				1.0);
+	}
+
+	/**
+	 * @return The settings model for the clustering method
+	 */
+	static SettingsModelString createMethodModel() {
+		return new SettingsModelString("Clustering method",
+				ClusteringMethod.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the option to store the neighbour lists
+	 *         in a temporary file
+	 */
+	static SettingsModelBoolean createSpillToDiskModel() {
+		return new SettingsModelBoolean("Spill neighbour lists to disk", false);
+	}
+}
@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.cluster;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.BooleanCell;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+
+import static com.vernalis.knime.fingerprint.nodes.similarity.cluster.FingerprintClusteringNodeDialog.createColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.cluster.FingerprintClusteringNodeDialog.createMethodModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.cluster.FingerprintClusteringNodeDialog.createSpillToDiskModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.cluster.FingerprintClusteringNodeDialog.createThresholdModel;
+
+/**
+ * Node model for the Fingerprint Clustering node. The fingerprints are packed
+ * into a contiguous word array and sorted by cardinality, and the neighbour list
+ * of each fingerprint (all other fingerprints with at least the threshold
+ * Tanimoto similarity) is found in parallel, only scoring fingerprints in the
+ * admissible cardinality range. The neighbour lists are stored as compact
+ * {@code int[]} arrays (see {@link NeighbourLists}), and clusters are then
+ * assigned using the selected {@link ClusteringMethod}
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintClusteringNodeModel extends NodeModel {
+
+	/** The minimum number of fingerprints in a block */
+	private static final int MIN_BLOCK_SIZE = 256;
+	/** The number of blocks per available processor */
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	private static final SimilarityMetric METRIC = SimilarityMetric.TANIMOTO;
+
+	private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
+
+	private final SettingsModelString m_colName = createColumnNameModel();
+	private final SettingsModelDoubleBounded m_threshold =
+			createThresholdModel();
+	private final SettingsModelString m_method = createMethodModel();
+	private final SettingsModelBoolean m_spillToDisk = createSpillToDiskModel();
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintClusteringNodeModel() {
+		super(1, 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		final DataTableSpec spec = inSpecs[0];
+		final String colName = m_colName.getStringValue();
+		if (colName == null) {
+			for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+				if (spec.getColumnSpec(i).getType()
+						.isCompatible(BitVectorValue.class)) {
+					m_colName.setStringValue(spec.getColumnSpec(i).getName());
+					m_logger.warn("No column selected. "
+							+ m_colName.getStringValue() + " auto-selected.");
+					break;
+				}
+			}
+			if (m_colName.getStringValue() == null) {
+				throw new InvalidSettingsException(
+						"No binary (bitvector) fingerprint column was found");
+			}
+		} else {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName + "' is not in the input table");
+			}
+			if (!colSpec.getType().isCompatible(BitVectorValue.class)) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName
+						+ "' is not a binary (bitvector) fingerprint column");
+			}
+		}
+		try {
+			ClusteringMethod.valueOf(m_method.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown clustering method: " + m_method.getStringValue());
+		}
+		return new DataTableSpec[] {
+				createColumnRearranger(spec, null, null, null)
+						.createSpec() };
+	}
+
+	/**
+	 * Method to create the output column rearranger. The cluster arrays are
+	 * indexed by the index of the fingerprint amongst the non-missing
+	 * fingerprints in table order, and are only required during execution
+	 */
+	private ColumnRearranger createColumnRearranger(DataTableSpec spec,
+			int[] clusterIds, boolean[] isCentroid, double[] distances) {
+		final ColumnRearranger rearranger = new ColumnRearranger(spec);
+		final DataColumnSpec[] newColSpecs = new DataColumnSpec[] {
+				new DataColumnSpecCreator(
+						DataTableSpec.getUniqueColumnName(spec, "Cluster ID"),
+						IntCell.TYPE).createSpec(),
+				new DataColumnSpecCreator(
+						DataTableSpec.getUniqueColumnName(spec,
+								"Cluster Centroid"),
+						BooleanCell.TYPE).createSpec(),
+				new DataColumnSpecCreator(
+						DataTableSpec.getUniqueColumnName(spec,
+								"Distance to Centroid"),
+						DoubleCell.TYPE).createSpec() };
+		final int colIdx = spec.findColumnIndex(m_colName.getStringValue());
+		rearranger.append(new AbstractCellFactory(newColSpecs) {
+
+			private int fpIdx = 0;
+
+			@Override
+			public DataCell[] getCells(DataRow row) {
+				if (row.getCell(colIdx).isMissing()) {
+					return new DataCell[] { DataType.getMissingCell(),
+							DataType.getMissingCell(),
+							DataType.getMissingCell() };
+				}
+				final int i = fpIdx++;
+				return new DataCell[] { new IntCell(clusterIds[i]),
+						BooleanCell.get(isCentroid[i]),
+						new DoubleCell(distances[i]) };
+			}
+		});
+		return rearranger;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable table = inData[0];
+		final DataTableSpec spec = table.getDataTableSpec();
+		final int colIdx = spec.findColumnIndex(m_colName.getStringValue());
+		final double threshold = m_threshold.getDoubleValue();
+		final ClusteringMethod method =
+				ClusteringMethod.valueOf(m_method.getStringValue());
+
+		exec.setMessage("Loading fingerprints");
+		final long fpLength = PackedBitVectors.getMaxLength(table, colIdx,
+				exec.createSubProgress(0.025));
+		final PackedBitVectors fps = PackedBitVectors
+				.load(table, colIdx, fpLength, exec.createSubProgress(0.05))
+				.sortByCardinality();
+		if (fps.getNumMissing() > 0) {
+			setWarningMessage(fps.getNumMissing()
+					+ " rows with missing fingerprints were not clustered");
+		}
+		final int n = fps.size();
+		final int[] clusterIds = new int[n];
+		final boolean[] isCentroid = new boolean[n];
+		final double[] distances = new double[n];
+		final boolean spillToDisk = m_spillToDisk.getBooleanValue();
+		try (NeighbourLists neighbours = new NeighbourLists(n, spillToDisk)) {
+			exec.setMessage("Finding neighbours");
+			findNeighbours(fps, threshold, spillToDisk, neighbours,
+					exec.createSubProgress(0.7));
+			m_logger.info("Found " + neighbours.getTotalNeighbours()
+					+ " neighbours for " + n + " fingerprints");
+
+			exec.setMessage("Assigning clusters");
+			final int numClusters = assignClusters(fps, neighbours, method,
+					clusterIds, isCentroid, distances,
+					exec.createSubProgress(0.1));
+			m_logger.info(numClusters + " clusters found");
+		}
+
+		exec.setMessage("Writing output");
+		return new BufferedDataTable[] { exec.createColumnRearrangeTable(table,
+				createColumnRearranger(spec, clusterIds, isCentroid,
+						distances),
+				exec.createSubProgress(0.125)) };
+	}
+
+	/**
+	 * Method to assign the fingerprints to clusters from their neighbour
+	 * lists. The output arrays are indexed by the original index of each
+	 * fingerprint, i.e. amongst the non-missing fingerprints in table order
+	 *
+	 * @param fps
+	 *            The fingerprints, sorted by cardinality
+	 * @param neighbours
+	 *            The neighbour lists, finished writing
+	 * @param method
+	 *            The clustering method
+	 * @param clusterIds
+	 *            Array to fill with the cluster ID of each fingerprint,
+	 *            starting from 1
+	 * @param isCentroid
+	 *            Array to fill with whether each fingerprint is a cluster
+	 *            centroid
+	 * @param distances
+	 *            Array to fill with the Tanimoto distance of each
+	 *            fingerprint to its cluster centroid
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return The number of clusters
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws IOException
+	 *             If a neighbour list could not be read from disk
+	 */
+	static int assignClusters(PackedBitVectors fps,
+			NeighbourLists neighbours, ClusteringMethod method,
+			int[] clusterIds, boolean[] isCentroid, double[] distances,
+			ExecutionMonitor exec)
+			throws CanceledExecutionException, IOException {
+		final int n = fps.size();
+		final int[] originalIndices = new int[n];
+		for (int i = 0; i < n; i++) {
+			originalIndices[i] = fps.getOriginalIndex(i);
+		}
+		final int[] order = method.getCandidateOrder(neighbours.getCounts(),
+				originalIndices);
+		// Cluster IDs by packed index, 0 is unassigned
+		final int[] packedClusterIds = new int[n];
+		int numClusters = 0;
+		final long[] words = fps.getWords();
+		final int numWords = fps.getWordsPerFingerprint();
+		for (int o = 0; o < n; o++) {
+			exec.checkCanceled();
+			exec.setProgress((double) o / n);
+			final int centroid = order[o];
+			if (packedClusterIds[centroid] != 0) {
+				continue;
+			}
+			final int clusterId = ++numClusters;
+			packedClusterIds[centroid] = clusterId;
+			final int origCentroid = originalIndices[centroid];
+			clusterIds[origCentroid] = clusterId;
+			isCentroid[origCentroid] = true;
+			distances[origCentroid] = 0.0;
+			final int centroidOffset = fps.getOffset(centroid);
+			final int centroidCard = fps.getCardinality(centroid);
+			for (int member : neighbours.get(centroid)) {
+				if (packedClusterIds[member] != 0) {
+					continue;
+				}
+				packedClusterIds[member] = clusterId;
+				final int origMember = originalIndices[member];
+				clusterIds[origMember] = clusterId;
+				distances[origMember] = 1.0 - METRIC.getSimilarity(
+						centroidCard, fps.getCardinality(member),
+						PackedBitVectors.countCommonBits(words,
+								centroidOffset, words, fps.getOffset(member),
+								numWords),
+						1.0, 1.0);
+			}
+		}
+		return numClusters;
+	}
+
+	/**
+	 * Method to find the neighbour lists of all fingerprints, in parallel
+	 * over blocks of fingerprints. When spilling to disk, small blocks are
+	 * used and only a limited number are in flight at any time, so that the
+	 * neighbour lists not yet written are never all held in memory
+	 *
+	 * @param fps
+	 *            The fingerprints, sorted by cardinality
+	 * @param threshold
+	 *            The minimum Tanimoto similarity of a neighbour
+	 * @param spill
+	 *            Are the neighbour lists spilled to disk?
+	 * @param neighbours
+	 *            The empty neighbour lists to fill. Neighbour indices are
+	 *            packed indices
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for a block
+	 * @throws ExecutionException
+	 *             If the search of a block threw an exception
+	 * @throws IOException
+	 *             If a neighbour list could not be written to disk
+	 */
+	static void findNeighbours(PackedBitVectors fps, double threshold,
+			boolean spill, NeighbourLists neighbours, ExecutionMonitor exec)
+			throws CanceledExecutionException, InterruptedException,
+			ExecutionException, IOException {
+		final int n = fps.size();
+		final int numThreads = Runtime.getRuntime().availableProcessors();
+		final int blockSize = spill ? MIN_BLOCK_SIZE
+				: Math.max(MIN_BLOCK_SIZE,
+						(n + numThreads * BLOCKS_PER_THREAD - 1)
+								/ (numThreads * BLOCKS_PER_THREAD));
+		final int numBlocks = (n + blockSize - 1) / blockSize;
+		final int maxInFlight = spill ? 2 * numThreads : numBlocks;
+		final ThreadPool pool = KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+		final Deque<Future<int[][]>> futures = new ArrayDeque<>();
+		try {
+			ThreadPoolUtils.waitInvisibly(pool, () -> {
+				// Blocks are enqueued and drained in order, as the lists must
+				// be added in order
+				int nextBlock = 0;
+				for (int b = 0; b < numBlocks; b++) {
+					while (nextBlock < numBlocks
+							&& futures.size() < maxInFlight) {
+						final int blockStart = nextBlock * blockSize;
+						final int blockEnd =
+								Math.min(n, blockStart + blockSize);
+						futures.add(pool.enqueue(() -> findBlockNeighbours(
+								fps, blockStart, blockEnd, threshold, exec)));
+						nextBlock++;
+					}
+					for (int[] blockNeighbours : futures.poll().get()) {
+						neighbours.add(blockNeighbours);
+					}
+					exec.setProgress((b + 1.0) / numBlocks);
+				}
+				return null;
+			});
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw e;
+		} finally {
+			for (Future<int[][]> future : futures) {
+				future.cancel(true);
+			}
+		}
+		neighbours.finishWriting();
+	}
+
+	/**
+	 * Method to find the neighbour lists of a block of fingerprints
+	 *
+	 * @return The neighbour lists, in packed index order
+	 */
+	private static int[][] findBlockNeighbours(PackedBitVectors fps,
+			int blockStart, int blockEnd, double threshold,
+			ExecutionMonitor exec) throws CanceledExecutionException {
+		final int n = fps.size();
+		final long[] words = fps.getWords();
+		final int numWords = fps.getWordsPerFingerprint();
+		final int[][] result = new int[blockEnd - blockStart][];
+		int[] buffer = new int[64];
+		for (int i = blockStart; i < blockEnd; i++) {
+			exec.checkCanceled();
+			final int iOffset = fps.getOffset(i);
+			final int iCard = fps.getCardinality(i);
+			final int jFrom = fps.findFirstWithCardinalityAtLeast(
+					METRIC.getMinReferenceCardinality(iCard, threshold, 1.0,
+							1.0),
+					0, n);
+			final int maxCard = METRIC.getMaxReferenceCardinality(iCard,
+					threshold, 1.0, 1.0);
+			final int jTo = maxCard == Integer.MAX_VALUE ? n
+					: fps.findFirstWithCardinalityAtLeast(maxCard + 1L, jFrom,
+							n);
+			int count = 0;
+			for (int j = jFrom; j < jTo; j++) {
+				if (j == i) {
+					continue;
+				}
+				final double sim = METRIC.getSimilarity(iCard,
+						fps.getCardinality(j),
+						PackedBitVectors.countCommonBits(words, iOffset, words,
+								fps.getOffset(j), numWords),
+						1.0, 1.0);
+				if (sim >= threshold) {
+					if (count == buffer.length) {
+						buffer = Arrays.copyOf(buffer, 2 * count);
+					}
+					buffer[count++] = j;
+				}
+			}
+			result[i - blockStart] = Arrays.copyOf(buffer, count);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_colName.saveSettingsTo(settings);
+		m_threshold.saveSettingsTo(settings);
+		m_method.saveSettingsTo(settings);
+		m_spillToDisk.saveSettingsTo(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.validateSettings(settings);
+		m_threshold.validateSettings(settings);
+		m_method.validateSettings(settings);
+		m_spillToDisk.validateSettings(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.loadSettingsFrom(settings);
+		m_threshold.loadSettingsFrom(settings);
+		m_method.loadSettingsFrom(settings);
+		m_spillToDisk.loadSettingsFrom(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void reset() {
+		// Nothing to do
+	}
+
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.cluster;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.knime.core.util.FileUtil;
+
+/**
+ * Storage for the neighbour lists of a set of fingerprints, held as compact
+ * {@code int[]} arrays of neighbour indices. The lists can either be held in
+ * memory, or spilled to a temporary file, in which case only the neighbour
+ * counts and file offsets are held in memory, and each list is read back from
+ * the file when required. Lists must be added in index order. Memory use is
+ * proportional to the total number of neighbours (or the number of
+ * fingerprints if spilled to disk), rather than the square of the number of
+ * fingerprints
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class NeighbourLists implements AutoCloseable {
+
+	private final int[] counts;
+	private final int[][] lists;
+	private final long[] offsets;
+	private final File file;
+	private DataOutputStream out;
+	private FileChannel in;
+	private int nextIndex = 0;
+	private long filePosition = 0;
+	private long totalNeighbours = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param size
+	 *            The number of fingerprints
+	 * @param spillToDisk
+	 *            Should the neighbour lists be stored in a temporary file
+	 *            rather than in memory?
+	 * @throws IOException
+	 *             If the temporary file could not be created
+	 */
+	public NeighbourLists(int size, boolean spillToDisk) throws IOException {
+		counts = new int[size];
+		if (spillToDisk) {
+			lists = null;
+			offsets = new long[size];
+			file = FileUtil.createTempFile("neighbours", ".bin");
+			out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(file)));
+		} else {
+			lists = new int[size][];
+			offsets = null;
+			file = null;
+		}
+	}
+
+	/**
+	 * Method to add the next neighbour list
+	 *
+	 * @param neighbours
+	 *            The neighbour indices of the fingerprint at the next index
+	 * @throws IOException
+	 *             If the list could not be written to disk
+	 */
+	public void add(int[] neighbours) throws IOException {
+		final int index = nextIndex++;
+		counts[index] = neighbours.length;
+		totalNeighbours += neighbours.length;
+		if (lists != null) {
+			lists[index] = neighbours;
+		} else {
+			offsets[index] = filePosition;
+			for (int n : neighbours) {
+				out.writeInt(n);
+			}
+			filePosition += 4L * neighbours.length;
+		}
+	}
+
+	/**
+	 * Method to close the lists for writing. This must be called after all
+	 * lists are added and before any lists are retrieved
+	 *
+	 * @throws IOException
+	 *             If the temporary file could not be closed or re-opened
+	 */
+	public void finishWriting() throws IOException {
+		if (out != null) {
+			out.close();
+			out = null;
+			in = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The number of neighbours of the fingerprint
+	 */
+	public int getCount(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * @return The number of neighbours of each fingerprint. This is the
+	 *         backing array, and should not be modified
+	 */
+	public int[] getCounts() {
+		return counts;
+	}
+
+	/**
+	 * @param index
+	 *            The fingerprint index
+	 * @return The neighbour indices of the fingerprint
+	 * @throws IOException
+	 *             If the list could not be read from disk
+	 */
+	public int[] get(int index) throws IOException {
+		if (lists != null) {
+			return lists[index];
+		}
+		final ByteBuffer buf = ByteBuffer.allocate(4 * counts[index]);
+		long pos = offsets[index];
+		while (buf.hasRemaining()) {
+			final int read = in.read(buf, pos);
+			if (read < 0) {
+				throw new IOException(
+						"Unexpected end of neighbour list file");
+			}
+			pos += read;
+		}
+		buf.flip();
+		final int[] neighbours = new int[counts[index]];
+		buf.asIntBuffer().get(neighbours);
+		return neighbours;
+	}
+
+	/**
+	 * @return The number of fingerprints
+	 */
+	public int size() {
+		return counts.length;
+	}
+
+	/**
+	 * @return The total number of neighbours in all lists
+	 */
+	public long getTotalNeighbours() {
+		return totalNeighbours;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Closes and deletes any temporary file
+	 * </p>
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (out != null) {
+				out.close();
+				out = null;
+			}
+			if (in != null) {
+				in.close();
+				in = null;
+			}
+		} finally {
+			if (file != null) {
+				file.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,325 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.search;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createAlphaModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createBetaModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createLimitHitsModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createMaxHitsModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createMetricModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createQueryColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createReferenceColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createThresholdModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearchNodeDialog.createUseCardinalityPruningModel;
+
+/**
+ * Node model for the Fingerprint Similarity Search node. Both fingerprint
+ * columns are packed into contiguous word arrays (see
+ * {@link PackedBitVectors}), and searched in parallel by a
+ * {@link FingerprintSimilaritySearcher}.
+ * <p>
+ * If cardinality pruning is enabled, the reference fingerprints are sorted by
+ * cardinality, and for each query only the references with a cardinality
+ * which can reach the similarity threshold are scored (see
+ * {@link SimilarityMetric#getMinReferenceCardinality(int, double, double, double)}).
+ * Hits always refer to the original reference order, and ties are broken on
+ * it, so the results are identical to the brute-force search. The fraction of
+ * comparisons skipped is reported in the 'Pruning ratio' flow variable
+ * </p>
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintSimilaritySearchNodeModel extends NodeModel {
+
+	private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
+
+	private final SettingsModelString m_queryColName =
+			createQueryColumnNameModel();
+	private final SettingsModelString m_refColName =
+			createReferenceColumnNameModel();
+	private final SettingsModelString m_metric = createMetricModel();
+	private final SettingsModelDoubleBounded m_alpha = createAlphaModel();
+	private final SettingsModelDoubleBounded m_beta = createBetaModel();
+	private final SettingsModelDoubleBounded m_threshold =
+			createThresholdModel();
+	private final SettingsModelBoolean m_limitHits = createLimitHitsModel();
+	private final SettingsModelIntegerBounded m_maxHits = createMaxHitsModel();
+	private final SettingsModelBoolean m_usePruning =
+			createUseCardinalityPruningModel();
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintSimilaritySearchNodeModel() {
+		super(2, 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		guessColumnName(inSpecs[0], m_queryColName, "query");
+		guessColumnName(inSpecs[1], m_refColName, "reference");
+		try {
+			SimilarityMetric.valueOf(m_metric.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown similarity metric: " + m_metric.getStringValue());
+		}
+		return new DataTableSpec[] { createOutputSpec() };
+	}
+
+	/**
+	 * Method to check the selected column is present and a bitvector column,
+	 * or to auto-select the last bitvector column if none is selected
+	 */
+	private void guessColumnName(DataTableSpec spec, SettingsModelString model,
+			String tableName) throws InvalidSettingsException {
+		final String colName = model.getStringValue();
+		if (colName != null) {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected " + tableName
+						+ " column '" + colName + "' is not in the input table");
+			}
+			if (!colSpec.getType().isCompatible(BitVectorValue.class)) {
+				throw new InvalidSettingsException("The selected " + tableName
+						+ " column '" + colName
+						+ "' is not a binary (bitvector) fingerprint column");
+			}
+			return;
+		}
+		for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+			if (spec.getColumnSpec(i).getType()
+					.isCompatible(BitVectorValue.class)) {
+				model.setStringValue(spec.getColumnSpec(i).getName());
+				m_logger.warn("No " + tableName + " column selected. "
+						+ model.getStringValue() + " auto-selected.");
+				return;
+			}
+		}
+		throw new InvalidSettingsException("No binary (bitvector) fingerprint "
+				+ "column was found in the " + tableName + " table");
+	}
+
+	private DataTableSpec createOutputSpec() {
+		return new DataTableSpec(
+				new DataColumnSpecCreator("Query Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator("Reference Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator(
+						SimilarityMetric.valueOf(m_metric.getStringValue())
+								.getText() + " Similarity",
+						DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Rank", IntCell.TYPE).createSpec());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable queryTable = inData[0];
+		final BufferedDataTable refTable = inData[1];
+		final int queryColIdx = queryTable.getDataTableSpec()
+				.findColumnIndex(m_queryColName.getStringValue());
+		final int refColIdx = refTable.getDataTableSpec()
+				.findColumnIndex(m_refColName.getStringValue());
+
+		// Load both tables into packed arrays
+		exec.setMessage("Finding fingerprint lengths");
+		final long fpLength = Math.max(
+				PackedBitVectors.getMaxLength(queryTable, queryColIdx,
+						exec.createSubProgress(0.025)),
+				PackedBitVectors.getMaxLength(refTable, refColIdx,
+						exec.createSubProgress(0.025)));
+		exec.setMessage("Loading query fingerprints");
+		final PackedBitVectors queries = PackedBitVectors.load(queryTable,
+				queryColIdx, fpLength, exec.createSubProgress(0.05));
+		exec.setMessage("Loading reference fingerprints");
+		PackedBitVectors refs = PackedBitVectors.load(refTable, refColIdx,
+				fpLength, exec.createSubProgress(0.1));
+		if (m_usePruning.getBooleanValue()) {
+			refs = refs.sortByCardinality();
+		}
+		if (queries.getNumMissing() > 0 || refs.getNumMissing() > 0) {
+			setWarningMessage("Missing fingerprints were skipped ("
+					+ queries.getNumMissing() + " query, "
+					+ refs.getNumMissing() + " reference)");
+		}
+
+		// Search the reference blocks in parallel
+		exec.setMessage("Searching");
+		final FingerprintSimilaritySearcher searcher =
+				new FingerprintSimilaritySearcher(
+						SimilarityMetric.valueOf(m_metric.getStringValue()),
+						m_alpha.getDoubleValue(), m_beta.getDoubleValue(),
+						m_threshold.getDoubleValue(),
+						m_limitHits.getBooleanValue() ? m_maxHits.getIntValue()
+								: Integer.MAX_VALUE,
+						m_usePruning.getBooleanValue());
+		final HitHeap[] hits =
+				searcher.search(queries, refs, exec.createSubProgress(0.7));
+		m_logger.info("Scored " + searcher.getNumScored() + " of "
+				+ searcher.getNumComparisons() + " comparisons (pruning ratio "
+				+ searcher.getPruningRatio() + ")");
+		pushFlowVariableDouble("Comparisons scored", searcher.getNumScored());
+		pushFlowVariableDouble("Pruning ratio", searcher.getPruningRatio());
+
+		// And write the output
+		exec.setMessage("Writing hits");
+		final ExecutionMonitor outputExec = exec.createSubProgress(0.1);
+		final BufferedDataContainer cont =
+				exec.createDataContainer(createOutputSpec());
+		long rowIdx = 0;
+		for (int q = 0; q < queries.size(); q++) {
+			outputExec.checkCanceled();
+			outputExec.setProgress((double) q / queries.size());
+			final HitHeap qHits = hits[q];
+			if (qHits == null) {
+				continue;
+			}
+			qHits.sortDescending();
+			final DataCell queryIdCell =
+					new StringCell(queries.getRowKey(q).getString());
+			for (int i = 0; i < qHits.size(); i++) {
+				cont.addRowToTable(new DefaultRow(RowKey.createRowKey(rowIdx++),
+						queryIdCell,
+						new StringCell(
+								refs.getRowKeyForOriginalIndex(qHits.getIndex(i))
+										.getString()),
+						new DoubleCell(qHits.getSimilarity(i)),
+						new IntCell(i + 1)));
+			}
+			// Release the hits as we go
+			hits[q] = null;
+		}
+		cont.close();
+		return new BufferedDataTable[] { cont.getTable() };
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_queryColName.saveSettingsTo(settings);
+		m_refColName.saveSettingsTo(settings);
+		m_metric.saveSettingsTo(settings);
+		m_alpha.saveSettingsTo(settings);
+		m_beta.saveSettingsTo(settings);
+		m_threshold.saveSettingsTo(settings);
+		m_limitHits.saveSettingsTo(settings);
+		m_maxHits.saveSettingsTo(settings);
+		m_usePruning.saveSettingsTo(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_queryColName.validateSettings(settings);
+		m_refColName.validateSettings(settings);
+		m_metric.validateSettings(settings);
+		m_alpha.validateSettings(settings);
+		m_beta.validateSettings(settings);
+		m_threshold.validateSettings(settings);
+		m_limitHits.validateSettings(settings);
+		m_maxHits.validateSettings(settings);
+		m_usePruning.validateSettings(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_queryColName.loadSettingsFrom(settings);
+		m_refColName.loadSettingsFrom(settings);
+		m_metric.loadSettingsFrom(settings);
+		m_alpha.loadSettingsFrom(settings);
+		m_beta.loadSettingsFrom(settings);
+		m_threshold.loadSettingsFrom(settings);
+		m_limitHits.loadSettingsFrom(settings);
+		m_maxHits.loadSettingsFrom(settings);
+		m_usePruning.loadSettingsFrom(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void reset() {
+		// Nothing to do
+	}
+
+}
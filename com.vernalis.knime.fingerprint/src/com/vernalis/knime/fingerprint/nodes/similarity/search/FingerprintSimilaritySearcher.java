@@ -0,0 +1,356 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.ReferenceFingerprints;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+
+/**
+ * Parallel similarity search of packed query fingerprints against a set of
+ * {@link ReferenceFingerprints}. The search is split into tiles of a block of
+ * queries against a block of reference fingerprints, which are searched in
+ * parallel. Each tile keeps a bounded heap of hits for each of its queries,
+ * and is merged into the overall hits and released as soon as it is
+ * complete. Only a fixed number of tiles are in progress at any time, so the
+ * memory used by the tiles does not depend on the number of queries or
+ * reference fingerprints. No tile is still running when a search returns or
+ * throws, so the reference set can safely be closed afterwards.
+ * <p>
+ * If cardinality pruning is enabled, the reference fingerprints must be
+ * sorted by cardinality, and for each query only the references with a
+ * cardinality which can reach the similarity threshold are scored (see
+ * {@link SimilarityMetric#getMinReferenceCardinality(int, double, double, double)}).
+ * For each tile, only the words of the span of reference fingerprints which
+ * can reach the threshold for at least one of its queries are copied out of
+ * the reference set. Hits refer to the original reference order, and ties
+ * are broken on it, so the results are identical with and without pruning
+ * </p>
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public final class FingerprintSimilaritySearcher {
+
+	/** The minimum number of reference fingerprints in a block */
+	private static final int MIN_BLOCK_SIZE = 256;
+	/** The number of reference blocks per available processor */
+	private static final int BLOCKS_PER_THREAD = 4;
+	/** The maximum number of queries in a block */
+	private static final int QUERY_BLOCK_SIZE = 1024;
+
+	private final SimilarityMetric metric;
+	private final double alpha;
+	private final double beta;
+	private final double threshold;
+	private final int maxHits;
+	private final boolean prune;
+	private long numScored = 0;
+	private long numComparisons = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param metric
+	 *            The similarity metric
+	 * @param alpha
+	 *            The metric alpha parameter
+	 * @param beta
+	 *            The metric beta parameter
+	 * @param threshold
+	 *            The minimum similarity of a hit
+	 * @param maxHits
+	 *            The maximum number of hits for each query, or
+	 *            {@link Integer#MAX_VALUE} for no limit
+	 * @param prune
+	 *            Should references which cannot reach the threshold be
+	 *            skipped based on their cardinality?
+	 */
+	public FingerprintSimilaritySearcher(SimilarityMetric metric,
+			double alpha, double beta, double threshold, int maxHits,
+			boolean prune) {
+		this.metric = metric;
+		this.alpha = alpha;
+		this.beta = beta;
+		this.threshold = threshold;
+		this.maxHits = maxHits;
+		this.prune = prune;
+	}
+
+	/**
+	 * Method to search all the query fingerprints against all the reference
+	 * fingerprints
+	 *
+	 * @param queries
+	 *            The query fingerprints
+	 * @param refs
+	 *            The reference fingerprints, which must be sorted by
+	 *            cardinality if pruning is enabled, and must have the same
+	 *            number of words per fingerprint as the queries
+	 * @param exec
+	 *            The execution monitor, for progress and cancelling
+	 * @return An array of hit heaps, one for each query, or {@code null} for
+	 *         queries with no hits. Hit indices are original reference
+	 *         indices
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for a tile
+	 * @throws ExecutionException
+	 *             If the search of a tile threw an exception
+	 * @throws IllegalArgumentException
+	 *             If pruning is enabled and the reference fingerprints are
+	 *             not sorted by cardinality
+	 */
+	public HitHeap[] search(PackedBitVectors queries,
+			ReferenceFingerprints refs, ExecutionMonitor exec)
+			throws CanceledExecutionException, InterruptedException,
+			ExecutionException, IllegalArgumentException {
+		if (prune && !refs.isSortedByCardinality()) {
+			throw new IllegalArgumentException("The reference fingerprints "
+					+ "must be sorted by cardinality for pruning");
+		}
+		final int numThreads = Runtime.getRuntime().availableProcessors();
+		final int maxBlocksInProgress = BLOCKS_PER_THREAD * numThreads;
+		final int blockSize = Math.max(MIN_BLOCK_SIZE,
+				(refs.size() + maxBlocksInProgress - 1) / maxBlocksInProgress);
+		final long numBlocks =
+				(long) ((refs.size() + blockSize - 1) / blockSize)
+						* ((queries.size() + QUERY_BLOCK_SIZE - 1)
+								/ QUERY_BLOCK_SIZE);
+
+		final HitHeap[] hits = new HitHeap[queries.size()];
+		numScored = 0;
+		long blocksDone = 0;
+		final ThreadPool pool =
+				KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+		final Deque<Future<BlockResult>> futures = new ArrayDeque<>();
+		final AtomicBoolean stop = new AtomicBoolean();
+		try {
+			for (int qStart = 0; qStart < queries.size();
+					qStart += QUERY_BLOCK_SIZE) {
+				final int queryStart = qStart;
+				final int queryEnd =
+						Math.min(queries.size(), qStart + QUERY_BLOCK_SIZE);
+				for (int rStart = 0; rStart < refs.size();
+						rStart += blockSize) {
+					exec.checkCanceled();
+					final int blockStart = rStart;
+					final int blockEnd =
+							Math.min(refs.size(), rStart + blockSize);
+					futures.add(pool.enqueue(() -> searchBlock(queries,
+							queryStart, queryEnd, refs, blockStart, blockEnd,
+							stop, exec)));
+					if (futures.size() >= maxBlocksInProgress) {
+						merge(ThreadPoolUtils.waitInvisibly(pool,
+								futures.poll()::get), hits);
+						exec.setProgress((double) (++blocksDone) / numBlocks);
+					}
+				}
+			}
+			while (!futures.isEmpty()) {
+				merge(ThreadPoolUtils.waitInvisibly(pool, futures.poll()::get),
+						hits);
+				exec.setProgress((double) (++blocksDone) / numBlocks);
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			throw e;
+		} finally {
+			// Stop any remaining tiles and wait for them, rather than
+			// cancelling them, so the references are not read after we return
+			stop.set(true);
+			while (!futures.isEmpty()) {
+				try {
+					ThreadPoolUtils.waitInvisibly(pool, futures.poll()::get);
+				} catch (ExecutionException | CanceledExecutionException
+						| RuntimeException e) {
+					// Already failing
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					for (Future<BlockResult> future : futures) {
+						future.cancel(true);
+					}
+					futures.clear();
+				}
+			}
+		}
+		numComparisons = (long) queries.size() * refs.size();
+		return hits;
+	}
+
+	/**
+	 * Method to merge the hits of a completed tile into the overall hits
+	 */
+	private void merge(BlockResult blockResult, HitHeap[] hits) {
+		numScored += blockResult.numScored;
+		final HitHeap[] blockHits = blockResult.hits;
+		for (int i = 0; i < blockHits.length; i++) {
+			if (blockHits[i] == null) {
+				continue;
+			}
+			final int q = blockResult.queryStart + i;
+			if (hits[q] == null) {
+				hits[q] = blockHits[i];
+			} else {
+				hits[q].offerAll(blockHits[i]);
+			}
+		}
+	}
+
+	/**
+	 * Method to search a block of query fingerprints against a block of
+	 * reference fingerprints
+	 *
+	 * @return The hit heaps for the tile, one for each query in the block, or
+	 *         {@code null} for queries with no hits in the tile, and the
+	 *         number of comparisons scored. The results are incomplete if the
+	 *         search was stopped
+	 */
+	private BlockResult searchBlock(PackedBitVectors queries, int queryStart,
+			int queryEnd, ReferenceFingerprints refs, int blockStart,
+			int blockEnd, AtomicBoolean stop, ExecutionMonitor exec)
+			throws CanceledExecutionException {
+		final int numQueries = queryEnd - queryStart;
+		final BlockResult result = new BlockResult(queryStart, numQueries);
+		if (stop.get()) {
+			return result;
+		}
+
+		// Find the admissible range for each query
+		final int[] rFrom = new int[numQueries];
+		final int[] rTo = new int[numQueries];
+		int spanFrom = blockEnd;
+		int spanTo = blockStart;
+		for (int i = 0; i < numQueries; i++) {
+			rFrom[i] = blockStart;
+			rTo[i] = blockEnd;
+			if (prune) {
+				final int qCard = queries.getCardinality(queryStart + i);
+				rFrom[i] = refs.findFirstWithCardinalityAtLeast(
+						metric.getMinReferenceCardinality(qCard, threshold,
+								alpha, beta),
+						blockStart, blockEnd);
+				final int maxCard = metric.getMaxReferenceCardinality(qCard,
+						threshold, alpha, beta);
+				if (maxCard < Integer.MAX_VALUE) {
+					rTo[i] = refs.findFirstWithCardinalityAtLeast(maxCard + 1L,
+							rFrom[i], blockEnd);
+				}
+			}
+			if (rFrom[i] < rTo[i]) {
+				spanFrom = Math.min(spanFrom, rFrom[i]);
+				spanTo = Math.max(spanTo, rTo[i]);
+			}
+		}
+		if (spanFrom >= spanTo) {
+			return result;
+		}
+
+		// Copy only the words which will be scored out of the references
+		final int numWords = refs.getWordsPerFingerprint();
+		final long[] rWords = new long[(spanTo - spanFrom) * numWords];
+		refs.getWords(spanFrom, spanTo, rWords);
+		final int[] rCards = new int[spanTo - spanFrom];
+		final int[] rOrigIdx = new int[spanTo - spanFrom];
+		for (int r = spanFrom; r < spanTo; r++) {
+			rCards[r - spanFrom] = refs.getCardinality(r);
+			rOrigIdx[r - spanFrom] = refs.getOriginalIndex(r);
+		}
+
+		final long[] qWords = queries.getWords();
+		for (int i = 0; i < numQueries; i++) {
+			exec.checkCanceled();
+			if (stop.get()) {
+				break;
+			}
+			if (rFrom[i] >= rTo[i]) {
+				continue;
+			}
+			final int qOffset = queries.getOffset(queryStart + i);
+			final int qCard = queries.getCardinality(queryStart + i);
+			result.numScored += rTo[i] - rFrom[i];
+			HitHeap qHits = null;
+			for (int r = rFrom[i] - spanFrom; r < rTo[i] - spanFrom; r++) {
+				final int common = PackedBitVectors.countCommonBits(qWords,
+						qOffset, rWords, r * numWords, numWords);
+				final double sim = metric.getSimilarity(qCard, rCards[r],
+						common, alpha, beta);
+				if (sim < threshold) {
+					continue;
+				}
+				if (qHits == null) {
+					qHits = new HitHeap(maxHits);
+				}
+				qHits.offer(rOrigIdx[r], sim);
+			}
+			result.hits[i] = qHits;
+		}
+		return result;
+	}
+
+	/**
+	 * @return The number of comparisons scored in the last search
+	 */
+	public long getNumScored() {
+		return numScored;
+	}
+
+	/**
+	 * @return The number of comparisons in the last search, including those
+	 *         skipped by pruning
+	 */
+	public long getNumComparisons() {
+		return numComparisons;
+	}
+
+	/**
+	 * @return The fraction of comparisons skipped by pruning in the last
+	 *         search
+	 */
+	public double getPruningRatio() {
+		return numComparisons == 0 ? 0.0
+				: 1.0 - (double) numScored / numComparisons;
+	}
+
+	/**
+	 * Simple container for the results of searching a tile
+	 */
+	private static final class BlockResult {
+
+		private final int queryStart;
+		private final HitHeap[] hits;
+		private long numScored = 0;
+
+		private BlockResult(int queryStart, int numQueries) {
+			this.queryStart = queryStart;
+			hits = new HitHeap[numQueries];
+		}
+	}
+}
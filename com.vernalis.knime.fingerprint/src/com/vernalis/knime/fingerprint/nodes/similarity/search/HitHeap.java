@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.search;
+
+import java.util.Arrays;
+
+/**
+ * A bounded binary min-heap of search hits, held as parallel primitive arrays
+ * of reference indices and similarities. The root of the heap is always the
+ * worst hit retained, so that once the heap is full a new hit is only added
+ * if it beats the root, which it then replaces. Hits with equal similarity
+ * are ordered by reference index, with lower indices preferred, so that
+ * results are independent of the order in which hits were offered. A heap
+ * with a maximum size of {@link Integer#MAX_VALUE} grows as required and
+ * retains all hits offered. This class is not thread-safe
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class HitHeap {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int maxSize;
+	private int[] indices;
+	private double[] similarities;
+	private int size = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxSize
+	 *            The maximum number of hits to retain
+	 */
+	public HitHeap(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException(
+					"The maximum size must be at least 1");
+		}
+		this.maxSize = maxSize;
+		final int capacity = Math.min(maxSize, INITIAL_CAPACITY);
+		indices = new int[capacity];
+		similarities = new double[capacity];
+	}
+
+	/**
+	 * Method to offer a hit to the heap
+	 *
+	 * @param index
+	 *            The reference index
+	 * @param similarity
+	 *            The similarity
+	 * @return {@code true} if the hit was retained
+	 */
+	public boolean offer(int index, double similarity) {
+		if (size < maxSize) {
+			if (size == indices.length) {
+				final int newCapacity = (int) Math.min(maxSize,
+						Math.max(INITIAL_CAPACITY, 2L * size));
+				indices = Arrays.copyOf(indices, newCapacity);
+				similarities = Arrays.copyOf(similarities, newCapacity);
+			}
+			indices[size] = index;
+			similarities[size] = similarity;
+			siftUp(size++);
+			return true;
+		}
+		if (!isWorse(similarities[0], indices[0], similarity, index)) {
+			return false;
+		}
+		indices[0] = index;
+		similarities[0] = similarity;
+		siftDown(0);
+		return true;
+	}
+
+	/**
+	 * Method to offer all the hits from another heap to this heap
+	 *
+	 * @param other
+	 *            The other heap
+	 */
+	public void offerAll(HitHeap other) {
+		for (int i = 0; i < other.size; i++) {
+			offer(other.indices[i], other.similarities[i]);
+		}
+	}
+
+	/**
+	 * @return {@code true} if the heap contains the maximum number of hits
+	 */
+	public boolean isFull() {
+		return size >= maxSize;
+	}
+
+	/**
+	 * @return The similarity of the worst hit retained. Only meaningful if
+	 *         the heap is not empty
+	 */
+	public double getWorstSimilarity() {
+		return similarities[0];
+	}
+
+	/**
+	 * @return The number of hits retained
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method to sort the retained hits in place, best first. After this call,
+	 * the instance no longer behaves as a heap, and no further hits should be
+	 * offered
+	 */
+	public void sortDescending() {
+		// Heap sort - repeatedly move the worst hit to the end
+		for (int end = size - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+	}
+
+	/**
+	 * @param i
+	 *            The position
+	 * @return The reference index at the position
+	 */
+	public int getIndex(int i) {
+		return indices[i];
+	}
+
+	/**
+	 * @param i
+	 *            The position
+	 * @return The similarity at the position
+	 */
+	public double getSimilarity(int i) {
+		return similarities[i];
+	}
+
+	/**
+	 * @return {@code true} if hit a is worse than hit b
+	 */
+	private static boolean isWorse(double simA, int idxA, double simB,
+			int idxB) {
+		return simA < simB || (simA == simB && idxA > idxB);
+	}
+
+	private void siftUp(int pos) {
+		while (pos > 0) {
+			final int parent = (pos - 1) >>> 1;
+			if (!isWorse(similarities[pos], indices[pos], similarities[parent],
+					indices[parent])) {
+				break;
+			}
+			swap(pos, parent);
+			pos = parent;
+		}
+	}
+
+	private void siftDown(int pos) {
+		siftDown(pos, size);
+	}
+
+	private void siftDown(int pos, int end) {
+		while (true) {
+			final int left = 2 * pos + 1;
+			if (left >= end) {
+				break;
+			}
+			int worst = left;
+			final int right = left + 1;
+			if (right < end && isWorse(similarities[right], indices[right],
+					similarities[left], indices[left])) {
+				worst = right;
+			}
+			if (!isWorse(similarities[worst], indices[worst],
+					similarities[pos], indices[pos])) {
+				break;
+			}
+			swap(pos, worst);
+			pos = worst;
+		}
+	}
+
+	private void swap(int i, int j) {
+		final int tmpIdx = indices[i];
+		indices[i] = indices[j];
+		indices[j] = tmpIdx;
+		final double tmpSim = similarities[i];
+		similarities[i] = similarities[j];
+		similarities[j] = tmpSim;
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.store.search;
+
+import javax.swing.JFileChooser;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintStore;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+import com.vernalis.knime.fingerprint.nodes.similarity.store.write.FingerprintStoreWriterNodeDialog;
+
+/**
+ * Node dialog for the Fingerprint Store Search node
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintStoreSearchNodeDialog extends DefaultNodeSettingsPane {
+
+	/**
+	 * Constructor
+	 */
+	@SuppressWarnings("unchecked")
+	public FingerprintStoreSearchNodeDialog() {
+		createNewGroup("Fingerprints");
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createQueryColumnNameModel(), "Query fingerprint column", 0,
+				BitVectorValue.class));
+		final SettingsModelString fileMdl = createFileModel();
+		addDialogComponent(new DialogComponentFileChooser(fileMdl,
+				FingerprintStoreWriterNodeDialog.FILE_HISTORY_ID,
+				JFileChooser.OPEN_DIALOG, false,
+				createFlowVariableModel(fileMdl),
+				FingerprintStore.FILE_EXTENSION));
+
+		createNewGroup("Similarity");
+		final SettingsModelString metricMdl = createMetricModel();
+		final SettingsModelDoubleBounded alphaMdl = createAlphaModel();
+		final SettingsModelDoubleBounded betaMdl = createBetaModel();
+		metricMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				updateWeightsEnabled(metricMdl, alphaMdl, betaMdl);
+			}
+		});
+		updateWeightsEnabled(metricMdl, alphaMdl, betaMdl);
+		addDialogComponent(new DialogComponentButtonGroup(metricMdl,
+				"Similarity metric", false, SimilarityMetric.values()));
+		setHorizontalPlacement(true);
+		addDialogComponent(
+				new DialogComponentNumber(alphaMdl, "Tversky alpha", 0.1));
+		addDialogComponent(
+				new DialogComponentNumber(betaMdl, "Tversky beta", 0.1));
+		setHorizontalPlacement(false);
+
+		createNewGroup("Hits");
+		addDialogComponent(new DialogComponentNumber(createThresholdModel(),
+				"Minimum similarity", 0.05));
+		final SettingsModelBoolean limitHitsMdl = createLimitHitsModel();
+		final SettingsModelIntegerBounded maxHitsMdl = createMaxHitsModel();
+		limitHitsMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				maxHitsMdl.setEnabled(limitHitsMdl.getBooleanValue());
+			}
+		});
+		maxHitsMdl.setEnabled(limitHitsMdl.getBooleanValue());
+		addDialogComponent(new DialogComponentBoolean(limitHitsMdl,
+				"Only return top hits for each query"));
+		addDialogComponent(new DialogComponentNumber(maxHitsMdl,
+				"Number of hits (K)", 1));
+	}
+
+	private static void updateWeightsEnabled(SettingsModelString metricMdl,
+			SettingsModelDoubleBounded alphaMdl,
+			SettingsModelDoubleBounded betaMdl) {
+		boolean usesWeights;
+		try {
+			usesWeights = SimilarityMetric.valueOf(metricMdl.getStringValue())
+					.usesWeights();
+		} catch (IllegalArgumentException | NullPointerException e) {
+			usesWeights = false;
+		}
+		alphaMdl.setEnabled(usesWeights);
+		betaMdl.setEnabled(usesWeights);
+	}
+
+	/**
+	 * @return The settings model for the query fingerprint column
+	 */
+	static SettingsModelString createQueryColumnNameModel() {
+		return new SettingsModelString("Query column", null);
+	}
+
+	/**
+	 * @return The settings model for the store file
+	 */
+	static SettingsModelString createFileModel() {
+		return new SettingsModelString("Store file", "");
+	}
+
+	/**
+	 * @return The settings model for the similarity metric
+	 */
+	static SettingsModelString createMetricModel() {
+		return new SettingsModelString("Similarity metric",
+				SimilarityMetric.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the Tversky query weighting
+	 */
+	static SettingsModelDoubleBounded createAlphaModel() {
+		return new SettingsModelDoubleBounded("Tversky alpha", 1.0, 0.0,
+				Double.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the Tversky reference weighting
+	 */
+	static SettingsModelDoubleBounded createBetaModel() {
+		return new SettingsModelDoubleBounded("Tversky beta", 1.0, 0.0,
+				Double.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the minimum similarity threshold
+	 */
+	static SettingsModelDoubleBounded createThresholdModel() {
+		return new SettingsModelDoubleBounded("Minimum similarity", 0.0, 0.0,
+				1.0);
+	}
+
+	/**
+	 * @return The settings model for the option to only return the top K
+	 *         hits
+	 */
+	static SettingsModelBoolean createLimitHitsModel() {
+		return new SettingsModelBoolean("Limit hits", true);
+	}
+
+	/**
+	 * @return The settings model for the number of hits (K)
+	 */
+	static SettingsModelIntegerBounded createMaxHitsModel() {
+		return new SettingsModelIntegerBounded("Number of hits", 10, 1,
+				Integer.MAX_VALUE);
+	}
+}
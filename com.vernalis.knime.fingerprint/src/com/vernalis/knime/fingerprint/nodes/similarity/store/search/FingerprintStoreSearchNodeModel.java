@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.store.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintStore;
+import com.vernalis.knime.fingerprint.abstrct.PackedBitVectors;
+import com.vernalis.knime.fingerprint.abstrct.SimilarityMetric;
+import com.vernalis.knime.fingerprint.nodes.similarity.search.FingerprintSimilaritySearcher;
+import com.vernalis.knime.fingerprint.nodes.similarity.search.HitHeap;
+
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createAlphaModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createBetaModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createFileModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createLimitHitsModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createMaxHitsModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createMetricModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createQueryColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.search.FingerprintStoreSearchNodeDialog.createThresholdModel;
+
+/**
+ * Node model for the Fingerprint Store Search node. The query fingerprints
+ * are packed into a contiguous word array (see {@link PackedBitVectors}) and
+ * searched against a memory-mapped {@link FingerprintStore} by a
+ * {@link FingerprintSimilaritySearcher}, with cardinality pruning, as the
+ * stored fingerprints are sorted by cardinality. Only the stored fingerprints
+ * with a cardinality which can reach the similarity threshold are copied out
+ * of the mapped file and scored. Hits are ranked and tie-broken on the
+ * original order of the table the store was written from, so the results are
+ * identical to the Fingerprint Similarity Search node with that table as the
+ * reference table
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintStoreSearchNodeModel extends NodeModel {
+
+	private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
+
+	private final SettingsModelString m_queryColName =
+			createQueryColumnNameModel();
+	private final SettingsModelString m_file = createFileModel();
+	private final SettingsModelString m_metric = createMetricModel();
+	private final SettingsModelDoubleBounded m_alpha = createAlphaModel();
+	private final SettingsModelDoubleBounded m_beta = createBetaModel();
+	private final SettingsModelDoubleBounded m_threshold =
+			createThresholdModel();
+	private final SettingsModelBoolean m_limitHits = createLimitHitsModel();
+	private final SettingsModelIntegerBounded m_maxHits = createMaxHitsModel();
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintStoreSearchNodeModel() {
+		super(1, 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		final DataTableSpec spec = inSpecs[0];
+		final String colName = m_queryColName.getStringValue();
+		if (colName == null) {
+			for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+				if (spec.getColumnSpec(i).getType()
+						.isCompatible(BitVectorValue.class)) {
+					m_queryColName
+							.setStringValue(spec.getColumnSpec(i).getName());
+					m_logger.warn("No query column selected. "
+							+ m_queryColName.getStringValue()
+							+ " auto-selected.");
+					break;
+				}
+			}
+			if (m_queryColName.getStringValue() == null) {
+				throw new InvalidSettingsException(
+						"No binary (bitvector) fingerprint column was found");
+			}
+		} else {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected query column '"
+						+ colName + "' is not in the input table");
+			}
+			if (!colSpec.getType().isCompatible(BitVectorValue.class)) {
+				throw new InvalidSettingsException("The selected query column '"
+						+ colName
+						+ "' is not a binary (bitvector) fingerprint column");
+			}
+		}
+		try {
+			SimilarityMetric.valueOf(m_metric.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown similarity metric: " + m_metric.getStringValue());
+		}
+		final File file = getFile();
+		if (!file.isFile()) {
+			// It might be written upstream
+			setWarningMessage("The store '" + file + "' does not yet exist");
+		}
+		return new DataTableSpec[] { createOutputSpec() };
+	}
+
+	private File getFile() throws InvalidSettingsException {
+		try {
+			return FingerprintStore.resolveFile(m_file.getStringValue());
+		} catch (IOException e) {
+			throw new InvalidSettingsException(e.getMessage(), e);
+		}
+	}
+
+	private DataTableSpec createOutputSpec() {
+		return new DataTableSpec(
+				new DataColumnSpecCreator("Query Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator("Reference Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator(
+						SimilarityMetric.valueOf(m_metric.getStringValue())
+								.getText() + " Similarity",
+						DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Rank", IntCell.TYPE).createSpec());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable queryTable = inData[0];
+		final int queryColIdx = queryTable.getDataTableSpec()
+				.findColumnIndex(m_queryColName.getStringValue());
+
+		try (FingerprintStore store = FingerprintStore.open(getFile())) {
+			m_logger.info("Opened fingerprint store containing "
+					+ store.size() + " fingerprints of length "
+					+ store.getFingerprintLength());
+			exec.setMessage("Loading query fingerprints");
+			final long queryLength = PackedBitVectors.getMaxLength(queryTable,
+					queryColIdx, exec.createSubProgress(0.025));
+			final PackedBitVectors queries = PackedBitVectors.load(queryTable,
+					queryColIdx, store.getFingerprintLength(),
+					exec.createSubProgress(0.05));
+			final List<String> warnings = new ArrayList<>();
+			if (queryLength > store.getFingerprintLength()) {
+				warnings.add("Some query fingerprints are longer than the "
+						+ "stored fingerprints - bits beyond "
+						+ store.getFingerprintLength() + " were ignored");
+			}
+			if (queries.getNumMissing() > 0) {
+				warnings.add(queries.getNumMissing()
+						+ " rows with missing query fingerprints were skipped");
+			}
+			if (!warnings.isEmpty()) {
+				setWarningMessage(String.join("; ", warnings));
+			}
+
+			exec.setMessage("Searching");
+			final FingerprintSimilaritySearcher searcher =
+					new FingerprintSimilaritySearcher(
+							SimilarityMetric.valueOf(m_metric.getStringValue()),
+							m_alpha.getDoubleValue(), m_beta.getDoubleValue(),
+							m_threshold.getDoubleValue(),
+							m_limitHits.getBooleanValue()
+									? m_maxHits.getIntValue()
+									: Integer.MAX_VALUE,
+							true);
+			final HitHeap[] hits = searcher.search(queries, store,
+					exec.createSubProgress(0.8));
+			m_logger.info("Scored " + searcher.getNumScored() + " of "
+					+ searcher.getNumComparisons()
+					+ " comparisons (pruning ratio "
+					+ searcher.getPruningRatio() + ")");
+			pushFlowVariableDouble("Comparisons scored",
+					searcher.getNumScored());
+			pushFlowVariableDouble("Pruning ratio",
+					searcher.getPruningRatio());
+
+			exec.setMessage("Writing hits");
+			final ExecutionMonitor outputExec = exec.createSubProgress(0.125);
+			final BufferedDataContainer cont =
+					exec.createDataContainer(createOutputSpec());
+			long rowIdx = 0;
+			for (int q = 0; q < queries.size(); q++) {
+				outputExec.checkCanceled();
+				outputExec.setProgress((double) q / queries.size());
+				final HitHeap qHits = hits[q];
+				if (qHits == null) {
+					continue;
+				}
+				qHits.sortDescending();
+				final DataCell queryIdCell =
+						new StringCell(queries.getRowKey(q).getString());
+				for (int i = 0; i < qHits.size(); i++) {
+					cont.addRowToTable(new DefaultRow(
+							RowKey.createRowKey(rowIdx++), queryIdCell,
+							new StringCell(store.getRowIdForOriginalIndex(
+									qHits.getIndex(i))),
+							new DoubleCell(qHits.getSimilarity(i)),
+							new IntCell(i + 1)));
+				}
+				// Release the hits as we go
+				hits[q] = null;
+			}
+			cont.close();
+			return new BufferedDataTable[] { cont.getTable() };
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_queryColName.saveSettingsTo(settings);
+		m_file.saveSettingsTo(settings);
+		m_metric.saveSettingsTo(settings);
+		m_alpha.saveSettingsTo(settings);
+		m_beta.saveSettingsTo(settings);
+		m_threshold.saveSettingsTo(settings);
+		m_limitHits.saveSettingsTo(settings);
+		m_maxHits.saveSettingsTo(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_queryColName.validateSettings(settings);
+		m_file.validateSettings(settings);
+		m_metric.validateSettings(settings);
+		m_alpha.validateSettings(settings);
+		m_beta.validateSettings(settings);
+		m_threshold.validateSettings(settings);
+		m_limitHits.validateSettings(settings);
+		m_maxHits.validateSettings(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_queryColName.loadSettingsFrom(settings);
+		m_file.loadSettingsFrom(settings);
+		m_metric.loadSettingsFrom(settings);
+		m_alpha.loadSettingsFrom(settings);
+		m_beta.loadSettingsFrom(settings);
+		m_threshold.loadSettingsFrom(settings);
+		m_limitHits.loadSettingsFrom(settings);
+		m_maxHits.loadSettingsFrom(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void reset() {
+		// Nothing to do
+	}
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.store.write;
+
+import javax.swing.JFileChooser;
+
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentFileChooser;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintStore;
+
+/**
+ * Node dialog for the Fingerprint Store Writer node
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintStoreWriterNodeDialog extends DefaultNodeSettingsPane {
+
+	/** The file history ID, shared with the Fingerprint Store Search node */
+	public static final String FILE_HISTORY_ID =
+			"com.vernalis.knime.fingerprint.store";
+
+	/**
+	 * Constructor
+	 */
+	@SuppressWarnings("unchecked")
+	public FingerprintStoreWriterNodeDialog() {
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createColumnNameModel(), "Fingerprint column", 0,
+				BitVectorValue.class));
+		final SettingsModelString fileMdl = createFileModel();
+		addDialogComponent(new DialogComponentFileChooser(fileMdl,
+				FILE_HISTORY_ID, JFileChooser.SAVE_DIALOG, false,
+				createFlowVariableModel(fileMdl),
+				FingerprintStore.FILE_EXTENSION));
+		addDialogComponent(new DialogComponentBoolean(createOverwriteModel(),
+				"Overwrite existing store"));
+	}
+
+	/**
+	 * @return The settings model for the fingerprint column
+	 */
+	static SettingsModelString createColumnNameModel() {
+		return new SettingsModelString("Fingerprint column", null);
+	}
+
+	/**
+	 * @return The settings model for the store file
+	 */
+	static SettingsModelString createFileModel() {
+		return new SettingsModelString("Store file", "");
+	}
+
+	/**
+	 * @return The settings model for the option to overwrite an existing
+	 *         store
+	 */
+	static SettingsModelBoolean createOverwriteModel() {
+		return new SettingsModelBoolean("Overwrite", false);
+	}
+}
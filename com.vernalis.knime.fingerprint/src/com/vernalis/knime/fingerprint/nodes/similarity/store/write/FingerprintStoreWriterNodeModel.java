@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.fingerprint.nodes.similarity.store.write;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.vector.bitvector.BitVectorValue;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.knime.fingerprint.abstrct.FingerprintStore;
+
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.write.FingerprintStoreWriterNodeDialog.createColumnNameModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.write.FingerprintStoreWriterNodeDialog.createFileModel;
+import static com.vernalis.knime.fingerprint.nodes.similarity.store.write.FingerprintStoreWriterNodeDialog.createOverwriteModel;
+
+/**
+ * Node model for the Fingerprint Store Writer node. The fingerprint column is
+ * written to a memory-mappable {@link FingerprintStore} file, which can then
+ * be searched repeatedly by the Fingerprint Store Search node without
+ * re-reading the table. The absolute path of the store is pushed as a flow
+ * variable
+ *
+ * @author s.roughley {@literal <knime@vernalis.com>}
+ *
+ */
+public class FingerprintStoreWriterNodeModel extends NodeModel {
+
+	/** The name of the flow variable containing the store path */
+	public static final String STORE_PATH_VARIABLE = "Fingerprint store";
+
+	private final NodeLogger m_logger = NodeLogger.getLogger(getClass());
+
+	private final SettingsModelString m_colName = createColumnNameModel();
+	private final SettingsModelString m_file = createFileModel();
+	private final SettingsModelBoolean m_overwrite = createOverwriteModel();
+
+	/**
+	 * Constructor
+	 */
+	public FingerprintStoreWriterNodeModel() {
+		super(1, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		final DataTableSpec spec = inSpecs[0];
+		final String colName = m_colName.getStringValue();
+		if (colName == null) {
+			for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+				if (spec.getColumnSpec(i).getType()
+						.isCompatible(BitVectorValue.class)) {
+					m_colName.setStringValue(spec.getColumnSpec(i).getName());
+					m_logger.warn("No column selected. "
+							+ m_colName.getStringValue() + " auto-selected.");
+					break;
+				}
+			}
+			if (m_colName.getStringValue() == null) {
+				throw new InvalidSettingsException(
+						"No binary (bitvector) fingerprint column was found");
+			}
+		} else {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName + "' is not in the input table");
+			}
+			if (!colSpec.getType().isCompatible(BitVectorValue.class)) {
+				throw new InvalidSettingsException("The selected column '"
+						+ colName
+						+ "' is not a binary (bitvector) fingerprint column");
+			}
+		}
+		final File file = getFile();
+		if (file.exists()) {
+			if (!m_overwrite.getBooleanValue()) {
+				throw new InvalidSettingsException("The file '" + file
+						+ "' exists and overwriting is not enabled");
+			}
+			setWarningMessage("The existing store will be overwritten");
+		}
+		return new DataTableSpec[0];
+	}
+
+	private File getFile() throws InvalidSettingsException {
+		try {
+			return FingerprintStore.resolveFile(m_file.getStringValue());
+		} catch (IOException e) {
+			throw new InvalidSettingsException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable table = inData[0];
+		final int colIdx = table.getDataTableSpec()
+				.findColumnIndex(m_colName.getStringValue());
+		final File file = getFile();
+		if (file.exists() && !m_overwrite.getBooleanValue()) {
+			throw new InvalidSettingsException("The file '" + file
+					+ "' exists and overwriting is not enabled");
+		}
+		final int numWritten = FingerprintStore.write(table, colIdx, file, exec);
+		if (numWritten < table.size()) {
+			setWarningMessage((table.size() - numWritten)
+					+ " rows with missing fingerprints were not stored");
+		}
+		m_logger.info(
+				"Wrote " + numWritten + " fingerprints to store " + file);
+		pushFlowVariableString(STORE_PATH_VARIABLE, file.getAbsolutePath());
+		return new BufferedDataTable[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveSettingsTo(NodeSettingsWO settings) {
+		m_colName.saveSettingsTo(settings);
+		m_file.saveSettingsTo(settings);
+		m_overwrite.saveSettingsTo(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.validateSettings(settings);
+		m_file.validateSettings(settings);
+		m_overwrite.validateSettings(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		m_colName.loadSettingsFrom(settings);
+		m_file.loadSettingsFrom(settings);
+		m_overwrite.loadSettingsFrom(settings);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		// Nothing to do
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void reset() {
+		// Nothing to do
+	}
+
+}
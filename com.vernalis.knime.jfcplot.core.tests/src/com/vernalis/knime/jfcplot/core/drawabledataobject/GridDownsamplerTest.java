@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.jfcplot.core.drawabledataobject;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.knime.core.data.property.ShapeFactory;
+import org.knime.core.data.property.ShapeFactory.Shape;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test class for the {@link GridDownsampler} class
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class GridDownsamplerTest {
+
+	private static final Shape RECTANGLE =
+			ShapeFactory.getShape(ShapeFactory.RECTANGLE);
+	private static final Shape CIRCLE =
+			ShapeFactory.getShape(ShapeFactory.CIRCLE);
+
+	/**
+	 * Test that points are assigned to the correct grid cells, including the
+	 * points at the maximum of the range, which are in the last cell
+	 */
+	@Test
+	public void testCellAssignment() {
+		final SimpleShapeDrawableDataObject origin = point(0.0, 0.0);
+		final SimpleShapeDrawableDataObject sameCell = point(0.9, 0.9);
+		final SimpleShapeDrawableDataObject nextX = point(1.1, 0.5);
+		final SimpleShapeDrawableDataObject nextY = point(0.5, 1.1);
+		final SimpleShapeDrawableDataObject lastCell = point(9.5, 9.5);
+		final SimpleShapeDrawableDataObject max = point(10.0, 10.0);
+		assertSamePoints(Arrays.asList(sameCell, nextX, nextY, max),
+				GridDownsampler.downsample(Arrays.asList(origin, sameCell,
+						nextX, nextY, lastCell, max), 10));
+
+		// A single cell retains only the last point
+		assertSamePoints(Arrays.asList(max), GridDownsampler
+				.downsample(Arrays.asList(origin, nextX, max), 1));
+
+		// All points at the same position
+		final SimpleShapeDrawableDataObject same = point(0.0, 0.0);
+		assertSamePoints(Arrays.asList(same), GridDownsampler
+				.downsample(Arrays.asList(origin, same), 10));
+	}
+
+	/**
+	 * Test that the last point in each cell is retained, and that the retained
+	 * points are ordered by the position of that last point
+	 */
+	@Test
+	public void testLastPointOrdering() {
+		final SimpleShapeDrawableDataObject a1 = point(0.1, 0.1);
+		final SimpleShapeDrawableDataObject b1 = point(5.1, 5.1);
+		final SimpleShapeDrawableDataObject c1 = point(9.9, 0.1);
+		final SimpleShapeDrawableDataObject a2 = point(0.2, 0.2);
+		final SimpleShapeDrawableDataObject b2 = point(5.2, 5.2);
+		final SimpleShapeDrawableDataObject end = point(10.0, 10.0);
+		assertSamePoints(Arrays.asList(c1, a2, b2, end), GridDownsampler
+				.downsample(Arrays.asList(a1, b1, c1, a2, b2, end), 10));
+	}
+
+	/**
+	 * Test that points in the same cell are all retained if they differ in
+	 * colour, shape, size or any of the legend labels
+	 */
+	@Test
+	public void testDistinctAppearance() {
+		final List<SimpleShapeDrawableDataObject> points = Arrays.asList(
+				point(0.0, 0.0),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 1.0,
+						Color.BLUE, "Shape", "Size", "Colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, CIRCLE, 1.0,
+						Color.RED, "Shape", "Size", "Colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 2.0,
+						Color.RED, "Shape", "Size", "Colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 1.0,
+						Color.RED, "Other shape", "Size", "Colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 1.0,
+						Color.RED, "Shape", "Other size", "Colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 1.0,
+						Color.RED, "Shape", "Size", "Other colour"),
+				new SimpleShapeDrawableDataObject(0.0, 0.0, RECTANGLE, 1.0,
+						Color.RED, "Shape", "Size", null));
+		assertSamePoints(points, GridDownsampler.downsample(points, 10));
+	}
+
+	/**
+	 * Test that a resolution less than 1 is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidResolution() {
+		GridDownsampler.downsample(Arrays.asList(point(0.0, 0.0)), 0);
+	}
+
+	private static void assertSamePoints(
+			List<SimpleShapeDrawableDataObject> expected,
+			List<SimpleShapeDrawableDataObject> actual) {
+		assertEquals("Number of points", expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertSame("Point " + i, expected.get(i), actual.get(i));
+		}
+	}
+
+	private static SimpleShapeDrawableDataObject point(double x, double y) {
+		return new SimpleShapeDrawableDataObject(x, y, RECTANGLE, 1.0,
+				Color.RED, "Shape", "Size", "Colour");
+	}
+}
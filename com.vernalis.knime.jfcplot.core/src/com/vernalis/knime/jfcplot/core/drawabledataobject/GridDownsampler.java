@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.jfcplot.core.drawabledataobject;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility class to reduce a dense collection of
+ * {@link SimpleShapeDrawableDataObject}s to at most one point per cell of a
+ * regular grid for each distinct combination of colour, shape and size (and
+ * their legend labels). With a grid resolution comparable to the number of
+ * pixels across the plot, the points removed would be drawn underneath another
+ * point of the same appearance at (to within a pixel) the same position, so
+ * the rendered plot is essentially unchanged, but the drawing time is bounded
+ * by the grid size rather than the number of rows
+ *
+ * @author s.roughley
+ *
+ */
+public final class GridDownsampler {
+
+	private GridDownsampler() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to downsample the points. The grid spans the range of the point
+	 * coordinates. For each occupied cell and combination of colour, shape and
+	 * size, the last point in the collection is retained, and the retained
+	 * points are returned in the order that they were last seen, so that
+	 * overlapping points of differing appearance are drawn in the same order
+	 * as the full collection
+	 *
+	 * @param <T>
+	 *            The type of the points
+	 * @param points
+	 *            The points to downsample
+	 * @param resolution
+	 *            The number of grid cells along each axis
+	 * @return The retained points
+	 * @throws IllegalArgumentException
+	 *             If the resolution is less than 1
+	 */
+	public static <T extends SimpleShapeDrawableDataObject> List<T> downsample(
+			Collection<T> points, int resolution) {
+		if (resolution < 1) {
+			throw new IllegalArgumentException(
+					"The grid resolution must be at least 1");
+		}
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (T point : points) {
+			minX = Math.min(minX, point.getX());
+			maxX = Math.max(maxX, point.getX());
+			minY = Math.min(minY, point.getY());
+			maxY = Math.max(maxY, point.getY());
+		}
+		final double xScale = maxX > minX ? resolution / (maxX - minX) : 0.0;
+		final double yScale = maxY > minY ? resolution / (maxY - minY) : 0.0;
+
+		final Map<GridKey, T> cells = new LinkedHashMap<>();
+		for (T point : points) {
+			final GridKey key = new GridKey(
+					getCell(point.getX(), minX, xScale, resolution),
+					getCell(point.getY(), minY, yScale, resolution), point);
+			// Remove first so that the point moves to the end of the order
+			cells.remove(key);
+			cells.put(key, point);
+		}
+		return new ArrayList<>(cells.values());
+	}
+
+	private static int getCell(double value, double min, double scale,
+			int resolution) {
+		return Math.min((int) ((value - min) * scale), resolution - 1);
+	}
+
+	/**
+	 * Key for a grid cell and point appearance. The legend labels are included
+	 * so that every legend entry of the full collection is still represented
+	 */
+	private static final class GridKey {
+
+		private final int cellX, cellY;
+		private final Color colour;
+		private final String shape;
+		private final double size;
+		private final String colourLabel, shapeLabel, sizeLabel;
+
+		private GridKey(int cellX, int cellY,
+				SimpleShapeDrawableDataObject point) {
+			this.cellX = cellX;
+			this.cellY = cellY;
+			this.colour = point.getColour();
+			this.shape = point.getShape() == null ? null
+					: point.getShape().toString();
+			this.size = point.getSize();
+			this.colourLabel = point.getColourLabel();
+			this.shapeLabel = point.getShapeLabel();
+			this.sizeLabel = point.getSizeLabel();
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + cellX;
+			result = prime * result + cellY;
+			result = prime * result
+					+ ((colour == null) ? 0 : colour.hashCode());
+			result = prime * result + ((shape == null) ? 0 : shape.hashCode());
+			long temp = Double.doubleToLongBits(size);
+			result = prime * result + (int) (temp ^ (temp >>> 32));
+			result = prime * result
+					+ ((colourLabel == null) ? 0 : colourLabel.hashCode());
+			result = prime * result
+					+ ((shapeLabel == null) ? 0 : shapeLabel.hashCode());
+			result = prime * result
+					+ ((sizeLabel == null) ? 0 : sizeLabel.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof GridKey)) {
+				return false;
+			}
+			final GridKey other = (GridKey) obj;
+			return cellX == other.cellX && cellY == other.cellY
+					&& (colour == null ? other.colour == null
+							: colour.equals(other.colour))
+					&& (shape == null ? other.shape == null
+							: shape.equals(other.shape))
+					&& Double.doubleToLongBits(size) == Double
+							.doubleToLongBits(other.size)
+					&& (colourLabel == null ? other.colourLabel == null
+							: colourLabel.equals(other.colourLabel))
+					&& (shapeLabel == null ? other.shapeLabel == null
+							: shapeLabel.equals(other.shapeLabel))
+					&& (sizeLabel == null ? other.sizeLabel == null
+							: sizeLabel.equals(other.sizeLabel));
+		}
+	}
+}
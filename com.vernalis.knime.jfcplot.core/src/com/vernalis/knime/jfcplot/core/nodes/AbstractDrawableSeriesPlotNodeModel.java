@@ -20,11 +20,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.DoubleSummaryStatistics;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -54,6 +52,7 @@ import com.vernalis.knime.jfcplot.core.drawabledataobject.DrawableDataObject;
 import com.vernalis.knime.jfcplot.core.drawabledataobject.DrawableDataObjectFastPlot;
 import com.vernalis.knime.misc.ArrayUtils;
 import com.vernalis.knime.nodes.SettingsModelRegistry;
+import com.vernalis.knime.nodes.SettingsModelRegistryImpl;
 
 import static com.vernalis.knime.jfcplot.core.nodes.AbstractDrawableSeriesPlotNodeDialogPane.createColumnNameModel;
 
@@ -208,14 +207,14 @@ public abstract class AbstractDrawableSeriesPlotNodeModel<T extends DrawableData
 		}
 	}
 
-	private final Set<SettingsModel> models = new LinkedHashSet<>();
-	protected final SettingsModelRegistry smr = new SettingsModelRegistry() {
+	protected final SettingsModelRegistry smr =
+			new SettingsModelRegistryImpl(3, getLogger()) {
 
-		@Override
-		public Set<SettingsModel> getModels() {
-			return models;
-		}
-	};
+				@Override
+				public void doSetWarningMessage(String message) {
+					setWarningMessage(message);
+				}
+			};
 
 	protected final SettingsModelString[] columnNameMdls;
 	protected final ColumnFilter[] acceptedColumnsFilters;
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.plot.nodes.kerneldensity;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.vernalis.testing.RandomPoints;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Abstract base class for kernel density tests, which runs a check for every
+ * {@link KernelEstimator} and {@link KernelSymmetry} on clustered random data
+ * in 1 and 2 dimensions
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+abstract class AbstractKernelDensityTest {
+
+	/** The number of data points */
+	private static final int NUM_POINTS = 300;
+
+	/**
+	 * The cluster centres, listed so that two thirds of the data points are in
+	 * the first cluster
+	 */
+	private static final double[][] CENTRES =
+			{ { 3.0, 3.0 }, { 3.0, 3.0 }, { 7.0, 7.0 } };
+
+	/**
+	 * Test the 1D kernels
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void test1D() throws Exception {
+		checkAllKernels(1);
+	}
+
+	/**
+	 * Test the 2D kernels
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void test2D() throws Exception {
+		checkAllKernels(2);
+	}
+
+	private void checkAllKernels(int numDims) throws Exception {
+		final double[][] centres = new double[CENTRES.length][];
+		for (int i = 0; i < CENTRES.length; i++) {
+			centres[i] = Arrays.copyOf(CENTRES[i], numDims);
+		}
+		final double[][] data = RandomPoints
+				.gaussianClusters(new Random(42L), NUM_POINTS, centres, 1.0);
+		for (KernelEstimator kEst : KernelEstimator.values()) {
+			for (KernelSymmetry kSymm : KernelSymmetry.values()) {
+				checkKernel(data, kEst, kSymm,
+						numDims + "D " + kEst + " " + kSymm);
+			}
+		}
+	}
+
+	/**
+	 * Method to check a kernel
+	 *
+	 * @param data
+	 *            The data points
+	 * @param kEst
+	 *            The kernel estimator
+	 * @param kSymm
+	 *            The kernel symmetry
+	 * @param msg
+	 *            A description of the kernel for assertion messages
+	 * @throws Exception
+	 *             if an error occurred during the check
+	 */
+	protected abstract void checkKernel(double[][] data, KernelEstimator kEst,
+			KernelSymmetry kSymm, String msg) throws Exception;
+
+	/**
+	 * Method to check that intensities agree to within a tolerance relative to
+	 * the maximum expected intensity
+	 *
+	 * @param msg
+	 *            A description for assertion messages
+	 * @param expected
+	 *            The expected intensities
+	 * @param actual
+	 *            The actual intensities
+	 * @param relTolerance
+	 *            The tolerance, as a fraction of the maximum expected intensity
+	 */
+	protected static void assertIntensities(String msg, double[] expected,
+			double[] actual, double relTolerance) {
+		assertEquals(msg + " - number of intensities", expected.length,
+				actual.length);
+		double max = 0.0;
+		for (double intensity : expected) {
+			max = Math.max(max, intensity);
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(msg + " - intensity " + i, expected[i], actual[i],
+					relTolerance * max);
+		}
+	}
+}
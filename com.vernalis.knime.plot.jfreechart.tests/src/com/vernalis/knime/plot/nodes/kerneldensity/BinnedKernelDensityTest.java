@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.plot.nodes.kerneldensity;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.vernalis.knime.chem.util.points.Point;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for the {@link BinnedKernelDensity} class, which checks that the
+ * binned approximation of the kernel density grid agrees with the exact grid.
+ * The grids span -3 to 13 in each dimension, with a step of 0.05 bandwidths
+ * in 1D and 0.1 bandwidths in 2D
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class BinnedKernelDensityTest extends AbstractKernelDensityTest {
+
+	/**
+	 * The maximum difference between the binned and exact grids, relative to
+	 * the maximum of the exact grid. The binning error is proportional to the
+	 * square of the grid step
+	 */
+	private static final double TOLERANCE = 1.0e-2;
+
+	/**
+	 * The tolerance for the {@link KernelEstimator#UNIFORM} kernel. This
+	 * kernel is discontinuous, so the binning error is proportional to the
+	 * grid step rather than its square, and the grid is 5 times finer. The
+	 * binning and normalisation are shared by all kernels, so an error in
+	 * them is also detected by the tighter tolerance of the other kernels
+	 */
+	private static final double UNIFORM_TOLERANCE = 5.0e-2;
+
+	@Override
+	protected void checkKernel(double[][] data, KernelEstimator kEst,
+			KernelSymmetry kSymm, String msg) throws Exception {
+		final int numDims = data[0].length;
+		final int fineness = kEst == KernelEstimator.UNIFORM ? 5 : 1;
+		final int gridSize = (numDims == 1 ? 320 : 80) * fineness + 1;
+		final double bandwidth = numDims;
+		final List<Point<?>> exact =
+				createGrid(data, gridSize, bandwidth, kEst, kSymm, false);
+		final List<Point<?>> binned =
+				createGrid(data, gridSize, bandwidth, kEst, kSymm, true);
+		assertEquals(msg + " - number of grid points", exact.size(),
+				binned.size());
+		final double[] exactIntensities = new double[exact.size()];
+		final double[] binnedIntensities = new double[binned.size()];
+		for (int i = 0; i < exact.size(); i++) {
+			for (int dim = 0; dim < numDims; dim++) {
+				assertEquals(
+						msg + " - coordinate " + dim + " of grid point " + i,
+						exact.get(i).getCoordinate(dim),
+						binned.get(i).getCoordinate(dim), 0.0);
+			}
+			exactIntensities[i] = exact.get(i).getCoordinate(numDims);
+			binnedIntensities[i] = binned.get(i).getCoordinate(numDims);
+		}
+		assertIntensities(msg, exactIntensities, binnedIntensities,
+				kEst == KernelEstimator.UNIFORM ? UNIFORM_TOLERANCE
+						: TOLERANCE);
+	}
+
+	/**
+	 * Method to create a kernel with the given bandwidth in each dimension,
+	 * over the range -3 to 13, and return the grid points
+	 */
+	private static List<Point<?>> createGrid(double[][] data, int gridSize,
+			double bandwidth, KernelEstimator kEst, KernelSymmetry kSymm,
+			boolean binned) throws Exception {
+		final int numDims = data[0].length;
+		final BandwidthEstimationMethod[] bandwidthMethods =
+				new BandwidthEstimationMethod[numDims];
+		Arrays.fill(bandwidthMethods, BandwidthEstimationMethod.User_Defined);
+		final Double[] bandwidths = new Double[numDims];
+		Arrays.fill(bandwidths, bandwidth);
+		final KernelDensityFunction kernel = new KernelDensityFunction(
+				numDims, gridSize, kEst, kSymm, bandwidthMethods, bandwidths);
+		kernel.setBinned(binned);
+		for (double[] point : data) {
+			kernel.acceptPoint(point);
+		}
+		for (int dim = 0; dim < numDims; dim++) {
+			kernel.setKernelRange(dim, -3.0, 13.0);
+		}
+		kernel.generateKDEGrid(0.0);
+		return kernel.getGridPoints();
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.plot.nodes.kerneldensity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityFunction.PointImpl;
+import com.vernalis.testing.RandomPoints;
+
+/**
+ * Test class for the {@link ExactKernelDensity} class, which checks the
+ * intensities, calculated both individually and as a grid, against a brute
+ * force sum over all the data points. The kernels are checked truncated only
+ * at their support, as they are when no cutoff is set, against the
+ * untruncated sum, and truncated at 0.5 and 1.5 bandwidths
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class ExactKernelDensityTest extends AbstractKernelDensityTest {
+
+	/**
+	 * The maximum difference from the brute force sum, relative to the
+	 * maximum intensity
+	 */
+	private static final double TOLERANCE = 1.0e-12;
+
+	/** The number of query points, which are within and beyond the data */
+	private static final int NUM_QUERIES = 500;
+
+	@Override
+	protected void checkKernel(double[][] data, KernelEstimator kEst,
+			KernelSymmetry kSymm, String msg) throws Exception {
+		checkIntensities(data, kEst, kSymm, kEst.getSupport(),
+				Double.POSITIVE_INFINITY, msg + ", no cutoff");
+		checkIntensities(data, kEst, kSymm, 0.5, 0.5, msg + ", cutoff=0.5");
+		checkIntensities(data, kEst, kSymm, 1.5, 1.5, msg + ", cutoff=1.5");
+	}
+
+	private static void checkIntensities(double[][] data,
+			KernelEstimator kEst, KernelSymmetry kSymm, double cutoff,
+			double bruteForceCutoff, String msg) throws Exception {
+		final int numDims = data[0].length;
+		final List<PointImpl> points = new ArrayList<>();
+		for (double[] point : data) {
+			points.add(new PointImpl(point));
+		}
+		final double[] bandwidths = new double[numDims];
+		for (int dim = 0; dim < numDims; dim++) {
+			bandwidths[dim] = 0.5 * (dim + 1);
+		}
+		final ExactKernelDensity kernel = new ExactKernelDensity(points,
+				bandwidths, cutoff, kEst, kSymm);
+
+		final double[][] queryPoints = RandomPoints.uniform(new Random(17L),
+				NUM_QUERIES, numDims, -5.0, 15.0);
+		final double[] queries = new double[NUM_QUERIES * numDims];
+		final double[] expected = new double[NUM_QUERIES];
+		final double[] individual = new double[NUM_QUERIES];
+		for (int i = 0; i < NUM_QUERIES; i++) {
+			System.arraycopy(queryPoints[i], 0, queries, i * numDims,
+					numDims);
+			expected[i] = bruteForce(data, queryPoints[i], bandwidths,
+					bruteForceCutoff, kEst, kSymm);
+			individual[i] = kernel.getIntensity(queryPoints[i]);
+		}
+		assertIntensities(msg + " - grid", expected,
+				kernel.calculateGrid(queries, null), TOLERANCE);
+		assertIntensities(msg + " - individual", expected, individual,
+				TOLERANCE);
+	}
+
+	/**
+	 * The brute force sum of the kernel estimates of every data point, as
+	 * calculated before the data points were sorted into buckets. Data points
+	 * more than the cutoff number of bandwidths away in any dimension are
+	 * excluded
+	 */
+	private static double bruteForce(double[][] data, double[] query,
+			double[] bandwidths, double cutoff, KernelEstimator kEst,
+			KernelSymmetry kSymm) {
+		final int numDims = bandwidths.length;
+		double retVal = 0.0;
+		pointLoop: for (double[] point : data) {
+			final double[] u = new double[numDims];
+			for (int dim = 0; dim < numDims; dim++) {
+				u[dim] = (point[dim] - query[dim]) / bandwidths[dim];
+				if (Math.abs(u[dim]) > cutoff) {
+					continue pointLoop;
+				}
+			}
+			retVal += kSymm.getEstimate(u, kEst);
+		}
+		return retVal;
+	}
+}
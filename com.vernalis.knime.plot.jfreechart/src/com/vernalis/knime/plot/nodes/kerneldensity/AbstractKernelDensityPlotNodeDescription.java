@@ -24,10 +24,12 @@ import com.vernalis.knime.nodes.NodeDescriptionUtils;
 import com.vernalis.knime.nodes.NodeDescriptionUtils.TableFactory;
 
 import static com.vernalis.knime.nodes.NodeDescriptionUtils.addOptionToTab;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.BINNED_APPROXIMATION;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.CONTOUR_INTERVAL_SCHEMA;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.EXPAND_ALL_KERNELS_TO_WHOLE_RANGE;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.FILL_CONTOURS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.GROUPING_COLUMN;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_CUTOFF;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_ESTIMATOR;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_OPTIONS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_SYMMETRY;
@@ -39,6 +41,7 @@ import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.OUTLIE
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.OUTLIER_SIZE;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.SHOW_ALL_DATA_KERNEL;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.SHOW_LEGEND;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.TRUNCATE_KERNELS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.UPPER_BOUND;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.VALUES_COLUMN;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.X;
@@ -276,6 +279,27 @@ public class AbstractKernelDensityPlotNodeDescription
 		}
 		addOptionToTab(tab, getDialogGridPointsName(false),
 				"The number of grid points to calculate the kernel density function value for");
+		addOptionToTab(tab, BINNED_APPROXIMATION,
+				"If selected, the data are linearly binned onto the grid and "
+						+ "the kernel density function is calculated by "
+						+ "convolving the binned counts with the kernel using "
+						+ "a fast fourier transform, rather than summing the "
+						+ "contribution of every data point at every grid "
+						+ "point. This is much faster for large datasets, and "
+						+ "is a close approximation to the exact function as "
+						+ "long as the grid spacing is small compared to the "
+						+ "bandwidth");
+		addOptionToTab(tab, TRUNCATE_KERNELS,
+				"If selected, the contribution of each data point is "
+						+ "ignored beyond the kernel cutoff distance in any "
+						+ "dimension. Otherwise, kernels are only truncated "
+						+ "where their value becomes negligible. Kernels with "
+						+ "compact support are unaffected by cutoffs of 1 or "
+						+ "more bandwidths");
+		addOptionToTab(tab, KERNEL_CUTOFF,
+				"The number of bandwidths from a data point at which its "
+						+ "kernel is truncated. Smaller values are faster, but "
+						+ "less accurate for kernels without compact support");
 
 		/*
 		 * Outlier Options Group
@@ -35,11 +35,14 @@ import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.X;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createAutoGenerateBandwidthModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createAutorangeModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createAxisRangeModel;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createBinnedModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createGridSizeModel;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createKernelCutoffModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createKernelEstimatorModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createManualBandwidthModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createShowHValuesModel;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createShowLegendModel;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelDensityPlotNodeDialogPane.createTruncateKernelsModel;
 
 /**
  * Abstract Base Node Model implementation for Kernel Plots, handling 1D and 2D
@@ -66,6 +69,17 @@ public abstract class AbstractKernelDensityPlotNodeModel<T extends KernelDensity
 	protected final SettingsModelBoolean showHonAxesMdl;
 	protected final SettingsModelBoolean showLegendMdl =
 			registerSettingsModel(createShowLegendModel());
+	// From v2
+	protected final SettingsModelBoolean binnedMdl =
+			smr.registerSettingsModel(createBinnedModel(), 2,
+					mdl -> mdl.setBooleanValue(false));
+	// From v3
+	protected final SettingsModelBoolean truncateKernelsMdl =
+			smr.registerSettingsModel(createTruncateKernelsModel(), 3,
+					mdl -> mdl.setBooleanValue(false));
+	protected final SettingsModelDoubleBounded kernelCutoffMdl =
+			smr.registerSettingsModel(createKernelCutoffModel(), 3,
+					mdl -> mdl.setDoubleValue(4.0));
 
 	protected BandwidthEstimationMethod xBandWidthEstimator;
 	protected KernelEstimator kernelEstimator;
@@ -133,6 +147,15 @@ public abstract class AbstractKernelDensityPlotNodeModel<T extends KernelDensity
 				.valueOf(autoHXMdl.getStringValue()).needsManualValue());
 
 		gridSizeMdl = registerSettingsModel(createGridSizeModel(is2D));
+		truncateKernelsMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				kernelCutoffMdl
+						.setEnabled(truncateKernelsMdl.getBooleanValue());
+			}
+		});
+		kernelCutoffMdl.setEnabled(truncateKernelsMdl.getBooleanValue());
 		showHonAxesMdl = registerSettingsModel(createShowHValuesModel(is2D));
 
 		if (hasAutorangeAxes) {
@@ -164,4 +187,18 @@ public abstract class AbstractKernelDensityPlotNodeModel<T extends KernelDensity
 				KernelEstimator.valueOf(kernelEstimatorMdl.getStringValue());
 	}
 
+	/**
+	 * Method to apply the kernel calculation options to a new
+	 * {@link KernelDensityFunction}
+	 * 
+	 * @param kd
+	 *            The kernel density function
+	 */
+	protected void applyKernelCalculationOptions(KernelDensityFunction kd) {
+		kd.setBinned(binnedMdl.getBooleanValue());
+		if (truncateKernelsMdl.getBooleanValue()) {
+			kd.setKernelCutoff(kernelCutoffMdl.getDoubleValue());
+		}
+	}
+
 }
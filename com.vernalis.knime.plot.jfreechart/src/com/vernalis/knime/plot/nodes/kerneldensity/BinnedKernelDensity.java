@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.plot.nodes.kerneldensity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+
+import com.vernalis.knime.chem.util.points.Point;
+
+/**
+ * Utility class to calculate the un-normalised kernel intensities at every
+ * point of a regular grid using the binned approximation. The data points are
+ * linearly binned onto a grid with the same spacing as the kernel grid,
+ * extended to cover the data lying just outside the kernel grid, and the
+ * binned counts are then convolved with the kernel, sampled at the same grid
+ * spacing, using a fast Fourier transform. The cost is therefore
+ * O(N + G log G), where G is the total number of grid points, rather than the
+ * O(N G) of summing the contribution of every point at every grid point. The
+ * kernel is truncated at a given number of bandwidths
+ *
+ * See M.P. Wand, 'Fast Computation of Multivariate Kernel Estimators', J.
+ * Comp. Graph. Stat. (1994) 3, 433-445 for details
+ *
+ * @author s.roughley
+ *
+ */
+final class BinnedKernelDensity {
+
+	/**
+	 * The maximum total number of elements in the padded arrays used for the
+	 * fourier transforms
+	 */
+	private static final int MAX_TRANSFORM_SIZE = 1 << 24;
+
+	/**
+	 * Intensities smaller than this fraction of the maximum intensity are
+	 * treated as rounding errors from the fourier transforms and set to 0
+	 */
+	private static final double ROUNDING_TOLERANCE = 1e-13;
+
+	private BinnedKernelDensity() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to calculate the kernel intensities at the grid points. The
+	 * intensities are the sum of the kernel contributions of each data point,
+	 * and have not been divided by the normalisation factor
+	 *
+	 * @param data
+	 *            The data points
+	 * @param gridSize
+	 *            The number of grid points in each dimension (must be &gt; 1)
+	 * @param gridMinima
+	 *            The coordinates of the first grid point
+	 * @param stepSizes
+	 *            The grid spacing in each dimension
+	 * @param bandwidths
+	 *            The bandwidth in each dimension
+	 * @param cutoff
+	 *            The number of bandwidths at which the kernel is truncated
+	 * @param kEst
+	 *            The {@link KernelEstimator}
+	 * @param kSymm
+	 *            The {@link KernelSymmetry}
+	 * @param exec
+	 *            Execution monitor to check for cancellation - may be
+	 *            {@code null}
+	 * @return The intensities, indexed with the grid index of the first
+	 *         dimension changing fastest, in the same order as a
+	 *         {@link com.vernalis.knime.iterators.NestedCounterIterator}
+	 * @throws KernelException
+	 *             If the arrays required for the fourier transform would be
+	 *             too large
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled during calculation
+	 */
+	static double[] calculateGrid(Collection<? extends Point<?>> data,
+			int gridSize, double[] gridMinima, double[] stepSizes,
+			double[] bandwidths, double cutoff, KernelEstimator kEst,
+			KernelSymmetry kSymm, ExecutionMonitor exec)
+			throws KernelException, CanceledExecutionException {
+		final int numDims = gridMinima.length;
+
+		// Find the extent of the data and the kernel in grid steps
+		final double[] dataMin = new double[numDims];
+		final double[] dataMax = new double[numDims];
+		Arrays.fill(dataMin, Double.POSITIVE_INFINITY);
+		Arrays.fill(dataMax, Double.NEGATIVE_INFINITY);
+		for (Point<?> pt : data) {
+			for (int dim = 0; dim < numDims; dim++) {
+				dataMin[dim] = Math.min(dataMin[dim], pt.getCoordinate(dim));
+				dataMax[dim] = Math.max(dataMax[dim], pt.getCoordinate(dim));
+			}
+		}
+
+		// The binning grid is padded either side of the kernel grid to include
+		// data within the kernel cutoff of the grid
+		final int[] padLo = new int[numDims];
+		final int[] binSize = new int[numDims];
+		final int[] kernelHalfWidth = new int[numDims];
+		final int[] fftSize = new int[numDims];
+		long totalFftSize = 1;
+		for (int dim = 0; dim < numDims; dim++) {
+			final int maxPad = (int) Math.min(gridSize,
+					Math.ceil(cutoff * bandwidths[dim] / stepSizes[dim]));
+			padLo[dim] = getPadding(
+					(gridMinima[dim] - dataMin[dim]) / stepSizes[dim], maxPad);
+			final int padHi = getPadding((dataMax[dim] - gridMinima[dim])
+					/ stepSizes[dim] - (gridSize - 1), maxPad);
+			binSize[dim] = gridSize + padLo[dim] + padHi;
+			kernelHalfWidth[dim] = (int) Math.min(binSize[dim] - 1,
+					Math.ceil(cutoff * bandwidths[dim] / stepSizes[dim]));
+			// Pad to avoid 'wrap-around' of the circular convolution
+			fftSize[dim] = Integer.highestOneBit(
+					binSize[dim] + kernelHalfWidth[dim] - 1) << 1;
+			totalFftSize *= fftSize[dim];
+		}
+		if (totalFftSize > MAX_TRANSFORM_SIZE) {
+			throw new KernelException("The binned kernel would require "
+					+ totalFftSize + " grid points - reduce the grid size or "
+					+ "bandwidth, or use the exact kernel calculation");
+		}
+		final int size = (int) totalFftSize;
+		final int[] strides = new int[numDims];
+		strides[0] = 1;
+		for (int dim = 1; dim < numDims; dim++) {
+			strides[dim] = strides[dim - 1] * fftSize[dim - 1];
+		}
+
+		// Linearly bin the data. Points outside the binning grid but within the
+		// kernel cutoff of the kernel grid are summed exactly
+		final double[] binsRe = new double[size];
+		final List<Point<?>> exactPoints = new ArrayList<>();
+		final int numCorners = 1 << numDims;
+		final int[] lowerBin = new int[numDims];
+		final double[] fraction = new double[numDims];
+		int count = 0;
+		pointLoop: for (Point<?> pt : data) {
+			if (exec != null && (++count & 0xFFF) == 0) {
+				exec.checkCanceled();
+			}
+			for (int dim = 0; dim < numDims; dim++) {
+				final double t = (pt.getCoordinate(dim) - gridMinima[dim])
+						/ stepSizes[dim] + padLo[dim];
+				if (t < 0 || t > binSize[dim] - 1) {
+					if (isWithinSupport(pt, gridSize, gridMinima, stepSizes,
+							bandwidths, cutoff)) {
+						exactPoints.add(pt);
+					}
+					continue pointLoop;
+				}
+				lowerBin[dim] = Math.min((int) t, binSize[dim] - 2);
+				fraction[dim] = t - lowerBin[dim];
+			}
+			for (int corner = 0; corner < numCorners; corner++) {
+				double weight = 1.0;
+				int idx = 0;
+				for (int dim = 0; dim < numDims; dim++) {
+					final boolean upper = (corner & (1 << dim)) != 0;
+					weight *= upper ? fraction[dim] : 1.0 - fraction[dim];
+					idx += (lowerBin[dim] + (upper ? 1 : 0)) * strides[dim];
+				}
+				binsRe[idx] += weight;
+			}
+		}
+
+		// Sample the kernel at each grid offset, wrapping negative offsets to
+		// the end of each dimension
+		final double[] kernelRe = new double[size];
+		final int[] offset = new int[numDims];
+		final double[] u = new double[numDims];
+		for (int i = 0; i < size; i++) {
+			int idx = i;
+			boolean inRange = true;
+			for (int dim = numDims - 1; dim >= 0; dim--) {
+				int off = idx / strides[dim];
+				idx -= off * strides[dim];
+				if (off > fftSize[dim] / 2) {
+					off -= fftSize[dim];
+				}
+				if (Math.abs(off) > kernelHalfWidth[dim]) {
+					inRange = false;
+					break;
+				}
+				offset[dim] = off;
+			}
+			if (inRange) {
+				for (int dim = 0; dim < numDims; dim++) {
+					u[dim] = offset[dim] * stepSizes[dim] / bandwidths[dim];
+				}
+				kernelRe[i] = kSymm.getEstimate(u, kEst);
+			}
+		}
+
+		// Convolve
+		final double[] binsIm = new double[size];
+		final double[] kernelIm = new double[size];
+		transform(binsRe, binsIm, fftSize, strides, false, exec);
+		transform(kernelRe, kernelIm, fftSize, strides, false, exec);
+		for (int i = 0; i < size; i++) {
+			final double re = binsRe[i] * kernelRe[i] - binsIm[i] * kernelIm[i];
+			binsIm[i] = binsRe[i] * kernelIm[i] + binsIm[i] * kernelRe[i];
+			binsRe[i] = re;
+		}
+		transform(binsRe, binsIm, fftSize, strides, true, exec);
+
+		// Extract the kernel grid from the padded grid
+		int numGridPoints = 1;
+		for (int dim = 0; dim < numDims; dim++) {
+			numGridPoints *= gridSize;
+		}
+		final double[] retVal = new double[numGridPoints];
+		final double[] gridPoint = new double[numDims];
+		double maxIntensity = 0.0;
+		for (int i = 0; i < numGridPoints; i++) {
+			int idx = 0;
+			int gridIdx = i;
+			for (int dim = 0; dim < numDims; dim++) {
+				final int dimIdx = gridIdx % gridSize;
+				gridIdx /= gridSize;
+				idx += (dimIdx + padLo[dim]) * strides[dim];
+				gridPoint[dim] = gridMinima[dim] + dimIdx * stepSizes[dim];
+			}
+			retVal[i] = binsRe[idx] / size;
+			for (Point<?> pt : exactPoints) {
+				for (int dim = 0; dim < numDims; dim++) {
+					u[dim] = (pt.getCoordinate(dim) - gridPoint[dim])
+							/ bandwidths[dim];
+				}
+				retVal[i] += kSymm.getEstimate(u, kEst);
+			}
+			maxIntensity = Math.max(maxIntensity, Math.abs(retVal[i]));
+		}
+		for (int i = 0; i < numGridPoints; i++) {
+			if (Math.abs(retVal[i]) < ROUNDING_TOLERANCE * maxIntensity) {
+				retVal[i] = 0.0;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * @param overhang
+	 *            The distance, in grid steps, by which the data extends beyond
+	 *            the end of the grid
+	 * @param maxPad
+	 *            The maximum padding
+	 * @return The number of grid points to pad the end of the grid with
+	 */
+	private static int getPadding(double overhang, int maxPad) {
+		return overhang <= 0 ? 0 : (int) Math.min(maxPad, Math.ceil(overhang));
+	}
+
+	/**
+	 * @return {@code true} if the point lies within the kernel cutoff of the
+	 *         box containing the kernel grid
+	 */
+	private static boolean isWithinSupport(Point<?> pt, int gridSize,
+			double[] gridMinima, double[] stepSizes, double[] bandwidths,
+			double cutoff) {
+		for (int dim = 0; dim < gridMinima.length; dim++) {
+			final double x = pt.getCoordinate(dim);
+			final double gridMax =
+					gridMinima[dim] + (gridSize - 1) * stepSizes[dim];
+			final double dist = x < gridMinima[dim] ? gridMinima[dim] - x
+					: x > gridMax ? x - gridMax : 0.0;
+			if (dist > cutoff * bandwidths[dim]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Method to perform an in-place multi-dimensional fast fourier transform,
+	 * by applying the 1D transform along each dimension in turn. The inverse
+	 * transform is not scaled
+	 *
+	 * @param re
+	 *            The real part
+	 * @param im
+	 *            The imaginary part
+	 * @param sizes
+	 *            The size of each dimension - all must be powers of 2
+	 * @param strides
+	 *            The array stride of each dimension
+	 * @param inverse
+	 *            Whether the inverse transform is required
+	 * @param exec
+	 *            Execution monitor to check for cancellation - may be
+	 *            {@code null}
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled during calculation
+	 */
+	private static void transform(double[] re, double[] im, int[] sizes,
+			int[] strides, boolean inverse, ExecutionMonitor exec)
+			throws CanceledExecutionException {
+		final int size = re.length;
+		for (int dim = 0; dim < sizes.length; dim++) {
+			final int n = sizes[dim];
+			final int stride = strides[dim];
+			final double[] lineRe = new double[n];
+			final double[] lineIm = new double[n];
+			// Each line along dim starts at an index whose component along dim
+			// is 0
+			for (int start = 0; start < size; start++) {
+				if ((start / stride) % n != 0) {
+					continue;
+				}
+				if (exec != null) {
+					exec.checkCanceled();
+				}
+				for (int i = 0; i < n; i++) {
+					lineRe[i] = re[start + i * stride];
+					lineIm[i] = im[start + i * stride];
+				}
+				fft(lineRe, lineIm, inverse);
+				for (int i = 0; i < n; i++) {
+					re[start + i * stride] = lineRe[i];
+					im[start + i * stride] = lineIm[i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * In-place iterative radix-2 1D fast fourier transform. The inverse
+	 * transform is not scaled
+	 *
+	 * @param re
+	 *            The real part
+	 * @param im
+	 *            The imaginary part
+	 * @param inverse
+	 *            Whether the inverse transform is required
+	 */
+	private static void fft(double[] re, double[] im, boolean inverse) {
+		final int n = re.length;
+		// Bit-reversal permutation
+		for (int i = 1, j = 0; i < n; i++) {
+			int bit = n >> 1;
+			for (; (j & bit) != 0; bit >>= 1) {
+				j ^= bit;
+			}
+			j ^= bit;
+			if (i < j) {
+				double tmp = re[i];
+				re[i] = re[j];
+				re[j] = tmp;
+				tmp = im[i];
+				im[i] = im[j];
+				im[j] = tmp;
+			}
+		}
+		// Twiddle factors
+		final double[] wRe = new double[n / 2];
+		final double[] wIm = new double[n / 2];
+		for (int k = 0; k < n / 2; k++) {
+			final double angle = (inverse ? 2 : -2) * Math.PI * k / n;
+			wRe[k] = Math.cos(angle);
+			wIm[k] = Math.sin(angle);
+		}
+		for (int len = 2; len <= n; len <<= 1) {
+			final int halfLen = len / 2;
+			final int wStep = n / len;
+			for (int i = 0; i < n; i += len) {
+				for (int j = 0; j < halfLen; j++) {
+					final int a = i + j;
+					final int b = a + halfLen;
+					final double cRe = wRe[j * wStep];
+					final double cIm = wIm[j * wStep];
+					final double tRe = re[b] * cRe - im[b] * cIm;
+					final double tIm = re[b] * cIm + im[b] * cRe;
+					re[b] = re[a] - tRe;
+					im[b] = im[a] - tIm;
+					re[a] += tRe;
+					im[a] += tIm;
+				}
+			}
+		}
+	}
+}
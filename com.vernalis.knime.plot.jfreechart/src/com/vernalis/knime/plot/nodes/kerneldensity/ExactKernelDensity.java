@@ -0,0 +1,293 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.knime.plot.nodes.kerneldensity;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.chem.util.points.Point;
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+
+/**
+ * Class to calculate the un-normalised kernel intensities by summing the
+ * contributions of the data points. The kernel is truncated at a given number
+ * of bandwidths in each dimension, and the data points are held in primitive
+ * arrays, sorted into a regular grid of buckets at least that wide, so that
+ * each intensity calculation only visits the data points in the neighbouring
+ * buckets. Truncation at the kernel support is exact for the kernels with
+ * compact support
+ *
+ * @author s.roughley
+ *
+ */
+final class ExactKernelDensity {
+
+	/**
+	 * The maximum total number of buckets
+	 */
+	private static final int MAX_BUCKETS = 1 << 20;
+
+	/**
+	 * The number of blocks of grid points to create for each thread
+	 */
+	private static final int BLOCKS_PER_THREAD = 4;
+
+	private final int numDims;
+	private final KernelEstimator kEst;
+	private final KernelSymmetry kSymm;
+	private final double[] bandwidths;
+	private final double cutoff;
+
+	private final double[] bucketMin;
+	private final double[] bucketWidth;
+	private final int[] numBuckets;
+	private final int[] bucketStrides;
+	/** The index of the first point in each bucket, and the total count */
+	private final int[] bucketStart;
+	/** The point coordinates, in bucket order, numDims per point */
+	private final double[] coords;
+
+	/**
+	 * Constructor
+	 *
+	 * @param data
+	 *            The data points
+	 * @param bandwidths
+	 *            The bandwidth in each dimension
+	 * @param cutoff
+	 *            The number of bandwidths at which the kernel is truncated
+	 * @param kEst
+	 *            The {@link KernelEstimator}
+	 * @param kSymm
+	 *            The {@link KernelSymmetry}
+	 */
+	ExactKernelDensity(Collection<? extends Point<?>> data,
+			double[] bandwidths, double cutoff, KernelEstimator kEst,
+			KernelSymmetry kSymm) {
+		numDims = bandwidths.length;
+		this.kEst = kEst;
+		this.kSymm = kSymm;
+		this.bandwidths = Arrays.copyOf(bandwidths, numDims);
+		this.cutoff = cutoff;
+
+		bucketMin = new double[numDims];
+		final double[] max = new double[numDims];
+		Arrays.fill(bucketMin, Double.POSITIVE_INFINITY);
+		Arrays.fill(max, Double.NEGATIVE_INFINITY);
+		for (Point<?> pt : data) {
+			for (int dim = 0; dim < numDims; dim++) {
+				bucketMin[dim] =
+						Math.min(bucketMin[dim], pt.getCoordinate(dim));
+				max[dim] = Math.max(max[dim], pt.getCoordinate(dim));
+			}
+		}
+
+		// The buckets are at least the kernel cutoff wide, so that only the
+		// adjacent buckets need to be visited
+		final int maxBucketsPerDim =
+				Math.max(1, (int) Math.pow(MAX_BUCKETS, 1.0 / numDims));
+		bucketWidth = new double[numDims];
+		numBuckets = new int[numDims];
+		bucketStrides = new int[numDims];
+		int totalBuckets = 1;
+		for (int dim = 0; dim < numDims; dim++) {
+			final double range =
+					data.isEmpty() ? 0.0 : max[dim] - bucketMin[dim];
+			bucketWidth[dim] = Math.max(cutoff * bandwidths[dim],
+					range / maxBucketsPerDim);
+			numBuckets[dim] = bucketWidth[dim] > 0
+					? Math.min(maxBucketsPerDim,
+							(int) (range / bucketWidth[dim]) + 1)
+					: 1;
+			bucketStrides[dim] = totalBuckets;
+			totalBuckets *= numBuckets[dim];
+		}
+
+		// Counting sort of the points into buckets
+		final int[] pointBuckets = new int[data.size()];
+		bucketStart = new int[totalBuckets + 1];
+		int i = 0;
+		for (Point<?> pt : data) {
+			int bucket = 0;
+			for (int dim = 0; dim < numDims; dim++) {
+				bucket += getBucket(pt.getCoordinate(dim), dim)
+						* bucketStrides[dim];
+			}
+			pointBuckets[i++] = bucket;
+			bucketStart[bucket + 1]++;
+		}
+		for (int b = 0; b < totalBuckets; b++) {
+			bucketStart[b + 1] += bucketStart[b];
+		}
+		final int[] next = Arrays.copyOf(bucketStart, totalBuckets);
+		coords = new double[data.size() * numDims];
+		i = 0;
+		for (Point<?> pt : data) {
+			final int offset = next[pointBuckets[i++]]++ * numDims;
+			for (int dim = 0; dim < numDims; dim++) {
+				coords[offset + dim] = pt.getCoordinate(dim);
+			}
+		}
+	}
+
+	private int getBucket(double x, int dim) {
+		final int bucket =
+				(int) Math.floor((x - bucketMin[dim]) / bucketWidth[dim]);
+		return Math.max(0, Math.min(numBuckets[dim] - 1, bucket));
+	}
+
+	/**
+	 * Method to calculate the intensity at a point
+	 *
+	 * @param x
+	 *            The coordinates of the point
+	 * @return The sum of the kernel estimates of all data points at the point
+	 */
+	double getIntensity(double[] x) {
+		return getIntensity(x, 0, new double[numDims], new int[numDims],
+				new int[numDims], new int[numDims]);
+	}
+
+	/**
+	 * Method to calculate the intensity at a point, using the supplied working
+	 * arrays, each of length numDims
+	 */
+	private double getIntensity(double[] x, int offset, double[] u, int[] lo,
+			int[] hi, int[] bucketIdx) {
+		for (int dim = 0; dim < numDims; dim++) {
+			final double xd = x[offset + dim];
+			final double reach = cutoff * bandwidths[dim];
+			if (xd + reach < bucketMin[dim] || xd - reach > bucketMin[dim]
+					+ numBuckets[dim] * bucketWidth[dim]) {
+				// Too far from all the data
+				return 0.0;
+			}
+			lo[dim] = getBucket(xd - reach, dim);
+			hi[dim] = getBucket(xd + reach, dim);
+		}
+
+		double retVal = 0.0;
+		System.arraycopy(lo, 0, bucketIdx, 0, numDims);
+		while (true) {
+			int bucket = 0;
+			for (int dim = 0; dim < numDims; dim++) {
+				bucket += bucketIdx[dim] * bucketStrides[dim];
+			}
+			final int end = bucketStart[bucket + 1];
+			pointLoop: for (int p = bucketStart[bucket]; p < end; p++) {
+				for (int dim = 0; dim < numDims; dim++) {
+					u[dim] = (coords[p * numDims + dim] - x[offset + dim])
+							/ bandwidths[dim];
+					if (Math.abs(u[dim]) > cutoff) {
+						continue pointLoop;
+					}
+				}
+				retVal += kSymm.getEstimate(u, kEst);
+			}
+
+			// Move to the next bucket
+			int dim = 0;
+			while (dim < numDims && bucketIdx[dim] == hi[dim]) {
+				bucketIdx[dim] = lo[dim];
+				dim++;
+			}
+			if (dim == numDims) {
+				return retVal;
+			}
+			bucketIdx[dim]++;
+		}
+	}
+
+	/**
+	 * Method to calculate the intensities at a set of grid points. The grid
+	 * points are divided into blocks of consecutive points, which are
+	 * calculated concurrently
+	 *
+	 * @param gridCoords
+	 *            The coordinates of the grid points, numDims per point
+	 * @param exec
+	 *            Execution monitor for progress and cancellation - may be
+	 *            {@code null}
+	 * @return The intensities at the grid points
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled during calculation
+	 */
+	double[] calculateGrid(double[] gridCoords, ExecutionMonitor exec)
+			throws CanceledExecutionException {
+		final int numPoints = gridCoords.length / numDims;
+		final double[] retVal = new double[numPoints];
+		final int blockSize = Math.max(1,
+				-Math.floorDiv(-numPoints, BLOCKS_PER_THREAD
+						* Runtime.getRuntime().availableProcessors()));
+		final AtomicLong done = new AtomicLong();
+		final ThreadPool pool =
+				KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+		final Deque<Future<Void>> futures = new ArrayDeque<>();
+		try {
+			for (int start = 0; start < numPoints; start += blockSize) {
+				final int blockStart = start;
+				final int blockEnd = Math.min(numPoints, start + blockSize);
+				futures.add(pool.enqueue(() -> {
+					final double[] u = new double[numDims];
+					final int[] lo = new int[numDims];
+					final int[] hi = new int[numDims];
+					final int[] bucketIdx = new int[numDims];
+					for (int i = blockStart; i < blockEnd; i++) {
+						if (exec != null) {
+							exec.checkCanceled();
+						}
+						retVal[i] = getIntensity(gridCoords, i * numDims, u,
+								lo, hi, bucketIdx);
+					}
+					done.addAndGet(blockEnd - blockStart);
+					return null;
+				}));
+			}
+			while (!futures.isEmpty()) {
+				ThreadPoolUtils.waitInvisibly(pool, futures.poll()::get);
+				if (exec != null) {
+					exec.setProgress((double) done.get() / numPoints);
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CanceledExecutionException(
+					"Interrupted during kernel calculation");
+		} finally {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return retVal;
+	}
+}
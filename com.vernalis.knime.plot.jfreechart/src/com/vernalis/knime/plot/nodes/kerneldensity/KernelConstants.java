@@ -24,6 +24,8 @@ public class KernelConstants {
 
 	static final String BANDWIDTH = " Bandwidth";
 	static final String BANDWIDTH_H = "Bandwidth (H)";
+	static final String BINNED_APPROXIMATION =
+			"Use binned (FFT) approximation";
 	static final String COLUMN_SELECTION = "Column Selection";
 	static final String CONTOUR_INTERVAL_SCHEMA = "Contour Interval Schema";
 	static final String CONTOUR_OPTIONS = "Contour Options";
@@ -33,6 +35,7 @@ public class KernelConstants {
 			"Expand all kernels to whole range";
 	static final String FILL_CONTOURS = "Fill Contours";
 	static final String GROUPING_COLUMN = "Grouping Column";
+	static final String KERNEL_CUTOFF = "Kernel cutoff (bandwidths)";
 	static final String KERNEL_ESTIMATOR = "Kernel Estimator";
 	public static final String KERNEL_OPTIONS = "Kernel Options";
 	static final String KERNEL_SYMMETRY = "Kernel Symmetry";
@@ -48,6 +51,7 @@ public class KernelConstants {
 	static final String PLOT_OPTIONS = "Plot Options";
 	static final String SHOW_ALL_DATA_KERNEL = "Show all-data kernel";
 	static final String SHOW_LEGEND = "Show legend";
+	static final String TRUNCATE_KERNELS = "Truncate kernels";
 	static final String UPPER_BOUND = "Upper bound";
 	static final String VALUES_COLUMN = "Values Column";
 	static final String X = "x";
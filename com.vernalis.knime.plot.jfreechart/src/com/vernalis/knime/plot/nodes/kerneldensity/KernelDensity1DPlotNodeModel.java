@@ -262,6 +262,11 @@ public class KernelDensity1DPlotNodeModel extends
 
 		}
 
+		kernels.values().forEach(kd -> applyKernelCalculationOptions(kd));
+		if (totalKernel != null) {
+			applyKernelCalculationOptions(totalKernel);
+		}
+
 		if (!xAutoRngMdl.getBooleanValue()) {
 			kernels.values().forEach(kd -> kd.setKernelRange(0,
 					xRangeMdl.getMinRange(), xRangeMdl.getMaxRange()));
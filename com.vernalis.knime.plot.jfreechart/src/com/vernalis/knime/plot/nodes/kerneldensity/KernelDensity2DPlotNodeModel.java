@@ -367,6 +367,7 @@ public class KernelDensity2DPlotNodeModel extends
 				.valueOf(contourIntervalSchemaMdl.getStringValue());
 
 		KernelDensityFunction kd = getKernelDensity();
+		applyKernelCalculationOptions(kd);
 
 		final long numRows = table.size();
 		double progPerRow = 1.0 / numRows;
@@ -46,6 +46,13 @@ import com.vernalis.knime.misc.DoubleSummary;
  * {@link KernelDensityFunction} grid can be calculated. Once the grid has been
  * calculated, it is not possible to add further datapoints
  *
+ * By default, the grid is calculated exactly by summing the contribution of
+ * every datapoint at every grid point. For large datasets, the faster binned
+ * approximation can be used instead by calling {@link #setBinned(boolean)}
+ * before the grid is calculated. The exact calculation is divided between
+ * threads, and may be accelerated further by truncating the kernel using
+ * {@link #setKernelCutoff(double)}
+ *
  * @author S.Roughley knime@vernalis.com
  *
  */
@@ -180,6 +187,9 @@ public class KernelDensityFunction {
 	protected final KernelSymmetry kSymm;
 	protected final BandwidthEstimationMethod[] bandwidthRoT;
 	protected volatile boolean isClosed;
+	protected boolean binned;
+	protected double kernelCutoff = Double.POSITIVE_INFINITY;
+	private ExactKernelDensity exactKernel;
 
 	/**
 	 * Convenience constructor for a 1D kernel
@@ -335,6 +345,64 @@ public class KernelDensityFunction {
 		return gridSize;
 	}
 
+	/**
+	 * Method to set whether the grid should be calculated using the binned
+	 * approximation, in which the datapoints are linearly binned onto the grid
+	 * and convolved with the kernel using a fast fourier transform, rather than
+	 * by summing the contribution of every datapoint at every grid point
+	 * 
+	 * @param binned
+	 *            Whether the binned approximation should be used
+	 * @throws IllegalStateException
+	 *             If the grid has been calculated and the object closed
+	 */
+	public synchronized void setBinned(boolean binned)
+			throws IllegalStateException {
+		if (isClosed) {
+			throw new IllegalStateException("The kernel has been closed");
+		}
+		this.binned = binned;
+	}
+
+	/**
+	 * @return whether the grid is calculated using the binned approximation
+	 */
+	public boolean isBinned() {
+		return binned;
+	}
+
+	/**
+	 * Method to set the number of bandwidths at which the kernel is truncated.
+	 * The default is for the kernel to be truncated only at the support of the
+	 * {@link KernelEstimator} (see {@link KernelEstimator#getSupport()}).
+	 * Values greater than the support have no effect
+	 * 
+	 * @param kernelCutoff
+	 *            The number of bandwidths at which the kernel is truncated
+	 * @throws IllegalArgumentException
+	 *             If the cutoff is not a positive number
+	 * @throws IllegalStateException
+	 *             If the grid has been calculated and the object closed
+	 */
+	public synchronized void setKernelCutoff(double kernelCutoff)
+			throws IllegalStateException, IllegalArgumentException {
+		if (isClosed) {
+			throw new IllegalStateException("The kernel has been closed");
+		}
+		if (!(kernelCutoff > 0)) {
+			throw new IllegalArgumentException(
+					"The kernel cutoff must be a positive number");
+		}
+		this.kernelCutoff = kernelCutoff;
+	}
+
+	/**
+	 * @return the number of bandwidths at which the kernel is truncated
+	 */
+	public double getKernelCutoff() {
+		return kernelCutoff;
+	}
+
 	/**
 	 * @return the bandwidth matrix
 	 */
@@ -366,17 +434,7 @@ public class KernelDensityFunction {
 		double divisor = IntStream.range(0, getNumDimensions())
 				.mapToDouble(dim -> H[dim][dim] * H[dim][dim])
 				.reduce(data.size(), (a, b) -> a * b);
-		double retVal = 0.0;
-		for (Point<PointImpl> dataPoint : data) {
-			double[] u = IntStream.range(0, getNumDimensions())
-					.mapToDouble(
-							dim -> (dataPoint.getCoordinate(dim) - coords[dim])
-									/ H[dim][dim])
-					.toArray();
-			retVal += kSymm.getEstimate(u, kEst);
-		}
-		retVal /= divisor;
-		return retVal;
+		return getExactKernel().getIntensity(coords) / divisor;
 	}
 
 	/**
@@ -648,15 +706,16 @@ public class KernelDensityFunction {
 		double[] gridMinima = Arrays.stream(dimensionBounds)
 				.mapToDouble(rng -> rng.getCoordinate(0)).toArray();
 
+		// Generate the grid points, skipping any which are not required, and
+		// keeping track of the position of each in the full grid
 		NestedCounterIterator iter = new NestedCounterIterator(
 				ArrayUtils.of(gridSize, numDimensions));
-
-		double progPerGridpoint = 1.0 / (getGridSize() * getGridSize());
-		long count = 0l;
+		final List<Point<?>> newGridPts = new ArrayList<>();
+		final List<Integer> newGridPtIdx = new ArrayList<>();
+		int gridPointIdx = 0;
 		while (iter.hasNext()) {
 			if (exec != null) {
 				exec.checkCanceled();
-				exec.setProgress(count++ * progPerGridpoint);
 			}
 			// Loop over the grid points
 			int[] gridIdx = iter.next();
@@ -669,22 +728,91 @@ public class KernelDensityFunction {
 				gridPoint.setCoordinate(dim,
 						gridMinima[dim] + gridIdx[dim] * stepSizes[dim]);
 			}
-			double pointIntensity = 0.0;
-			for (Point<PointImpl> dataPoint : data) {
-				double[] u = IntStream.range(0, getNumDimensions())
-						.mapToDouble(dim -> (dataPoint.getCoordinate(dim)
-								- gridPoint.getCoordinate(dim)) / H[dim][dim])
-						.toArray();
-				final double est = kSymm.getEstimate(u, kEst);
-				pointIntensity += est;
+			final int idx = gridPointIdx++;
+			if (!includeGridPoint(gridPoint, stepSizes)) {
+				// skip this point
+				continue;
 			}
-			pointIntensity /= divisor;
-			gridPoint.setCoordinate(getNumDimensions(), pointIntensity);
+			newGridPts.add(gridPoint);
+			newGridPtIdx.add(idx);
+		}
+
+		// The binned approximation calculates the whole grid in one pass - a
+		// single point grid is always calculated exactly
+		final double[] intensities;
+		if (isBinned() && gridSize > 1) {
+			final double[] binnedIntensities = BinnedKernelDensity
+					.calculateGrid(data, gridSize, gridMinima, stepSizes,
+							getBandwidths(), getEffectiveKernelCutoff(), kEst,
+							kSymm, exec);
+			intensities = newGridPtIdx.stream()
+					.mapToDouble(idx -> binnedIntensities[idx]).toArray();
+		} else {
+			final double[] gridCoords =
+					new double[newGridPts.size() * getNumDimensions()];
+			for (int i = 0; i < newGridPts.size(); i++) {
+				for (int dim = 0; dim < getNumDimensions(); dim++) {
+					gridCoords[i * getNumDimensions() + dim] =
+							newGridPts.get(i).getCoordinate(dim);
+				}
+			}
+			intensities = getExactKernel().calculateGrid(gridCoords, exec);
+		}
+
+		for (int i = 0; i < newGridPts.size(); i++) {
+			final Point<?> gridPoint = newGridPts.get(i);
+			gridPoint.setCoordinate(getNumDimensions(),
+					intensities[i] / divisor);
 			addGridPoint(gridPoint);
 		}
 
 	}
 
+	/**
+	 * @return The bandwidths in each dimension
+	 */
+	private double[] getBandwidths() {
+		return IntStream.range(0, getNumDimensions())
+				.mapToDouble(dim -> H[dim][dim]).toArray();
+	}
+
+	/**
+	 * @return The number of bandwidths at which the kernel is truncated,
+	 *         allowing for the support of the kernel estimator
+	 */
+	private double getEffectiveKernelCutoff() {
+		return Math.min(kernelCutoff, kEst.getSupport());
+	}
+
+	/**
+	 * @return The {@link ExactKernelDensity} used for the exact calculation of
+	 *         intensities, which is created on first use after the bandwidths
+	 *         are initialised
+	 */
+	private synchronized ExactKernelDensity getExactKernel() {
+		if (exactKernel == null) {
+			exactKernel = new ExactKernelDensity(data, getBandwidths(),
+					getEffectiveKernelCutoff(), kEst, kSymm);
+		}
+		return exactKernel;
+	}
+
+	/**
+	 * Method to determine whether a grid point should be included in the
+	 * kernel grid. The default implementation includes all points, but
+	 * subclasses may override to restrict the grid to a region of interest
+	 * 
+	 * @param gridPoint
+	 *            The grid point
+	 * @param stepSizes
+	 *            The grid spacing in each dimension
+	 * @return {@code true} if the grid point should be included
+	 */
+	protected boolean includeGridPoint(Point<?> gridPoint,
+			double[] stepSizes) {
+		return true;
+	}
+
 	/**
 	 * Factory method to keep PointImpl hidden
 	 * 
@@ -46,6 +46,7 @@ import com.vernalis.knime.jfcplot.core.nodes.AbstractDrawableSeriesPlotNodeDialo
 import com.vernalis.knime.misc.ArrayUtils;
 
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.BANDWIDTH;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.BINNED_APPROXIMATION;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.COLUMN_SELECTION;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.CONTOUR_INTERVAL_SCHEMA;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.DEFAULT_GRID_POINTS;
@@ -53,6 +54,7 @@ import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.DEFAUL
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.EXPAND_ALL_KERNELS_TO_WHOLE_RANGE;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.FILL_CONTOURS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.GROUPING_COLUMN;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_CUTOFF;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_ESTIMATOR;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_OPTIONS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.KERNEL_SYMMETRY;
@@ -66,6 +68,7 @@ import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.OUTLIE
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.PLOT_OPTIONS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.SHOW_ALL_DATA_KERNEL;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.SHOW_LEGEND;
+import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.TRUNCATE_KERNELS;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.UPPER_BOUND;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.VALUES_COLUMN;
 import static com.vernalis.knime.plot.nodes.kerneldensity.KernelConstants.X;
@@ -261,6 +264,28 @@ public class KernelDensityPlotNodeDialogPane
 
 		addDialogComponent(new DialogComponentNumber(createGridSizeModel(is2D),
 				getDialogGridPointsName(is2D), 50));
+		addDialogComponent(new DialogComponentBoolean(createBinnedModel(),
+				BINNED_APPROXIMATION));
+
+		final SettingsModelBoolean truncateKernelsMdl =
+				createTruncateKernelsModel();
+		final SettingsModelDoubleBounded kernelCutoffMdl =
+				createKernelCutoffModel();
+		truncateKernelsMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				kernelCutoffMdl
+						.setEnabled(truncateKernelsMdl.getBooleanValue());
+			}
+		});
+		kernelCutoffMdl.setEnabled(truncateKernelsMdl.getBooleanValue());
+		setHorizontalPlacement(true);
+		addDialogComponent(new DialogComponentBoolean(truncateKernelsMdl,
+				TRUNCATE_KERNELS));
+		addDialogComponent(new DialogComponentNumber(kernelCutoffMdl,
+				KERNEL_CUTOFF, 0.5));
+		setHorizontalPlacement(false);
 
 		if (!is2D) {
 			addDialogComponent(new DialogComponentBoolean(expandKernelsMdl,
@@ -563,6 +588,27 @@ public class KernelDensityPlotNodeDialogPane
 				DEFAULT_GRID_POINTS, 5, 10000);
 	}
 
+	/**
+	 * @return The settings model for the binned approximation option
+	 */
+	static SettingsModelBoolean createBinnedModel() {
+		return new SettingsModelBoolean(BINNED_APPROXIMATION, false);
+	}
+
+	/**
+	 * @return The settings model for the truncate kernels option
+	 */
+	static SettingsModelBoolean createTruncateKernelsModel() {
+		return new SettingsModelBoolean(TRUNCATE_KERNELS, false);
+	}
+
+	/**
+	 * @return The settings model for the kernel cutoff option
+	 */
+	static SettingsModelDoubleBounded createKernelCutoffModel() {
+		return new SettingsModelDoubleBounded(KERNEL_CUTOFF, 4.0, 1.0, 100.0);
+	}
+
 	/**
 	 * @param is2D
 	 *            Is the node 2D?
@@ -26,7 +26,8 @@ import java.util.Arrays;
  *
  */
 public enum KernelEstimator {
-	UNIFORM("K(u) = 0.5 (|u| \u2264 1), 0 (|u) > 1); aka 'Uniform' or 'Boxcar'") {
+	UNIFORM("K(u) = 0.5 (|u| \u2264 1), 0 (|u) > 1); aka 'Uniform' or 'Boxcar'",
+			1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -37,7 +38,7 @@ public enum KernelEstimator {
 		}
 	},
 
-	TRIANGLE("K(u) = 1-|u| (|u| \u2264 1), 0 (|u) > 1)") {
+	TRIANGLE("K(u) = 1-|u| (|u| \u2264 1), 0 (|u) > 1)", 1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -48,7 +49,8 @@ public enum KernelEstimator {
 		}
 	},
 
-	EPANECHNIKOV("K(u) = 3\u2022(1-u\u00B2)/4 (|u| \u2264 1), 0 (|u) > 1)") {
+	EPANECHNIKOV("K(u) = 3\u2022(1-u\u00B2)/4 (|u| \u2264 1), 0 (|u) > 1)",
+			1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -59,7 +61,8 @@ public enum KernelEstimator {
 		}
 	},
 
-	QUARTIC("K(u) = 15\u2022(1-u\u00B2)\u00B2/16 (|u| \u2264 1), 0 (|u) > 1)") {
+	QUARTIC("K(u) = 15\u2022(1-u\u00B2)\u00B2/16 (|u| \u2264 1), 0 (|u) > 1)",
+			1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -71,7 +74,8 @@ public enum KernelEstimator {
 	},
 
 	TRIWEIGHT(
-			"K(u) = 35\u2022(1-u\u00B2)\u00B3/32 (|u| \u2264 1), 0 (|u) > 1)") {
+			"K(u) = 35\u2022(1-u\u00B2)\u00B3/32 (|u| \u2264 1), 0 (|u) > 1)",
+			1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -83,7 +87,8 @@ public enum KernelEstimator {
 		}
 	},
 
-	TRICUBE("K(u) = 70\u2022(1-|u|\u00B3)\u00B3/81 (|u| \u2264 1), 0 (|u) > 1)") {
+	TRICUBE("K(u) = 70\u2022(1-|u|\u00B3)\u00B3/81 (|u| \u2264 1), 0 (|u) > 1)",
+			1.0) {
 
 		@Override
 		public double getK(double x) {
@@ -97,7 +102,7 @@ public enum KernelEstimator {
 
 	},
 
-	GAUSSIAN("K(u) = e^(-u\u00B2/2) / \u221A(2\u03c0)") {
+	GAUSSIAN("K(u) = e^(-u\u00B2/2) / \u221A(2\u03c0)", 8.0) {
 
 		@Override
 		public double getK(double u) {
@@ -105,7 +110,8 @@ public enum KernelEstimator {
 		}
 	},
 
-	COSINUS("K(u) = (\u03c0/4)\u2022cos(\u03c0u/2) (|u| \u2264 1), 0 (|u) > 1)") {
+	COSINUS("K(u) = (\u03c0/4)\u2022cos(\u03c0u/2) (|u| \u2264 1), 0 (|u) > 1)",
+			1.0) {
 
 		@Override
 		public double getK(double u) {
@@ -116,7 +122,7 @@ public enum KernelEstimator {
 		}
 	},
 
-	LOGISTIC("K(u) = 1/(e^u + 2 + e^-u)") {
+	LOGISTIC("K(u) = 1/(e^u + 2 + e^-u)", 32.0) {
 
 		@Override
 		public double getK(double u) {
@@ -124,7 +130,7 @@ public enum KernelEstimator {
 		}
 
 	},
-	SIGMOID("K(u) = 2/(\u03c0\u2022(e^u + e^-u))") {
+	SIGMOID("K(u) = 2/(\u03c0\u2022(e^u + e^-u))", 32.0) {
 
 		@Override
 		public double getK(double u) {
@@ -132,7 +138,8 @@ public enum KernelEstimator {
 		}
 	},
 	SILVERMAN(
-			"K(u) = 0.5\u2022e^(-|u|/\u221A2)\u2022sin((|u|/\u221A2) + (\u03c0/4))") {
+			"K(u) = 0.5\u2022e^(-|u|/\u221A2)\u2022sin((|u|/\u221A2) + (\u03c0/4))",
+			44.0) {
 
 		@Override
 		public double getK(double x) {
@@ -144,9 +151,11 @@ public enum KernelEstimator {
 	};
 
 	private final String desc;
+	private final double support;
 
-	private KernelEstimator(String desc) {
+	private KernelEstimator(String desc, double support) {
 		this.desc = desc;
+		this.support = support;
 	}
 
 	/**
@@ -164,6 +173,16 @@ public enum KernelEstimator {
 		return desc;
 	}
 
+	/**
+	 * @return The value of |u| beyond which the kernel intensity is zero. For
+	 *         kernels without compact support, this is the value beyond which
+	 *         the intensity is less than 10<sup>-13</sup> of its maximum, and
+	 *         so can be neglected
+	 */
+	public double getSupport() {
+		return support;
+	}
+
 	/**
 	 * @return The names of all options
 	 */
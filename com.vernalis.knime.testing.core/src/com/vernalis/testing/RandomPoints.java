@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.testing;
+
+import java.util.Random;
+
+/**
+ * Factory methods for reproducible sets of random points, for use as test
+ * data. Each point is a {@code double[]} of coordinates
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public final class RandomPoints {
+
+	private RandomPoints() {
+		// Utility Class - Do not Instantiate
+	}
+
+	/**
+	 * Method to create points distributed uniformly in a hypercube
+	 *
+	 * @param rand
+	 *            The random number generator
+	 * @param numPoints
+	 *            The number of points
+	 * @param numDims
+	 *            The number of dimensions
+	 * @param min
+	 *            The minimum coordinate in each dimension
+	 * @param max
+	 *            The maximum coordinate in each dimension
+	 * @return The points
+	 */
+	public static double[][] uniform(Random rand, int numPoints, int numDims,
+			double min, double max) {
+		final double[][] retVal = new double[numPoints][numDims];
+		for (double[] point : retVal) {
+			for (int dim = 0; dim < numDims; dim++) {
+				point[dim] = min + rand.nextDouble() * (max - min);
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to create points in Gaussian clusters. The points are assigned to
+	 * the clusters in turn
+	 *
+	 * @param rand
+	 *            The random number generator
+	 * @param numPoints
+	 *            The number of points
+	 * @param centres
+	 *            The cluster centres, which all have the same number of
+	 *            dimensions
+	 * @param stdDev
+	 *            The standard deviation of each coordinate about the cluster
+	 *            centre
+	 * @return The points
+	 */
+	public static double[][] gaussianClusters(Random rand, int numPoints,
+			double[][] centres, double stdDev) {
+		final double[][] retVal = new double[numPoints][];
+		for (int i = 0; i < numPoints; i++) {
+			final double[] centre = centres[i % centres.length];
+			retVal[i] = new double[centre.length];
+			for (int dim = 0; dim < centre.length; dim++) {
+				retVal[i][dim] = centre[dim] + rand.nextGaussian() * stdDev;
+			}
+		}
+		return retVal;
+	}
+
+	/**
+	 * Method to create copies of points, each repeated a number of times
+	 *
+	 * @param points
+	 *            The points to repeat
+	 * @param repeats
+	 *            The number of copies of each point
+	 * @return The repeated points, as the complete set of points repeated the
+	 *         given number of times
+	 */
+	public static double[][] repeat(double[][] points, int repeats) {
+		final double[][] retVal = new double[points.length * repeats][];
+		for (int i = 0; i < retVal.length; i++) {
+			retVal[i] = points[i % points.length].clone();
+		}
+		return retVal;
+	}
+}
@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataType;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.KNIMEConstants;
+
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.NeighbourList;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+import com.vernalis.testing.RandomPoints;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test class for the {@link KdTree} class, which checks the k-d tree search
+ * results are identical to those of the {@link BruteForceSearcher}
+ *
+ * @author s.roughley
+ *
+ * @since 19-Oct-2026
+ * @since v1.36.4
+ */
+public class KdTreeTest {
+
+	private static final int[] KS = { 1, 3, 10, 50 };
+
+	/**
+	 * Test random points, which are enough to give several levels of leaves
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void testRandomPoints() throws Exception {
+		final Random rand = new Random(42L);
+		final double[][] refs = RandomPoints.uniform(rand, 2000, 3, 0.0, 1.0);
+		final double[][] queries =
+				RandomPoints.uniform(rand, 100, 3, 0.0, 1.0);
+		checkAll(refs, queries, new double[] { 0.05, 0.2, 0.5 });
+	}
+
+	/**
+	 * Test points on an integer grid, where many neighbours are at the same
+	 * distance and ties are broken by the reference point index
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void testTies() throws Exception {
+		final List<double[]> refs = new ArrayList<>();
+		for (int x = 0; x < 15; x++) {
+			for (int y = 0; y < 15; y++) {
+				refs.add(new double[] { x, y });
+			}
+		}
+		final List<double[]> queries = new ArrayList<>(refs);
+		queries.add(new double[] { 7.5, 7.5 });
+		queries.add(new double[] { 0.5, 3.0 });
+		queries.add(new double[] { -2.0, 20.0 });
+		checkAll(refs.toArray(new double[0][]),
+				queries.toArray(new double[0][]),
+				new double[] { 0.0, 1.0, 2.0, 2.5 });
+	}
+
+	/**
+	 * Test duplicated reference points, including whole leaves of the same
+	 * point, and reference points which are missing or have {@code NaN}
+	 * coordinates
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void testDuplicatePoints() throws Exception {
+		final Random rand = new Random(17L);
+		final double[][] distinct = RandomPoints.uniform(rand, 50, 2, 0.0, 1.0);
+		final double[][] repeated = RandomPoints.repeat(distinct, 13);
+		final double[][] refs = Arrays.copyOf(repeated, repeated.length + 2);
+		refs[refs.length - 2] = null;
+		refs[refs.length - 1] = new double[] { Double.NaN, 0.5 };
+		final double[][] queries = new double[distinct.length + 10][];
+		System.arraycopy(distinct, 0, queries, 0, distinct.length);
+		System.arraycopy(RandomPoints.uniform(rand, 10, 2, 0.0, 1.0), 0,
+				queries, distinct.length, 10);
+		checkAll(refs, queries, new double[] { 0.0, 0.1, 0.3 });
+	}
+
+	/**
+	 * Test enough random points for the tree to be built as several subtrees
+	 * in parallel
+	 *
+	 * @throws Exception
+	 *             if an error occurred during test execution
+	 */
+	@Test
+	public void testParallelBuild() throws Exception {
+		final Random rand = new Random(7L);
+		final double[][] refs = RandomPoints.uniform(rand, 70000, 2, 0.0, 1.0);
+		final double[][] queries = RandomPoints.uniform(rand, 50, 2, 0.0, 1.0);
+		checkAll(refs, queries, new double[] { 0.01 });
+	}
+
+	/**
+	 * Method to check the k-d tree and brute force results are identical for
+	 * all the metrics, with and without squared distances and an excluded
+	 * reference point
+	 */
+	private static void checkAll(double[][] refCoords, double[][] queryCoords,
+			double[] radii) throws Exception {
+		final PackedPoints refs = createPoints(refCoords);
+		final PackedPoints queries = createPoints(queryCoords);
+		for (DistanceMetric metric : DistanceMetric.values()) {
+			for (boolean squared : new boolean[] { false, true }) {
+				final NeighbourSearcher kdTree = new KdTree(refs, metric,
+						squared,
+						KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(),
+						new ExecutionMonitor());
+				final NeighbourSearcher bruteForce =
+						new BruteForceSearcher(refs, metric, squared);
+				for (int q = 0; q < queries.size(); q++) {
+					for (int exclude : new int[] { -1, q % refs.size() }) {
+						final String msg = metric + (squared ? " squared" : "")
+								+ ", query " + q + ", excluding " + exclude;
+						for (int k : KS) {
+							final NeighbourList expected = new NeighbourList(k);
+							bruteForce.findNearest(queries.getCoordinates(),
+									queries.getOffset(q), exclude, expected);
+							final NeighbourList actual = new NeighbourList(k);
+							kdTree.findNearest(queries.getCoordinates(),
+									queries.getOffset(q), exclude, actual);
+							assertSameNeighbours(msg + ", k=" + k, expected,
+									actual);
+						}
+						for (double radius : radii) {
+							final double r = squared ? radius * radius : radius;
+							final NeighbourList expected =
+									new NeighbourList(Integer.MAX_VALUE);
+							bruteForce.findWithinRadius(
+									queries.getCoordinates(),
+									queries.getOffset(q), r, exclude, expected);
+							expected.sort();
+							final NeighbourList actual =
+									new NeighbourList(Integer.MAX_VALUE);
+							kdTree.findWithinRadius(queries.getCoordinates(),
+									queries.getOffset(q), r, exclude, actual);
+							actual.sort();
+							assertSameNeighbours(msg + ", radius=" + r,
+									expected, actual);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static void assertSameNeighbours(String msg,
+			NeighbourList expected, NeighbourList actual) {
+		assertEquals(msg + " - number of neighbours", expected.size(),
+				actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(msg + " - index of neighbour " + i,
+					expected.getIndex(i), actual.getIndex(i));
+			assertEquals(msg + " - distance of neighbour " + i,
+					expected.getDistance(i), actual.getDistance(i), 0.0);
+		}
+	}
+
+	/**
+	 * Method to create a set of points from their coordinates, with
+	 * {@code null} for a missing point
+	 */
+	private static PackedPoints createPoints(double[][] coords) {
+		final PackedPoints retVal =
+				new PackedPoints(coords[0].length, coords.length);
+		for (int i = 0; i < coords.length; i++) {
+			final DataCell cell;
+			if (coords[i] == null) {
+				cell = DataType.getMissingCell();
+			} else {
+				final List<DataCell> cells = new ArrayList<>();
+				for (double coord : coords[i]) {
+					cells.add(new DoubleCell(coord));
+				}
+				cell = CollectionCellFactory.createListCell(cells);
+			}
+			retVal.add(new DefaultRow("Row" + i, cell), 0);
+		}
+		return retVal;
+	}
+}
@@ -15,7 +15,9 @@
 package com.vernalis.nodes.misc.distance;
 
 import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
 
 /**
  * Node Dialog for the distance nodes
@@ -28,6 +30,7 @@ public class AbstractDistanceNodeDialog
 
 	private static final String RETURN_SQUARED_DISTANCE =
 			"Return squared Distance";
+	private static final String DISTANCE_METRIC = "Distance metric";
 
 	/**
 	 * Constructor for a non-collection-based implementation. At least one
@@ -70,6 +73,8 @@ public class AbstractDistanceNodeDialog
 	private AbstractDistanceNodeDialog(boolean isCollectionBased,
 			char firstDimension, char... extraDimensions) {
 		super(isCollectionBased, firstDimension, extraDimensions);
+		addDialogComponent(new DialogComponentButtonGroup(createMetricModel(),
+				DISTANCE_METRIC, false, DistanceMetric.values()));
 		addDialogComponent(new DialogComponentBoolean(
 				createSquareDistanceModel(), RETURN_SQUARED_DISTANCE));
 	}
@@ -81,4 +86,12 @@ public class AbstractDistanceNodeDialog
 		return new SettingsModelBoolean(RETURN_SQUARED_DISTANCE, false);
 	}
 
+	/**
+	 * @return The settings model for the distance metric
+	 */
+	static SettingsModelString createMetricModel() {
+		return new SettingsModelString(DISTANCE_METRIC,
+				DistanceMetric.getDefault().getActionCommand());
+	}
+
 }
@@ -14,17 +14,11 @@
  ******************************************************************************/
 package com.vernalis.nodes.misc.distance;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Deque;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
@@ -32,8 +26,6 @@ import org.knime.core.data.DataColumnSpecCreator;
 import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.data.DataType;
-import org.knime.core.data.DoubleValue;
-import org.knime.core.data.collection.ListDataValue;
 import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.container.SingleCellFactory;
@@ -44,6 +36,7 @@ import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
 import org.knime.core.util.Pair;
 
+import static com.vernalis.nodes.misc.distance.AbstractDistanceNodeDialog.createMetricModel;
 import static com.vernalis.nodes.misc.distance.AbstractDistanceNodeDialog.createSquareDistanceModel;
 
 /**
@@ -51,7 +44,9 @@ import static com.vernalis.nodes.misc.distance.AbstractDistanceNodeDialog.create
  * Points can either have coordinates specified in pairs of columns, e.g. (x0,
  * y0, z0) and (x1, y1, z1) requires 6 columns, or as a pair of columns, each
  * containing collection cells, in which case the pairs of cells must contain
- * the same number of cells
+ * the same number of cells. The coordinates of each row are read into
+ * per-thread primitive buffers (see {@link CoordinateBuffer}), and the
+ * distance calculated by the selected {@link DistanceMetric}
  * 
  * @author s.roughley
  *
@@ -59,8 +54,16 @@ import static com.vernalis.nodes.misc.distance.AbstractDistanceNodeDialog.create
 public abstract class AbstractDistanceNodeModel
 		extends AbstractVectorDistanceNodeModel {
 
+	/** The current node settings version, which added the distance metric */
+	private static final int SETTINGS_VERSION = 2;
+
 	protected final SettingsModelBoolean sqrDistanceMdl =
 			registerSettingsModel(createSquareDistanceModel());
+	protected final SettingsModelString metricMdl =
+			registerSettingsModel(createMetricModel(), SETTINGS_VERSION,
+					mdl -> mdl.setStringValue(
+							DistanceMetric.EUCLIDEAN.getActionCommand()),
+					"Applied legacy compatible 'Euclidean' distance metric");
 
 	/**
 	 * Constructor for a non-collection-based implementation. At least one
@@ -102,73 +105,37 @@ public abstract class AbstractDistanceNodeModel
 	 */
 	private AbstractDistanceNodeModel(boolean isCollectionBased,
 			char firstDimension, char... extraDimensions) {
-		super(isCollectionBased, firstDimension, extraDimensions);
+		super(SETTINGS_VERSION, isCollectionBased, firstDimension,
+				extraDimensions);
 	}
 
 	@Override
 	protected ColumnRearranger createColumnRearranger(DataTableSpec spec)
 			throws InvalidSettingsException {
 
-		if (dimensionModels.isEmpty()) {
+		final DistanceMetric metric;
+		try {
+			metric = DistanceMetric.valueOf(metricMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
 			throw new InvalidSettingsException(
-					"Implementation problem - no dimensions registered");
-		}
-		// Deque allows easy removal of last item for guessing
-		Deque<String> numericalColNames = new LinkedList<>(
-				spec.stream().filter(x -> colFilter.includeColumn(x))
-						.map(x -> x.getName()).collect(Collectors.toList()));
-		List<String> selectedColNames = new ArrayList<>();
-		// Check we have enough columns
-		final int numDims = dimensionModels.size();
-
-		if (numericalColNames.size() < numDims * 2) {
-			throw new InvalidSettingsException(
-					(numDims * 2) + " distinct numerical "
-							+ (isCollectionBased ? "collection " : "")
-							+ "columns are required");
-		}
-
-		// Now check any selected columns are present as numericals, and list
-		// those selected, checking that none are duplicated
-		checkSelectedIncomingColumns(numericalColNames, selectedColNames);
-
-		numericalColNames.removeAll(selectedColNames);
-
-		// Now we need to assign the last available column to each non-selected
-		// column in turn, starting with x1, x0...
-		StringBuilder msg = guessMissingColumnNames(numericalColNames);
-		if (msg.length() > 0) {
-			setWarningMessage(msg.substring(1));
-		}
-
-		// Now find the column indices
-		Map<String, IntPair> colIdx = new TreeMap<>();
-		for (Entry<String, Pair<SettingsModelString, SettingsModelString>> dim : dimensionModels
-				.entrySet()) {
-			final IntPair cols = new IntPair(
-					spec.findColumnIndex(
-							dim.getValue().getFirst().getStringValue()),
-					spec.findColumnIndex(
-							dim.getValue().getSecond().getStringValue()));
-			if (cols.getFirst() < 0) {
-				throw new InvalidSettingsException("Unable to find column '"
-						+ dim.getValue().getFirst().getStringValue()
-						+ "' chosen for " + dim.getKey() + "0");
-			}
-			if (cols.getSecond() < 0) {
-				throw new InvalidSettingsException("Unable to find column '"
-						+ dim.getValue().getSecond().getStringValue()
-						+ "' chosen for " + dim.getKey() + "1");
-			}
-			colIdx.put(dim.getKey(), cols);
+					"Unknown distance metric: " + metricMdl.getStringValue());
 		}
+		final boolean squared = sqrDistanceMdl.getBooleanValue();
+		final Map<String, IntPair> colIdx = getColumnIndices(spec);
+		final int numDims = colIdx.size();
+		// Primitive index arrays, in dimension order, for the cell factories
+		final int[] startCols = colIdx.values().stream()
+				.mapToInt(IntPair::getFirst).toArray();
+		final int[] endCols = colIdx.values().stream()
+				.mapToInt(IntPair::getSecond).toArray();
 
 		ColumnRearranger rearranger = new ColumnRearranger(spec);
 		DataColumnSpec distColSpec = new DataColumnSpecCreator(
 				DataTableSpec.getUniqueColumnName(spec,
 						(isCollectionBased ? "n" : numDims) + "-D "
-								+ (sqrDistanceMdl.getBooleanValue() ? "Squared-"
-										: "")
+								+ (squared ? "Squared-" : "")
+								+ (metric == DistanceMetric.EUCLIDEAN ? ""
+										: metric.getText() + " ")
 								+ "Distance"),
 				DoubleCell.TYPE).createSpec();
 		if (isCollectionBased) {
@@ -180,50 +147,22 @@ public abstract class AbstractDistanceNodeModel
 
 						@Override
 						public DataCell[] getCells(DataRow row) {
-							double delta = 0.0;
 							DataCell[] retVal = new DataCell[2];
 							Arrays.fill(retVal, DataType.getMissingCell());
-							for (IntPair dim : colIdx.values()) {
-								DataCell start = row.getCell(dim.getFirst());
-								if (start.isMissing()) {
-									return retVal;
-								}
-								DataCell end = row.getCell(dim.getSecond());
-								if (end.isMissing()) {
-									return retVal;
-								}
-								ListDataValue startLV = (ListDataValue) start;
-								ListDataValue endLV = (ListDataValue) end;
-								if (startLV.size() != endLV.size()) {
-									return retVal;
-								}
-								retVal[1] = new IntCell(endLV.size());
-								Iterator<DataCell> startIter =
-										startLV.iterator();
-								Iterator<DataCell> endIter = endLV.iterator();
-								while (startIter.hasNext()
-										&& endIter.hasNext()) {
-									DataCell startCell = startIter.next();
-									if (startCell.isMissing()) {
-										return retVal;
-									}
-									DataCell endCell = endIter.next();
-									if (endCell.isMissing()) {
-										return retVal;
-									}
-									double startDbl = ((DoubleValue) startCell)
-											.getDoubleValue();
-									double endDbl = ((DoubleValue) endCell)
-											.getDoubleValue();
-									delta += (startDbl - endDbl)
-											* (startDbl - endDbl);
-								}
-
+							final CoordinateBuffer coords =
+									CoordinateBuffer.get();
+							if (!coords.readLists(row, startCols[0],
+									endCols[0])) {
+								return retVal;
+							}
+							retVal[1] = new IntCell(coords.size());
+							if (coords.isAnyMissing()) {
+								return retVal;
 							}
 							retVal[0] = new DoubleCell(
-									sqrDistanceMdl.getBooleanValue() ? delta
-											: Math.sqrt(delta));
-
+									metric.getDistance(coords.getStart(),
+											coords.getEnd(), coords.size(),
+											squared));
 							return retVal;
 						}
 					});
@@ -232,25 +171,13 @@ public abstract class AbstractDistanceNodeModel
 
 				@Override
 				public DataCell getCell(DataRow row) {
-					double delta = 0.0;
-
-					for (IntPair dim : colIdx.values()) {
-						DataCell start = row.getCell(dim.getFirst());
-						if (start.isMissing()) {
-							return DataType.getMissingCell();
-						}
-						DataCell end = row.getCell(dim.getSecond());
-						if (end.isMissing()) {
-							return DataType.getMissingCell();
-						}
-						double startDbl =
-								((DoubleValue) start).getDoubleValue();
-						double endDbl = ((DoubleValue) end).getDoubleValue();
-						delta += (startDbl - endDbl) * (startDbl - endDbl);
+					final CoordinateBuffer coords = CoordinateBuffer.get();
+					coords.readColumns(row, startCols, endCols);
+					if (coords.isAnyMissing()) {
+						return DataType.getMissingCell();
 					}
-
-					return new DoubleCell(sqrDistanceMdl.getBooleanValue()
-							? delta : Math.sqrt(delta));
+					return new DoubleCell(metric.getDistance(coords.getStart(),
+							coords.getEnd(), numDims, squared));
 				}
 			});
 		}
@@ -0,0 +1,415 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.container.CloseableRowIterator;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.NodeLogger;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.NodeSettingsRO;
+import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModel;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.nodes.SettingsModelRegistry;
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+
+import static com.vernalis.nodes.misc.distance.AbstractVectorDistanceNodeDialog.LIST_OF_NUMBERS;
+
+/**
+ * Base {@link NodeModel} for nodes which compare the points in a query table
+ * with the points in a reference table, each held in a list of numbers
+ * column. The reference points are packed into a single primitive array (see
+ * {@link PackedPoints}), and the query table is read in blocks, each of which
+ * is processed as a separate task on a thread pool. A bounded number of
+ * blocks are in progress at once, and completed blocks are written out in the
+ * query table order, so the output does not depend on the number of threads
+ *
+ * @author s.roughley
+ *
+ */
+public abstract class AbstractPointSearchNodeModel extends NodeModel
+		implements SettingsModelRegistry {
+
+	/** The number of blocks in progress per available processor */
+	private static final int BLOCKS_PER_THREAD = 2;
+
+	private final NodeLogger logger = NodeLogger.getLogger(getClass());
+
+	private final Set<SettingsModel> models = new HashSet<>();
+
+	/**
+	 * Constructor for a node with query and reference input tables and a
+	 * single output table
+	 */
+	protected AbstractPointSearchNodeModel() {
+		super(2, 1);
+	}
+
+	@Override
+	public Set<SettingsModel> getModels() {
+		return models;
+	}
+
+	/**
+	 * Method to check the selected column is present and a list of numbers
+	 * column, or to auto-select the last such column if none is selected
+	 *
+	 * @param spec
+	 *            The table spec
+	 * @param model
+	 *            The column name settings model
+	 * @param tableName
+	 *            The name of the table, for error messages
+	 * @throws InvalidSettingsException
+	 *             If the selected column is not a suitable column, or no
+	 *             column was selected and there is no suitable column
+	 */
+	protected final void guessColumnName(DataTableSpec spec,
+			SettingsModelString model, String tableName)
+			throws InvalidSettingsException {
+		final String colName = model.getStringValue();
+		if (colName != null) {
+			final DataColumnSpec colSpec = spec.getColumnSpec(colName);
+			if (colSpec == null) {
+				throw new InvalidSettingsException("The selected " + tableName
+						+ " column '" + colName + "' is not in the input table");
+			}
+			if (!LIST_OF_NUMBERS.includeColumn(colSpec)) {
+				throw new InvalidSettingsException("The selected " + tableName
+						+ " column '" + colName
+						+ "' is not a list of numbers column");
+			}
+			return;
+		}
+		for (int i = spec.getNumColumns() - 1; i >= 0; i--) {
+			if (LIST_OF_NUMBERS.includeColumn(spec.getColumnSpec(i))) {
+				model.setStringValue(spec.getColumnSpec(i).getName());
+				logger.warn("No " + tableName + " column selected. "
+						+ model.getStringValue() + " auto-selected.");
+				return;
+			}
+		}
+		throw new InvalidSettingsException(
+				"No list of numbers column was found in the " + tableName
+						+ " table");
+	}
+
+	/**
+	 * Method to load the reference points. The number of dimensions is taken
+	 * from the first non-missing reference point, or the first non-missing
+	 * query point if all the reference points are missing
+	 *
+	 * @param queryTable
+	 *            The query table
+	 * @param queryColIdx
+	 *            The index of the query points column
+	 * @param refTable
+	 *            The reference table
+	 * @param refColIdx
+	 *            The index of the reference points column
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 * @return The reference points
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled the execution
+	 * @throws IllegalArgumentException
+	 *             If there are too many reference points, or a point has the
+	 *             wrong number of dimensions
+	 */
+	protected final PackedPoints loadReferencePoints(
+			BufferedDataTable queryTable, int queryColIdx,
+			BufferedDataTable refTable, int refColIdx, ExecutionMonitor exec)
+			throws CanceledExecutionException, IllegalArgumentException {
+		if (refTable.size() > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Too many reference points (" + refTable.size() + ")");
+		}
+		int numDims = getNumDimensions(refTable, refColIdx);
+		if (numDims < 0) {
+			numDims = getNumDimensions(queryTable, queryColIdx);
+		}
+		final PackedPoints refs =
+				new PackedPoints(Math.max(numDims, 0), (int) refTable.size());
+		try (CloseableRowIterator iter = refTable.iterator()) {
+			while (iter.hasNext()) {
+				exec.checkCanceled();
+				refs.add(iter.next(), refColIdx);
+				exec.setProgress((double) refs.size() / refTable.size());
+			}
+		}
+		return refs;
+	}
+
+	/**
+	 * Method to find the number of dimensions from the first non-missing point
+	 * in a table
+	 *
+	 * @return The number of dimensions, or {@code -1} if all points are
+	 *         missing
+	 */
+	private static int getNumDimensions(BufferedDataTable table, int colIdx) {
+		try (CloseableRowIterator iter = table.iterator()) {
+			while (iter.hasNext()) {
+				final int numDims =
+						PackedPoints.getNumDimensions(iter.next().getCell(colIdx));
+				if (numDims >= 0) {
+					return numDims;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method to read the query table in blocks, process the blocks in parallel
+	 * and write the completed blocks in the query table order. The waiting for
+	 * completed blocks does not occupy a slot of the thread pool
+	 *
+	 * @param <B>
+	 *            The type of block
+	 * @param queryTable
+	 *            The query table
+	 * @param queryColIdx
+	 *            The index of the query points column
+	 * @param blockFactory
+	 *            Factory for empty blocks
+	 * @param processor
+	 *            The processing of a full block, which is run on the pool
+	 * @param writer
+	 *            The writing of a processed block, which is run on the
+	 *            calling thread
+	 * @param pool
+	 *            The thread pool to process the blocks on
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 * @return The number of missing query points
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled the execution
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for a block
+	 * @throws ExecutionException
+	 *             If the processing of a block threw an exception
+	 */
+	protected final <B extends QueryBlock> long processBlocks(
+			BufferedDataTable queryTable, int queryColIdx,
+			Supplier<B> blockFactory, BlockProcessor<B> processor,
+			Consumer<B> writer, ThreadPool pool, ExecutionMonitor exec)
+			throws CanceledExecutionException, InterruptedException,
+			ExecutionException {
+		final int maxBlocksInProgress = BLOCKS_PER_THREAD
+				* Runtime.getRuntime().availableProcessors();
+		final Deque<Future<B>> futures = new ArrayDeque<>();
+		// The number of query points and missing query points written
+		final long[] counters = new long[2];
+		try (CloseableRowIterator iter = queryTable.iterator()) {
+			while (iter.hasNext()) {
+				exec.checkCanceled();
+				final B block = blockFactory.get();
+				while (iter.hasNext() && !block.isFull()) {
+					block.add(iter.next(), queryColIdx);
+				}
+				futures.add(pool.enqueue(() -> processor.process(block, exec)));
+				if (futures.size() >= maxBlocksInProgress) {
+					writeBlock(ThreadPoolUtils.waitInvisibly(pool,
+							futures.poll()::get), writer, counters);
+					exec.setProgress((double) counters[0] / queryTable.size());
+				}
+			}
+			while (!futures.isEmpty()) {
+				writeBlock(ThreadPoolUtils.waitInvisibly(pool,
+						futures.poll()::get), writer, counters);
+				exec.setProgress((double) counters[0] / queryTable.size());
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			throw e;
+		} finally {
+			for (Future<B> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return counters[1];
+	}
+
+	private static <B extends QueryBlock> void writeBlock(B block,
+			Consumer<B> writer, long[] counters) {
+		writer.accept(block);
+		counters[0] += block.size();
+		for (int q = 0; q < block.size(); q++) {
+			if (block.getQueries().isMissing(q)) {
+				counters[1]++;
+			}
+		}
+	}
+
+	/**
+	 * Method to set a warning message if any query or reference points were
+	 * missing
+	 *
+	 * @param numMissingQueries
+	 *            The number of missing query points
+	 * @param refs
+	 *            The reference points
+	 */
+	protected final void setMissingPointsWarning(long numMissingQueries,
+			PackedPoints refs) {
+		if (refs.getNumMissing() > 0 || numMissingQueries > 0) {
+			setWarningMessage("Missing points were skipped ("
+					+ numMissingQueries + " query, " + refs.getNumMissing()
+					+ " reference)");
+		}
+	}
+
+	/**
+	 * A block of query points. Subclasses add the results for the points
+	 *
+	 * @author s.roughley
+	 *
+	 */
+	protected static class QueryBlock {
+
+		private final PackedPoints queries;
+		private final int capacity;
+
+		/**
+		 * Constructor
+		 *
+		 * @param numDims
+		 *            The number of dimensions of each point
+		 * @param capacity
+		 *            The maximum number of query points in the block
+		 */
+		protected QueryBlock(int numDims, int capacity) {
+			queries = new PackedPoints(numDims, capacity);
+			this.capacity = capacity;
+		}
+
+		/**
+		 * Method to add a query point to the block
+		 *
+		 * @param row
+		 *            The query row
+		 * @param colIdx
+		 *            The index of the query points column
+		 */
+		protected void add(DataRow row, int colIdx) {
+			queries.add(row, colIdx);
+		}
+
+		/**
+		 * @return The query points
+		 */
+		public final PackedPoints getQueries() {
+			return queries;
+		}
+
+		/**
+		 * @return The number of query points in the block
+		 */
+		public final int size() {
+			return queries.size();
+		}
+
+		/**
+		 * @return Does the block hold the maximum number of query points?
+		 */
+		public final boolean isFull() {
+			return queries.size() >= capacity;
+		}
+	}
+
+	/**
+	 * Functional interface for the processing of a block of query points
+	 *
+	 * @author s.roughley
+	 *
+	 * @param <B>
+	 *            The type of block
+	 */
+	@FunctionalInterface
+	protected interface BlockProcessor<B extends QueryBlock> {
+
+		/**
+		 * Method to process a block of query points. This may be called
+		 * concurrently for different blocks
+		 *
+		 * @param block
+		 *            The block
+		 * @param exec
+		 *            The execution monitor for cancellation
+		 * @return The processed block
+		 * @throws CanceledExecutionException
+		 *             If the user cancelled the execution
+		 */
+		B process(B block, ExecutionMonitor exec)
+				throws CanceledExecutionException;
+	}
+
+	@Override
+	public void saveSettingsTo(NodeSettingsWO settings) {
+		SettingsModelRegistry.super.saveSettingsTo(settings);
+	}
+
+	@Override
+	public void validateSettings(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		SettingsModelRegistry.super.validateSettings(settings);
+	}
+
+	@Override
+	public void loadValidatedSettingsFrom(NodeSettingsRO settings)
+			throws InvalidSettingsException {
+		SettingsModelRegistry.super.loadValidatedSettingsFrom(settings);
+	}
+
+	@Override
+	protected void loadInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		//
+	}
+
+	@Override
+	protected void saveInternals(File nodeInternDir, ExecutionMonitor exec)
+			throws IOException, CanceledExecutionException {
+		//
+	}
+
+	@Override
+	protected void reset() {
+		//
+	}
+
+}
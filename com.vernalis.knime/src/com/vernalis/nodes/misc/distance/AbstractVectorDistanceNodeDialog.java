@@ -34,7 +34,7 @@ public class AbstractVectorDistanceNodeDialog extends DefaultNodeSettingsPane {
 	/**
 	 * A {@link ColumnFilter} for a column containing Lists of Numbers
 	 */
-	final static ColumnFilter LIST_OF_NUMBERS = new ColumnFilter() {
+	public final static ColumnFilter LIST_OF_NUMBERS = new ColumnFilter() {
 
 		@Override
 		public boolean includeColumn(DataColumnSpec colSpec) {
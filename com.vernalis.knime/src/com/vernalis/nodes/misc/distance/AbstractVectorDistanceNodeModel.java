@@ -35,7 +35,6 @@ import org.knime.core.data.DataType;
 import org.knime.core.data.DoubleValue;
 import org.knime.core.data.collection.CollectionCellFactory;
 import org.knime.core.data.collection.ListCell;
-import org.knime.core.data.collection.ListDataValue;
 import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
 import org.knime.core.data.def.DoubleCell;
@@ -148,9 +147,30 @@ public abstract class AbstractVectorDistanceNodeModel
 	 * @param extraDimensions
 	 *            The name of any additional dimensions
 	 */
-	@SuppressWarnings("unchecked")
 	protected AbstractVectorDistanceNodeModel(boolean isCollectionBased,
 			char firstDimension, char... extraDimensions) {
+		this(1, isCollectionBased, firstDimension, extraDimensions);
+	}
+
+	/**
+	 * Full constructor, exposing all options, some combinations of which may be
+	 * invalid, and allowing subclasses to specify a settings version
+	 * 
+	 * @param nodeSettingsVersion
+	 *            The current node settings version
+	 * @param isCollectionBased
+	 *            Are the columns collection columns, in which case the node is
+	 *            n-dimensional, and only the first dimension can be supplied
+	 * @param firstDimension
+	 *            The name of the first dimension
+	 * @param extraDimensions
+	 *            The name of any additional dimensions
+	 */
+	@SuppressWarnings("unchecked")
+	protected AbstractVectorDistanceNodeModel(int nodeSettingsVersion,
+			boolean isCollectionBased, char firstDimension,
+			char... extraDimensions) {
+		super(nodeSettingsVersion);
 		if (isCollectionBased && extraDimensions.length > 0) {
 			throw new IllegalArgumentException(
 					"Collection-based implementations should only supply a single dimension name");
@@ -183,10 +203,20 @@ public abstract class AbstractVectorDistanceNodeModel
 				new Pair<>(startMdl, endMdl));
 	}
 
-	@Override
-	protected ColumnRearranger createColumnRearranger(DataTableSpec spec)
+	/**
+	 * Method to check and guess the selected columns, and find their indices
+	 * in the table
+	 * 
+	 * @param spec
+	 *            The incoming table spec
+	 * @return A map of dimension names to the indices of the start and end
+	 *         columns
+	 * @throws InvalidSettingsException
+	 *             If there are insufficient suitable columns, or any of the
+	 *             selected columns are unsuitable
+	 */
+	protected final Map<String, IntPair> getColumnIndices(DataTableSpec spec)
 			throws InvalidSettingsException {
-
 		if (dimensionModels.isEmpty()) {
 			throw new InvalidSettingsException(
 					"Implementation problem - no dimensions registered");
@@ -240,6 +270,20 @@ public abstract class AbstractVectorDistanceNodeModel
 			}
 			colIdx.put(dim.getKey(), cols);
 		}
+		return colIdx;
+	}
+
+	@Override
+	protected ColumnRearranger createColumnRearranger(DataTableSpec spec)
+			throws InvalidSettingsException {
+
+		final Map<String, IntPair> colIdx = getColumnIndices(spec);
+		final int numDims = colIdx.size();
+		// Primitive index arrays, in dimension order, for the cell factories
+		final int[] startCols = colIdx.values().stream()
+				.mapToInt(IntPair::getFirst).toArray();
+		final int[] endCols = colIdx.values().stream()
+				.mapToInt(IntPair::getSecond).toArray();
 
 		ColumnRearranger rearranger = new ColumnRearranger(spec);
 		DataColumnSpec[] distColSpec =
@@ -269,47 +313,24 @@ public abstract class AbstractVectorDistanceNodeModel
 
 				@Override
 				public DataCell[] getCells(DataRow row) {
-					List<DataCell> deltas = new ArrayList<>();
 					DataCell[] retVal = new DataCell[2];
 					Arrays.fill(retVal, DataType.getMissingCell());
-					for (IntPair dim : colIdx.values()) {
-						DataCell start = row.getCell(dim.getFirst());
-						if (start.isMissing()) {
-							return retVal;
-						}
-						DataCell end = row.getCell(dim.getSecond());
-						if (end.isMissing()) {
-							return retVal;
-						}
-						ListDataValue startLV = (ListDataValue) start;
-						ListDataValue endLV = (ListDataValue) end;
-						if (startLV.size() != endLV.size()) {
-							return retVal;
-						}
-						retVal[1] = new IntCell(endLV.size());
-						Iterator<DataCell> startIter = startLV.iterator();
-						Iterator<DataCell> endIter = endLV.iterator();
-						while (startIter.hasNext() && endIter.hasNext()) {
-							DataCell startCell = startIter.next();
-							if (startCell.isMissing()) {
-								deltas.add(DataType.getMissingCell());
-								continue;
-							}
-							DataCell endCell = endIter.next();
-							if (endCell.isMissing()) {
-								deltas.add(DataType.getMissingCell());
-								continue;
-							}
-							double startDbl =
-									((DoubleValue) startCell).getDoubleValue();
-							double endDbl =
-									((DoubleValue) endCell).getDoubleValue();
-							deltas.add(new DoubleCell(endDbl - startDbl));
-						}
-
+					final CoordinateBuffer coords = CoordinateBuffer.get();
+					if (!coords.readLists(row, startCols[0], endCols[0])) {
+						return retVal;
 					}
-					retVal[0] = CollectionCellFactory.createListCell(deltas);
-
+					final int n = coords.size();
+					final double[] start = coords.getStart();
+					final double[] end = coords.getEnd();
+					final DataCell[] deltas = new DataCell[n];
+					for (int i = 0; i < n; i++) {
+						deltas[i] = coords.isMissing(i)
+								? DataType.getMissingCell()
+								: new DoubleCell(end[i] - start[i]);
+					}
+					retVal[0] = CollectionCellFactory
+							.createListCell(Arrays.asList(deltas));
+					retVal[1] = new IntCell(n);
 					return retVal;
 				}
 			});
@@ -318,26 +339,16 @@ public abstract class AbstractVectorDistanceNodeModel
 
 				@Override
 				public DataCell[] getCells(DataRow row) {
-					DataCell[] retVal = new DataCell[colIdx.size()];
-					Arrays.fill(retVal, DataType.getMissingCell());
-					int dimIdx = 0;
-					for (IntPair dim : colIdx.values()) {
-						DataCell start = row.getCell(dim.getFirst());
-						if (start.isMissing()) {
-							dimIdx++;
-							continue;
-						}
-						DataCell end = row.getCell(dim.getSecond());
-						if (end.isMissing()) {
-							dimIdx++;
-							continue;
-						}
-						double startDbl =
-								((DoubleValue) start).getDoubleValue();
-						double endDbl = ((DoubleValue) end).getDoubleValue();
-						retVal[dimIdx++] = new DoubleCell(endDbl - startDbl);
+					final CoordinateBuffer coords = CoordinateBuffer.get();
+					coords.readColumns(row, startCols, endCols);
+					final double[] start = coords.getStart();
+					final double[] end = coords.getEnd();
+					DataCell[] retVal = new DataCell[numDims];
+					for (int i = 0; i < numDims; i++) {
+						retVal[i] = coords.isMissing(i)
+								? DataType.getMissingCell()
+								: new DoubleCell(end[i] - start[i]);
 					}
-
 					return retVal;
 				}
 			});
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.collection.ListDataValue;
+
+/**
+ * A reusable pair of primitive coordinate arrays for the start and end points
+ * of a row, with a flag for each missing component. One instance is held per
+ * thread (see {@link #get()}), so that rows processed concurrently by the
+ * distance node cell factories do not allocate per-row buffers
+ *
+ * @author s.roughley
+ *
+ */
+final class CoordinateBuffer {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private static final ThreadLocal<CoordinateBuffer> BUFFERS =
+			ThreadLocal.withInitial(CoordinateBuffer::new);
+
+	private double[] start = new double[INITIAL_CAPACITY];
+	private double[] end = new double[INITIAL_CAPACITY];
+	private boolean[] missing = new boolean[INITIAL_CAPACITY];
+	private int size = 0;
+	private boolean anyMissing = false;
+
+	private CoordinateBuffer() {
+		// Use get()
+	}
+
+	/**
+	 * @return The buffer for the current thread
+	 */
+	static CoordinateBuffer get() {
+		return BUFFERS.get();
+	}
+
+	private void reset(int n) {
+		if (n > start.length) {
+			final int newCapacity = Math.max(n, 2 * start.length);
+			start = new double[newCapacity];
+			end = new double[newCapacity];
+			missing = new boolean[newCapacity];
+		}
+		size = n;
+		anyMissing = false;
+	}
+
+	/**
+	 * Method to read the coordinates from pairs of numeric columns
+	 *
+	 * @param row
+	 *            The row
+	 * @param startCols
+	 *            The column indices of the start point coordinates
+	 * @param endCols
+	 *            The column indices of the end point coordinates
+	 */
+	void readColumns(DataRow row, int[] startCols, int[] endCols) {
+		reset(startCols.length);
+		for (int i = 0; i < size; i++) {
+			set(i, row.getCell(startCols[i]), row.getCell(endCols[i]));
+		}
+	}
+
+	/**
+	 * Method to read the coordinates from a pair of list columns
+	 *
+	 * @param row
+	 *            The row
+	 * @param startCol
+	 *            The column index of the start point list
+	 * @param endCol
+	 *            The column index of the end point list
+	 * @return {@code false} if either list is missing, or the lists are of
+	 *         different sizes, in which case no coordinates were read
+	 */
+	boolean readLists(DataRow row, int startCol, int endCol) {
+		final DataCell startCell = row.getCell(startCol);
+		final DataCell endCell = row.getCell(endCol);
+		if (startCell.isMissing() || endCell.isMissing()) {
+			return false;
+		}
+		final ListDataValue startLV = (ListDataValue) startCell;
+		final ListDataValue endLV = (ListDataValue) endCell;
+		if (startLV.size() != endLV.size()) {
+			return false;
+		}
+		reset(startLV.size());
+		for (int i = 0; i < size; i++) {
+			set(i, startLV.get(i), endLV.get(i));
+		}
+		return true;
+	}
+
+	private void set(int i, DataCell startCell, DataCell endCell) {
+		if (startCell.isMissing() || endCell.isMissing()) {
+			missing[i] = true;
+			anyMissing = true;
+			return;
+		}
+		missing[i] = false;
+		start[i] = ((DoubleValue) startCell).getDoubleValue();
+		end[i] = ((DoubleValue) endCell).getDoubleValue();
+	}
+
+	/**
+	 * @return The start point coordinates. Only the first {@link #size()}
+	 *         values are valid
+	 */
+	double[] getStart() {
+		return start;
+	}
+
+	/**
+	 * @return The end point coordinates. Only the first {@link #size()} values
+	 *         are valid
+	 */
+	double[] getEnd() {
+		return end;
+	}
+
+	/**
+	 * @param i
+	 *            The component index
+	 * @return Is either coordinate of the component missing?
+	 */
+	boolean isMissing(int i) {
+		return missing[i];
+	}
+
+	/**
+	 * @return Is any coordinate missing?
+	 */
+	boolean isAnyMissing() {
+		return anyMissing;
+	}
+
+	/**
+	 * @return The number of components read
+	 */
+	int size() {
+		return size;
+	}
+}
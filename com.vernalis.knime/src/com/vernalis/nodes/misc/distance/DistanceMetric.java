@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * Enum of the distance metrics available to the distance nodes. Each metric
+ * provides a kernel operating directly on a pair of primitive coordinate
+ * arrays
+ *
+ * @author s.roughley
+ *
+ */
+public enum DistanceMetric implements ButtonGroupEnumInterface {
+
+	EUCLIDEAN("Euclidean", "The straight-line distance") {
+
+		@Override
+		public double getDistance(double[] start, int startOffset,
+				double[] end, int endOffset, int n, boolean squared) {
+			double sum = 0.0;
+			for (int i = 0; i < n; i++) {
+				final double d = end[endOffset + i] - start[startOffset + i];
+				sum += d * d;
+			}
+			return squared ? sum : Math.sqrt(sum);
+		}
+	},
+
+	MANHATTAN("Manhattan",
+			"The sum of the absolute coordinate differences ('city block' "
+					+ "distance)") {
+
+		@Override
+		public double getDistance(double[] start, int startOffset,
+				double[] end, int endOffset, int n, boolean squared) {
+			double sum = 0.0;
+			for (int i = 0; i < n; i++) {
+				sum += Math.abs(end[endOffset + i] - start[startOffset + i]);
+			}
+			return squared ? sum * sum : sum;
+		}
+	},
+
+	CHEBYSHEV("Chebyshev",
+			"The largest absolute coordinate difference ('chessboard' "
+					+ "distance)") {
+
+		@Override
+		public double getDistance(double[] start, int startOffset,
+				double[] end, int endOffset, int n, boolean squared) {
+			double max = 0.0;
+			for (int i = 0; i < n; i++) {
+				final double d = Math
+						.abs(end[endOffset + i] - start[startOffset + i]);
+				if (Double.isNaN(d)) {
+					// As Math.max would, but without checking the rest
+					return Double.NaN;
+				}
+				if (d > max) {
+					max = d;
+				}
+			}
+			return squared ? max * max : max;
+		}
+	};
+
+	private final String name;
+	private final String description;
+
+	private DistanceMetric(String name, String description) {
+		this.name = name;
+		this.description = description;
+	}
+
+	/**
+	 * Method to calculate the distance between two points
+	 *
+	 * @param start
+	 *            The coordinates of the first point
+	 * @param end
+	 *            The coordinates of the second point
+	 * @param n
+	 *            The number of dimensions, which may be less than the length
+	 *            of the arrays
+	 * @param squared
+	 *            Should the squared distance be returned?
+	 * @return The distance, or squared distance
+	 */
+	public double getDistance(double[] start, double[] end, int n,
+			boolean squared) {
+		return getDistance(start, 0, end, 0, n, squared);
+	}
+
+	/**
+	 * Method to calculate the distance between two points stored in larger
+	 * arrays, e.g. packed arrays of many points
+	 *
+	 * @param start
+	 *            The array containing the coordinates of the first point
+	 * @param startOffset
+	 *            The index of the first coordinate of the first point
+	 * @param end
+	 *            The array containing the coordinates of the second point
+	 * @param endOffset
+	 *            The index of the first coordinate of the second point
+	 * @param n
+	 *            The number of dimensions
+	 * @param squared
+	 *            Should the squared distance be returned?
+	 * @return The distance, or squared distance
+	 */
+	public abstract double getDistance(double[] start, int startOffset,
+			double[] end, int endOffset, int n, boolean squared);
+
+	@Override
+	public String getText() {
+		return name;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return description;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default metric
+	 */
+	public static DistanceMetric getDefault() {
+		return EUCLIDEAN;
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance;
+
+import java.util.Arrays;
+
+/**
+ * A list of reference point indices and distances for a single query point,
+ * held in primitive arrays. Neighbours can either be appended in the order
+ * they are found ({@link #add(int, double)}), or a fixed number of the
+ * nearest neighbours kept in ascending order of distance
+ * ({@link #offer(int, double)}).
+ * Neighbours at the same distance are ordered by index, so the nearest
+ * neighbours do not depend on the order in which they are offered
+ *
+ * @author s.roughley
+ *
+ */
+public final class NeighbourList {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final int maxSize;
+	private int[] indices;
+	private double[] distances;
+	private int size = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param maxSize
+	 *            The maximum number of neighbours kept by
+	 *            {@link #offer(int, double)}
+	 */
+	public NeighbourList(int maxSize) {
+		this.maxSize = maxSize;
+		final int capacity = Math.min(maxSize, INITIAL_CAPACITY);
+		indices = new int[capacity];
+		distances = new double[capacity];
+	}
+
+	/**
+	 * Method to append a neighbour to the end of the list
+	 *
+	 * @param index
+	 *            The reference point index
+	 * @param distance
+	 *            The distance
+	 */
+	public void add(int index, double distance) {
+		ensureCapacity(size + 1);
+		indices[size] = index;
+		distances[size++] = distance;
+	}
+
+	/**
+	 * Method to offer a neighbour to a list of the nearest neighbours. The
+	 * neighbour is kept if the list is not full, or it is nearer than the
+	 * furthest neighbour (or at the same distance with a lower index), which
+	 * is then discarded
+	 *
+	 * @param index
+	 *            The reference point index
+	 * @param distance
+	 *            The distance, which must not be {@code NaN}
+	 */
+	public void offer(int index, double distance) {
+		if (size == maxSize) {
+			if (!isBefore(distance, index, distances[size - 1],
+					indices[size - 1])) {
+				return;
+			}
+			size--;
+		}
+		int pos = size;
+		while (pos > 0 && isBefore(distance, index, distances[pos - 1],
+				indices[pos - 1])) {
+			pos--;
+		}
+		ensureCapacity(size + 1);
+		System.arraycopy(indices, pos, indices, pos + 1, size - pos);
+		System.arraycopy(distances, pos, distances, pos + 1, size - pos);
+		indices[pos] = index;
+		distances[pos] = distance;
+		size++;
+	}
+
+	private static boolean isBefore(double distance, int index,
+			double otherDistance, int otherIndex) {
+		return distance < otherDistance
+				|| (distance == otherDistance && index < otherIndex);
+	}
+
+	/**
+	 * Method to sort the neighbours into ascending order of distance, and of
+	 * index for neighbours at the same distance
+	 */
+	public void sort() {
+		if (size < 2) {
+			return;
+		}
+		final int[] tmpIndices = new int[size];
+		final double[] tmpDistances = new double[size];
+		mergeSort(0, size, tmpIndices, tmpDistances);
+	}
+
+	private void mergeSort(int from, int to, int[] tmpIndices,
+			double[] tmpDistances) {
+		if (to - from < 2) {
+			return;
+		}
+		final int mid = (from + to) >>> 1;
+		mergeSort(from, mid, tmpIndices, tmpDistances);
+		mergeSort(mid, to, tmpIndices, tmpDistances);
+		if (!isBefore(distances[mid], indices[mid], distances[mid - 1],
+				indices[mid - 1])) {
+			// Already in order
+			return;
+		}
+		int l = from;
+		int r = mid;
+		for (int i = from; i < to; i++) {
+			if (r >= to || (l < mid && !isBefore(distances[r], indices[r],
+					distances[l], indices[l]))) {
+				tmpIndices[i] = indices[l];
+				tmpDistances[i] = distances[l++];
+			} else {
+				tmpIndices[i] = indices[r];
+				tmpDistances[i] = distances[r++];
+			}
+		}
+		System.arraycopy(tmpIndices, from, indices, from, to - from);
+		System.arraycopy(tmpDistances, from, distances, from, to - from);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > indices.length) {
+			final int newCapacity = (int) Math.min(Integer.MAX_VALUE - 8,
+					Math.max(capacity, 2L * indices.length));
+			indices = Arrays.copyOf(indices, newCapacity);
+			distances = Arrays.copyOf(distances, newCapacity);
+		}
+	}
+
+	/**
+	 * @param i
+	 *            The position in the list
+	 * @return The reference point index
+	 */
+	public int getIndex(int i) {
+		return indices[i];
+	}
+
+	/**
+	 * @param i
+	 *            The position in the list
+	 * @return The distance
+	 */
+	public double getDistance(int i) {
+		return distances[i];
+	}
+
+	/**
+	 * @return Does the list hold the maximum number of neighbours kept by
+	 *         {@link #offer(int, double)}?
+	 */
+	public boolean isFull() {
+		return size >= maxSize;
+	}
+
+	/**
+	 * @return The number of neighbours in the list
+	 */
+	public int size() {
+		return size;
+	}
+}
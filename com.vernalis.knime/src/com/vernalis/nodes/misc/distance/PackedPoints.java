@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DoubleValue;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.collection.ListDataValue;
+
+/**
+ * A fixed capacity set of points, with the coordinates of all the points
+ * packed into a single row-major primitive array. Points which are missing,
+ * or have any missing coordinate, are flagged and have no valid coordinates
+ *
+ * @author s.roughley
+ *
+ */
+public final class PackedPoints {
+
+	private final int numDims;
+	private final double[] coords;
+	private final boolean[] missing;
+	private final RowKey[] rowKeys;
+	private int size = 0;
+	private int numMissing = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param numDims
+	 *            The number of dimensions of each point
+	 * @param capacity
+	 *            The maximum number of points
+	 */
+	public PackedPoints(int numDims, int capacity) {
+		if ((long) numDims * capacity > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many points (" + capacity
+					+ " points of " + numDims + " dimensions)");
+		}
+		this.numDims = numDims;
+		coords = new double[numDims * capacity];
+		missing = new boolean[capacity];
+		rowKeys = new RowKey[capacity];
+	}
+
+	/**
+	 * Method to add the point from a list column of a row
+	 *
+	 * @param row
+	 *            The row
+	 * @param colIdx
+	 *            The index of the list column containing the coordinates
+	 * @throws IllegalArgumentException
+	 *             If the point has the wrong number of dimensions
+	 * @throws IndexOutOfBoundsException
+	 *             If the capacity is exceeded
+	 */
+	public void add(DataRow row, int colIdx) {
+		final int idx = size++;
+		rowKeys[idx] = row.getKey();
+		final DataCell cell = row.getCell(colIdx);
+		if (cell.isMissing()) {
+			setMissing(idx);
+			return;
+		}
+		final ListDataValue list = (ListDataValue) cell;
+		if (list.size() != numDims) {
+			throw new IllegalArgumentException("The point in row '"
+					+ row.getKey().getString() + "' has " + list.size()
+					+ " dimensions, but " + numDims + " were expected");
+		}
+		final int offset = idx * numDims;
+		for (int i = 0; i < numDims; i++) {
+			final DataCell coord = list.get(i);
+			if (coord.isMissing()) {
+				setMissing(idx);
+				return;
+			}
+			coords[offset + i] = ((DoubleValue) coord).getDoubleValue();
+		}
+	}
+
+	private void setMissing(int idx) {
+		missing[idx] = true;
+		numMissing++;
+	}
+
+	/**
+	 * @param cell
+	 *            A list cell containing the coordinates of a point
+	 * @return The number of dimensions of the point, or {@code -1} if the
+	 *         cell is missing
+	 */
+	public static int getNumDimensions(DataCell cell) {
+		return cell.isMissing() ? -1 : ((ListDataValue) cell).size();
+	}
+
+	/**
+	 * @return The packed coordinates. The coordinates of point {@code i}
+	 *         start at {@link #getOffset(int)}
+	 */
+	public double[] getCoordinates() {
+		return coords;
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The index of the first coordinate of the point in the packed
+	 *         coordinates
+	 */
+	public int getOffset(int i) {
+		return i * numDims;
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return Is the point missing?
+	 */
+	public boolean isMissing(int i) {
+		return missing[i];
+	}
+
+	/**
+	 * @param i
+	 *            The point index
+	 * @return The row key of the row the point was read from
+	 */
+	public RowKey getRowKey(int i) {
+		return rowKeys[i];
+	}
+
+	/**
+	 * @return The number of dimensions of each point
+	 */
+	public int getNumDimensions() {
+		return numDims;
+	}
+
+	/**
+	 * @return The number of points added, including missing points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of missing points
+	 */
+	public int getNumMissing() {
+		return numMissing;
+	}
+}
@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.cross;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+
+import static com.vernalis.nodes.misc.distance.AbstractVectorDistanceNodeDialog.LIST_OF_NUMBERS;
+
+/**
+ * Node Dialog for the Cross Distance node
+ *
+ * @author s.roughley
+ *
+ */
+public class CrossDistanceNodeDialog extends DefaultNodeSettingsPane {
+
+	private static final String QUERY_COLUMN = "Query points column";
+	private static final String REFERENCE_COLUMN = "Reference points column";
+	private static final String DISTANCE_METRIC = "Distance metric";
+	private static final String RETURN_SQUARED_DISTANCE =
+			"Return squared Distance";
+	private static final String OUTPUT = "Output";
+	private static final String MAXIMUM_DISTANCE = "Maximum distance";
+	private static final String NUMBER_OF_NEIGHBOURS =
+			"Number of nearest references (k)";
+
+	/**
+	 * Constructor
+	 */
+	public CrossDistanceNodeDialog() {
+		createNewGroup("Points");
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createQueryColumnModel(), QUERY_COLUMN, 0, LIST_OF_NUMBERS));
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createReferenceColumnModel(), REFERENCE_COLUMN, 1,
+				LIST_OF_NUMBERS));
+
+		createNewGroup("Distance");
+		addDialogComponent(new DialogComponentButtonGroup(createMetricModel(),
+				DISTANCE_METRIC, false, DistanceMetric.values()));
+		addDialogComponent(new DialogComponentBoolean(
+				createSquareDistanceModel(), RETURN_SQUARED_DISTANCE));
+
+		createNewGroup(OUTPUT);
+		final SettingsModelString outputMdl = createOutputModel();
+		final SettingsModelDoubleBounded maxDistMdl =
+				createMaximumDistanceModel();
+		final SettingsModelIntegerBounded kMdl = createNumNeighboursModel();
+		outputMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				updateEnabled(outputMdl, maxDistMdl, kMdl);
+			}
+		});
+		updateEnabled(outputMdl, maxDistMdl, kMdl);
+		addDialogComponent(new DialogComponentButtonGroup(outputMdl, OUTPUT,
+				true, CrossDistanceOutput.values()));
+		addDialogComponent(
+				new DialogComponentNumber(maxDistMdl, MAXIMUM_DISTANCE, 0.1));
+		addDialogComponent(
+				new DialogComponentNumber(kMdl, NUMBER_OF_NEIGHBOURS, 1));
+		closeCurrentGroup();
+	}
+
+	private static void updateEnabled(SettingsModelString outputMdl,
+			SettingsModelDoubleBounded maxDistMdl,
+			SettingsModelIntegerBounded kMdl) {
+		CrossDistanceOutput output;
+		try {
+			output = CrossDistanceOutput.valueOf(outputMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			output = null;
+		}
+		maxDistMdl.setEnabled(output == CrossDistanceOutput.WITHIN_DISTANCE);
+		kMdl.setEnabled(output == CrossDistanceOutput.NEAREST);
+	}
+
+	/**
+	 * @return The settings model for the {@value #QUERY_COLUMN}
+	 */
+	static SettingsModelString createQueryColumnModel() {
+		return new SettingsModelString(QUERY_COLUMN, null);
+	}
+
+	/**
+	 * @return The settings model for the {@value #REFERENCE_COLUMN}
+	 */
+	static SettingsModelString createReferenceColumnModel() {
+		return new SettingsModelString(REFERENCE_COLUMN, null);
+	}
+
+	/**
+	 * @return The settings model for the {@value #DISTANCE_METRIC}
+	 */
+	static SettingsModelString createMetricModel() {
+		return new SettingsModelString(DISTANCE_METRIC,
+				DistanceMetric.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the {@value #RETURN_SQUARED_DISTANCE}
+	 *         option
+	 */
+	static SettingsModelBoolean createSquareDistanceModel() {
+		return new SettingsModelBoolean(RETURN_SQUARED_DISTANCE, false);
+	}
+
+	/**
+	 * @return The settings model for the {@value #OUTPUT} option
+	 */
+	static SettingsModelString createOutputModel() {
+		return new SettingsModelString(OUTPUT,
+				CrossDistanceOutput.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the {@value #MAXIMUM_DISTANCE}
+	 */
+	static SettingsModelDoubleBounded createMaximumDistanceModel() {
+		return new SettingsModelDoubleBounded(MAXIMUM_DISTANCE, 1.0, 0.0,
+				Double.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the {@value #NUMBER_OF_NEIGHBOURS}
+	 */
+	static SettingsModelIntegerBounded createNumNeighboursModel() {
+		return new SettingsModelIntegerBounded(NUMBER_OF_NEIGHBOURS, 5, 1,
+				Integer.MAX_VALUE);
+	}
+
+}
@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.cross;
+
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.append.AppendedColumnRow;
+import org.knime.core.data.collection.CollectionCellFactory;
+import org.knime.core.data.collection.ListCell;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.nodes.misc.distance.AbstractPointSearchNodeModel;
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.NeighbourList;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createMaximumDistanceModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createMetricModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createNumNeighboursModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createOutputModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createQueryColumnModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createReferenceColumnModel;
+import static com.vernalis.nodes.misc.distance.cross.CrossDistanceNodeDialog.createSquareDistanceModel;
+
+/**
+ * {@link NodeModel} implementation for the Cross Distance node, which
+ * calculates the distances between every query point and every reference
+ * point without creating the cross-joined table.
+ * <p>
+ * The query table is read in blocks, each of which is processed as a
+ * separate task on a sub-pool of the KNIME global thread pool (see
+ * {@link AbstractPointSearchNodeModel}). Within each task the reference
+ * points are visited in tiles small enough to remain in the processor cache
+ * while every query point in the block is compared with them.
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+public class CrossDistanceNodeModel extends AbstractPointSearchNodeModel {
+
+	/** The maximum number of query points in a block */
+	private static final int MAX_BLOCK_SIZE = 64;
+	/**
+	 * The maximum number of distances held by a block for the distance matrix
+	 * output
+	 */
+	private static final int MAX_BLOCK_MATRIX_SIZE = 1 << 20;
+	/** The number of reference coordinates in a tile (32 kB) */
+	private static final int TILE_COORDINATES = 4096;
+	/** The minimum number of reference points in a tile */
+	private static final int MIN_TILE_SIZE = 16;
+
+	private final SettingsModelString queryColMdl =
+			registerSettingsModel(createQueryColumnModel());
+	private final SettingsModelString refColMdl =
+			registerSettingsModel(createReferenceColumnModel());
+	private final SettingsModelString metricMdl =
+			registerSettingsModel(createMetricModel());
+	private final SettingsModelBoolean sqrDistanceMdl =
+			registerSettingsModel(createSquareDistanceModel());
+	private final SettingsModelString outputMdl =
+			registerSettingsModel(createOutputModel());
+	private final SettingsModelDoubleBounded maxDistMdl =
+			registerSettingsModel(createMaximumDistanceModel());
+	private final SettingsModelIntegerBounded kMdl =
+			registerSettingsModel(createNumNeighboursModel());
+
+	private DistanceMetric metric;
+	private CrossDistanceOutput output;
+
+	/**
+	 * Constructor
+	 */
+	public CrossDistanceNodeModel() {
+		super();
+	}
+
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		guessColumnName(inSpecs[0], queryColMdl, "query");
+		guessColumnName(inSpecs[1], refColMdl, "reference");
+		try {
+			metric = DistanceMetric.valueOf(metricMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown distance metric: " + metricMdl.getStringValue());
+		}
+		try {
+			output = CrossDistanceOutput.valueOf(outputMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown output option: " + outputMdl.getStringValue());
+		}
+		return new DataTableSpec[] { createOutputSpec(inSpecs[0]) };
+	}
+
+	private String getDistanceName() {
+		return (sqrDistanceMdl.getBooleanValue() ? "Squared-" : "")
+				+ (metric == DistanceMetric.EUCLIDEAN ? ""
+						: metric.getText() + " ")
+				+ "Distance";
+	}
+
+	private DataTableSpec createOutputSpec(DataTableSpec querySpec) {
+		if (output == CrossDistanceOutput.DISTANCE_MATRIX) {
+			return new DataTableSpec(querySpec,
+					new DataTableSpec(new DataColumnSpecCreator(
+							DataTableSpec.getUniqueColumnName(querySpec,
+									getDistanceName() + "s"),
+							ListCell.getCollectionType(DoubleCell.TYPE))
+									.createSpec()));
+		}
+		final DataColumnSpec[] colSpecs =
+				new DataColumnSpec[output == CrossDistanceOutput.NEAREST ? 4
+						: 3];
+		colSpecs[0] = new DataColumnSpecCreator("Query Row ID", StringCell.TYPE)
+				.createSpec();
+		colSpecs[1] =
+				new DataColumnSpecCreator("Reference Row ID", StringCell.TYPE)
+						.createSpec();
+		colSpecs[2] =
+				new DataColumnSpecCreator(getDistanceName(), DoubleCell.TYPE)
+						.createSpec();
+		if (output == CrossDistanceOutput.NEAREST) {
+			colSpecs[3] =
+					new DataColumnSpecCreator("Rank", IntCell.TYPE).createSpec();
+		}
+		return new DataTableSpec(colSpecs);
+	}
+
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable queryTable = inData[0];
+		final BufferedDataTable refTable = inData[1];
+		final int queryColIdx = queryTable.getDataTableSpec()
+				.findColumnIndex(queryColMdl.getStringValue());
+		final int refColIdx = refTable.getDataTableSpec()
+				.findColumnIndex(refColMdl.getStringValue());
+
+		// Load the reference points
+		exec.setMessage("Loading reference points");
+		final PackedPoints refs = loadReferencePoints(queryTable, queryColIdx,
+				refTable, refColIdx, exec.createSubProgress(0.1));
+
+		// Calculate the distances for blocks of query points
+		exec.setMessage("Calculating distances");
+		final Calculator calc = new Calculator(refs, metric,
+				sqrDistanceMdl.getBooleanValue(), output,
+				maxDistMdl.getDoubleValue(), kMdl.getIntValue());
+		final int blockSize = output == CrossDistanceOutput.DISTANCE_MATRIX
+				? Math.max(1, Math.min(MAX_BLOCK_SIZE,
+						MAX_BLOCK_MATRIX_SIZE / Math.max(1, refs.size())))
+				: MAX_BLOCK_SIZE;
+		final boolean keepRows = output == CrossDistanceOutput.DISTANCE_MATRIX;
+		final BufferedDataContainer cont = exec.createDataContainer(
+				createOutputSpec(queryTable.getDataTableSpec()));
+		final long numMissing = processBlocks(queryTable, queryColIdx,
+				() -> new Block(refs.getNumDimensions(), blockSize, keepRows),
+				calc::process, block -> writeBlock(block, refs, cont),
+				KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool(),
+				exec.createSubProgress(0.9));
+		cont.close();
+
+		setMissingPointsWarning(numMissing, refs);
+		return new BufferedDataTable[] { cont.getTable() };
+	}
+
+	/**
+	 * Method to write the output rows for a completed block of query points
+	 */
+	private void writeBlock(Block block, PackedPoints refs,
+			BufferedDataContainer cont) {
+		final PackedPoints queries = block.getQueries();
+		for (int q = 0; q < queries.size(); q++) {
+			if (output == CrossDistanceOutput.DISTANCE_MATRIX) {
+				cont.addRowToTable(new AppendedColumnRow(block.rows[q],
+						createDistanceListCell(block.matrix[q], refs)));
+				continue;
+			}
+			final NeighbourList neighbours = block.neighbours[q];
+			if (neighbours == null) {
+				continue;
+			}
+			final DataCell queryIdCell =
+					new StringCell(queries.getRowKey(q).getString());
+			for (int i = 0; i < neighbours.size(); i++) {
+				final RowKey rowKey = RowKey.createRowKey(cont.size());
+				final DataCell refIdCell = new StringCell(
+						refs.getRowKey(neighbours.getIndex(i)).getString());
+				final DataCell distCell =
+						new DoubleCell(neighbours.getDistance(i));
+				cont.addRowToTable(output == CrossDistanceOutput.NEAREST
+						? new DefaultRow(rowKey, queryIdCell, refIdCell,
+								distCell, new IntCell(i + 1))
+						: new DefaultRow(rowKey, queryIdCell, refIdCell,
+								distCell));
+			}
+		}
+	}
+
+	private static DataCell createDistanceListCell(double[] distances,
+			PackedPoints refs) {
+		if (distances == null) {
+			return DataType.getMissingCell();
+		}
+		final DataCell[] cells = new DataCell[distances.length];
+		for (int r = 0; r < cells.length; r++) {
+			cells[r] = refs.isMissing(r) ? DataType.getMissingCell()
+					: new DoubleCell(distances[r]);
+		}
+		return CollectionCellFactory.createListCell(Arrays.asList(cells));
+	}
+
+	/**
+	 * A block of query points, and the results for them
+	 */
+	private static final class Block extends QueryBlock {
+
+		/** The query rows, only kept for the distance matrix output */
+		private final DataRow[] rows;
+		private double[][] matrix;
+		private NeighbourList[] neighbours;
+
+		private Block(int numDims, int capacity, boolean keepRows) {
+			super(numDims, capacity);
+			rows = keepRows ? new DataRow[capacity] : null;
+		}
+
+		@Override
+		protected void add(DataRow row, int colIdx) {
+			if (rows != null) {
+				rows[size()] = row;
+			}
+			super.add(row, colIdx);
+		}
+	}
+
+	/**
+	 * The distance calculation for a block of query points, which holds no
+	 * mutable state and so can process blocks concurrently
+	 */
+	private static final class Calculator {
+
+		private final PackedPoints refs;
+		private final DistanceMetric metric;
+		private final boolean squared;
+		private final CrossDistanceOutput output;
+		private final double maxDist;
+		private final int k;
+		private final int tileSize;
+
+		private Calculator(PackedPoints refs, DistanceMetric metric,
+				boolean squared, CrossDistanceOutput output, double maxDist,
+				int k) {
+			this.refs = refs;
+			this.metric = metric;
+			this.squared = squared;
+			this.output = output;
+			this.maxDist = maxDist;
+			this.k = k;
+			tileSize = Math.max(MIN_TILE_SIZE,
+					TILE_COORDINATES / Math.max(1, refs.getNumDimensions()));
+		}
+
+		/**
+		 * Method to calculate the distances for a block of query points to
+		 * all the reference points, a tile of reference points at a time
+		 *
+		 * @return The block, with the results set
+		 */
+		private Block process(Block block, ExecutionMonitor exec)
+				throws CanceledExecutionException {
+			final PackedPoints queries = block.getQueries();
+			final int numRefs = refs.size();
+			final boolean isMatrix =
+					output == CrossDistanceOutput.DISTANCE_MATRIX;
+			if (isMatrix) {
+				block.matrix = new double[queries.size()][];
+				for (int q = 0; q < queries.size(); q++) {
+					if (!queries.isMissing(q)) {
+						block.matrix[q] = new double[numRefs];
+					}
+				}
+			} else {
+				block.neighbours = new NeighbourList[queries.size()];
+			}
+			final double[] tile = isMatrix ? null : new double[tileSize];
+			for (int tStart = 0; tStart < numRefs; tStart += tileSize) {
+				exec.checkCanceled();
+				final int tEnd = Math.min(numRefs, tStart + tileSize);
+				for (int q = 0; q < queries.size(); q++) {
+					if (queries.isMissing(q)) {
+						continue;
+					}
+					if (isMatrix) {
+						calculateTile(queries, q, tStart, tEnd,
+								block.matrix[q], tStart);
+						continue;
+					}
+					calculateTile(queries, q, tStart, tEnd, tile, 0);
+					for (int r = tStart; r < tEnd; r++) {
+						final double dist = tile[r - tStart];
+						if (refs.isMissing(r) || Double.isNaN(dist)) {
+							continue;
+						}
+						if (output == CrossDistanceOutput.NEAREST) {
+							if (block.neighbours[q] == null) {
+								block.neighbours[q] = new NeighbourList(k);
+							}
+							block.neighbours[q].offer(r, dist);
+						} else if (dist <= maxDist) {
+							if (block.neighbours[q] == null) {
+								block.neighbours[q] =
+										new NeighbourList(Integer.MAX_VALUE);
+							}
+							block.neighbours[q].add(r, dist);
+						}
+					}
+				}
+			}
+			return block;
+		}
+
+		/**
+		 * Method to calculate the distances from a query point to a tile of
+		 * reference points. Distances for missing reference points are not
+		 * valid
+		 */
+		private void calculateTile(PackedPoints queries, int q, int tStart,
+				int tEnd, double[] dest, int destOffset) {
+			final double[] qCoords = queries.getCoordinates();
+			final double[] rCoords = refs.getCoordinates();
+			final int qOffset = queries.getOffset(q);
+			final int numDims = refs.getNumDimensions();
+			for (int r = tStart; r < tEnd; r++) {
+				dest[destOffset + r - tStart] = refs.isMissing(r) ? Double.NaN
+						: metric.getDistance(qCoords, qOffset, rCoords,
+								refs.getOffset(r), numDims, squared);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.cross;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * Enum of the output options for the Cross Distance node
+ *
+ * @author s.roughley
+ *
+ */
+public enum CrossDistanceOutput implements ButtonGroupEnumInterface {
+
+	DISTANCE_MATRIX("Distance matrix",
+			"A list of the distances to every reference point is appended to "
+					+ "each query row"),
+
+	WITHIN_DISTANCE("Pairs within maximum distance",
+			"One row for each query / reference pair no further apart than "
+					+ "the maximum distance"),
+
+	NEAREST("Nearest references",
+			"One row for each of the k nearest references to each query");
+
+	private final String text;
+	private final String toolTip;
+
+	private CrossDistanceOutput(String text, String toolTip) {
+		this.text = text;
+		this.toolTip = toolTip;
+	}
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return toolTip;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default output option
+	 */
+	public static CrossDistanceOutput getDefault() {
+		return NEAREST;
+	}
+}
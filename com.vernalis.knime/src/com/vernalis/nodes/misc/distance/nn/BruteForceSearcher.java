@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.NeighbourList;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+
+/**
+ * {@link NeighbourSearcher} implementation which compares the query point
+ * with every reference point. This is used to verify the k-d tree results
+ *
+ * @author s.roughley
+ *
+ */
+final class BruteForceSearcher implements NeighbourSearcher {
+
+	private final PackedPoints refs;
+	private final DistanceMetric metric;
+	private final boolean squared;
+
+	/**
+	 * Constructor
+	 *
+	 * @param refs
+	 *            The reference points
+	 * @param metric
+	 *            The distance metric
+	 * @param squared
+	 *            Should squared distances be used?
+	 */
+	BruteForceSearcher(PackedPoints refs, DistanceMetric metric,
+			boolean squared) {
+		this.refs = refs;
+		this.metric = metric;
+		this.squared = squared;
+	}
+
+	@Override
+	public void findNearest(double[] query, int queryOffset, int exclude,
+			NeighbourList result) {
+		final double[] coords = refs.getCoordinates();
+		final int numDims = refs.getNumDimensions();
+		for (int r = 0; r < refs.size(); r++) {
+			if (r == exclude || refs.isMissing(r)) {
+				continue;
+			}
+			final double dist = metric.getDistance(query, queryOffset, coords,
+					refs.getOffset(r), numDims, squared);
+			if (!Double.isNaN(dist)) {
+				result.offer(r, dist);
+			}
+		}
+	}
+
+	@Override
+	public void findWithinRadius(double[] query, int queryOffset,
+			double radius, int exclude, NeighbourList result) {
+		final double[] coords = refs.getCoordinates();
+		final int numDims = refs.getNumDimensions();
+		for (int r = 0; r < refs.size(); r++) {
+			if (r == exclude || refs.isMissing(r)) {
+				continue;
+			}
+			final double dist = metric.getDistance(query, queryOffset, coords,
+					refs.getOffset(r), numDims, squared);
+			if (dist <= radius) {
+				result.add(r, dist);
+			}
+		}
+	}
+}
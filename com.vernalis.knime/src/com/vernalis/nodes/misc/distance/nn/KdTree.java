@@ -0,0 +1,384 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.knime.parallel.ThreadPoolUtils;
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.NeighbourList;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+
+/**
+ * A k-d tree {@link NeighbourSearcher}. The tree is implicit - the reference
+ * points are reordered so that each subtree occupies a contiguous range, with
+ * the splitting point at the middle of the range, points no greater in the
+ * splitting dimension before it and points no smaller after it. Only the
+ * splitting dimension for each splitting point needs to be stored. Ranges of
+ * up to {@value #LEAF_SIZE} points are leaves, which are scanned.
+ * <p>
+ * The coordinates are copied into tree order, so that leaves are contiguous
+ * in memory. Each range is split in the dimension with the largest spread.
+ * Ranges larger than {@value #PARALLEL_BUILD_SIZE} points are split on the
+ * calling thread, and the subtrees below them are built in parallel on a
+ * thread pool.
+ * </p>
+ * <p>
+ * Subtrees are skipped when the distance from the query point to the
+ * splitting plane is greater than the current search distance. The
+ * coordinate difference is a lower bound to the distance for all the
+ * supported metrics, so the results are exactly those of the brute force
+ * search.
+ * </p>
+ *
+ * @author s.roughley
+ *
+ */
+final class KdTree implements NeighbourSearcher {
+
+	/** The maximum number of points in a leaf */
+	private static final int LEAF_SIZE = 8;
+	/** The maximum number of points in a subtree built as a single task */
+	private static final int PARALLEL_BUILD_SIZE = 1 << 14;
+
+	private final DistanceMetric metric;
+	private final boolean squared;
+	private final int numDims;
+	/** The reference point index of each point, in tree order */
+	private final int[] order;
+	/** The splitting dimension, indexed by the splitting point position */
+	private final int[] splitDims;
+	/** The coordinates, in tree order */
+	private final double[] coords;
+
+	/**
+	 * Constructor. Missing reference points, and reference points with
+	 * {@code NaN} coordinates, are not included in the tree
+	 *
+	 * @param refs
+	 *            The reference points
+	 * @param metric
+	 *            The distance metric
+	 * @param squared
+	 *            Should squared distances be used?
+	 * @param pool
+	 *            The thread pool to build the subtrees on
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled the execution
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while waiting for a subtree
+	 * @throws ExecutionException
+	 *             If building a subtree threw an exception
+	 */
+	KdTree(PackedPoints refs, DistanceMetric metric, boolean squared,
+			ThreadPool pool, ExecutionMonitor exec)
+			throws CanceledExecutionException, InterruptedException,
+			ExecutionException {
+		this.metric = metric;
+		this.squared = squared;
+		numDims = refs.getNumDimensions();
+		final double[] src = refs.getCoordinates();
+
+		final int[] idx = new int[refs.size()];
+		int n = 0;
+		for (int r = 0; r < refs.size(); r++) {
+			if (!refs.isMissing(r) && !hasNaN(src, refs.getOffset(r))) {
+				idx[n++] = r;
+			}
+		}
+		order = n == idx.length ? idx : Arrays.copyOf(idx, n);
+		splitDims = new int[n];
+		build(src, pool, exec);
+
+		coords = new double[n * numDims];
+		for (int i = 0; i < n; i++) {
+			System.arraycopy(src, refs.getOffset(order[i]), coords,
+					i * numDims, numDims);
+		}
+	}
+
+	private boolean hasNaN(double[] src, int offset) {
+		for (int d = 0; d < numDims; d++) {
+			if (Double.isNaN(src[offset + d])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Method to build the tree. The large ranges are split on the calling
+	 * thread, and the subtrees below them are then built in parallel
+	 */
+	private void build(double[] src, ThreadPool pool, ExecutionMonitor exec)
+			throws CanceledExecutionException, InterruptedException,
+			ExecutionException {
+		final List<int[]> subtrees = new ArrayList<>();
+		final Builder builder = new Builder(src);
+		builder.splitLarge(0, order.length, subtrees, exec);
+		final List<Future<Void>> futures = new ArrayList<>();
+		try {
+			for (int[] subtree : subtrees) {
+				futures.add(pool.enqueue(() -> {
+					exec.checkCanceled();
+					builder.build(subtree[0], subtree[1]);
+					return null;
+				}));
+			}
+			ThreadPoolUtils.waitInvisibly(pool, () -> {
+				for (int f = 0; f < futures.size(); f++) {
+					futures.get(f).get();
+					exec.setProgress((f + 1.0) / futures.size());
+				}
+				return null;
+			});
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CanceledExecutionException) {
+				throw (CanceledExecutionException) e.getCause();
+			}
+			throw e;
+		} finally {
+			for (Future<Void> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * The splitting of ranges of points, which can build separate subtrees
+	 * concurrently
+	 */
+	private final class Builder {
+
+		private final double[] src;
+
+		private Builder(double[] src) {
+			this.src = src;
+		}
+
+		/**
+		 * Method to split ranges larger than {@value #PARALLEL_BUILD_SIZE}
+		 * points, collecting the unsplit subtree ranges
+		 */
+		private void splitLarge(int from, int to, List<int[]> subtrees,
+				ExecutionMonitor exec) throws CanceledExecutionException {
+			if (to - from <= PARALLEL_BUILD_SIZE) {
+				subtrees.add(new int[] { from, to });
+				return;
+			}
+			exec.checkCanceled();
+			final int mid = split(from, to);
+			splitLarge(from, mid, subtrees, exec);
+			splitLarge(mid + 1, to, subtrees, exec);
+		}
+
+		private void build(int from, int to) {
+			if (to - from <= LEAF_SIZE) {
+				return;
+			}
+			final int mid = split(from, to);
+			build(from, mid);
+			build(mid + 1, to);
+		}
+
+		/**
+		 * Method to split a range at its middle point
+		 *
+		 * @return The position of the splitting point
+		 */
+		private int split(int from, int to) {
+			final int dim = getWidestDimension(from, to);
+			final int mid = (from + to) >>> 1;
+			select(from, to, mid, dim);
+			splitDims[mid] = dim;
+			return mid;
+		}
+
+		private int getWidestDimension(int from, int to) {
+			int widest = 0;
+			double maxSpread = -1.0;
+			for (int d = 0; d < numDims; d++) {
+				double min = Double.POSITIVE_INFINITY;
+				double max = Double.NEGATIVE_INFINITY;
+				for (int i = from; i < to; i++) {
+					final double v = src[order[i] * numDims + d];
+					if (v < min) {
+						min = v;
+					}
+					if (v > max) {
+						max = v;
+					}
+				}
+				if (max - min > maxSpread) {
+					maxSpread = max - min;
+					widest = d;
+				}
+			}
+			return widest;
+		}
+
+		/**
+		 * Quickselect, leaving the {@code k}th point in the range in position
+		 * in the splitting dimension, with no greater points before it and no
+		 * smaller points after it
+		 */
+		private void select(int from, int to, int k, int dim) {
+			int left = from;
+			int right = to - 1;
+			while (right > left) {
+				final double pivot =
+						src[order[(left + right) >>> 1] * numDims + dim];
+				int i = left;
+				int j = right;
+				while (i <= j) {
+					while (src[order[i] * numDims + dim] < pivot) {
+						i++;
+					}
+					while (src[order[j] * numDims + dim] > pivot) {
+						j--;
+					}
+					if (i <= j) {
+						final int tmp = order[i];
+						order[i++] = order[j];
+						order[j--] = tmp;
+					}
+				}
+				if (k <= j) {
+					right = j;
+				} else if (k >= i) {
+					left = i;
+				} else {
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The lower bound to the distance from a query point to any point
+	 *         on the far side of a splitting plane
+	 */
+	private double getPlaneDistance(double diff) {
+		final double dist = Math.abs(diff);
+		return squared ? dist * dist : dist;
+	}
+
+	private double getDistance(double[] query, int queryOffset, int i) {
+		return metric.getDistance(query, queryOffset, coords, i * numDims,
+				numDims, squared);
+	}
+
+	@Override
+	public void findNearest(double[] query, int queryOffset, int exclude,
+			NeighbourList result) {
+		findNearest(query, queryOffset, exclude, result, 0, order.length);
+	}
+
+	private void findNearest(double[] query, int queryOffset, int exclude,
+			NeighbourList result, int from, int to) {
+		if (to - from <= LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				offer(query, queryOffset, exclude, result, i);
+			}
+			return;
+		}
+		final int mid = (from + to) >>> 1;
+		final int dim = splitDims[mid];
+		final double diff =
+				query[queryOffset + dim] - coords[mid * numDims + dim];
+		offer(query, queryOffset, exclude, result, mid);
+		// Search the near side first, then the far side only if it could
+		// contain a nearer point
+		final boolean leftFirst = diff <= 0;
+		findNearest(query, queryOffset, exclude, result,
+				leftFirst ? from : mid + 1, leftFirst ? mid : to);
+		if (!result.isFull() || getPlaneDistance(diff) <= result
+				.getDistance(result.size() - 1)) {
+			findNearest(query, queryOffset, exclude, result,
+					leftFirst ? mid + 1 : from, leftFirst ? to : mid);
+		}
+	}
+
+	private void offer(double[] query, int queryOffset, int exclude,
+			NeighbourList result, int i) {
+		if (order[i] == exclude) {
+			return;
+		}
+		final double dist = getDistance(query, queryOffset, i);
+		if (!Double.isNaN(dist)) {
+			result.offer(order[i], dist);
+		}
+	}
+
+	@Override
+	public void findWithinRadius(double[] query, int queryOffset,
+			double radius, int exclude, NeighbourList result) {
+		findWithinRadius(query, queryOffset, radius, exclude, result, 0,
+				order.length);
+	}
+
+	private void findWithinRadius(double[] query, int queryOffset,
+			double radius, int exclude, NeighbourList result, int from,
+			int to) {
+		if (to - from <= LEAF_SIZE) {
+			for (int i = from; i < to; i++) {
+				add(query, queryOffset, radius, exclude, result, i);
+			}
+			return;
+		}
+		final int mid = (from + to) >>> 1;
+		final int dim = splitDims[mid];
+		final double diff =
+				query[queryOffset + dim] - coords[mid * numDims + dim];
+		add(query, queryOffset, radius, exclude, result, mid);
+		final boolean inRange = getPlaneDistance(diff) <= radius;
+		if (diff <= 0 || inRange) {
+			findWithinRadius(query, queryOffset, radius, exclude, result,
+					from, mid);
+		}
+		if (diff >= 0 || inRange) {
+			findWithinRadius(query, queryOffset, radius, exclude, result,
+					mid + 1, to);
+		}
+	}
+
+	private void add(double[] query, int queryOffset, double radius,
+			int exclude, NeighbourList result, int i) {
+		if (order[i] == exclude) {
+			return;
+		}
+		final double dist = getDistance(query, queryOffset, i);
+		if (dist <= radius) {
+			result.add(order[i], dist);
+		}
+	}
+
+	/**
+	 * @return The number of points in the tree
+	 */
+	int size() {
+		return order.length;
+	}
+}
@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
+import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
+import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
+import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+
+import static com.vernalis.nodes.misc.distance.AbstractVectorDistanceNodeDialog.LIST_OF_NUMBERS;
+
+/**
+ * Node Dialog for the Nearest Neighbours node
+ *
+ * @author s.roughley
+ *
+ */
+public class NearestNeighboursNodeDialog extends DefaultNodeSettingsPane {
+
+	private static final String QUERY_COLUMN = "Query points column";
+	private static final String REFERENCE_COLUMN = "Reference points column";
+	private static final String DISTANCE_METRIC = "Distance metric";
+	private static final String RETURN_SQUARED_DISTANCE =
+			"Return squared Distance";
+	private static final String SEARCH = "Search";
+	private static final String NUMBER_OF_NEIGHBOURS =
+			"Number of neighbours (k)";
+	private static final String RADIUS = "Radius";
+	private static final String IGNORE_SAME_ROW_ID =
+			"Ignore neighbours with the query Row ID";
+	private static final String SEARCH_METHOD = "Search method";
+
+	/**
+	 * Constructor
+	 */
+	public NearestNeighboursNodeDialog() {
+		createNewGroup("Points");
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createQueryColumnModel(), QUERY_COLUMN, 0, LIST_OF_NUMBERS));
+		addDialogComponent(new DialogComponentColumnNameSelection(
+				createReferenceColumnModel(), REFERENCE_COLUMN, 1,
+				LIST_OF_NUMBERS));
+
+		createNewGroup("Distance");
+		addDialogComponent(new DialogComponentButtonGroup(createMetricModel(),
+				DISTANCE_METRIC, false, DistanceMetric.values()));
+		addDialogComponent(new DialogComponentBoolean(
+				createSquareDistanceModel(), RETURN_SQUARED_DISTANCE));
+
+		createNewGroup(SEARCH);
+		final SettingsModelString searchMdl = createSearchTypeModel();
+		final SettingsModelIntegerBounded kMdl = createNumNeighboursModel();
+		final SettingsModelDoubleBounded radiusMdl = createRadiusModel();
+		searchMdl.addChangeListener(new ChangeListener() {
+
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				updateEnabled(searchMdl, kMdl, radiusMdl);
+			}
+		});
+		updateEnabled(searchMdl, kMdl, radiusMdl);
+		addDialogComponent(new DialogComponentButtonGroup(searchMdl, SEARCH,
+				false, NeighbourSearchType.values()));
+		setHorizontalPlacement(true);
+		addDialogComponent(
+				new DialogComponentNumber(kMdl, NUMBER_OF_NEIGHBOURS, 1));
+		addDialogComponent(new DialogComponentNumber(radiusMdl, RADIUS, 0.1));
+		setHorizontalPlacement(false);
+		addDialogComponent(new DialogComponentBoolean(
+				createIgnoreSameRowIdModel(), IGNORE_SAME_ROW_ID));
+		addDialogComponent(new DialogComponentButtonGroup(
+				createSearchMethodModel(), SEARCH_METHOD, false,
+				SearchMethod.values()));
+		closeCurrentGroup();
+	}
+
+	private static void updateEnabled(SettingsModelString searchMdl,
+			SettingsModelIntegerBounded kMdl,
+			SettingsModelDoubleBounded radiusMdl) {
+		NeighbourSearchType searchType;
+		try {
+			searchType = NeighbourSearchType.valueOf(searchMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			searchType = null;
+		}
+		kMdl.setEnabled(searchType == NeighbourSearchType.NEAREST);
+		radiusMdl.setEnabled(searchType == NeighbourSearchType.WITHIN_RADIUS);
+	}
+
+	/**
+	 * @return The settings model for the {@value #QUERY_COLUMN}
+	 */
+	static SettingsModelString createQueryColumnModel() {
+		return new SettingsModelString(QUERY_COLUMN, null);
+	}
+
+	/**
+	 * @return The settings model for the {@value #REFERENCE_COLUMN}
+	 */
+	static SettingsModelString createReferenceColumnModel() {
+		return new SettingsModelString(REFERENCE_COLUMN, null);
+	}
+
+	/**
+	 * @return The settings model for the {@value #DISTANCE_METRIC}
+	 */
+	static SettingsModelString createMetricModel() {
+		return new SettingsModelString(DISTANCE_METRIC,
+				DistanceMetric.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the {@value #RETURN_SQUARED_DISTANCE}
+	 *         option
+	 */
+	static SettingsModelBoolean createSquareDistanceModel() {
+		return new SettingsModelBoolean(RETURN_SQUARED_DISTANCE, false);
+	}
+
+	/**
+	 * @return The settings model for the {@value #SEARCH} type
+	 */
+	static SettingsModelString createSearchTypeModel() {
+		return new SettingsModelString(SEARCH,
+				NeighbourSearchType.getDefault().getActionCommand());
+	}
+
+	/**
+	 * @return The settings model for the {@value #NUMBER_OF_NEIGHBOURS}
+	 */
+	static SettingsModelIntegerBounded createNumNeighboursModel() {
+		return new SettingsModelIntegerBounded(NUMBER_OF_NEIGHBOURS, 5, 1,
+				Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the search {@value #RADIUS}
+	 */
+	static SettingsModelDoubleBounded createRadiusModel() {
+		return new SettingsModelDoubleBounded(RADIUS, 1.0, 0.0,
+				Double.MAX_VALUE);
+	}
+
+	/**
+	 * @return The settings model for the {@value #IGNORE_SAME_ROW_ID} option
+	 */
+	static SettingsModelBoolean createIgnoreSameRowIdModel() {
+		return new SettingsModelBoolean(IGNORE_SAME_ROW_ID, false);
+	}
+
+	/**
+	 * @return The settings model for the {@value #SEARCH_METHOD}
+	 */
+	static SettingsModelString createSearchMethodModel() {
+		return new SettingsModelString(SEARCH_METHOD,
+				SearchMethod.getDefault().getActionCommand());
+	}
+
+}
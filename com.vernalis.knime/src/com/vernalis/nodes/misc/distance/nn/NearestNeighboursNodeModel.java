@@ -0,0 +1,266 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.RowKey;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.BufferedDataTable;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionContext;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.InvalidSettingsException;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeModel;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.nodes.misc.distance.AbstractPointSearchNodeModel;
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.NeighbourList;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createIgnoreSameRowIdModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createMetricModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createNumNeighboursModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createQueryColumnModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createRadiusModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createReferenceColumnModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createSearchMethodModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createSearchTypeModel;
+import static com.vernalis.nodes.misc.distance.nn.NearestNeighboursNodeDialog.createSquareDistanceModel;
+
+/**
+ * {@link NodeModel} implementation for the Nearest Neighbours node. The
+ * reference points are packed into a primitive array (see
+ * {@link PackedPoints}) and indexed by a {@link NeighbourSearcher} - normally
+ * a {@link KdTree}, or a brute force search for verification. The query table
+ * is then read in blocks, which are searched in parallel on a sub-pool of the
+ * KNIME global thread pool, and written out in the query table order (see
+ * {@link AbstractPointSearchNodeModel})
+ *
+ * @author s.roughley
+ *
+ */
+public class NearestNeighboursNodeModel
+		extends AbstractPointSearchNodeModel {
+
+	/** The number of query points in a block */
+	private static final int BLOCK_SIZE = 256;
+
+	private final SettingsModelString queryColMdl =
+			registerSettingsModel(createQueryColumnModel());
+	private final SettingsModelString refColMdl =
+			registerSettingsModel(createReferenceColumnModel());
+	private final SettingsModelString metricMdl =
+			registerSettingsModel(createMetricModel());
+	private final SettingsModelBoolean sqrDistanceMdl =
+			registerSettingsModel(createSquareDistanceModel());
+	private final SettingsModelString searchTypeMdl =
+			registerSettingsModel(createSearchTypeModel());
+	private final SettingsModelIntegerBounded kMdl =
+			registerSettingsModel(createNumNeighboursModel());
+	private final SettingsModelDoubleBounded radiusMdl =
+			registerSettingsModel(createRadiusModel());
+	private final SettingsModelBoolean ignoreSameRowIdMdl =
+			registerSettingsModel(createIgnoreSameRowIdModel());
+	private final SettingsModelString searchMethodMdl =
+			registerSettingsModel(createSearchMethodModel());
+
+	private DistanceMetric metric;
+	private NeighbourSearchType searchType;
+	private SearchMethod searchMethod;
+
+	/**
+	 * Constructor
+	 */
+	public NearestNeighboursNodeModel() {
+		super();
+	}
+
+	@Override
+	protected DataTableSpec[] configure(DataTableSpec[] inSpecs)
+			throws InvalidSettingsException {
+		guessColumnName(inSpecs[0], queryColMdl, "query");
+		guessColumnName(inSpecs[1], refColMdl, "reference");
+		try {
+			metric = DistanceMetric.valueOf(metricMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown distance metric: " + metricMdl.getStringValue());
+		}
+		try {
+			searchType =
+					NeighbourSearchType.valueOf(searchTypeMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException(
+					"Unknown search type: " + searchTypeMdl.getStringValue());
+		}
+		try {
+			searchMethod = SearchMethod.valueOf(searchMethodMdl.getStringValue());
+		} catch (IllegalArgumentException | NullPointerException e) {
+			throw new InvalidSettingsException("Unknown search method: "
+					+ searchMethodMdl.getStringValue());
+		}
+		return new DataTableSpec[] { createOutputSpec() };
+	}
+
+	private DataTableSpec createOutputSpec() {
+		return new DataTableSpec(
+				new DataColumnSpecCreator("Query Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator("Neighbour Row ID", StringCell.TYPE)
+						.createSpec(),
+				new DataColumnSpecCreator(
+						(sqrDistanceMdl.getBooleanValue() ? "Squared-" : "")
+								+ (metric == DistanceMetric.EUCLIDEAN ? ""
+										: metric.getText() + " ")
+								+ "Distance",
+						DoubleCell.TYPE).createSpec(),
+				new DataColumnSpecCreator("Rank", IntCell.TYPE).createSpec());
+	}
+
+	@Override
+	protected BufferedDataTable[] execute(BufferedDataTable[] inData,
+			ExecutionContext exec) throws Exception {
+		final BufferedDataTable queryTable = inData[0];
+		final BufferedDataTable refTable = inData[1];
+		final int queryColIdx = queryTable.getDataTableSpec()
+				.findColumnIndex(queryColMdl.getStringValue());
+		final int refColIdx = refTable.getDataTableSpec()
+				.findColumnIndex(refColMdl.getStringValue());
+
+		// Load and index the reference points
+		exec.setMessage("Loading reference points");
+		final PackedPoints refs = loadReferencePoints(queryTable, queryColIdx,
+				refTable, refColIdx, exec.createSubProgress(0.1));
+		final Map<RowKey, Integer> refIndices;
+		if (ignoreSameRowIdMdl.getBooleanValue()) {
+			refIndices = new HashMap<>();
+			for (int r = 0; r < refs.size(); r++) {
+				refIndices.put(refs.getRowKey(r), r);
+			}
+		} else {
+			refIndices = null;
+		}
+		exec.setMessage("Indexing reference points");
+		final ThreadPool pool =
+				KNIMEConstants.GLOBAL_THREAD_POOL.createSubPool();
+		final NeighbourSearcher searcher = searchMethod.createSearcher(refs,
+				metric, sqrDistanceMdl.getBooleanValue(), pool,
+				exec.createSubProgress(0.1));
+
+		// Search for blocks of query points
+		exec.setMessage("Searching");
+		final int k = kMdl.getIntValue();
+		final double radius = radiusMdl.getDoubleValue();
+		final BufferedDataContainer cont =
+				exec.createDataContainer(createOutputSpec());
+		final long numMissing = processBlocks(queryTable, queryColIdx,
+				() -> new Block(refs.getNumDimensions(), BLOCK_SIZE),
+				(block, searchExec) -> search(block, searcher, refIndices, k,
+						radius, searchExec),
+				block -> writeBlock(block, refs, cont), pool,
+				exec.createSubProgress(0.8));
+		cont.close();
+
+		setMissingPointsWarning(numMissing, refs);
+		return new BufferedDataTable[] { cont.getTable() };
+	}
+
+	/**
+	 * Method to search for the neighbours of a block of query points
+	 *
+	 * @return The block of query points, with the sorted neighbours of each
+	 *         query point
+	 */
+	private Block search(Block block, NeighbourSearcher searcher,
+			Map<RowKey, Integer> refIndices, int k, double radius,
+			ExecutionMonitor exec) throws CanceledExecutionException {
+		final PackedPoints queries = block.getQueries();
+		block.neighbours = new NeighbourList[queries.size()];
+		final double[] coords = queries.getCoordinates();
+		for (int q = 0; q < queries.size(); q++) {
+			exec.checkCanceled();
+			if (queries.isMissing(q)) {
+				continue;
+			}
+			final int exclude = refIndices == null ? -1
+					: refIndices.getOrDefault(queries.getRowKey(q), -1);
+			final NeighbourList neighbours;
+			if (searchType == NeighbourSearchType.NEAREST) {
+				neighbours = new NeighbourList(k);
+				searcher.findNearest(coords, queries.getOffset(q), exclude,
+						neighbours);
+			} else {
+				neighbours = new NeighbourList(Integer.MAX_VALUE);
+				searcher.findWithinRadius(coords, queries.getOffset(q),
+						radius, exclude, neighbours);
+				neighbours.sort();
+			}
+			block.neighbours[q] = neighbours;
+		}
+		return block;
+	}
+
+	/**
+	 * Method to write the output rows for a completed block of query points
+	 */
+	private static void writeBlock(Block block, PackedPoints refs,
+			BufferedDataContainer cont) {
+		final PackedPoints queries = block.getQueries();
+		for (int q = 0; q < queries.size(); q++) {
+			final NeighbourList neighbours = block.neighbours[q];
+			if (neighbours == null) {
+				continue;
+			}
+			final DataCell queryIdCell =
+					new StringCell(queries.getRowKey(q).getString());
+			for (int i = 0; i < neighbours.size(); i++) {
+				cont.addRowToTable(new DefaultRow(
+						RowKey.createRowKey(cont.size()), queryIdCell,
+						new StringCell(refs.getRowKey(neighbours.getIndex(i))
+								.getString()),
+						new DoubleCell(neighbours.getDistance(i)),
+						new IntCell(i + 1)));
+			}
+		}
+	}
+
+	/**
+	 * A block of query points, and their neighbours
+	 */
+	private static final class Block extends QueryBlock {
+
+		private NeighbourList[] neighbours;
+
+		private Block(int numDims, int capacity) {
+			super(numDims, capacity);
+		}
+	}
+
+}
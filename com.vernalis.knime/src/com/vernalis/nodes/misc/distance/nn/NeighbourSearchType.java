@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+
+/**
+ * Enum of the types of search for the Nearest Neighbours node
+ *
+ * @author s.roughley
+ *
+ */
+public enum NeighbourSearchType implements ButtonGroupEnumInterface {
+
+	NEAREST("k nearest neighbours",
+			"The k nearest reference points to each query point"),
+
+	WITHIN_RADIUS("Neighbours within radius",
+			"All reference points within the radius of each query point");
+
+	private final String text;
+	private final String toolTip;
+
+	private NeighbourSearchType(String text, String toolTip) {
+		this.text = text;
+		this.toolTip = toolTip;
+	}
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return toolTip;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default search type
+	 */
+	public static NeighbourSearchType getDefault() {
+		return NEAREST;
+	}
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import com.vernalis.nodes.misc.distance.NeighbourList;
+
+/**
+ * Interface for a searchable set of reference points. Implementations must be
+ * safe to search from multiple threads once constructed. Distances are
+ * returned in the units of the metric the searcher was created with, i.e.
+ * squared if squared distances were requested
+ *
+ * @author s.roughley
+ *
+ */
+interface NeighbourSearcher {
+
+	/**
+	 * Method to find the nearest reference points to a query point
+	 *
+	 * @param query
+	 *            The array containing the query point coordinates
+	 * @param queryOffset
+	 *            The index of the first coordinate of the query point
+	 * @param exclude
+	 *            The index of a reference point to ignore, or {@code -1}
+	 * @param result
+	 *            The list to offer neighbours to, which determines the number
+	 *            of neighbours found
+	 */
+	void findNearest(double[] query, int queryOffset, int exclude,
+			NeighbourList result);
+
+	/**
+	 * Method to find all the reference points within a given distance of a
+	 * query point. The neighbours are added to the result in no particular
+	 * order
+	 *
+	 * @param query
+	 *            The array containing the query point coordinates
+	 * @param queryOffset
+	 *            The index of the first coordinate of the query point
+	 * @param radius
+	 *            The maximum distance
+	 * @param exclude
+	 *            The index of a reference point to ignore, or {@code -1}
+	 * @param result
+	 *            The list to add the neighbours to
+	 */
+	void findWithinRadius(double[] query, int queryOffset, double radius,
+			int exclude, NeighbourList result);
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026, Vernalis (R&D) Ltd
+ *  This program is free software; you can redistribute it and/or modify it
+ *  under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>
+ ******************************************************************************/
+package com.vernalis.nodes.misc.distance.nn;
+
+import java.util.concurrent.ExecutionException;
+
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
+import org.knime.core.node.util.ButtonGroupEnumInterface;
+import org.knime.core.util.ThreadPool;
+
+import com.vernalis.nodes.misc.distance.DistanceMetric;
+import com.vernalis.nodes.misc.distance.PackedPoints;
+
+/**
+ * Enum of the search methods for the Nearest Neighbours node. Both methods
+ * return identical results
+ *
+ * @author s.roughley
+ *
+ */
+public enum SearchMethod implements ButtonGroupEnumInterface {
+
+	KD_TREE("k-d tree",
+			"Build a k-d tree of the reference points, which is fastest for "
+					+ "low-dimensional points") {
+
+		@Override
+		NeighbourSearcher createSearcher(PackedPoints refs,
+				DistanceMetric metric, boolean squared, ThreadPool pool,
+				ExecutionMonitor exec) throws CanceledExecutionException,
+				InterruptedException, ExecutionException {
+			return new KdTree(refs, metric, squared, pool, exec);
+		}
+	},
+
+	BRUTE_FORCE("Brute force",
+			"Compare every query point with every reference point, e.g. to "
+					+ "verify the k-d tree results") {
+
+		@Override
+		NeighbourSearcher createSearcher(PackedPoints refs,
+				DistanceMetric metric, boolean squared, ThreadPool pool,
+				ExecutionMonitor exec) {
+			return new BruteForceSearcher(refs, metric, squared);
+		}
+	};
+
+	private final String text;
+	private final String toolTip;
+
+	private SearchMethod(String text, String toolTip) {
+		this.text = text;
+		this.toolTip = toolTip;
+	}
+
+	/**
+	 * Method to create the searcher for a set of reference points
+	 *
+	 * @param refs
+	 *            The reference points
+	 * @param metric
+	 *            The distance metric
+	 * @param squared
+	 *            Should squared distances be used?
+	 * @param pool
+	 *            The thread pool for any parallel indexing
+	 * @param exec
+	 *            The execution monitor for progress and cancellation
+	 * @return The searcher
+	 * @throws CanceledExecutionException
+	 *             If the user cancelled the execution
+	 * @throws InterruptedException
+	 *             If the thread was interrupted while indexing
+	 * @throws ExecutionException
+	 *             If the parallel indexing threw an exception
+	 */
+	abstract NeighbourSearcher createSearcher(PackedPoints refs,
+			DistanceMetric metric, boolean squared, ThreadPool pool,
+			ExecutionMonitor exec) throws CanceledExecutionException,
+			InterruptedException, ExecutionException;
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public String getActionCommand() {
+		return name();
+	}
+
+	@Override
+	public String getToolTip() {
+		return toolTip;
+	}
+
+	@Override
+	public boolean isDefault() {
+		return this == getDefault();
+	}
+
+	/**
+	 * @return The default search method
+	 */
+	public static SearchMethod getDefault() {
+		return KD_TREE;
+	}
+}